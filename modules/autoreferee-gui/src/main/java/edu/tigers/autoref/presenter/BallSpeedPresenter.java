@@ -1,20 +1,15 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoref.presenter;
 
 import java.awt.Component;
-import java.awt.EventQueue;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import javax.swing.Timer;
-
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.IConfigClient;
 import com.github.g3force.configurable.IConfigObserver;
@@ -39,8 +34,9 @@ import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
 /**
  * Presenter class that displays ball velocity data in a {@link FixedTimeRangeChartPanel} instance to create an
  * oscilloscope like effect where the graph line chases its own tail. To achieve this effect the chart only displays a
- * fixed amount of data points. The presenter calculates sets the buffer size of the chart accordingly to always have
- * the chart display enough dots to fill about 90 percent of the width.
+ * fixed amount of data points. The chart sets its buffer size to fill about 90 percent of the width.
+ * Every world frame is passed to the chart directly from the world predictor thread. The chart decimates the samples
+ * to its width and refreshes itself periodically, so the presenter does not schedule any work on the EDT.
  * The plot can be paused by the user. This would normally cause gaps in the plot where it was paused. These gaps also
  * distort the oscilloscope effect since the size of the data point buffer of the chart is set based on the assumption
  * that the entire x range is filled with data points. To circumvent this issue this class does not use the timestamps
@@ -51,10 +47,10 @@ import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
  * @author "Lukas Magel"
  */
 public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObserver, IModuliStateObserver,
-		IBallSpeedPanelListener, ActionListener
+		IBallSpeedPanelListener
 {
-	/** The period in ms at the end of which the chart is updated */
-	private static final int CHART_UPDATE_PERIOD = 50;
+	/** The maximum time step between two frames in ns, larger steps are caused by gaps in the world frames */
+	private static final long MAX_TIME_STEP = TimeUnit.MILLISECONDS.toNanos(100);
 	/** The absolute time range displayed in the chart in seconds */
 	private int timeRange = 20;
 	private boolean pauseWhenNotRunning = false;
@@ -62,8 +58,8 @@ public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObs
 	private boolean resumeRequested = false;
 	private PauseState chartState = PauseState.RUNNING;
 	private long curTime = 0L;
+	private long lastTimestamp = -1L;
 	private BallSpeedModel model = new BallSpeedModel();
-	private Timer chartTimer;
 	private BallSpeedPanel panel;
 	
 	
@@ -72,13 +68,10 @@ public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObs
 	 */
 	public BallSpeedPresenter()
 	{
-		panel = new BallSpeedPanel(getTimeRange(), TimeUnit.MILLISECONDS.toNanos(CHART_UPDATE_PERIOD));
+		panel = new BallSpeedPanel(getTimeRange());
 		panel.addObserver(this);
 		panel.setMaxBallVelocityLine(RuleConstraints.getMaxBallSpeed());
 		
-		chartTimer = new Timer(CHART_UPDATE_PERIOD, this);
-		chartTimer.setDelay(CHART_UPDATE_PERIOD);
-		
 		ConfigRegistration.registerConfigurableCallback("autoreferee", new IConfigObserver()
 		{
 			@Override
@@ -120,40 +113,28 @@ public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObs
 		
 		if (state == ModulesState.ACTIVE)
 		{
-			optPredictor.ifPresent(predictor -> {
-				predictor.addObserver(this);
-				chartTimer.start();
-			});
+			optPredictor.ifPresent(predictor -> predictor.addObserver(this));
 		} else if (state == ModulesState.RESOLVED)
 		{
-			chartTimer.stop();
 			optPredictor.ifPresent(predictor -> predictor.removeObserver(this));
 		}
 	}
 	
 	
 	@Override
-	public void onNewWorldFrame(final WorldFrameWrapper wFrameWrapper)
-	{
-		EventQueue.invokeLater(() -> model.update(wFrameWrapper));
-	}
-	
-	
-	@Override
-	public void actionPerformed(final ActionEvent e)
-	{
-		updateChart();
-		model.reset();
-	}
-	
-	
-	private void updateChart()
+	public synchronized void onNewWorldFrame(final WorldFrameWrapper wFrameWrapper)
 	{
+		model.update(wFrameWrapper);
 		updateChartState();
+		model.reset();
+		
+		long timestamp = wFrameWrapper.getTimestamp();
+		long timeStep = lastTimestamp < 0 ? 0 : Math.max(0, Math.min(timestamp - lastTimestamp, MAX_TIME_STEP));
+		lastTimestamp = timestamp;
 		
 		if (chartState == PauseState.RUNNING)
 		{
-			curTime += TimeUnit.MILLISECONDS.toNanos(CHART_UPDATE_PERIOD);
+			curTime += timeStep;
 			panel.addPoint(curTime, model.getLastBallSpeed());
 			panel.addInitialVelPoint(curTime, model.getLastEstimatedBallSpeed());
 		}
@@ -219,21 +200,21 @@ public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObs
 	
 	
 	@Override
-	public void pauseButtonPressed()
+	public synchronized void pauseButtonPressed()
 	{
 		pauseRequested = true;
 	}
 	
 	
 	@Override
-	public void resumeButtonPressed()
+	public synchronized void resumeButtonPressed()
 	{
 		resumeRequested = true;
 	}
 	
 	
 	@Override
-	public void stopChartValueChanged(final boolean value)
+	public synchronized void stopChartValueChanged(final boolean value)
 	{
 		pauseWhenNotRunning = value;
 		
@@ -259,7 +240,7 @@ public class BallSpeedPresenter implements ISumatraViewPresenter, IWorldFrameObs
 	
 	
 	@Override
-	public void timeRangeSliderValueChanged(final int value)
+	public synchronized void timeRangeSliderValueChanged(final int value)
 	{
 		timeRange = value;
 		panel.setTimeRange(getTimeRange());
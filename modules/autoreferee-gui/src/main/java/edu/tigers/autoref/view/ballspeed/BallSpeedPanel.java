@@ -33,9 +33,6 @@ public class BallSpeedPanel extends BasePanel<IBallSpeedPanelListener> implement
 	/**  */
 	private static final long			serialVersionUID	= -5641196573487059661L;
 	
-	/** in ns */
-	private final long					updatePeriod;
-	
 	private FixedTimeRangeChartPanel	chartPanel;
 	private JSlider						timeRangeSlider;
 	private JCheckBox						stopChartCheckbox;
@@ -48,12 +45,9 @@ public class BallSpeedPanel extends BasePanel<IBallSpeedPanelListener> implement
 	
 	/**
 	 * @param timeRange Displayed range in ns
-	 * @param updatePeriod update period of the chart in ns
 	 */
-	public BallSpeedPanel(final long timeRange, final long updatePeriod)
+	public BallSpeedPanel(final long timeRange)
 	{
-		this.updatePeriod = updatePeriod;
-		
 		setupUI(timeRange);
 	}
 	
@@ -118,7 +112,6 @@ public class BallSpeedPanel extends BasePanel<IBallSpeedPanelListener> implement
 	public void setTimeRange(final long timeRange)
 	{
 		chartPanel.setRange(timeRange);
-		chartPanel.setPointBufferSizeWithPeriod(updatePeriod);
 		chartPanel.clear();
 	}
 	
@@ -133,6 +126,8 @@ public class BallSpeedPanel extends BasePanel<IBallSpeedPanelListener> implement
 	
 	
 	/**
+	 * Can be called from any thread
+	 * 
 	 * @param time
 	 * @param velocity
 	 */
@@ -143,6 +138,8 @@ public class BallSpeedPanel extends BasePanel<IBallSpeedPanelListener> implement
 	
 	
 	/**
+	 * Can be called from any thread
+	 * 
 	 * @param time
 	 * @param velocity
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2016, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoref.view.generic;
 
@@ -10,11 +10,13 @@ import java.util.HashMap;
 import java.util.Map;
 
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import info.monitorenter.gui.chart.Chart2D;
 import info.monitorenter.gui.chart.IAxis;
 import info.monitorenter.gui.chart.ITracePoint2D;
 import info.monitorenter.gui.chart.rangepolicies.RangePolicyFixedViewport;
+import info.monitorenter.gui.chart.ITrace2D;
 import info.monitorenter.gui.chart.traces.Trace2DLtd;
 import info.monitorenter.gui.chart.traces.Trace2DSimple;
 import info.monitorenter.gui.chart.traces.painters.TracePainterDisc;
@@ -26,6 +28,10 @@ import info.monitorenter.util.Range;
  * This chart class displays time based values in a fixed time range like an Oscilloscope. To achieve this data points
  * are wrapped around if they exceed the displayed range. It uses a specialized painter class to avoid painting long
  * strokes which are caused by large differences in x.
+ * <p>
+ * Data points can be added from any thread at any rate. They are decimated with a {@link MinMaxDecimator} to one
+ * column per pixel and the completed columns are pushed to the chart in batches with a fixed refresh period. The
+ * work on the EDT is thereby bounded by the width of the chart and does not depend on the input rate.
  * 
  * @author "Lukas Magel"
  */
@@ -33,9 +39,18 @@ public class FixedTimeRangeChartPanel extends JPanel
 {
 	/**  */
 	private static final long				serialVersionUID	= -5176647826548801416L;
+	/** default period for pushing new data to the chart [ms] */
+	private static final int				DEFAULT_REFRESH_PERIOD	= 40;
+	/** number of columns until the chart has a size */
+	private static final int				DEFAULT_NUM_COLUMNS	= 500;
 	
 	private long								timeRange;
 	
+	private final transient MinMaxDecimator	mainSamples;
+	private final transient MinMaxDecimator	initialVelSamples;
+	private final Timer						refreshTimer		= new Timer(DEFAULT_REFRESH_PERIOD, e -> refresh());
+	private int									numColumns			= DEFAULT_NUM_COLUMNS;
+	
 	private Chart2D							mainChart			= new Chart2D();
 	private Trace2DLtd						mainTrace			= new Trace2DLtd();
 	private Trace2DLtd initialVelTrace = new Trace2DLtd();
@@ -52,6 +67,8 @@ public class FixedTimeRangeChartPanel extends JPanel
 	public FixedTimeRangeChartPanel(final long timeRange, final boolean highlightHead)
 	{
 		this.highlightHead = highlightHead;
+		mainSamples = new MinMaxDecimator(timeRange, numColumns);
+		initialVelSamples = new MinMaxDecimator(timeRange, numColumns);
 		
 		setLayout(new BorderLayout());
 		add(mainChart, BorderLayout.CENTER);
@@ -92,35 +109,120 @@ public class FixedTimeRangeChartPanel extends JPanel
 	}
 	
 	
+	@Override
+	public void addNotify()
+	{
+		super.addNotify();
+		refreshTimer.start();
+	}
+	
+	
+	@Override
+	public void removeNotify()
+	{
+		refreshTimer.stop();
+		super.removeNotify();
+	}
+	
+	
 	/**
-	 * Add a new data point to the chart
+	 * Add a new data point to the chart. This can be called from any thread.
+	 * The point will be shown with the next refresh.
 	 * 
 	 * @param timestamp in nanoseconds
 	 * @param y
 	 */
 	public void addPoint(final long timestamp, final double y)
 	{
-		double x = (timestamp % timeRange) / 1e9;
-		mainTrace.addPoint(x, y);
-		
-		if (highlightHead)
-		{
-			headTrace.addPoint(x, y);
-		}
+		mainSamples.add(timestamp, y);
 	}
 	
 	
 	/**
-	 * Add a new data point to the chart
+	 * Add a new data point to the chart. This can be called from any thread.
+	 * The point will be shown with the next refresh.
 	 *
 	 * @param timestamp in nanoseconds
 	 * @param y
 	 */
 	public void addInitialVelPoint(final long timestamp, final double y)
 	{
-		double x = (timestamp % timeRange) / 1e9;
-		initialVelTrace.addPoint(x, y);
+		initialVelSamples.add(timestamp, y);
+	}
+	
+	
+	/**
+	 * Set the period in which new data points are pushed to the chart
+	 * 
+	 * @param period in milliseconds
+	 */
+	public void setRefreshPeriod(final int period)
+	{
+		refreshTimer.setDelay(period);
+	}
+	
+	
+	/**
+	 * Push all decimated data points to the traces. Called periodically on the EDT.
+	 */
+	private void refresh()
+	{
+		int width = mainChart.getWidth();
+		if (width > 0 && width != numColumns)
+		{
+			// one column per pixel, old points keep their position, new ones use the new resolution
+			numColumns = width;
+			mainSamples.configure(timeRange, numColumns);
+			initialVelSamples.configure(timeRange, numColumns);
+			updatePointBufferSize();
+		}
 		
+		for (MinMaxDecimator.Column column : mainSamples.drain())
+		{
+			addColumn(mainTrace, column);
+		}
+		for (MinMaxDecimator.Column column : initialVelSamples.drain())
+		{
+			addColumn(initialVelTrace, column);
+		}
+		if (highlightHead)
+		{
+			mainSamples.getCurrent().ifPresent(column -> headTrace.addPoint(toX(column), column.getLast()));
+		}
+	}
+	
+	
+	/**
+	 * Add two points per column, the minimum and the maximum. The line leaves the column at the value that is closer
+	 * to the last value, so that it connects smoothly to the next column.
+	 */
+	private void addColumn(final ITrace2D trace, final MinMaxDecimator.Column column)
+	{
+		double x = toX(column);
+		if (column.getMax() - column.getLast() < column.getLast() - column.getMin())
+		{
+			trace.addPoint(x, column.getMin());
+			trace.addPoint(x, column.getMax());
+		} else
+		{
+			trace.addPoint(x, column.getMax());
+			trace.addPoint(x, column.getMin());
+		}
+	}
+	
+	
+	private double toX(final MinMaxDecimator.Column column)
+	{
+		return (column.getTimestamp() % timeRange) / 1e9;
+	}
+	
+	
+	/**
+	 * Two points per column for 90 percent of the width, the remaining 10 percent show the gap to the oldest points
+	 */
+	private void updatePointBufferSize()
+	{
+		setPointBufferSize((numColumns * 2 * 90) / 100);
 	}
 	
 	/**
@@ -189,6 +291,9 @@ public class FixedTimeRangeChartPanel extends JPanel
 	{
 		timeRange = range_ns;
 		mainChart.getAxisX().setRange(new Range(0, timeRange / 1e9));
+		mainSamples.configure(timeRange, numColumns);
+		initialVelSamples.configure(timeRange, numColumns);
+		updatePointBufferSize();
 	}
 	
 	
@@ -241,30 +346,16 @@ public class FixedTimeRangeChartPanel extends JPanel
 	}
 	
 	
-	/**
-	 * Calculates the data point buffer size of the chart to accomodate enough points to fill 90 percent of its width if
-	 * new data points arrive with a time delta (T) of {@code updatePeriod} nanoseconds.
-	 * 
-	 * @param updatePeriod in nanoseconds
-	 */
-	public void setPointBufferSizeWithPeriod(final long updatePeriod)
-	{
-		if (updatePeriod <= 0)
-		{
-			return;
-		}
-		
-		int requiredSize = (int) (((timeRange * 90) / 100) / updatePeriod);
-		setPointBufferSize(requiredSize);
-	}
-	
-	
 	/**
 	 * Remove all currently displayed data points
 	 */
 	public void clear()
 	{
+		mainSamples.clear();
+		initialVelSamples.clear();
 		mainTrace.removeAllPoints();
+		initialVelTrace.removeAllPoints();
+		headTrace.removeAllPoints();
 	}
 	
 	/**
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoref.view.generic;
+
+import lombok.Value;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+
+/**
+ * Decimates a time series to columns of equal duration and keeps minimum, maximum and last value of each column.
+ * With one column per pixel, a chart shows all peaks of the series, no matter how many samples arrive per pixel.
+ * <p>
+ * Samples can be added from any thread. Completed columns are collected until they are drained. At most one
+ * full range of columns is kept, so a consumer that falls behind only loses columns that it would overwrite anyway.
+ */
+public class MinMaxDecimator
+{
+	private final Deque<Column> completed = new ArrayDeque<>();
+
+	private int numColumns;
+	/** [ns] */
+	private long columnDuration;
+
+	private boolean hasCurrent = false;
+	private long currentIndex;
+	private double currentMin;
+	private double currentMax;
+	private double currentFirst;
+	private double currentLast;
+
+
+	/**
+	 * @param timeRange  the time range of all columns [ns]
+	 * @param numColumns the number of columns in the time range, usually the width of the chart in pixels
+	 */
+	public MinMaxDecimator(final long timeRange, final int numColumns)
+	{
+		configure(timeRange, numColumns);
+	}
+
+
+	/**
+	 * Change the resolution. All samples are removed.
+	 *
+	 * @param timeRange  the time range of all columns [ns]
+	 * @param numColumns the number of columns in the time range
+	 */
+	public synchronized void configure(final long timeRange, final int numColumns)
+	{
+		this.numColumns = Math.max(1, numColumns);
+		columnDuration = Math.max(1, timeRange / this.numColumns);
+		clear();
+	}
+
+
+	/**
+	 * Add the next sample. Samples are expected in order of their timestamps.
+	 * If the timestamp jumps back, a new column is started nevertheless.
+	 *
+	 * @param timestamp [ns]
+	 * @param value     the value of the sample
+	 */
+	public synchronized void add(final long timestamp, final double value)
+	{
+		long index = Math.floorDiv(timestamp, columnDuration);
+		if (hasCurrent && index == currentIndex)
+		{
+			currentMin = Math.min(currentMin, value);
+			currentMax = Math.max(currentMax, value);
+			currentLast = value;
+			return;
+		}
+		if (hasCurrent)
+		{
+			complete();
+		}
+		hasCurrent = true;
+		currentIndex = index;
+		currentMin = value;
+		currentMax = value;
+		currentFirst = value;
+		currentLast = value;
+	}
+
+
+	private void complete()
+	{
+		completed.addLast(currentColumn());
+		if (completed.size() > numColumns)
+		{
+			completed.removeFirst();
+		}
+	}
+
+
+	private Column currentColumn()
+	{
+		return new Column(currentIndex * columnDuration, currentMin, currentMax, currentFirst, currentLast);
+	}
+
+
+	/**
+	 * Remove and return all completed columns
+	 *
+	 * @return the completed columns since the last call, the oldest first
+	 */
+	public synchronized List<Column> drain()
+	{
+		List<Column> columns = new ArrayList<>(completed);
+		completed.clear();
+		return columns;
+	}
+
+
+	/**
+	 * @return the column that still receives samples, if there is any
+	 */
+	public synchronized Optional<Column> getCurrent()
+	{
+		return hasCurrent ? Optional.of(currentColumn()) : Optional.empty();
+	}
+
+
+	/**
+	 * Remove all samples
+	 */
+	public synchronized void clear()
+	{
+		completed.clear();
+		hasCurrent = false;
+	}
+
+
+	/**
+	 * @return the number of columns in the time range
+	 */
+	public synchronized int getNumColumns()
+	{
+		return numColumns;
+	}
+
+
+	/**
+	 * The summary of all samples within one column
+	 */
+	@Value
+	public static class Column
+	{
+		/** start of the column [ns] */
+		long timestamp;
+		double min;
+		double max;
+		/** value of the first sample in the column */
+		double first;
+		/** value of the last sample in the column */
+		double last;
+	}
+}
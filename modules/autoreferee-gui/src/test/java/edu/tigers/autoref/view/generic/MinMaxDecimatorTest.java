@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoref.view.generic;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class MinMaxDecimatorTest
+{
+	/** 10s in 1000 columns of 10ms */
+	private static final long TIME_RANGE = 10_000_000_000L;
+	private static final long COLUMN = 10_000_000L;
+
+
+	@Test
+	public void testMinMaxPerColumn()
+	{
+		MinMaxDecimator decimator = new MinMaxDecimator(TIME_RANGE, 1000);
+		decimator.add(0, 1);
+		decimator.add(2_000_000, 5);
+		decimator.add(4_000_000, -2);
+		decimator.add(6_000_000, 3);
+		decimator.add(COLUMN, 7);
+
+		List<MinMaxDecimator.Column> columns = decimator.drain();
+		assertThat(columns).containsExactly(new MinMaxDecimator.Column(0, -2, 5, 1, 3));
+		assertThat(decimator.getCurrent()).contains(new MinMaxDecimator.Column(COLUMN, 7, 7, 7, 7));
+		assertThat(decimator.drain()).isEmpty();
+	}
+
+
+	@Test
+	public void testPeakIsKept()
+	{
+		MinMaxDecimator decimator = new MinMaxDecimator(TIME_RANGE, 1000);
+		// 10kHz input with a single peak of one sample
+		for (long t = 0; t < 2 * COLUMN; t += 100_000)
+		{
+			decimator.add(t, t == 1_300_000 ? 8 : 0.5);
+		}
+		decimator.add(2 * COLUMN, 0);
+
+		List<MinMaxDecimator.Column> columns = decimator.drain();
+		assertThat(columns).hasSize(2);
+		assertThat(columns.get(0).getMax()).isEqualTo(8);
+		assertThat(columns.get(1).getMax()).isEqualTo(0.5);
+	}
+
+
+	@Test
+	public void testNumberOfColumnsIndependentOfInputRate()
+	{
+		for (long period : new long[] { 16_000_000, 1_000_000, 10_000 })
+		{
+			MinMaxDecimator decimator = new MinMaxDecimator(TIME_RANGE, 1000);
+			for (long t = 0; t <= 5_000_000_000L; t += period)
+			{
+				decimator.add(t, Math.sin(t * 1e-9));
+			}
+			// at most one column per 10ms
+			assertThat(decimator.drain()).hasSizeLessThanOrEqualTo(500);
+		}
+	}
+
+
+	@Test
+	public void testBoundedBacklog()
+	{
+		MinMaxDecimator decimator = new MinMaxDecimator(TIME_RANGE, 100);
+		for (long t = 0; t < 5 * TIME_RANGE; t += 1_000_000)
+		{
+			decimator.add(t, 1);
+		}
+
+		List<MinMaxDecimator.Column> columns = decimator.drain();
+		assertThat(columns).hasSize(100);
+		// the newest columns are kept
+		assertThat(columns.get(99).getTimestamp()).isEqualTo(5 * TIME_RANGE - 2 * (TIME_RANGE / 100));
+	}
+
+
+	@Test
+	public void testConfigureClears()
+	{
+		MinMaxDecimator decimator = new MinMaxDecimator(TIME_RANGE, 1000);
+		decimator.add(0, 1);
+		decimator.add(COLUMN, 1);
+		decimator.configure(TIME_RANGE, 500);
+
+		assertThat(decimator.drain()).isEmpty();
+		assertThat(decimator.getCurrent()).isEmpty();
+		assertThat(decimator.getNumColumns()).isEqualTo(500);
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.clock;
+
+/**
+ * A source of time for all components that would otherwise read the system time directly.
+ * <p>
+ * The {@link RealTimeClock} follows the system time, the {@link VirtualClock} only advances when it is driven by
+ * the timestamps of the input data. Use {@link SumatraClock} to access the clock of the application.
+ */
+public interface IClock
+{
+	/**
+	 * @return the current time of a monotonic clock [ns], comparable to {@link System#nanoTime()}
+	 */
+	long nanoTime();
+
+
+	/**
+	 * @return the current wall time [ms] since the unix epoch, comparable to {@link System#currentTimeMillis()}
+	 */
+	long currentTimeMillis();
+
+
+	/**
+	 * Block the current thread for at most the given time. Like {@link java.util.concurrent.locks.LockSupport#parkNanos},
+	 * this may return early, so callers should check the remaining time with {@link #nanoTime()}.
+	 *
+	 * @param nanos the time to wait [ns]
+	 */
+	void parkNanos(long nanos);
+
+
+	/**
+	 * Run a task periodically with a fixed rate in the time of this clock.
+	 *
+	 * @param name           the name of the task, used for the executing thread, if there is one
+	 * @param task           the task to run
+	 * @param initialDelayNs the delay before the first execution [ns]
+	 * @param periodNs       the period between the start of two executions [ns]
+	 * @return a handle to cancel the task
+	 */
+	IClockTask scheduleAtFixedRate(String name, Runnable task, long initialDelayNs, long periodNs);
+}
@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.clock;
+
+/**
+ * A task that was scheduled with {@link IClock#scheduleAtFixedRate}.
+ */
+public interface IClockTask
+{
+	/**
+	 * Stop any further execution of the task. An execution that is currently running is not interrupted.
+	 */
+	void cancel();
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.clock;
+
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * The default clock, which is based on the system time.
+ */
+public class RealTimeClock implements IClock
+{
+	@Override
+	public long nanoTime()
+	{
+		return System.nanoTime();
+	}
+
+
+	@Override
+	public long currentTimeMillis()
+	{
+		return System.currentTimeMillis();
+	}
+
+
+	@Override
+	public void parkNanos(final long nanos)
+	{
+		LockSupport.parkNanos(nanos);
+	}
+
+
+	@Override
+	public IClockTask scheduleAtFixedRate(final String name, final Runnable task, final long initialDelayNs,
+			final long periodNs)
+	{
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(name));
+		executor.scheduleAtFixedRate(task, initialDelayNs, periodNs, TimeUnit.NANOSECONDS);
+		return executor::shutdown;
+	}
+}
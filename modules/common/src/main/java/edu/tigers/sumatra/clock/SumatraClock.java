@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.clock;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+
+/**
+ * Holds the {@link IClock} of the application. This is a {@link RealTimeClock} by default and can be replaced by a
+ * {@link VirtualClock} to run recorded or simulated input faster than real time and deterministically.
+ * <p>
+ * The clock should be replaced before any module is started.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class SumatraClock
+{
+	private static volatile IClock clock = new RealTimeClock();
+
+
+	/**
+	 * @return the current clock
+	 */
+	public static IClock get()
+	{
+		return clock;
+	}
+
+
+	/**
+	 * @param clock the new clock
+	 */
+	public static void set(final IClock clock)
+	{
+		SumatraClock.clock = clock;
+	}
+
+
+	/**
+	 * Switch back to the real time clock
+	 */
+	public static void reset()
+	{
+		clock = new RealTimeClock();
+	}
+
+
+	/**
+	 * @return the current time of the clock [ns]
+	 * @see IClock#nanoTime()
+	 */
+	public static long nanoTime()
+	{
+		return clock.nanoTime();
+	}
+
+
+	/**
+	 * @return the current wall time of the clock [ms]
+	 * @see IClock#currentTimeMillis()
+	 */
+	public static long currentTimeMillis()
+	{
+		return clock.currentTimeMillis();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.clock;
 
@@ -21,18 +21,21 @@ public final class ThreadUtil
 	 * <p>
 	 * <b>NOTE: Calling {@link LockSupport#unpark(Thread)} on this thread has no effect!!! </b>
 	 * </p>
+	 * The time is measured with the {@link SumatraClock}, so with a {@link VirtualClock}, this thread sleeps until the
+	 * virtual time has advanced accordingly.
 	 *
 	 * @param sleepTotal The time this thread should sleep [ns]
 	 */
 	public static void parkNanosSafe(final long sleepTotal)
 	{
-		final long sleepStart = System.nanoTime();
+		final IClock clock = SumatraClock.get();
+		final long sleepStart = clock.nanoTime();
 		long stillSleep = sleepTotal;
 
 		do
 		{
-			LockSupport.parkNanos(stillSleep);
-			long timeSinceStart = System.nanoTime() - sleepStart;
+			clock.parkNanos(stillSleep);
+			long timeSinceStart = clock.nanoTime() - sleepStart;
 			stillSleep = sleepTotal - timeSinceStart;
 		} while (stillSleep > 0);
 	}
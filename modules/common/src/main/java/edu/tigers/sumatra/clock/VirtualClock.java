@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.clock;
+
+import org.apache.commons.lang.Validate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * A clock that only advances when it is driven by the timestamps of the input data, e.g. the capture timestamps of
+ * recorded or simulated camera frames.
+ * <p>
+ * The time is given in [ns] since the unix epoch, like the timestamps of the vision. It starts with the first call to
+ * {@link #advanceTo(long)}. Periodic tasks are executed on the thread that advances the clock, in the order of their
+ * execution time, with the clock set to the execution time. Input can thus be processed as fast as possible and
+ * the result only depends on the input, not on the speed of the machine.
+ */
+public class VirtualClock implements IClock
+{
+	private final Object timeLock = new Object();
+	private final List<Task> tasks = new CopyOnWriteArrayList<>();
+
+	private volatile long now = 0;
+	private boolean started = false;
+
+
+	/**
+	 * Advance the time to the given timestamp and run all periodic tasks that are due until then.
+	 * Timestamps before the current time are ignored, so the time never goes backwards.
+	 *
+	 * @param timestamp the new time [ns]
+	 */
+	public synchronized void advanceTo(final long timestamp)
+	{
+		if (!started)
+		{
+			started = true;
+			tasks.forEach(task -> task.nextExecution += timestamp);
+			setTime(timestamp);
+			return;
+		}
+
+		Task task;
+		while ((task = nextDueTask(timestamp)) != null)
+		{
+			setTime(task.nextExecution);
+			task.nextExecution += task.periodNs;
+			task.runnable.run();
+		}
+		setTime(timestamp);
+	}
+
+
+	private Task nextDueTask(final long timestamp)
+	{
+		Task next = null;
+		for (Task task : tasks)
+		{
+			if (!task.cancelled && task.nextExecution <= timestamp
+					&& (next == null || task.nextExecution < next.nextExecution))
+			{
+				next = task;
+			}
+		}
+		return next;
+	}
+
+
+	private void setTime(final long timestamp)
+	{
+		synchronized (timeLock)
+		{
+			if (timestamp > now)
+			{
+				now = timestamp;
+				timeLock.notifyAll();
+			}
+		}
+	}
+
+
+	@Override
+	public long nanoTime()
+	{
+		return now;
+	}
+
+
+	@Override
+	public long currentTimeMillis()
+	{
+		return now / 1_000_000;
+	}
+
+
+	/**
+	 * Wait until the clock was advanced by the given time or the thread is interrupted.
+	 * <p>
+	 * <b>NOTE: This blocks forever, if the clock is not advanced by another thread.</b>
+	 * </p>
+	 *
+	 * @param nanos the time to wait [ns]
+	 */
+	@Override
+	public void parkNanos(final long nanos)
+	{
+		synchronized (timeLock)
+		{
+			long deadline = now + nanos;
+			while (now < deadline)
+			{
+				try
+				{
+					timeLock.wait();
+				} catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+
+	@Override
+	public synchronized IClockTask scheduleAtFixedRate(final String name, final Runnable task,
+			final long initialDelayNs, final long periodNs)
+	{
+		Validate.isTrue(periodNs > 0, "The period must be positive");
+		Task clockTask = new Task(task, periodNs, (started ? now : 0) + initialDelayNs);
+		tasks.add(clockTask);
+		return clockTask;
+	}
+
+
+	private class Task implements IClockTask
+	{
+		final Runnable runnable;
+		final long periodNs;
+		long nextExecution;
+		volatile boolean cancelled = false;
+
+
+		Task(final Runnable runnable, final long periodNs, final long nextExecution)
+		{
+			this.runnable = runnable;
+			this.periodNs = periodNs;
+			this.nextExecution = nextExecution;
+		}
+
+
+		@Override
+		public void cancel()
+		{
+			cancelled = true;
+			tasks.remove(this);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.data;
@@ -8,7 +8,7 @@ package edu.tigers.sumatra.data;
 public interface ITimestampBased
 {
 	/**
-	 * @return the timestamp based on {@link System#nanoTime()}
+	 * @return the timestamp based on {@link edu.tigers.sumatra.clock.SumatraClock#nanoTime()}
 	 */
 	long getTimestamp();
 }
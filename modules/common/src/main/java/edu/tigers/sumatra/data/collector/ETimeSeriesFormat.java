@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+/**
+ * File formats of exported time series
+ */
+public enum ETimeSeriesFormat
+{
+	/**
+	 * Primitive columns in chunks, see {@link TimeSeriesReader}
+	 */
+	BINARY(".tsb"),
+	/**
+	 * Comma separated values with a header line, like {@link edu.tigers.sumatra.export.CSVExporter}
+	 */
+	CSV(".csv"),
+
+	;
+
+	private final String extension;
+
+
+	ETimeSeriesFormat(final String extension)
+	{
+		this.extension = extension;
+	}
+
+
+	public String getExtension()
+	{
+		return extension;
+	}
+}
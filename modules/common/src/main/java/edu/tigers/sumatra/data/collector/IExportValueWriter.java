@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+/**
+ * Receives the values of a single {@link IExportable} without boxing them.
+ * The values are passed in the order of {@link IExportable#getHeaders()}.
+ */
+public interface IExportValueWriter
+{
+	/**
+	 * @param value the next integral value
+	 */
+	void writeLong(long value);
+
+
+	/**
+	 * @param value the next floating point value
+	 */
+	void writeDouble(double value);
+
+
+	/**
+	 * Write a boxed value, choosing the primitive type by the type of the number
+	 *
+	 * @param value the next value
+	 */
+	default void writeNumber(Number value)
+	{
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+		{
+			writeLong(value.longValue());
+		} else
+		{
+			writeDouble(value.doubleValue());
+		}
+	}
+}
@@ -4,6 +4,7 @@
 
 package edu.tigers.sumatra.data.collector;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -22,4 +23,49 @@ public interface IExportable extends INumberListable
 	{
 		return Collections.emptyList();
 	}
+
+
+	/**
+	 * Write the values of {@link INumberListable#getNumberList()} to the given writer.
+	 * Override this for data that is exported at a high rate to avoid creating the boxed number list.
+	 *
+	 * @param writer the receiver of the values
+	 */
+	default void writeValues(final IExportValueWriter writer)
+	{
+		for (Number number : getNumberList())
+		{
+			writer.writeNumber(number);
+		}
+	}
+
+
+	/**
+	 * Collect the values of {@link #writeValues(IExportValueWriter)} into a number list.
+	 * An exportable that overrides {@link #writeValues(IExportValueWriter)} can implement
+	 * {@link INumberListable#getNumberList()} with this, so that its columns are only defined once.
+	 *
+	 * @param exportable an exportable that overrides {@link #writeValues(IExportValueWriter)}
+	 * @return the written values, integral values as {@link Long} and floating point values as {@link Double}
+	 */
+	static List<Number> collectValues(final IExportable exportable)
+	{
+		List<Number> numbers = new ArrayList<>();
+		exportable.writeValues(new IExportValueWriter()
+		{
+			@Override
+			public void writeLong(final long value)
+			{
+				numbers.add(value);
+			}
+
+
+			@Override
+			public void writeDouble(final double value)
+			{
+				numbers.add(value);
+			}
+		});
+		return numbers;
+	}
 }
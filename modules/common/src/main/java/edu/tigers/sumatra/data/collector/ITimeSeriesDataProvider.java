@@ -1,10 +1,11 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.data.collector;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 
@@ -14,15 +15,33 @@ import java.util.Map;
 public interface ITimeSeriesDataProvider
 {
 	/**
+	 * Data that was not streamed to the sink is exported from these buffers when the collector stops.
+	 *
 	 * @return a map of all exportable data buffers
 	 */
-	Map<String, Collection<IExportable>> getExportableData();
+	default Map<String, Collection<IExportable>> getExportableData()
+	{
+		return Collections.emptyMap();
+	}
 	
 	
 	/**
 	 * Do your stuff when the collectors starts
 	 */
-	void start();
+	default void start()
+	{
+	}
+	
+	
+	/**
+	 * Do your stuff when the collectors starts. Samples passed to the sink are written while collecting.
+	 * 
+	 * @param sink the sink for the samples of this provider
+	 */
+	default void start(final ITimeSeriesDataSink sink)
+	{
+		start();
+	}
 	
 	
 	/**
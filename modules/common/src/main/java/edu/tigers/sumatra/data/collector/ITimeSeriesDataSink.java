@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import java.util.Collection;
+
+
+/**
+ * Receives the samples of time series data providers while the collector is running.
+ * All samples with the same name form one time series and must have the same values.
+ */
+public interface ITimeSeriesDataSink
+{
+	/**
+	 * @param name   the name of the time series
+	 * @param sample the next sample
+	 */
+	void add(String name, IExportable sample);
+
+
+	/**
+	 * @param name    the name of the time series
+	 * @param samples the next samples
+	 */
+	default void addAll(String name, Collection<? extends IExportable> samples)
+	{
+		for (IExportable sample : samples)
+		{
+			add(name, sample);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.data.collector;
@@ -9,10 +9,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -28,7 +30,10 @@ import edu.tigers.sumatra.thread.NamedThreadFactory;
 
 
 /**
- * This is a asynchronous data collector that writes multiple timeseries data streams into a common folder
+ * This is a asynchronous data collector that writes multiple timeseries data streams into a common folder.
+ * <p>
+ * Data that providers pass to the sink is streamed to disk while collecting, in the configured formats.
+ * Data that providers buffer in {@link ITimeSeriesDataProvider#getExportableData()} is exported as CSV at the end.
  */
 public class TimeSeriesDataCollector implements Runnable
 {
@@ -38,6 +43,8 @@ public class TimeSeriesDataCollector implements Runnable
 	private final List<ITimeSeriesDataCollectorObserver> observers = new CopyOnWriteArrayList<>();
 	private final List<ITimeSeriesDataProvider> dataProviders = new ArrayList<>();
 	private ScheduledExecutorService executorService;
+	private Set<ETimeSeriesFormat> exportFormats = EnumSet.allOf(ETimeSeriesFormat.class);
+	private TimeSeriesStreamExporter streamExporter;
 
 	private long startTime;
 	private long time2Stop = 0;
@@ -147,8 +154,13 @@ public class TimeSeriesDataCollector implements Runnable
 	 */
 	public boolean start()
 	{
+		if (!createFolder(baseFolder))
+		{
+			return false;
+		}
 		startTime = System.nanoTime();
-		dataProviders.forEach(ITimeSeriesDataProvider::start);
+		streamExporter = new TimeSeriesStreamExporter(baseFolder, exportFormats);
+		dataProviders.forEach(provider -> provider.start(streamExporter));
 		executorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory(getClass().getSimpleName()));
 		executorService.scheduleAtFixedRate(this::stopIfDone, 1000, 500, TimeUnit.MILLISECONDS);
 		log.debug("Started.");
@@ -212,6 +224,7 @@ public class TimeSeriesDataCollector implements Runnable
 	@Override
 	public final void run()
 	{
+		streamExporter.close();
 		exportCsvFiles(baseFolder);
 		String fullFileName = exportMetadata();
 		notifyPostProcessing(fullFileName);
@@ -239,20 +252,25 @@ public class TimeSeriesDataCollector implements Runnable
 	}
 
 
-	private void exportCsvFiles(final String folder)
+	private boolean createFolder(final String folder)
 	{
 		File dir = new File(folder);
 		if (dir.exists())
 		{
 			log.error("Target folder already exists: {}", folder);
-			return;
+			return false;
 		}
 		if (!dir.mkdirs())
 		{
 			log.error("Can not create target folder: {}", folder);
-			return;
+			return false;
 		}
+		return true;
+	}
+
 
+	private void exportCsvFiles(final String folder)
+	{
 		dataProviders.forEach(
 				provider -> provider.getExportableData()
 						.forEach(
@@ -269,6 +287,19 @@ public class TimeSeriesDataCollector implements Runnable
 	}
 
 
+	/**
+	 * Set the formats of the streamed time series. Must be called before {@link #start()}.
+	 *
+	 * @param exportFormats the formats to write
+	 */
+	public final void setExportFormats(final Set<ETimeSeriesFormat> exportFormats)
+	{
+		this.exportFormats = exportFormats.isEmpty()
+				? EnumSet.noneOf(ETimeSeriesFormat.class)
+				: EnumSet.copyOf(exportFormats);
+	}
+
+
 	/**
 	 * @param timeout the timeout to set
 	 */
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Reads time series that were written in the {@link ETimeSeriesFormat#BINARY} format for offline analysis.
+ * <p>
+ * The file starts with a header containing a magic number, the format version, the number of columns and the
+ * type and name of each column. It is followed by chunks, each starting with the number of rows, followed by the
+ * values of each column. All numbers are big-endian and doubles are stored by their raw long bits.
+ */
+public final class TimeSeriesReader
+{
+	private TimeSeriesReader()
+	{
+	}
+
+
+	/**
+	 * Read a complete time series into memory
+	 *
+	 * @param file the binary time series file
+	 * @return the columns of the time series
+	 * @throws IOException if the file could not be read or is not a binary time series
+	 */
+	public static TimeSeriesTable read(final Path file) throws IOException
+	{
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if (in.readInt() != TimeSeriesStreamWriter.MAGIC)
+			{
+				throw new IOException("Not a binary time series file: " + file);
+			}
+			int version = in.readInt();
+			if (version != TimeSeriesStreamWriter.VERSION)
+			{
+				throw new IOException("Unsupported time series version " + version + ": " + file);
+			}
+
+			int numColumns = in.readInt();
+			byte[] types = new byte[numColumns];
+			List<String> headers = new ArrayList<>(numColumns);
+			for (int c = 0; c < numColumns; c++)
+			{
+				types[c] = in.readByte();
+				headers.add(in.readUTF());
+			}
+
+			long[][] columns = new long[numColumns][1024];
+			int numRows = 0;
+			int chunkRows;
+			while ((chunkRows = readChunkSize(in)) >= 0)
+			{
+				for (int c = 0; c < numColumns; c++)
+				{
+					if (columns[c].length < numRows + chunkRows)
+					{
+						columns[c] = Arrays.copyOf(columns[c], Math.max(columns[c].length * 2, numRows + chunkRows));
+					}
+					for (int r = 0; r < chunkRows; r++)
+					{
+						columns[c][numRows + r] = in.readLong();
+					}
+				}
+				numRows += chunkRows;
+			}
+
+			for (int c = 0; c < numColumns; c++)
+			{
+				columns[c] = Arrays.copyOf(columns[c], numRows);
+			}
+			return new TimeSeriesTable(Collections.unmodifiableList(headers), types, columns, numRows);
+		}
+	}
+
+
+	private static int readChunkSize(final DataInputStream in) throws IOException
+	{
+		try
+		{
+			return in.readInt();
+		} catch (EOFException e)
+		{
+			return -1;
+		}
+	}
+}
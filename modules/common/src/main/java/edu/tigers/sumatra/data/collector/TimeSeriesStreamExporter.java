@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import org.apache.commons.lang.Validate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Streams time series into a folder while they are collected, one file per time series and format.
+ * <p>
+ * Samples are converted to primitive columns immediately and written in chunks by a single background thread,
+ * so the memory does not grow with the duration of the capture and there is no long export at the end.
+ * The memory per time series is limited to {@code maxChunksPerSeries * chunkSize} rows.
+ */
+public class TimeSeriesStreamExporter implements ITimeSeriesDataSink, Closeable
+{
+	private static final Logger log = LogManager.getLogger(TimeSeriesStreamExporter.class.getName());
+
+	private static final int DEFAULT_CHUNK_SIZE = 4096;
+	private static final int DEFAULT_MAX_CHUNKS_PER_SERIES = 4;
+
+	private final Path folder;
+	private final Set<ETimeSeriesFormat> formats;
+	private final int chunkSize;
+	private final int maxChunksPerSeries;
+	private final Map<String, TimeSeriesStreamWriter> writers = new ConcurrentHashMap<>();
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(
+			new NamedThreadFactory(getClass().getSimpleName()));
+	private volatile boolean closed = false;
+
+
+	/**
+	 * @param folder  the target folder
+	 * @param formats the formats to write
+	 */
+	public TimeSeriesStreamExporter(final String folder, final Set<ETimeSeriesFormat> formats)
+	{
+		this(folder, formats, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_CHUNKS_PER_SERIES);
+	}
+
+
+	/**
+	 * @param folder             the target folder
+	 * @param formats            the formats to write
+	 * @param chunkSize          the number of rows that are written at once
+	 * @param maxChunksPerSeries the number of chunks per time series that may wait for the background writer
+	 */
+	public TimeSeriesStreamExporter(final String folder, final Set<ETimeSeriesFormat> formats, final int chunkSize,
+			final int maxChunksPerSeries)
+	{
+		Validate.isTrue(chunkSize > 0, "The chunk size must be positive");
+		Validate.isTrue(maxChunksPerSeries > 0, "The number of chunks must be positive");
+		this.folder = Paths.get(folder);
+		this.formats = formats.isEmpty() ? EnumSet.noneOf(ETimeSeriesFormat.class) : EnumSet.copyOf(formats);
+		this.chunkSize = chunkSize;
+		this.maxChunksPerSeries = maxChunksPerSeries;
+	}
+
+
+	@Override
+	public void add(final String name, final IExportable sample)
+	{
+		if (closed)
+		{
+			log.debug("Ignoring sample of {} after the export was closed", name);
+			return;
+		}
+		writers.computeIfAbsent(name, this::createWriter).append(sample);
+	}
+
+
+	private TimeSeriesStreamWriter createWriter(final String name)
+	{
+		return new TimeSeriesStreamWriter(folder, name, formats, executor, chunkSize, maxChunksPerSeries);
+	}
+
+
+	/**
+	 * @return the number of samples per time series that were added so far
+	 */
+	public Map<String, Long> getNumSamples()
+	{
+		Map<String, Long> numSamples = new TreeMap<>();
+		writers.forEach((name, writer) -> numSamples.put(name, writer.getNumRows()));
+		return Collections.unmodifiableMap(numSamples);
+	}
+
+
+	/**
+	 * Write all remaining samples and wait until all files are closed.
+	 */
+	@Override
+	public void close()
+	{
+		closed = true;
+		writers.values().forEach(TimeSeriesStreamWriter::close);
+		executor.shutdown();
+		try
+		{
+			if (!executor.awaitTermination(1, TimeUnit.MINUTES))
+			{
+				log.warn("Time series export did not finish in time: {}", folder);
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			log.warn("Interrupted while waiting for the time series export", e);
+		}
+		log.debug("Streamed time series to {}: {}", folder, getNumSamples());
+	}
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+
+
+/**
+ * Writes a single time series incrementally to disk.
+ * <p>
+ * Samples are converted to primitive values into fixed-size chunks when they are added. Full chunks are written by
+ * the given executor, which is expected to be a single background thread. The number of chunks per series is
+ * limited, so if the background writer can not keep up, adding samples blocks until a chunk was written.
+ * <p>
+ * The column types are taken from the first sample. Integral values are stored as long, all others as double.
+ */
+class TimeSeriesStreamWriter implements IExportValueWriter
+{
+	private static final Logger log = LogManager.getLogger(TimeSeriesStreamWriter.class.getName());
+
+	static final int MAGIC = 0x54534230;
+	static final int VERSION = 1;
+	static final byte TYPE_LONG = 0;
+	static final byte TYPE_DOUBLE = 1;
+
+	private final Path folder;
+	private final String name;
+	private final Set<ETimeSeriesFormat> formats;
+	private final Executor executor;
+	private final int chunkSize;
+	private final int maxChunks;
+
+	private final BlockingQueue<Chunk> freeChunks;
+	private int numAllocatedChunks = 0;
+
+	private List<String> headers;
+	private String csvHeader;
+	private byte[] types;
+	private Chunk chunk;
+	private int column;
+	private boolean mismatchReported = false;
+	private long numRows = 0;
+	private boolean closed = false;
+
+	// only accessed by the executor
+	private FileChannel binaryChannel;
+	private ByteBuffer binaryBuffer;
+	private Writer csvWriter;
+	private final StringBuilder csvLine = new StringBuilder();
+	private boolean opened = false;
+	private boolean failed = false;
+
+
+	TimeSeriesStreamWriter(final Path folder, final String name, final Set<ETimeSeriesFormat> formats,
+			final Executor executor, final int chunkSize, final int maxChunks)
+	{
+		this.folder = folder;
+		this.name = name;
+		this.formats = formats;
+		this.executor = executor;
+		this.chunkSize = chunkSize;
+		this.maxChunks = maxChunks;
+		freeChunks = new ArrayBlockingQueue<>(maxChunks);
+	}
+
+
+	/**
+	 * Add a sample. Samples that are added after {@link #close()} are ignored.
+	 *
+	 * @param sample the next sample
+	 */
+	synchronized void append(final IExportable sample)
+	{
+		if (closed)
+		{
+			return;
+		}
+		if (types == null)
+		{
+			initColumns(sample);
+		}
+		if (chunk == null)
+		{
+			chunk = nextChunk();
+			if (chunk == null)
+			{
+				return;
+			}
+		}
+
+		column = 0;
+		sample.writeValues(this);
+		if (column != types.length)
+		{
+			reportMismatch(column);
+			for (; column < types.length; column++)
+			{
+				chunk.values[column * chunkSize + chunk.numRows] = emptyValue(types[column]);
+			}
+		}
+		chunk.numRows++;
+		numRows++;
+
+		if (chunk.numRows == chunkSize)
+		{
+			submit(chunk);
+			chunk = null;
+		}
+	}
+
+
+	/**
+	 * Write the remaining samples and close the files afterwards on the background writer
+	 */
+	synchronized void close()
+	{
+		closed = true;
+		if (chunk != null && chunk.numRows > 0)
+		{
+			submit(chunk);
+		}
+		chunk = null;
+		executor.execute(this::closeFiles);
+	}
+
+
+	synchronized long getNumRows()
+	{
+		return numRows;
+	}
+
+
+	@Override
+	public void writeLong(final long value)
+	{
+		if (column < types.length)
+		{
+			chunk.values[column * chunkSize + chunk.numRows] = types[column] == TYPE_LONG
+					? value
+					: Double.doubleToRawLongBits(value);
+		}
+		column++;
+	}
+
+
+	@Override
+	public void writeDouble(final double value)
+	{
+		if (column < types.length)
+		{
+			chunk.values[column * chunkSize + chunk.numRows] = types[column] == TYPE_DOUBLE
+					? Double.doubleToRawLongBits(value)
+					: (long) value;
+		}
+		column++;
+	}
+
+
+	private void initColumns(final IExportable sample)
+	{
+		ByteList firstTypes = new ByteList();
+		sample.writeValues(firstTypes);
+		types = firstTypes.toArray();
+		headers = new ArrayList<>(sample.getHeaders());
+		csvHeader = headers.isEmpty() ? null : String.join(",", headers);
+		if (csvHeader != null && headers.size() != types.length)
+		{
+			log.warn("Number of headers ({}) and number of values ({}) do not match for {}", headers.size(),
+					types.length, name);
+		}
+		while (headers.size() < types.length)
+		{
+			headers.add("value" + headers.size());
+		}
+	}
+
+
+	private void reportMismatch(final int numValues)
+	{
+		if (!mismatchReported)
+		{
+			mismatchReported = true;
+			log.warn("Number of values ({}) does not match the first sample ({}) for {}", numValues, types.length, name);
+		}
+	}
+
+
+	private long emptyValue(final byte type)
+	{
+		return type == TYPE_DOUBLE ? Double.doubleToRawLongBits(Double.NaN) : 0;
+	}
+
+
+	private Chunk nextChunk()
+	{
+		Chunk next = freeChunks.poll();
+		if (next != null)
+		{
+			return next;
+		}
+		if (numAllocatedChunks < maxChunks)
+		{
+			numAllocatedChunks++;
+			return new Chunk(types.length * chunkSize);
+		}
+		try
+		{
+			return freeChunks.take();
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			log.warn("Interrupted while waiting for the time series writer, dropping sample of {}", name);
+			return null;
+		}
+	}
+
+
+	private void submit(final Chunk fullChunk)
+	{
+		executor.execute(() -> writeChunk(fullChunk));
+	}
+
+
+	private void writeChunk(final Chunk fullChunk)
+	{
+		try
+		{
+			if (!failed)
+			{
+				if (!opened)
+				{
+					opened = true;
+					openFiles();
+				}
+				if (binaryChannel != null)
+				{
+					writeBinary(fullChunk);
+				}
+				if (csvWriter != null)
+				{
+					writeCsv(fullChunk);
+				}
+			}
+		} catch (IOException e)
+		{
+			failed = true;
+			log.error("Could not write time series {}", name, e);
+		} finally
+		{
+			fullChunk.numRows = 0;
+			freeChunks.add(fullChunk);
+		}
+	}
+
+
+	private void openFiles() throws IOException
+	{
+		Files.createDirectories(folder);
+		if (formats.contains(ETimeSeriesFormat.BINARY))
+		{
+			binaryChannel = FileChannel.open(folder.resolve(name + ETimeSeriesFormat.BINARY.getExtension()),
+					StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			binaryBuffer = ByteBuffer.allocate(types.length * chunkSize * Long.BYTES + Integer.BYTES);
+			writeBinaryHeader();
+		}
+		if (formats.contains(ETimeSeriesFormat.CSV))
+		{
+			csvWriter = Files.newBufferedWriter(folder.resolve(name + ETimeSeriesFormat.CSV.getExtension()),
+					StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+			if (csvHeader != null)
+			{
+				csvWriter.write(csvHeader);
+				csvWriter.write("\n");
+			}
+		}
+	}
+
+
+	private void writeBinaryHeader() throws IOException
+	{
+		// not closed on purpose, as this would close the channel
+		@SuppressWarnings("squid:S2095")
+		DataOutputStream out = new DataOutputStream(Channels.newOutputStream(binaryChannel));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(types.length);
+		for (int i = 0; i < types.length; i++)
+		{
+			out.writeByte(types[i]);
+			out.writeUTF(headers.get(i));
+		}
+		out.flush();
+	}
+
+
+	private void writeBinary(final Chunk fullChunk) throws IOException
+	{
+		binaryBuffer.clear();
+		binaryBuffer.putInt(fullChunk.numRows);
+		for (int c = 0; c < types.length; c++)
+		{
+			int offset = c * chunkSize;
+			for (int r = 0; r < fullChunk.numRows; r++)
+			{
+				binaryBuffer.putLong(fullChunk.values[offset + r]);
+			}
+		}
+		binaryBuffer.flip();
+		while (binaryBuffer.hasRemaining())
+		{
+			binaryChannel.write(binaryBuffer);
+		}
+	}
+
+
+	private void writeCsv(final Chunk fullChunk) throws IOException
+	{
+		if (types.length == 0)
+		{
+			return;
+		}
+		for (int r = 0; r < fullChunk.numRows; r++)
+		{
+			csvLine.setLength(0);
+			for (int c = 0; c < types.length; c++)
+			{
+				if (c > 0)
+				{
+					csvLine.append(',');
+				}
+				long value = fullChunk.values[c * chunkSize + r];
+				if (types[c] == TYPE_LONG)
+				{
+					csvLine.append(value);
+				} else
+				{
+					csvLine.append(Double.longBitsToDouble(value));
+				}
+			}
+			csvLine.append('\n');
+			csvWriter.append(csvLine);
+		}
+	}
+
+
+	private void closeFiles()
+	{
+		try
+		{
+			if (binaryChannel != null)
+			{
+				binaryChannel.close();
+			}
+			if (csvWriter != null)
+			{
+				csvWriter.close();
+			}
+		} catch (IOException e)
+		{
+			log.error("Could not close time series {}", name, e);
+		}
+		binaryChannel = null;
+		csvWriter = null;
+	}
+
+
+	/**
+	 * Values of a number of rows, stored column by column. Doubles are stored as raw long bits.
+	 */
+	private static class Chunk
+	{
+		final long[] values;
+		int numRows = 0;
+
+
+		Chunk(final int size)
+		{
+			values = new long[size];
+		}
+	}
+
+	/**
+	 * Collects the value types of the first sample
+	 */
+	private static class ByteList implements IExportValueWriter
+	{
+		private byte[] bytes = new byte[32];
+		private int size = 0;
+
+
+		@Override
+		public void writeLong(final long value)
+		{
+			add(TYPE_LONG);
+		}
+
+
+		@Override
+		public void writeDouble(final double value)
+		{
+			add(TYPE_DOUBLE);
+		}
+
+
+		private void add(final byte type)
+		{
+			if (size == bytes.length)
+			{
+				bytes = Arrays.copyOf(bytes, size * 2);
+			}
+			bytes[size++] = type;
+		}
+
+
+		byte[] toArray()
+		{
+			return Arrays.copyOf(bytes, size);
+		}
+	}
+}
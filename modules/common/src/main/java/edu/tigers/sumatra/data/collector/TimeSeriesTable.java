@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import java.util.List;
+
+
+/**
+ * The primitive columns of a time series, read by {@link TimeSeriesReader}.
+ */
+public class TimeSeriesTable
+{
+	private final List<String> headers;
+	private final byte[] types;
+	private final long[][] columns;
+	private final int numRows;
+
+
+	TimeSeriesTable(final List<String> headers, final byte[] types, final long[][] columns, final int numRows)
+	{
+		this.headers = headers;
+		this.types = types;
+		this.columns = columns;
+		this.numRows = numRows;
+	}
+
+
+	/**
+	 * @return the names of all columns
+	 */
+	public List<String> getHeaders()
+	{
+		return headers;
+	}
+
+
+	public int getNumRows()
+	{
+		return numRows;
+	}
+
+
+	/**
+	 * @param name the column name
+	 * @return true, if the column contains integral values
+	 */
+	public boolean isLongColumn(final String name)
+	{
+		return types[indexOf(name)] == TimeSeriesStreamWriter.TYPE_LONG;
+	}
+
+
+	/**
+	 * @param name the column name
+	 * @return a copy of the column values, floating point values are truncated
+	 */
+	public long[] getLongColumn(final String name)
+	{
+		int index = indexOf(name);
+		long[] values = columns[index].clone();
+		if (types[index] == TimeSeriesStreamWriter.TYPE_DOUBLE)
+		{
+			for (int i = 0; i < numRows; i++)
+			{
+				values[i] = (long) Double.longBitsToDouble(values[i]);
+			}
+		}
+		return values;
+	}
+
+
+	/**
+	 * @param name the column name
+	 * @return a copy of the column values, integral values are converted
+	 */
+	public double[] getDoubleColumn(final String name)
+	{
+		int index = indexOf(name);
+		long[] column = columns[index];
+		double[] values = new double[numRows];
+		boolean isDouble = types[index] == TimeSeriesStreamWriter.TYPE_DOUBLE;
+		for (int i = 0; i < numRows; i++)
+		{
+			values[i] = isDouble ? Double.longBitsToDouble(column[i]) : column[i];
+		}
+		return values;
+	}
+
+
+	private int indexOf(final String name)
+	{
+		int index = headers.indexOf(name);
+		if (index < 0)
+		{
+			throw new IllegalArgumentException("Unknown column: " + name);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,1006 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.drawable;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Compact binary encoding of drawable shapes and everything they reference.
+ * <p>
+ * Like Berkeley DPL, the encoding works on the non-static, non-transient fields of a class and creates
+ * instances with the no-arg constructor, so it supports the same shapes as the Berkeley persistence.
+ * In contrast to Berkeley, no type information is written per field: A class is only defined once, with the
+ * names and types of its fields, and referenced by an index afterwards. The class dictionary is kept by
+ * {@link Output} and {@link Input} until it is reset, so it can be shared by a sequence of encoded chunks that are
+ * always decoded in the same order.
+ * New classes are not defined inline, but collected and written separately with
+ * {@link Output#writeClassDefinitions()}, so that the encoding of an object does not depend on whether
+ * its class was used before.
+ * <p>
+ * As the field layout is part of the data, it can be read after the classes changed: Fields that do not exist
+ * anymore or whose type is incompatible are skipped and new fields keep the value of the no-arg constructor.
+ * Objects of classes and enum constants that do not exist anymore are read as {@link Input#UNRESOLVED}.
+ * <p>
+ * Colors are stored as ARGB, strings and enums as UTF-8 and collections of {@code java.util} by their elements.
+ * Other classes of the JDK are not supported.
+ */
+final class ShapeCodec
+{
+	private static final Map<Class<?>, ClassSchema> SCHEMAS = new ConcurrentHashMap<>();
+	private static final int NULL_CLASS = 0;
+	private static final byte REFERENCE_TYPE = 'L';
+
+
+	private ShapeCodec()
+	{
+	}
+
+
+	private static ClassSchema schema(final Class<?> clazz)
+	{
+		return SCHEMAS.computeIfAbsent(clazz, ClassSchema::new);
+	}
+
+
+	private static Class<?> encodedClass(final Object value)
+	{
+		if (value instanceof Enum)
+		{
+			// enum constants with a body are subclasses of the enum
+			return ((Enum<?>) value).getDeclaringClass();
+		}
+		if (value instanceof Color)
+		{
+			return Color.class;
+		}
+		return value.getClass();
+	}
+
+
+	/**
+	 * @param type a field or array component type
+	 * @return the JVM descriptor character of a primitive type or {@link #REFERENCE_TYPE}
+	 */
+	private static byte typeCode(final Class<?> type)
+	{
+		if (!type.isPrimitive())
+		{
+			return REFERENCE_TYPE;
+		}
+		return (byte) Array.newInstance(type, 0).getClass().getName().charAt(1);
+	}
+
+
+	/**
+	 * A type that can not be encoded was found
+	 */
+	static class UnsupportedTypeException extends RuntimeException
+	{
+		UnsupportedTypeException(final String message)
+		{
+			super(message);
+		}
+	}
+
+	/**
+	 * Writes values to a byte buffer
+	 */
+	static class Output
+	{
+		private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+		private final DataOutputStream out = new DataOutputStream(buffer);
+		private final Map<Class<?>, Integer> classIds = new HashMap<>();
+		private final List<ClassSchema> classes = new ArrayList<>();
+		private int numDefinedClasses = 0;
+
+
+		/**
+		 * @return the number of classes in the dictionary, used to revert it with {@link #revertClasses(int)}
+		 */
+		int getNumClasses()
+		{
+			return classes.size();
+		}
+
+
+		/**
+		 * Remove all classes that were added after the dictionary had the given size, e.g. because the bytes that
+		 * define them are discarded
+		 *
+		 * @param numClasses the size of the dictionary to revert to
+		 */
+		void revertClasses(final int numClasses)
+		{
+			while (classes.size() > Math.max(numClasses, numDefinedClasses))
+			{
+				classIds.remove(classes.remove(classes.size() - 1).clazz);
+			}
+		}
+
+
+		/**
+		 * Clear the class dictionary
+		 */
+		void resetClasses()
+		{
+			classIds.clear();
+			classes.clear();
+			numDefinedClasses = 0;
+		}
+
+
+		/**
+		 * Write the definitions of all classes that were added to the dictionary since the last call.
+		 * They must be read with {@link Input#readClassDefinitions()} before the objects that use them.
+		 *
+		 * @throws IOException if writing fails
+		 */
+		void writeClassDefinitions() throws IOException
+		{
+			writeVarInt(classes.size() - numDefinedClasses);
+			for (ClassSchema schema : classes.subList(numDefinedClasses, classes.size()))
+			{
+				writeString(schema.clazz.getName());
+				out.writeByte(schema.kind.code);
+				if (schema.kind == EKind.ARRAY)
+				{
+					out.writeByte(typeCode(schema.clazz.getComponentType()));
+				} else if (schema.kind == EKind.OBJECT)
+				{
+					writeVarInt(schema.fields.size());
+					for (Field field : schema.fields)
+					{
+						writeString(field.getName());
+						out.writeByte(typeCode(field.getType()));
+					}
+				}
+			}
+			numDefinedClasses = classes.size();
+		}
+
+
+		/**
+		 * @return the bytes written since the last call
+		 */
+		byte[] takeBytes()
+		{
+			byte[] bytes = buffer.toByteArray();
+			buffer.reset();
+			return bytes;
+		}
+
+
+		void writeBytes(final byte[] bytes) throws IOException
+		{
+			out.write(bytes);
+		}
+
+
+		void writeBoolean(final boolean value) throws IOException
+		{
+			out.writeBoolean(value);
+		}
+
+
+		void writeVarInt(final int value) throws IOException
+		{
+			int v = value;
+			while ((v & ~0x7F) != 0)
+			{
+				out.writeByte((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			out.writeByte(v);
+		}
+
+
+		void writeString(final String value) throws IOException
+		{
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			out.write(bytes);
+		}
+
+
+		/**
+		 * Write any supported object, including its class
+		 *
+		 * @param value the object, may be null
+		 * @throws IOException if writing fails
+		 * @throws UnsupportedTypeException if the object or anything it references can not be encoded
+		 */
+		void writeObject(final Object value) throws IOException
+		{
+			if (value == null)
+			{
+				writeVarInt(NULL_CLASS);
+				return;
+			}
+			ClassSchema schema = schema(encodedClass(value));
+			if (schema.kind == EKind.UNSUPPORTED)
+			{
+				throw new UnsupportedTypeException(schema.unsupportedReason);
+			}
+			writeClass(schema);
+			switch (schema.kind)
+			{
+				case STRING:
+					writeString((String) value);
+					break;
+				case ENUM:
+					writeString(((Enum<?>) value).name());
+					break;
+				case COLOR:
+					out.writeInt(((Color) value).getRGB());
+					break;
+				case BOXED:
+					writePrimitive(schema.clazz, value);
+					break;
+				case ARRAY:
+					writeArray(schema.clazz.getComponentType(), value);
+					break;
+				case COLLECTION:
+					writeCollection((Collection<?>) value);
+					break;
+				case MAP:
+					writeMap((Map<?, ?>) value);
+					break;
+				default:
+					writeFields(schema, value);
+					break;
+			}
+		}
+
+
+		private void writeClass(final ClassSchema schema) throws IOException
+		{
+			Integer id = classIds.get(schema.clazz);
+			if (id == null)
+			{
+				id = classes.size();
+				classIds.put(schema.clazz, id);
+				classes.add(schema);
+			}
+			writeVarInt(id + 1);
+		}
+
+
+		private void writeFields(final ClassSchema schema, final Object value) throws IOException
+		{
+			try
+			{
+				for (Field field : schema.fields)
+				{
+					Class<?> type = field.getType();
+					if (type.isPrimitive())
+					{
+						writePrimitive(type, field.get(value));
+					} else
+					{
+						writeObject(field.get(value));
+					}
+				}
+			} catch (IllegalAccessException e)
+			{
+				throw new UnsupportedTypeException("Can not access fields of " + schema.clazz + ": " + e.getMessage());
+			}
+		}
+
+
+		private void writePrimitive(final Class<?> type, final Object value) throws IOException
+		{
+			if (type == double.class || type == Double.class)
+			{
+				out.writeDouble((Double) value);
+			} else if (type == float.class || type == Float.class)
+			{
+				out.writeFloat((Float) value);
+			} else if (type == int.class || type == Integer.class)
+			{
+				writeVarInt(zigZag((Integer) value));
+			} else if (type == long.class || type == Long.class)
+			{
+				out.writeLong((Long) value);
+			} else if (type == boolean.class || type == Boolean.class)
+			{
+				out.writeBoolean((Boolean) value);
+			} else if (type == short.class || type == Short.class)
+			{
+				out.writeShort((Short) value);
+			} else if (type == byte.class || type == Byte.class)
+			{
+				out.writeByte((Byte) value);
+			} else
+			{
+				out.writeChar((Character) value);
+			}
+		}
+
+
+		private void writeArray(final Class<?> componentType, final Object array) throws IOException
+		{
+			int length = Array.getLength(array);
+			writeVarInt(length);
+			if (componentType == double.class)
+			{
+				for (double v : (double[]) array)
+				{
+					out.writeDouble(v);
+				}
+			} else if (componentType.isPrimitive())
+			{
+				for (int i = 0; i < length; i++)
+				{
+					writePrimitive(componentType, Array.get(array, i));
+				}
+			} else
+			{
+				for (Object element : (Object[]) array)
+				{
+					writeObject(element);
+				}
+			}
+		}
+
+
+		private void writeCollection(final Collection<?> collection) throws IOException
+		{
+			if (collection instanceof SortedSet && ((SortedSet<?>) collection).comparator() != null)
+			{
+				throw new UnsupportedTypeException(
+						"Custom comparator of " + collection.getClass() + " is not supported");
+			}
+			writeVarInt(collection.size());
+			for (Object element : collection)
+			{
+				writeObject(element);
+			}
+		}
+
+
+		private void writeMap(final Map<?, ?> map) throws IOException
+		{
+			if (map instanceof SortedMap && ((SortedMap<?, ?>) map).comparator() != null)
+			{
+				throw new UnsupportedTypeException("Custom comparator of " + map.getClass() + " is not supported");
+			}
+			writeVarInt(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet())
+			{
+				writeObject(entry.getKey());
+				writeObject(entry.getValue());
+			}
+		}
+
+
+		private static int zigZag(final int value)
+		{
+			return (value << 1) ^ (value >> 31);
+		}
+	}
+
+	/**
+	 * Reads values that were written by {@link Output}
+	 */
+	static class Input
+	{
+		/**
+		 * Read in place of an object whose class or enum constant does not exist anymore or changed its kind
+		 */
+		static final Object UNRESOLVED = new Object();
+
+		private final List<ReadSchema> classes = new ArrayList<>();
+		private DataInputStream in;
+
+
+		/**
+		 * Clear the class dictionary
+		 */
+		void resetClasses()
+		{
+			classes.clear();
+		}
+
+
+		/**
+		 * @param input the stream to read from
+		 */
+		void setInput(final InputStream input)
+		{
+			in = new DataInputStream(input);
+		}
+
+
+		boolean readBoolean() throws IOException
+		{
+			return in.readBoolean();
+		}
+
+
+		int readVarInt() throws IOException
+		{
+			int value = 0;
+			for (int shift = 0; shift < 32; shift += 7)
+			{
+				int b = in.readUnsignedByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0)
+				{
+					return value;
+				}
+			}
+			throw new IOException("Malformed variable length integer");
+		}
+
+
+		/**
+		 * Read the class definitions that were written by {@link Output#writeClassDefinitions()}.
+		 * Classes that do not exist locally are kept, so that their objects can be skipped.
+		 *
+		 * @throws IOException if the data is malformed
+		 */
+		void readClassDefinitions() throws IOException
+		{
+			int numClasses = readVarInt();
+			for (int i = 0; i < numClasses; i++)
+			{
+				String name = readString();
+				EKind kind = EKind.fromCode(in.readByte());
+				ReadSchema schema = new ReadSchema(name, kind);
+				if (kind == EKind.ARRAY)
+				{
+					schema.componentType = in.readByte();
+				} else if (kind == EKind.OBJECT)
+				{
+					int numFields = readVarInt();
+					schema.fieldNames = new String[numFields];
+					schema.fieldTypes = new byte[numFields];
+					for (int f = 0; f < numFields; f++)
+					{
+						schema.fieldNames[f] = readString();
+						schema.fieldTypes[f] = in.readByte();
+					}
+				}
+				schema.resolve();
+				classes.add(schema);
+			}
+		}
+
+
+		String readString() throws IOException
+		{
+			return new String(readBytes(), StandardCharsets.UTF_8);
+		}
+
+
+		byte[] readBytes() throws IOException
+		{
+			byte[] bytes = new byte[readVarInt()];
+			in.readFully(bytes);
+			return bytes;
+		}
+
+
+		/**
+		 * Read an object that was written with {@link Output#writeObject(Object)}
+		 *
+		 * @return the object, may be null or {@link #UNRESOLVED}
+		 * @throws IOException if the data is malformed
+		 */
+		Object readObject() throws IOException
+		{
+			ReadSchema schema = readClass();
+			if (schema == null)
+			{
+				return null;
+			}
+			switch (schema.kind)
+			{
+				case STRING:
+					return readString();
+				case ENUM:
+					return readEnum(schema.local, readString());
+				case COLOR:
+					return new Color(in.readInt(), true);
+				case BOXED:
+					return readBoxed(schema);
+				case ARRAY:
+					return readArray(schema);
+				case COLLECTION:
+					return readCollection(schema);
+				case MAP:
+					return readMap(schema);
+				default:
+					return readFields(schema);
+			}
+		}
+
+
+		private ReadSchema readClass() throws IOException
+		{
+			int id = readVarInt();
+			if (id == NULL_CLASS)
+			{
+				return null;
+			}
+			if (id > classes.size())
+			{
+				throw new IOException("Unknown class id " + id);
+			}
+			return classes.get(id - 1);
+		}
+
+
+		@SuppressWarnings({ "unchecked", "rawtypes" })
+		private static Object readEnum(final ClassSchema schema, final String name)
+		{
+			if (schema == null)
+			{
+				return UNRESOLVED;
+			}
+			try
+			{
+				return Enum.valueOf((Class<? extends Enum>) schema.clazz, name);
+			} catch (IllegalArgumentException e)
+			{
+				return UNRESOLVED;
+			}
+		}
+
+
+		private Object readPrimitive(final byte type) throws IOException
+		{
+			switch (type)
+			{
+				case 'D':
+					return in.readDouble();
+				case 'F':
+					return in.readFloat();
+				case 'I':
+					int v = readVarInt();
+					return (v >>> 1) ^ -(v & 1);
+				case 'J':
+					return in.readLong();
+				case 'Z':
+					return in.readBoolean();
+				case 'S':
+					return in.readShort();
+				case 'B':
+					return in.readByte();
+				case 'C':
+					return in.readChar();
+				default:
+					throw new IOException("Unknown primitive type in data: " + type);
+			}
+		}
+
+
+		private Object readBoxed(final ReadSchema schema) throws IOException
+		{
+			if (schema.local == null)
+			{
+				throw new IOException("Unknown class in data: " + schema.name);
+			}
+			return readPrimitive(typeCode(ClassSchema.BOXED_TYPES.get(schema.local.clazz)));
+		}
+
+
+		private Object readValue(final byte type) throws IOException
+		{
+			return type == REFERENCE_TYPE ? readObject() : readPrimitive(type);
+		}
+
+
+		private Object readArray(final ReadSchema schema) throws IOException
+		{
+			int length = readVarInt();
+			if (schema.local == null)
+			{
+				for (int i = 0; i < length; i++)
+				{
+					readValue(schema.componentType);
+				}
+				return UNRESOLVED;
+			}
+			Class<?> componentType = schema.local.clazz.getComponentType();
+			Object array = Array.newInstance(componentType, length);
+			if (componentType == double.class)
+			{
+				double[] values = (double[]) array;
+				for (int i = 0; i < length; i++)
+				{
+					values[i] = in.readDouble();
+				}
+			} else if (componentType.isPrimitive())
+			{
+				for (int i = 0; i < length; i++)
+				{
+					Array.set(array, i, readPrimitive(schema.componentType));
+				}
+			} else
+			{
+				for (int i = 0; i < length; i++)
+				{
+					Object element = readObject();
+					Array.set(array, i, componentType.isInstance(element) ? element : null);
+				}
+			}
+			return array;
+		}
+
+
+		@SuppressWarnings("unchecked")
+		private Object readCollection(final ReadSchema schema) throws IOException
+		{
+			int size = readVarInt();
+			Collection<Object> collection = schema.local == null
+					? null
+					: (Collection<Object>) schema.local.newInstance();
+			for (int i = 0; i < size; i++)
+			{
+				Object element = readObject();
+				if (collection != null && element != UNRESOLVED)
+				{
+					collection.add(element);
+				}
+			}
+			return collection == null ? UNRESOLVED : collection;
+		}
+
+
+		@SuppressWarnings("unchecked")
+		private Object readMap(final ReadSchema schema) throws IOException
+		{
+			int size = readVarInt();
+			Map<Object, Object> map = schema.local == null ? null : (Map<Object, Object>) schema.local.newInstance();
+			for (int i = 0; i < size; i++)
+			{
+				Object key = readObject();
+				Object value = readObject();
+				if (map != null && key != UNRESOLVED && value != UNRESOLVED)
+				{
+					map.put(key, value);
+				}
+			}
+			return map == null ? UNRESOLVED : map;
+		}
+
+
+		private Object readFields(final ReadSchema schema) throws IOException
+		{
+			Object value = schema.local == null ? null : schema.local.newInstance();
+			for (int i = 0; i < schema.fieldTypes.length; i++)
+			{
+				Object fieldValue = readValue(schema.fieldTypes[i]);
+				Field field = schema.localFields[i];
+				if (value == null || field == null || fieldValue == UNRESOLVED)
+				{
+					continue;
+				}
+				try
+				{
+					field.set(value, fieldValue);
+				} catch (IllegalAccessException | IllegalArgumentException e)
+				{
+					// the type of the field changed, keep the default value
+				}
+			}
+			return value == null ? UNRESOLVED : value;
+		}
+	}
+
+	/**
+	 * A class as it was defined in the data, matched to the local class if possible
+	 */
+	private static class ReadSchema
+	{
+		private static final String[] NO_FIELD_NAMES = new String[0];
+		private static final byte[] NO_FIELD_TYPES = new byte[0];
+
+		private final String name;
+		private final EKind kind;
+		private byte componentType = REFERENCE_TYPE;
+		private String[] fieldNames = NO_FIELD_NAMES;
+		private byte[] fieldTypes = NO_FIELD_TYPES;
+		/** the local class, null if it does not exist or is encoded differently */
+		private ClassSchema local = null;
+		/** the local field for each field in the data, null if it does not exist anymore */
+		private Field[] localFields;
+
+
+		private ReadSchema(final String name, final EKind kind)
+		{
+			this.name = name;
+			this.kind = kind;
+		}
+
+
+		private void resolve()
+		{
+			try
+			{
+				ClassSchema schema = schema(Class.forName(name, false, ShapeCodec.class.getClassLoader()));
+				if (schema.kind == kind && (kind != EKind.ARRAY
+						|| typeCode(schema.clazz.getComponentType()) == componentType))
+				{
+					local = schema;
+				}
+			} catch (ClassNotFoundException | LinkageError e)
+			{
+				// the objects of this class are skipped
+			}
+			localFields = new Field[fieldNames.length];
+			if (local != null)
+			{
+				Set<Field> used = new HashSet<>();
+				for (int i = 0; i < fieldNames.length; i++)
+				{
+					localFields[i] = local.findField(fieldNames[i], used);
+					used.add(localFields[i]);
+				}
+			}
+		}
+	}
+
+	private enum EKind
+	{
+		STRING('s'),
+		ENUM('e'),
+		COLOR('c'),
+		BOXED('b'),
+		ARRAY('a'),
+		COLLECTION('l'),
+		MAP('m'),
+		OBJECT('o'),
+		UNSUPPORTED('u'),
+
+		;
+
+		private final byte code;
+
+
+		EKind(final char code)
+		{
+			this.code = (byte) code;
+		}
+
+
+		private static EKind fromCode(final byte code) throws IOException
+		{
+			for (EKind kind : values())
+			{
+				if (kind.code == code && kind != UNSUPPORTED)
+				{
+					return kind;
+				}
+			}
+			throw new IOException("Unknown class kind in data: " + code);
+		}
+	}
+
+	/**
+	 * How instances of a class are encoded
+	 */
+	private static class ClassSchema
+	{
+		private static final Map<Class<?>, Class<?>> BOXED_TYPES = Map.of(Double.class, double.class,
+				Float.class, float.class, Integer.class, int.class, Long.class, long.class, Boolean.class, boolean.class,
+				Short.class, short.class, Byte.class, byte.class, Character.class, char.class);
+
+		private final Class<?> clazz;
+		private final EKind kind;
+		private final List<Field> fields = new ArrayList<>();
+		private Constructor<?> constructor = null;
+		private String unsupportedReason = null;
+
+
+		private ClassSchema(final Class<?> clazz)
+		{
+			this.clazz = clazz;
+			kind = determineKind();
+		}
+
+
+		/**
+		 * @param name the name of a field
+		 * @param used the fields that were already matched, for fields that are hidden by a subclass
+		 * @return the first field with the name that was not used yet, or null
+		 */
+		private Field findField(final String name, final Set<Field> used)
+		{
+			return fields.stream()
+					.filter(f -> f.getName().equals(name) && !used.contains(f))
+					.findFirst()
+					.orElse(null);
+		}
+
+
+		private EKind determineKind()
+		{
+			if (clazz == String.class)
+			{
+				return EKind.STRING;
+			}
+			if (clazz.isEnum())
+			{
+				return EKind.ENUM;
+			}
+			if (clazz == Color.class)
+			{
+				return EKind.COLOR;
+			}
+			if (BOXED_TYPES.containsKey(clazz))
+			{
+				return EKind.BOXED;
+			}
+			if (clazz.isArray())
+			{
+				return EKind.ARRAY;
+			}
+			if (clazz.getName().startsWith("java.util.") && Collection.class.isAssignableFrom(clazz))
+			{
+				return collectionKind(EKind.COLLECTION);
+			}
+			if (clazz.getName().startsWith("java.util.") && Map.class.isAssignableFrom(clazz))
+			{
+				return collectionKind(EKind.MAP);
+			}
+			return objectKind();
+		}
+
+
+		private EKind collectionKind(final EKind collectionKind)
+		{
+			try
+			{
+				if (Modifier.isPublic(clazz.getModifiers()) && !Modifier.isAbstract(clazz.getModifiers()))
+				{
+					constructor = clazz.getConstructor();
+					return collectionKind;
+				}
+			} catch (NoSuchMethodException e)
+			{
+				// check for views below
+			}
+			String name = clazz.getName();
+			if (name.startsWith("java.util.Collections$") || name.startsWith("java.util.ImmutableCollections$")
+					|| name.equals("java.util.Arrays$ArrayList"))
+			{
+				// unmodifiable and immutable views are only referenced by their interface, restore a plain collection
+				return collectionKind;
+			}
+			return unsupported("Collection " + name + " can not be restored");
+		}
+
+
+		private EKind objectKind()
+		{
+			if (isJdkClass(clazz))
+			{
+				return unsupported("JDK class " + clazz.getName() + " is not supported");
+			}
+			if (clazz.isAnonymousClass() || clazz.isSynthetic())
+			{
+				return unsupported("Anonymous class " + clazz.getName() + " is not supported");
+			}
+			try
+			{
+				constructor = clazz.getDeclaredConstructor();
+				constructor.setAccessible(true);
+			} catch (NoSuchMethodException | RuntimeException e)
+			{
+				return unsupported(clazz.getName() + " has no accessible no-arg constructor");
+			}
+			Deque<Class<?>> hierarchy = new ArrayDeque<>();
+			for (Class<?> c = clazz; c != Object.class; c = c.getSuperclass())
+			{
+				if (isJdkClass(c))
+				{
+					return unsupported(clazz.getName() + " extends JDK class " + c.getName());
+				}
+				hierarchy.addFirst(c);
+			}
+			for (Class<?> c : hierarchy)
+			{
+				Field[] declaredFields = c.getDeclaredFields();
+				Arrays.sort(declaredFields, Comparator.comparing(Field::getName));
+				for (Field field : declaredFields)
+				{
+					int modifiers = field.getModifiers();
+					if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+					{
+						continue;
+					}
+					try
+					{
+						field.setAccessible(true);
+					} catch (RuntimeException e)
+					{
+						return unsupported("Field " + field + " is not accessible");
+					}
+					fields.add(field);
+				}
+			}
+			return EKind.OBJECT;
+		}
+
+
+		private EKind unsupported(final String reason)
+		{
+			fields.clear();
+			unsupportedReason = reason;
+			return EKind.UNSUPPORTED;
+		}
+
+
+		private static boolean isJdkClass(final Class<?> c)
+		{
+			String name = c.getName();
+			return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+					|| name.startsWith("jdk.") || name.startsWith("com.sun.");
+		}
+
+
+		private Object newInstance() throws IOException
+		{
+			if (constructor == null)
+			{
+				return newPlainCollection();
+			}
+			try
+			{
+				return constructor.newInstance();
+			} catch (InstantiationException | IllegalAccessException | InvocationTargetException e)
+			{
+				throw new IOException("Can not create an instance of " + clazz, e);
+			}
+		}
+
+
+		private Object newPlainCollection() throws IOException
+		{
+			if (Set.class.isAssignableFrom(clazz))
+			{
+				return new LinkedHashSet<>();
+			}
+			if (Map.class.isAssignableFrom(clazz))
+			{
+				return new LinkedHashMap<>();
+			}
+			if (Collection.class.isAssignableFrom(clazz))
+			{
+				return new ArrayList<>();
+			}
+			throw new IOException("Can not create an instance of " + clazz);
+		}
+	}
+}
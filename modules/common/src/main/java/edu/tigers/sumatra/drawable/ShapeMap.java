@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.drawable;
@@ -53,6 +53,17 @@ public class ShapeMap
 	}
 
 
+	/**
+	 * Add the layer or replace the layer with the same id
+	 *
+	 * @param layer the layer, it is not copied
+	 */
+	void putLayer(final ShapeLayer layer)
+	{
+		categories.put(layer.identifier.getId(), layer);
+	}
+
+
 	public static ShapeMap unmodifiableCopy(ShapeMap s)
 	{
 		Map<String, ShapeLayer> categories = new HashMap<>();
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.drawable;
+
+import edu.tigers.sumatra.drawable.ShapeMap.ShapeLayer;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Decodes the keyframes and deltas of a {@link ShapeMapEncoder} back into shape maps.
+ * <p>
+ * The decoder keeps the layers of the last decoded data. Data must be passed in the order it was encoded,
+ * starting with a keyframe. A delta can only be decoded, if the data that was encoded directly before it
+ * was decoded last.
+ * <p>
+ * Data that was written with other versions of the shape classes can be decoded as well. Shapes whose class does
+ * not exist anymore are dropped and a layer that can not be decoded at all is left out, without affecting the
+ * other layers.
+ */
+@Log4j2
+public class ShapeMapDecoder
+{
+	private final ShapeCodec.Input input = new ShapeCodec.Input();
+	private final Map<String, ShapeLayer> layers = new LinkedHashMap<>();
+	private final Set<String> reportedInvalidLayers = new HashSet<>();
+	private boolean valid = false;
+
+
+	/**
+	 * @param data encoded data
+	 * @return true, if the data is a keyframe, which can be decoded without previous data
+	 */
+	public static boolean isKeyframe(final byte[] data)
+	{
+		return data.length > 0 && (data[0] & ShapeMapEncoder.KEYFRAME_FLAG) != 0;
+	}
+
+
+	/**
+	 * Apply the next data of the encoder
+	 *
+	 * @param data a keyframe or the delta that follows the data that was decoded last
+	 * @throws IOException if the data can not be decoded, the decoder requires a keyframe afterwards
+	 */
+	public void decode(final byte[] data) throws IOException
+	{
+		boolean keyframe = isKeyframe(data);
+		if (!keyframe && !valid)
+		{
+			throw new IOException("A keyframe is required to start decoding");
+		}
+		valid = false;
+		if (keyframe)
+		{
+			input.resetClasses();
+			layers.clear();
+		}
+		ByteArrayInputStream stream = new ByteArrayInputStream(data);
+		input.setInput(stream);
+		input.readVarInt();
+		input.readClassDefinitions();
+		int numRemoved = input.readVarInt();
+		for (int i = 0; i < numRemoved; i++)
+		{
+			layers.remove(input.readString());
+		}
+		int numChanged = input.readVarInt();
+		for (int i = 0; i < numChanged; i++)
+		{
+			String id = input.readString();
+			byte[] layerData = input.readBytes();
+			decodeLayer(id, layerData);
+			input.setInput(stream);
+		}
+		valid = true;
+	}
+
+
+	private void decodeLayer(final String id, final byte[] layerData)
+	{
+		input.setInput(new ByteArrayInputStream(layerData));
+		try
+		{
+			layers.put(id, readLayer());
+		} catch (IOException | RuntimeException e)
+		{
+			layers.remove(id);
+			if (reportedInvalidLayers.add(id))
+			{
+				log.warn("Layer {} can not be decoded: {}", id, e.getMessage());
+			}
+		}
+	}
+
+
+	private ShapeLayer readLayer() throws IOException
+	{
+		Object identifier = input.readObject();
+		if (identifier == ShapeCodec.Input.UNRESOLVED)
+		{
+			throw new IOException("The shape layer identifier does not exist anymore");
+		}
+		if (!(identifier instanceof IShapeLayer))
+		{
+			throw new IOException("Expected a shape layer identifier, but got " + identifier);
+		}
+		boolean inverted = input.readBoolean();
+		int numShapes = input.readVarInt();
+		List<IDrawableShape> shapes = new ArrayList<>(numShapes);
+		for (int i = 0; i < numShapes; i++)
+		{
+			Object shape = input.readObject();
+			if (shape == null || shape instanceof IDrawableShape)
+			{
+				shapes.add((IDrawableShape) shape);
+			}
+		}
+		return new ShapeLayer((IShapeLayer) identifier, shapes, inverted);
+	}
+
+
+	/**
+	 * @return true, if the last data was decoded successfully
+	 */
+	public boolean isValid()
+	{
+		return valid;
+	}
+
+
+	/**
+	 * @return a new shape map with the layers of the last decoded data, the shapes are shared with the decoder
+	 */
+	public ShapeMap getShapeMap()
+	{
+		ShapeMap shapeMap = new ShapeMap();
+		layers.values().forEach(layer -> shapeMap.putLayer(new ShapeLayer(layer)));
+		return shapeMap;
+	}
+}
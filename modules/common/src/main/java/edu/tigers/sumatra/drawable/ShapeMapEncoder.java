@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.drawable;
+
+import edu.tigers.sumatra.drawable.ShapeMap.ShapeLayer;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+
+/**
+ * Encodes the successive shape maps of one source compactly as keyframes and deltas.
+ * <p>
+ * A keyframe contains all layers. A delta only contains the layers that changed since the previous shape map and
+ * the ids of the removed layers. A layer is unchanged, if its encoding is identical, so layers like the field
+ * markings are only stored once per keyframe. The data can be decoded by a {@link ShapeMapDecoder} that receives
+ * the same sequence of data, starting with a keyframe.
+ * <p>
+ * Layers with shapes that can not be encoded are returned separately, so that they can be stored in another way.
+ */
+@Log4j2
+public class ShapeMapEncoder
+{
+	static final int KEYFRAME_FLAG = 1;
+
+	private final ShapeCodec.Output output = new ShapeCodec.Output();
+	private final Map<String, byte[]> lastLayers = new HashMap<>();
+	private final Set<String> reportedUnsupportedLayers = new HashSet<>();
+
+
+	/**
+	 * Encode the next shape map of the source
+	 *
+	 * @param shapeMap the shape map
+	 * @param keyframe true to encode all layers and to start a new sequence, must be true for the first shape map
+	 * @return the encoded data
+	 */
+	public Result encode(final ShapeMap shapeMap, final boolean keyframe)
+	{
+		return encode(shapeMap, keyframe, layer -> true);
+	}
+
+
+	/**
+	 * Encode the next shape map of the source with a subset of its layers.
+	 * Layers that are not accepted by the filter are handled like layers that are not in the shape map.
+	 *
+	 * @param shapeMap    the shape map
+	 * @param keyframe    true to encode all layers and to start a new sequence, must be true for the first shape map
+	 * @param layerFilter accepts the layers that should be encoded
+	 * @return the encoded data
+	 */
+	public Result encode(final ShapeMap shapeMap, final boolean keyframe, final Predicate<IShapeLayer> layerFilter)
+	{
+		if (keyframe)
+		{
+			output.resetClasses();
+			lastLayers.clear();
+		}
+		try
+		{
+			return encodeLayers(shapeMap, keyframe, layerFilter);
+		} catch (IOException e)
+		{
+			// the data is only written to memory
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private Result encodeLayers(final ShapeMap shapeMap, final boolean keyframe,
+			final Predicate<IShapeLayer> layerFilter) throws IOException
+	{
+		Map<String, byte[]> changedLayers = new LinkedHashMap<>();
+		Set<String> encodedLayerIds = new HashSet<>();
+		ShapeMap unsupported = new ShapeMap();
+		for (ShapeLayer layer : shapeMap.getAllShapeLayers())
+		{
+			if (!layerFilter.test(layer.getIdentifier()))
+			{
+				continue;
+			}
+			byte[] bytes = encodeLayer(layer);
+			if (bytes == null)
+			{
+				unsupported.putLayer(new ShapeLayer(layer));
+				continue;
+			}
+			String id = layer.getIdentifier().getId();
+			encodedLayerIds.add(id);
+			byte[] lastBytes = lastLayers.put(id, bytes);
+			if (lastBytes == null || !Arrays.equals(lastBytes, bytes))
+			{
+				changedLayers.put(id, bytes);
+			}
+		}
+		List<String> removedLayerIds = new ArrayList<>(lastLayers.keySet());
+		removedLayerIds.removeAll(encodedLayerIds);
+		removedLayerIds.forEach(lastLayers::remove);
+
+		output.writeVarInt(keyframe ? KEYFRAME_FLAG : 0);
+		output.writeClassDefinitions();
+		output.writeVarInt(removedLayerIds.size());
+		for (String id : removedLayerIds)
+		{
+			output.writeString(id);
+		}
+		output.writeVarInt(changedLayers.size());
+		for (Map.Entry<String, byte[]> layer : changedLayers.entrySet())
+		{
+			// each layer is framed, so that the decoder can skip layers that it can not read anymore
+			output.writeString(layer.getKey());
+			output.writeVarInt(layer.getValue().length);
+			output.writeBytes(layer.getValue());
+		}
+		return new Result(output.takeBytes(), unsupported, changedLayers.size());
+	}
+
+
+	/**
+	 * @return the encoded layer or null, if it contains shapes that can not be encoded
+	 */
+	private byte[] encodeLayer(final ShapeLayer layer) throws IOException
+	{
+		int numClasses = output.getNumClasses();
+		try
+		{
+			output.writeObject(layer.getIdentifier());
+			output.writeBoolean(layer.isInverted());
+			output.writeVarInt(layer.getShapes().size());
+			for (IDrawableShape shape : layer.getShapes())
+			{
+				output.writeObject(shape);
+			}
+			return output.takeBytes();
+		} catch (ShapeCodec.UnsupportedTypeException e)
+		{
+			// the classes of the discarded bytes are not required
+			output.takeBytes();
+			output.revertClasses(numClasses);
+			if (reportedUnsupportedLayers.add(layer.getIdentifier().getId()))
+			{
+				log.debug("Layer {} can not be encoded: {}", layer.getIdentifier().getId(), e.getMessage());
+			}
+			return null;
+		}
+	}
+
+
+	/**
+	 * The result of encoding a shape map
+	 */
+	@Value
+	public static class Result
+	{
+		/** the encoded layers */
+		byte[] data;
+		/** the layers that could not be encoded */
+		ShapeMap unsupportedLayers;
+		/** the number of layers in the data */
+		int numEncodedLayers;
+	}
+}
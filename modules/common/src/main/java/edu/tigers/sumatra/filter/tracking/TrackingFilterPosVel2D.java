@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.filter.tracking;
 
@@ -154,6 +154,17 @@ public class TrackingFilterPosVel2D extends KalmanFilter
 	}
 	
 	
+	/**
+	 * @param velX velocity [mm/s]
+	 * @param velY velocity [mm/s]
+	 */
+	public void setVelocity(final double velX, final double velY)
+	{
+		stateEstimation.setEntry(2, velX);
+		stateEstimation.setEntry(3, velY);
+	}
+	
+	
 	/**
 	 * Reset internal state covariance to a specific value.
 	 * 
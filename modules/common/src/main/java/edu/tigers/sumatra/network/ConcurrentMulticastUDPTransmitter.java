@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.network;
+
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+
+/**
+ * Sends data to a multicast group on multiple network interfaces concurrently.
+ * <p>
+ * Each interface has its own sender thread and send buffer. {@link #send(byte[], int)} only copies the data into
+ * the buffers and returns immediately, so a slow interface does not delay the caller or the other interfaces.
+ * If an interface is still busy with the previous packet, the new packet is dropped for this interface.
+ */
+@Log4j2
+public class ConcurrentMulticastUDPTransmitter implements ITransmitter<byte[]>
+{
+	private final int targetPort;
+	private final InetAddress targetAddr;
+
+	private final List<InterfaceSender> senders = new CopyOnWriteArrayList<>();
+	private final AtomicLong numDropped = new AtomicLong();
+
+
+	/**
+	 * @param targetAddr multicast address to send to
+	 * @param targetPort network port to send to
+	 */
+	public ConcurrentMulticastUDPTransmitter(final String targetAddr, final int targetPort)
+	{
+		this.targetPort = targetPort;
+		this.targetAddr = addressByName(targetAddr);
+	}
+
+
+	private InetAddress addressByName(final String targetAddr)
+	{
+		try
+		{
+			return InetAddress.getByName(targetAddr);
+		} catch (UnknownHostException err)
+		{
+			log.error("The Host could not be found!", err);
+		}
+		return null;
+	}
+
+
+	public void connectToAllInterfaces()
+	{
+		try
+		{
+			for (var nif : NetworkInterface.networkInterfaces().collect(Collectors.toUnmodifiableList()))
+			{
+				connectTo(nif);
+			}
+		} catch (SocketException e)
+		{
+			log.error("Could not get available network interfaces", e);
+		}
+	}
+
+
+	public void connectTo(String nifName)
+	{
+		try
+		{
+			var nif = NetworkInterface.getByName(nifName);
+			if (nif != null)
+			{
+				connectTo(nif);
+			} else
+			{
+				log.warn("Specified nif not found: {}", nifName);
+			}
+		} catch (SocketException e)
+		{
+			log.error("Could not get an interface by name", e);
+		}
+	}
+
+
+	private void connectTo(NetworkInterface nif)
+	{
+		try
+		{
+			if (nif.supportsMulticast())
+			{
+				@SuppressWarnings("squid:S2095") // closing resources: can not close resource here
+				var socket = new MulticastSocket();
+				socket.setNetworkInterface(nif);
+				senders.add(new InterfaceSender(nif.getName(), socket));
+			}
+		} catch (IOException e)
+		{
+			log.warn("Could not connect at {}", nif, e);
+		}
+	}
+
+
+	@Override
+	public boolean send(final byte[] data)
+	{
+		return send(data, data.length);
+	}
+
+
+	/**
+	 * Hand the data over to the sender of each interface. The data is copied, so the caller can reuse its buffer.
+	 *
+	 * @param data   the buffer that contains the data
+	 * @param length the number of bytes to send from the start of the buffer
+	 * @return true, if the data was accepted by all interfaces
+	 */
+	public boolean send(final byte[] data, final int length)
+	{
+		if (senders.isEmpty())
+		{
+			return false;
+		}
+		boolean accepted = true;
+		for (InterfaceSender sender : senders)
+		{
+			if (!sender.offer(data, length))
+			{
+				numDropped.incrementAndGet();
+				accepted = false;
+			}
+		}
+		return accepted;
+	}
+
+
+	/**
+	 * @return the number of packets that were dropped for an interface, because it was still busy
+	 */
+	public long getNumDropped()
+	{
+		return numDropped.get();
+	}
+
+
+	/**
+	 * @return the number of connected interfaces
+	 */
+	public int getNumInterfaces()
+	{
+		return senders.size();
+	}
+
+
+	@Override
+	public void close()
+	{
+		senders.forEach(InterfaceSender::close);
+		senders.clear();
+	}
+
+
+	private class InterfaceSender implements Runnable
+	{
+		private final String nifName;
+		private final MulticastSocket socket;
+		private final ExecutorService executor;
+		private final AtomicBoolean busy = new AtomicBoolean(false);
+		private final DatagramPacket packet;
+		private byte[] buffer = new byte[1024];
+		private boolean lastSendFailed = false;
+
+
+		InterfaceSender(final String nifName, final MulticastSocket socket)
+		{
+			this.nifName = nifName;
+			this.socket = socket;
+			this.executor = Executors.newSingleThreadExecutor(new NamedThreadFactory("MulticastSender " + nifName));
+			this.packet = new DatagramPacket(buffer, 0, targetAddr, targetPort);
+		}
+
+
+		boolean offer(final byte[] data, final int length)
+		{
+			if (!busy.compareAndSet(false, true))
+			{
+				return false;
+			}
+			if (buffer.length < length)
+			{
+				buffer = new byte[length];
+			}
+			System.arraycopy(data, 0, buffer, 0, length);
+			packet.setData(buffer, 0, length);
+			executor.execute(this);
+			return true;
+		}
+
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				socket.send(packet);
+				lastSendFailed = false;
+			} catch (IOException err)
+			{
+				if (!lastSendFailed)
+				{
+					log.warn("Error while sending data to '{}:{}' on {}", targetAddr, targetPort, nifName, err);
+					lastSendFailed = true;
+				}
+			} finally
+			{
+				busy.set(false);
+			}
+		}
+
+
+		void close()
+		{
+			executor.shutdown();
+			socket.close();
+		}
+	}
+}
@@ -38,7 +38,6 @@ public class MulticastUDPReceiver implements IReceiver
 	private static final Logger log = LogManager.getLogger(MulticastUDPReceiver.class.getName());
 
 	private static final int SO_TIMEOUT = 500;
-	private static final String[] USELESS_PREFIXES = { "tap", "tun", "ham", "WAN" };
 	private static final String[] PREFERRED_PREFIXES = { "eth", "enp" };
 	// Connection
 	private final List<MulticastSocket> sockets = new ArrayList<>();
@@ -61,7 +60,7 @@ public class MulticastUDPReceiver implements IReceiver
 		{
 			try
 			{
-				if (isUselessInterface(iface))
+				if (NetworkUtility.isUselessInterface(iface))
 				{
 					log.debug("Filtered network interface: " + iface.getDisplayName());
 					continue;
@@ -146,30 +145,6 @@ public class MulticastUDPReceiver implements IReceiver
 	}
 
 
-	private boolean isUselessInterface(final NetworkInterface iface)
-	{
-		try
-		{
-			if (iface.getInterfaceAddresses().isEmpty() || iface.isPointToPoint() || iface.isVirtual() || !iface.isUp())
-			{
-				return true;
-			}
-		} catch (SocketException err)
-		{
-			log.error("Could not determine iface properties", err);
-		}
-
-		for (String prefix : USELESS_PREFIXES)
-		{
-			if (iface.getDisplayName().contains(prefix))
-			{
-				return true;
-			}
-		}
-		return false;
-	}
-
-
 	@SuppressWarnings("squid:S2095") // we do not want to close the multicast socket here
 	private void addSocket(final int port, final String groupStr, final NetworkInterface iface)
 	{
@@ -28,6 +28,7 @@ public final class NetworkUtility
 	// --- variables and constants ----------------------------------------------
 	// --------------------------------------------------------------------------
 	private static final Logger log = LogManager.getLogger(NetworkUtility.class.getName());
+	private static final String[] USELESS_PREFIXES = { "tap", "tun", "ham", "WAN" };
 
 
 	private NetworkUtility()
@@ -97,6 +98,37 @@ public final class NetworkUtility
 	}
 
 
+	/**
+	 * Check if the given interface should not be used for receiving multicast packets, because it is down,
+	 * virtual, point-to-point or a known VPN interface.
+	 *
+	 * @param iface the interface to check
+	 * @return true, if the interface should be skipped
+	 */
+	public static boolean isUselessInterface(final NetworkInterface iface)
+	{
+		try
+		{
+			if (iface.getInterfaceAddresses().isEmpty() || iface.isPointToPoint() || iface.isVirtual() || !iface.isUp())
+			{
+				return true;
+			}
+		} catch (SocketException err)
+		{
+			log.error("Could not determine iface properties", err);
+		}
+
+		for (String prefix : USELESS_PREFIXES)
+		{
+			if (iface.getDisplayName().contains(prefix))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+
 	private static boolean cmpIP4Addrs(final InetAddress addr1, final InetAddress addr2, final int bytesToCompare)
 	{
 		byte[] addr1b = addr1.getAddress();
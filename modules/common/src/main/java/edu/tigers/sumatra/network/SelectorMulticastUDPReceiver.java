@@ -0,0 +1,411 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.network;
+
+import edu.tigers.sumatra.clock.FpsCounter;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * A multicast receiver that joins the multicast group on all (or a given) network interfaces and waits on all of them
+ * at once with a {@link Selector}. A packet is delivered as soon as any channel is readable.
+ * <p>
+ * The packet rate is tracked per interface. Only packets from the active interface are delivered to avoid
+ * duplicates, if the same multicast traffic arrives on multiple interfaces. The active interface is switched
+ * automatically to the interface with the highest packet rate, as soon as the active interface went silent.
+ */
+@Log4j2
+public class SelectorMulticastUDPReceiver implements IReceiver
+{
+	private static final long SELECT_TIMEOUT_MS = 500;
+	private static final long SWITCH_TIMEOUT_NS = 200_000_000L;
+	private static final String[] PREFERRED_PREFIXES = { "eth", "enp" };
+
+	private final List<InterfaceChannel> channels = new ArrayList<>();
+	private final Deque<InterfaceChannel> readyChannels = new ArrayDeque<>();
+	private final List<IReceiverObserver> observers = new CopyOnWriteArrayList<>();
+	private final Selector selector;
+	private final InetAddress group;
+	private volatile InterfaceChannel activeChannel = null;
+	private volatile boolean readyToReceive;
+
+
+	/**
+	 * Join the multicast group on all usable network interfaces
+	 *
+	 * @param port
+	 * @param groupStr
+	 */
+	public SelectorMulticastUDPReceiver(final int port, final String groupStr)
+	{
+		this(port, groupStr, getNetworkInterfaces());
+	}
+
+
+	/**
+	 * Join the multicast group only on the given network interface
+	 *
+	 * @param port
+	 * @param groupStr
+	 * @param iface
+	 */
+	public SelectorMulticastUDPReceiver(final int port, final String groupStr, final NetworkInterface iface)
+	{
+		this(port, groupStr, Collections.singletonList(iface));
+	}
+
+
+	private SelectorMulticastUDPReceiver(final int port, final String groupStr, final List<NetworkInterface> ifaces)
+	{
+		selector = openSelector();
+		group = parseGroup(groupStr);
+		if (selector != null && group != null)
+		{
+			for (NetworkInterface iface : ifaces)
+			{
+				addChannel(port, iface);
+			}
+		}
+		readyToReceive = selector != null;
+	}
+
+
+	/**
+	 * @param observer
+	 */
+	public void addObserver(final IReceiverObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	/**
+	 * @param observer
+	 */
+	public void removeObserver(final IReceiverObserver observer)
+	{
+		observers.remove(observer);
+	}
+
+
+	private static List<NetworkInterface> getNetworkInterfaces()
+	{
+		List<NetworkInterface> ifaces = new ArrayList<>();
+		try
+		{
+			for (NetworkInterface iface : Collections.list(NetworkInterface.getNetworkInterfaces()))
+			{
+				if (NetworkUtility.isUselessInterface(iface))
+				{
+					log.debug("Filtered network interface: {}", iface.getDisplayName());
+				} else if (isPreferredInterface(iface))
+				{
+					ifaces.add(0, iface);
+				} else
+				{
+					ifaces.add(iface);
+				}
+			}
+		} catch (SocketException err)
+		{
+			log.error("Unable to get a list of network interfaces", err);
+		}
+		return ifaces;
+	}
+
+
+	private static boolean isPreferredInterface(final NetworkInterface iface)
+	{
+		for (String prefix : PREFERRED_PREFIXES)
+		{
+			if (iface.getDisplayName().contains(prefix))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private static Selector openSelector()
+	{
+		try
+		{
+			return Selector.open();
+		} catch (IOException err)
+		{
+			log.error("Could not open selector", err);
+		}
+		return null;
+	}
+
+
+	private static InetAddress parseGroup(final String groupStr)
+	{
+		try
+		{
+			return InetAddress.getByName(groupStr);
+		} catch (UnknownHostException err)
+		{
+			log.error("Unable to read multicast group address!", err);
+		}
+		return null;
+	}
+
+
+	@SuppressWarnings("squid:S2095") // the channel is closed in cleanup()
+	private void addChannel(final int port, final NetworkInterface iface)
+	{
+		DatagramChannel channel = null;
+		try
+		{
+			channel = DatagramChannel.open(StandardProtocolFamily.INET);
+			channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+			channel.bind(new InetSocketAddress(port));
+			channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, iface);
+			channel.join(group, iface);
+			channel.configureBlocking(false);
+			InterfaceChannel interfaceChannel = new InterfaceChannel(iface, channel);
+			channel.register(selector, SelectionKey.OP_READ, interfaceChannel);
+			channels.add(interfaceChannel);
+			log.debug("Multicast group {} joined on iface {} with MTU {}", group, iface.getDisplayName(), iface.getMTU());
+		} catch (IOException | UnsupportedOperationException err)
+		{
+			log.info("Could not create multicast channel on iface " + iface.getDisplayName() + " and port " + port, err);
+			closeChannel(channel);
+		}
+	}
+
+
+	@Override
+	public DatagramPacket receive(final DatagramPacket store) throws IOException
+	{
+		if (!isReady())
+		{
+			log.error("Receiver is not ready to receive!");
+			return null;
+		}
+
+		int offset = store.getOffset();
+		ByteBuffer buffer = ByteBuffer.wrap(store.getData());
+		try
+		{
+			while (isReady())
+			{
+				if (readyChannels.isEmpty())
+				{
+					waitForReadyChannels();
+					continue;
+				}
+
+				InterfaceChannel interfaceChannel = readyChannels.poll();
+				buffer.limit(buffer.capacity()).position(offset);
+				SocketAddress sender = interfaceChannel.channel.receive(buffer);
+				if (sender == null)
+				{
+					// channel drained, wait for the next select
+					continue;
+				}
+				// there may be more datagrams pending on this channel, so process it again later
+				readyChannels.add(interfaceChannel);
+
+				if (accept(interfaceChannel, System.nanoTime()))
+				{
+					store.setData(store.getData(), offset, buffer.position() - offset);
+					store.setSocketAddress(sender);
+					return store;
+				}
+			}
+		} catch (ClosedSelectorException err)
+		{
+			throw new ClosedChannelException();
+		}
+		throw new ClosedChannelException();
+	}
+
+
+	private void waitForReadyChannels() throws IOException
+	{
+		selector.selectedKeys().clear();
+		int numReady = selector.select(SELECT_TIMEOUT_MS);
+		if (Thread.currentThread().isInterrupted())
+		{
+			throw new ClosedByInterruptException();
+		}
+		if (numReady == 0)
+		{
+			log.debug("Timed out while waiting for multicast packets");
+			for (IReceiverObserver obs : observers)
+			{
+				obs.onInterfaceTimedOut();
+			}
+			return;
+		}
+		for (SelectionKey key : selector.selectedKeys())
+		{
+			readyChannels.add((InterfaceChannel) key.attachment());
+		}
+	}
+
+
+	private boolean accept(final InterfaceChannel interfaceChannel, final long timestamp)
+	{
+		interfaceChannel.packetReceived(timestamp);
+		if (interfaceChannel == activeChannel)
+		{
+			return true;
+		}
+		if (activeChannel == null || timestamp - activeChannel.lastReceived > SWITCH_TIMEOUT_NS)
+		{
+			activeChannel = findBestChannel(timestamp);
+			log.info("Multicast receiving interface changed to {}", activeChannel.iface.getDisplayName());
+			return interfaceChannel == activeChannel;
+		}
+		// same traffic on a secondary interface, drop it
+		return false;
+	}
+
+
+	private InterfaceChannel findBestChannel(final long timestamp)
+	{
+		InterfaceChannel best = null;
+		for (InterfaceChannel c : channels)
+		{
+			boolean alive = c.received && timestamp - c.lastReceived <= SWITCH_TIMEOUT_NS;
+			if (alive && (best == null || c.rate.getAvgFps() > best.rate.getAvgFps()))
+			{
+				best = c;
+			}
+		}
+		return best;
+	}
+
+
+	/**
+	 * @return the display name of the interface that packets are currently delivered from
+	 */
+	public Optional<String> getActiveInterface()
+	{
+		InterfaceChannel c = activeChannel;
+		return Optional.ofNullable(c).map(ic -> ic.iface.getDisplayName());
+	}
+
+
+	/**
+	 * @return the current packet rate [1/s] per joined interface, identified by its display name
+	 */
+	public Map<String, Double> getPacketRates()
+	{
+		Map<String, Double> rates = new LinkedHashMap<>();
+		for (InterfaceChannel c : channels)
+		{
+			rates.put(c.iface.getDisplayName(), c.rate.getAvgFps());
+		}
+		return rates;
+	}
+
+
+	@Override
+	public void cleanup()
+	{
+		// No-working state after this line...
+		readyToReceive = false;
+
+		if (selector != null)
+		{
+			selector.wakeup();
+		}
+		for (InterfaceChannel c : channels)
+		{
+			closeChannel(c.channel);
+		}
+		if (selector != null)
+		{
+			try
+			{
+				selector.close();
+			} catch (IOException err)
+			{
+				log.debug("Error while closing selector", err);
+			}
+		}
+		observers.clear();
+	}
+
+
+	private void closeChannel(final DatagramChannel channel)
+	{
+		if (channel == null)
+		{
+			return;
+		}
+		try
+		{
+			channel.close();
+		} catch (IOException err)
+		{
+			log.debug("Error while closing multicast channel", err);
+		}
+	}
+
+
+	@Override
+	public boolean isReady()
+	{
+		return readyToReceive;
+	}
+
+
+	private static class InterfaceChannel
+	{
+		final NetworkInterface iface;
+		final DatagramChannel channel;
+		final FpsCounter rate = new FpsCounter();
+		boolean received = false;
+		long lastReceived = 0;
+
+
+		InterfaceChannel(final NetworkInterface iface, final DatagramChannel channel)
+		{
+			this.iface = iface;
+			this.channel = channel;
+		}
+
+
+		void packetReceived(final long timestamp)
+		{
+			rate.newFrame(timestamp);
+			lastReceived = timestamp;
+			received = true;
+		}
+	}
+}
@@ -37,6 +37,20 @@ public class ParameterPermutator
 	}
 	
 	
+	/**
+	 * @return the number of distinct parameter combinations, after which {@link #next()} starts over
+	 */
+	public int size()
+	{
+		int size = 1;
+		for (ParameterSet set : parameterSets.values())
+		{
+			size *= set.size();
+		}
+		return size;
+	}
+	
+	
 	public Map<String, Double> current()
 	{
 		return parameterSets.entrySet().stream()
@@ -76,6 +90,17 @@ public class ParameterPermutator
 		}
 		
 		
+		int size()
+		{
+			int size = 1;
+			for (double value = min + step; value <= max; value += step)
+			{
+				size++;
+			}
+			return size;
+		}
+		
+		
 		void next()
 		{
 			current += step;
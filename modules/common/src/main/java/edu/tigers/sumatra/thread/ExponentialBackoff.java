@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.thread;
+
+/**
+ * A bounded exponential backoff for retrying an operation, like connecting to a server.
+ * The delay starts small, so that a server that is just restarting is reached again within a few milliseconds,
+ * and doubles with every retry up to a maximum, so that a server that is down is not flooded with attempts.
+ * The delays are real time delays, because they wait for external processes.
+ */
+public class ExponentialBackoff
+{
+	/** [ms] */
+	private final long initialDelay;
+	/** [ms] */
+	private final long maxDelay;
+	/** [ms] */
+	private long nextDelay;
+
+
+	/**
+	 * @param initialDelay the delay before the first retry [ms]
+	 * @param maxDelay     the upper bound of the delay [ms]
+	 */
+	public ExponentialBackoff(final long initialDelay, final long maxDelay)
+	{
+		this.initialDelay = Math.max(1, initialDelay);
+		this.maxDelay = Math.max(this.initialDelay, maxDelay);
+		nextDelay = this.initialDelay;
+	}
+
+
+	/**
+	 * @return the delay before the next retry [ms], every call doubles the following delay up to the maximum
+	 */
+	public long nextDelay()
+	{
+		long delay = nextDelay;
+		nextDelay = Math.min(maxDelay, nextDelay * 2);
+		return delay;
+	}
+
+
+	/**
+	 * Start again with the initial delay, usually after the operation succeeded
+	 */
+	public void reset()
+	{
+		nextDelay = initialDelay;
+	}
+
+
+	/**
+	 * Sleep for the next delay
+	 *
+	 * @return false, if the thread was interrupted while sleeping
+	 */
+	public boolean sleep()
+	{
+		try
+		{
+			Thread.sleep(nextDelay());
+			return true;
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
@@ -1,14 +1,14 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.thread;
 
+import edu.tigers.sumatra.clock.IClockTask;
+import edu.tigers.sumatra.clock.SumatraClock;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 
@@ -17,6 +17,7 @@ import java.util.concurrent.TimeUnit;
  * The watchdog sets a variable that needs to be reset during each watchdog
  * period. If this is not done, the watchdog will call its observers and
  * terminate.
+ * The time is measured and the watchdog is triggered with the {@link SumatraClock}.
  */
 @Log4j2
 @RequiredArgsConstructor
@@ -29,23 +30,24 @@ public class Watchdog
 	@Setter
 	private boolean active = true;
 	private long lastPing;
-	private ScheduledExecutorService executorService;
+	private IClockTask triggerTask;
 
 
 	public void start()
 	{
-		lastPing = System.nanoTime();
+		lastPing = SumatraClock.nanoTime();
 		active = true;
-		this.executorService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Watchdog " + name));
-		this.executorService.scheduleWithFixedDelay(this::trigger, period, period, TimeUnit.MILLISECONDS);
+		long periodNs = TimeUnit.MILLISECONDS.toNanos(period);
+		triggerTask = SumatraClock.get().scheduleAtFixedRate("Watchdog " + name, this::trigger, periodNs, periodNs);
 	}
 
 
 	public void stop()
 	{
-		if (executorService != null)
+		if (triggerTask != null)
 		{
-			executorService.shutdown();
+			triggerTask.cancel();
+			triggerTask = null;
 		}
 	}
 
@@ -55,7 +57,7 @@ public class Watchdog
 	 */
 	public void reset()
 	{
-		lastPing = System.nanoTime();
+		lastPing = SumatraClock.nanoTime();
 	}
 
 
@@ -65,7 +67,7 @@ public class Watchdog
 		{
 			return;
 		}
-		long now = System.nanoTime();
+		long now = SumatraClock.nanoTime();
 		long diff = now - lastPing;
 		if (diff > TimeUnit.MILLISECONDS.toNanos(period))
 		{
@@ -4,16 +4,13 @@
 
 package edu.tigers.sumatra.trajectory;
 
-import edu.tigers.sumatra.math.AngleMath;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2;
 import lombok.ToString;
-import net.jafama.DoubleWrapper;
 import net.jafama.FastMath;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 
 
 /**
@@ -22,6 +19,11 @@ import java.util.function.Function;
 @ToString
 class BangBangTrajectory2D implements ITrajectory<IVector2>
 {
+	/**
+	 * Upper limit for the synchronization, more than enough to narrow the bracket down to float precision
+	 */
+	private static final int MAX_SYNC_ITERATIONS = 40;
+
 	final BangBangTrajectory1D x = new BangBangTrajectory1D();
 	final BangBangTrajectory1D y = new BangBangTrajectory1D();
 
@@ -113,7 +115,8 @@ class BangBangTrajectory2D implements ITrajectory<IVector2>
 	 * @param vmax     max velocity
 	 * @param acc      acceleration
 	 * @param accuracy synchronization accuracy
-	 * @param alphaFn  alpha function for synchronization
+	 * @param alphaMin lower bound of the angle that splits vmax and acc between x and y
+	 * @param alphaMax upper bound of the angle that splits vmax and acc between x and y
 	 * @return this for chaining
 	 */
 	BangBangTrajectory2D generate(
@@ -123,44 +126,131 @@ class BangBangTrajectory2D implements ITrajectory<IVector2>
 			final float vmax,
 			final float acc,
 			final float accuracy,
-			final Function<Float, Float> alphaFn
+			final float alphaMin,
+			final float alphaMax
 	)
 	{
-		final var s0x = (float) s0.x();
-		final var s0y = (float) s0.y();
-		final var s1x = (float) s1.x();
-		final var s1y = (float) s1.y();
-		final var v0x = (float) v0.x();
-		final var v0y = (float) v0.y();
-
-		float inc = (float) AngleMath.PI / 8.0f;
-		float alpha = (float) AngleMath.PI / 4.0f;
-
-		// binary search, some iterations (fixed)
-		while (inc > 1e-7)
+		return generate(
+				(float) s0.x(), (float) s0.y(),
+				(float) s1.x(), (float) s1.y(),
+				(float) v0.x(), (float) v0.y(),
+				vmax, acc, accuracy, alphaMin, alphaMax);
+	}
+
+
+	/**
+	 * Generate the trajectory based on primitive input parameters and returns this instance for chaining.
+	 * <p>
+	 * The x and y axes are synchronized by searching the angle alpha that splits vmax and acc into
+	 * {@code cos(alpha)} for x and {@code sin(alpha)} for y, such that both axes need the same time.
+	 * The time difference {@code tx - ty} increases monotonically with alpha, so the search keeps a bracket around
+	 * the root. It starts at the closed-form solution for a start at rest, which is the direction to the target,
+	 * and then uses regula falsi (Illinois variant) steps, falling back to bisection while the bracket is not
+	 * known on both sides. The search does not allocate.
+	 *
+	 * @param s0x      initial x position
+	 * @param s0y      initial y position
+	 * @param s1x      target x position
+	 * @param s1y      target y position
+	 * @param v0x      initial x velocity
+	 * @param v0y      initial y velocity
+	 * @param vmax     max velocity
+	 * @param acc      acceleration
+	 * @param accuracy synchronization accuracy [s]
+	 * @param alphaMin lower bound of alpha, in [0, pi/2)
+	 * @param alphaMax upper bound of alpha, in (alphaMin, pi/2]
+	 * @return this for chaining
+	 */
+	@SuppressWarnings("squid:S00107") // primitive parameters avoid allocations in the hot path
+	BangBangTrajectory2D generate(
+			final float s0x,
+			final float s0y,
+			final float s1x,
+			final float s1y,
+			final float v0x,
+			final float v0y,
+			final float vmax,
+			final float acc,
+			final float accuracy,
+			final float alphaMin,
+			final float alphaMax
+	)
+	{
+		float lo = alphaMin;
+		float hi = alphaMax;
+		// the time differences at the bracket bounds, NaN while not evaluated
+		float diffLo = Float.NaN;
+		float diffHi = Float.NaN;
+		int lastSide = 0;
+
+		float alpha = initialAlpha(s1x - s0x, s1y - s0y, lo, hi);
+		for (int i = 0; i < MAX_SYNC_ITERATIONS; i++)
 		{
-			DoubleWrapper cos = new DoubleWrapper();
-			final float sA = (float) FastMath.sinAndCos(alphaFn.apply(alpha), cos);
-			final float cA = (float) cos.value;
+			final float sA = (float) FastMath.sin(alpha);
+			final float cA = (float) FastMath.cos(alpha);
 
 			x.generate(s0x, s1x, v0x, vmax * cA, acc * cA);
 			y.generate(s0y, s1y, v0y, vmax * sA, acc * sA);
 
-			double diff = Math.abs(x.getTotalTime() - y.getTotalTime());
-			if (diff < accuracy)
+			final float diff = (float) (x.getTotalTime() - y.getTotalTime());
+			if (Math.abs(diff) < accuracy)
 			{
 				break;
 			}
-			if (x.getTotalTime() > y.getTotalTime())
+			if (diff > 0)
 			{
-				alpha -= inc;
+				// x is too slow, give it a larger share
+				hi = alpha;
+				diffHi = diff;
+				if (lastSide > 0)
+				{
+					diffLo *= 0.5f;
+				}
+				lastSide = 1;
 			} else
 			{
-				alpha += inc;
+				lo = alpha;
+				diffLo = diff;
+				if (lastSide < 0)
+				{
+					diffHi *= 0.5f;
+				}
+				lastSide = -1;
 			}
 
-			inc *= 0.5f;
+			float next = 0.5f * (lo + hi);
+			if (!Float.isNaN(diffLo) && !Float.isNaN(diffHi))
+			{
+				float falsePosition = hi - diffHi * (hi - lo) / (diffHi - diffLo);
+				if (falsePosition > lo && falsePosition < hi)
+				{
+					next = falsePosition;
+				}
+			}
+			if (next <= lo || next >= hi)
+			{
+				// bracket can not be narrowed any further with float precision
+				break;
+			}
+			alpha = next;
 		}
 		return this;
 	}
+
+
+	/**
+	 * For a start at rest, both axes need the same time if vmax and acc are split along the direction to the target.
+	 *
+	 * @param dx distance in x
+	 * @param dy distance in y
+	 * @param lo lower bound of alpha
+	 * @param hi upper bound of alpha
+	 * @return the initial alpha, strictly inside the bounds
+	 */
+	private static float initialAlpha(final float dx, final float dy, final float lo, final float hi)
+	{
+		float alpha = (float) FastMath.atan2(Math.abs(dy), Math.abs(dx));
+		float margin = (hi - lo) * 1e-3f;
+		return Math.min(hi - margin, Math.max(lo + margin, alpha));
+	}
 }
@@ -5,17 +5,19 @@
 package edu.tigers.sumatra.trajectory;
 
 import edu.tigers.sumatra.math.AngleMath;
+import edu.tigers.sumatra.math.SumatraMath;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
 import org.apache.commons.lang.Validate;
 
-import java.util.function.Function;
-
 
 public final class BangBangTrajectoryFactory
 {
 	private static final double MAX_VEL_TOLERANCE = 0.2;
-	private static final float SYNC_ACCURACY = 1e-3f;
+	private static final float SYNC_ACCURACY = 1e-4f;
+	private static final float ALPHA_MIN_SYNC = 0;
+	private static final float ALPHA_MIN_ASYNC = (float) AngleMath.PI_QUART;
+	private static final float ALPHA_MAX = (float) AngleMath.PI_HALF;
 
 
 	public BangBangTrajectory2DAsync async(
@@ -34,7 +36,7 @@ public final class BangBangTrajectoryFactory
 		final var startToTarget = s1.subtractNew(s0).turn(-rotation);
 		final var v0Rotated = v0.turnNew(-rotation);
 
-		final Function<Float, Float> alphaFn = alpha -> alpha + (((float) AngleMath.PI_HALF - alpha) * 0.5f);
+		// the primary direction gets at least half of vmax and acc
 		BangBangTrajectory2D child = new BangBangTrajectory2D().generate(
 				Vector2f.ZERO_VECTOR,
 				startToTarget,
@@ -42,7 +44,8 @@ public final class BangBangTrajectoryFactory
 				(float) vmax,
 				(float) acc,
 				SYNC_ACCURACY,
-				alphaFn);
+				ALPHA_MIN_ASYNC,
+				ALPHA_MAX);
 		return new BangBangTrajectory2DAsync(child, s0, rotation);
 	}
 
@@ -62,7 +65,58 @@ public final class BangBangTrajectoryFactory
 				(float) vmax,
 				(float) acc,
 				SYNC_ACCURACY,
-				Function.identity());
+				ALPHA_MIN_SYNC,
+				ALPHA_MAX);
+	}
+
+
+	/**
+	 * Generate synchronized trajectories for many robots in one call, without allocating any intermediate objects.
+	 * Positions and velocities are passed as interleaved x and y values, so trajectory i uses the indices
+	 * {@code 2 * i} and {@code 2 * i + 1}.
+	 *
+	 * @param s0     initial positions [m]
+	 * @param s1     target positions [m]
+	 * @param v0     initial velocities [m/s]
+	 * @param vmax   max velocity per trajectory [m/s]
+	 * @param acc    acceleration per trajectory [m/s^2]
+	 * @param result the trajectories to generate into, elements that are null are created
+	 * @return the result array for chaining
+	 */
+	public BangBangTrajectory2D[] sync(
+			final double[] s0,
+			final double[] s1,
+			final double[] v0,
+			final double[] vmax,
+			final double[] acc,
+			final BangBangTrajectory2D[] result
+	)
+	{
+		Validate.isTrue(s0.length == 2 * result.length && s1.length == s0.length && v0.length == s0.length,
+				"positions and velocities must contain x and y for each trajectory");
+		Validate.isTrue(vmax.length == result.length && acc.length == result.length,
+				"limits must be given for each trajectory");
+
+		for (int i = 0; i < result.length; i++)
+		{
+			if (result[i] == null)
+			{
+				result[i] = new BangBangTrajectory2D();
+			}
+			double v0x = v0[2 * i];
+			double v0y = v0[2 * i + 1];
+			double scale = adaptVelScale(SumatraMath.sqrt(v0x * v0x + v0y * v0y), vmax[i]);
+			result[i].generate(
+					(float) s0[2 * i], (float) s0[2 * i + 1],
+					(float) s1[2 * i], (float) s1[2 * i + 1],
+					(float) (v0x * scale), (float) (v0y * scale),
+					(float) vmax[i],
+					(float) acc[i],
+					SYNC_ACCURACY,
+					ALPHA_MIN_SYNC,
+					ALPHA_MAX);
+		}
+		return result;
 	}
 
 
@@ -117,6 +171,19 @@ public final class BangBangTrajectoryFactory
 	}
 
 
+	/**
+	 * Same as {@link #adaptVel(IVector2, double)}, but returns the factor to scale the velocity with.
+	 */
+	private static double adaptVelScale(double curVelAbs, double vMax)
+	{
+		if (curVelAbs > vMax && curVelAbs < vMax + MAX_VEL_TOLERANCE)
+		{
+			return vMax / curVelAbs;
+		}
+		return 1;
+	}
+
+
 	private static double adaptVel(double v0, double vMax)
 	{
 		var curVelAbs = v0;
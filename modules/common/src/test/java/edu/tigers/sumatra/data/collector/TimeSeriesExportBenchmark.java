@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.data.collector;
+
+import edu.tigers.sumatra.export.CSVExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+
+/**
+ * Compare the time to collect and export a time series with the buffered CSV export of the
+ * {@link TimeSeriesDataCollector} to the streaming export of the {@link TimeSeriesStreamExporter}.
+ * <p>
+ * A sample resembles a tracked robot with 20 values. The buffered export keeps all samples until the end,
+ * the streaming export writes them in chunks while samples are added.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3)
+public class TimeSeriesExportBenchmark
+{
+	private static final int NUM_VALUES = 20;
+
+	@Param({ "100000" })
+	private int numSamples;
+
+	private final List<Sample> samples = new ArrayList<>();
+	private Path folder;
+
+
+	public static void main(String[] args) throws Exception
+	{
+		org.openjdk.jmh.Main.main(args);
+	}
+
+
+	@Setup
+	public void setup()
+	{
+		Random rnd = new Random(42);
+		for (int i = 0; i < numSamples; i++)
+		{
+			double[] values = new double[NUM_VALUES - 2];
+			for (int v = 0; v < values.length; v++)
+			{
+				values[v] = rnd.nextGaussian() * 1000;
+			}
+			samples.add(new Sample(i * 16_000_000L, i % 11, values));
+		}
+	}
+
+
+	@Setup(Level.Invocation)
+	public void createFolder() throws IOException
+	{
+		folder = Files.createTempDirectory("timeSeriesExport");
+	}
+
+
+	@TearDown(Level.Invocation)
+	public void deleteFolder() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(folder))
+		{
+			files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+		}
+	}
+
+
+	@Benchmark
+	public void bufferedCsv()
+	{
+		Collection<IExportable> buffer = new ConcurrentLinkedQueue<>();
+		buffer.addAll(samples);
+		CSVExporter.exportCollection(folder.toString(), "samples", new ArrayList<>(buffer));
+	}
+
+
+	@Benchmark
+	public void streamCsv()
+	{
+		stream(EnumSet.of(ETimeSeriesFormat.CSV));
+	}
+
+
+	@Benchmark
+	public void streamBinary()
+	{
+		stream(EnumSet.of(ETimeSeriesFormat.BINARY));
+	}
+
+
+	private void stream(final EnumSet<ETimeSeriesFormat> formats)
+	{
+		try (TimeSeriesStreamExporter exporter = new TimeSeriesStreamExporter(folder.toString(), formats))
+		{
+			for (Sample sample : samples)
+			{
+				exporter.add("samples", sample);
+			}
+		}
+	}
+
+
+	private static class Sample implements IExportable
+	{
+		final long timestamp;
+		final int id;
+		final double[] values;
+
+
+		Sample(final long timestamp, final int id, final double[] values)
+		{
+			this.timestamp = timestamp;
+			this.id = id;
+			this.values = values;
+		}
+
+
+		@Override
+		public List<Number> getNumberList()
+		{
+			List<Number> numbers = new ArrayList<>(NUM_VALUES);
+			numbers.add(timestamp);
+			numbers.add(id);
+			Arrays.stream(values).forEach(numbers::add);
+			return numbers;
+		}
+
+
+		@Override
+		public void writeValues(final IExportValueWriter writer)
+		{
+			writer.writeLong(timestamp);
+			writer.writeLong(id);
+			for (double value : values)
+			{
+				writer.writeDouble(value);
+			}
+		}
+	}
+}
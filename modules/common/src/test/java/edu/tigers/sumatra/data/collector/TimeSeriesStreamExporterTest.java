@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.data.collector;
+
+import edu.tigers.sumatra.export.CSVExporter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class TimeSeriesStreamExporterTest
+{
+	private static final int NUM_SAMPLES = 100;
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+
+	@Test
+	public void testBinaryRoundTrip() throws IOException
+	{
+		Path folder = tmp.getRoot().toPath().resolve("stream");
+		List<Sample> samples = samples();
+
+		// small chunks to write multiple chunks and wait for free chunks
+		try (TimeSeriesStreamExporter exporter = new TimeSeriesStreamExporter(folder.toString(),
+				EnumSet.of(ETimeSeriesFormat.BINARY), 7, 2))
+		{
+			exporter.addAll("samples", samples);
+			assertThat(exporter.getNumSamples()).containsEntry("samples", (long) NUM_SAMPLES);
+		}
+
+		TimeSeriesTable table = TimeSeriesReader.read(folder.resolve("samples.tsb"));
+		assertThat(table.getHeaders()).containsExactly("timestamp", "value", "flag");
+		assertThat(table.getNumRows()).isEqualTo(NUM_SAMPLES);
+		assertThat(table.isLongColumn("timestamp")).isTrue();
+		assertThat(table.isLongColumn("value")).isFalse();
+
+		long[] timestamps = table.getLongColumn("timestamp");
+		double[] values = table.getDoubleColumn("value");
+		long[] flags = table.getLongColumn("flag");
+		for (int i = 0; i < NUM_SAMPLES; i++)
+		{
+			assertThat(timestamps[i]).isEqualTo(samples.get(i).timestamp);
+			assertThat(values[i]).isEqualTo(samples.get(i).value);
+			assertThat(flags[i]).isEqualTo(samples.get(i).flag);
+		}
+		assertThat(Files.exists(folder.resolve("samples.csv"))).isFalse();
+	}
+
+
+	@Test
+	public void testCsvEqualsCsvExporter() throws IOException
+	{
+		Path folder = tmp.getRoot().toPath().resolve("stream");
+		Path legacyFolder = tmp.getRoot().toPath().resolve("legacy");
+		List<Sample> samples = samples();
+
+		try (TimeSeriesStreamExporter exporter = new TimeSeriesStreamExporter(folder.toString(),
+				EnumSet.allOf(ETimeSeriesFormat.class), 16, 2))
+		{
+			exporter.addAll("samples", samples);
+		}
+		CSVExporter.exportCollection(legacyFolder.toString(), "samples", samples);
+
+		assertThat(Files.readAllLines(folder.resolve("samples.csv")))
+				.isEqualTo(Files.readAllLines(legacyFolder.resolve("samples.csv")));
+		assertThat(Files.exists(folder.resolve("samples.tsb"))).isTrue();
+	}
+
+
+	@Test
+	public void testUnusedSeriesAreNotWritten() throws IOException
+	{
+		Path folder = tmp.getRoot().toPath().resolve("stream");
+		Files.createDirectories(folder);
+
+		new TimeSeriesStreamExporter(folder.toString(), EnumSet.allOf(ETimeSeriesFormat.class)).close();
+
+		try (var files = Files.list(folder))
+		{
+			assertThat(files).isEmpty();
+		}
+	}
+
+
+	private List<Sample> samples()
+	{
+		List<Sample> samples = new ArrayList<>();
+		for (int i = 0; i < NUM_SAMPLES; i++)
+		{
+			samples.add(new Sample(1_600_000_000_000_000_000L + i * 16_000_000L, Math.sin(i) * 1e4, i % 2));
+		}
+		return samples;
+	}
+
+
+	/**
+	 * A sample that only provides the boxed number list
+	 */
+	private static class Sample implements IExportable
+	{
+		final long timestamp;
+		final double value;
+		final int flag;
+
+
+		Sample(final long timestamp, final double value, final int flag)
+		{
+			this.timestamp = timestamp;
+			this.value = value;
+			this.flag = flag;
+		}
+
+
+		@Override
+		public List<Number> getNumberList()
+		{
+			return Arrays.asList(timestamp, value, flag);
+		}
+
+
+		@Override
+		public List<String> getHeaders()
+		{
+			return Arrays.asList("timestamp", "value", "flag");
+		}
+	}
+}
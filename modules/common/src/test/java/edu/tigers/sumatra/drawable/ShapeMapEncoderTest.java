@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.drawable;
+
+import edu.tigers.sumatra.math.circle.Circle;
+import edu.tigers.sumatra.math.line.v2.Lines;
+import edu.tigers.sumatra.math.vector.Vector2;
+import org.junit.Test;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+
+public class ShapeMapEncoderTest
+{
+	@Test
+	public void testDecodeSequence() throws IOException
+	{
+		ShapeMapEncoder encoder = new ShapeMapEncoder();
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		for (int i = 0; i < 50; i++)
+		{
+			ShapeMap shapeMap = createShapeMap(i);
+			decoder.decode(encoder.encode(shapeMap, i % 20 == 0).getData());
+			assertSameShapes(decoder.getShapeMap(), shapeMap);
+		}
+	}
+
+
+	@Test
+	public void testOnlyChangedLayersAreEncoded()
+	{
+		ShapeMapEncoder encoder = new ShapeMapEncoder();
+		ShapeMapEncoder.Result keyframe = encoder.encode(createShapeMap(0), true);
+		ShapeMapEncoder.Result delta = encoder.encode(createShapeMap(1), false);
+		ShapeMapEncoder.Result unchanged = encoder.encode(createShapeMap(1), false);
+
+		assertThat(keyframe.getNumEncodedLayers()).isEqualTo(3);
+		// the field layer does not change
+		assertThat(delta.getNumEncodedLayers()).isEqualTo(2);
+		assertThat(delta.getData().length).isLessThan(keyframe.getData().length);
+		assertThat(unchanged.getNumEncodedLayers()).isZero();
+	}
+
+
+	@Test
+	public void testRemovedLayer() throws IOException
+	{
+		ShapeMapEncoder encoder = new ShapeMapEncoder();
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		ShapeMap shapeMap = createShapeMap(0);
+		decoder.decode(encoder.encode(shapeMap, true).getData());
+
+		ShapeMap withoutBall = new ShapeMap();
+		withoutBall.get(ETestLayer.FIELD).addAll(shapeMap.get(ETestLayer.FIELD));
+		withoutBall.get(ETestLayer.ROBOTS).addAll(shapeMap.get(ETestLayer.ROBOTS));
+		decoder.decode(encoder.encode(withoutBall, false).getData());
+
+		assertThat(decoder.getShapeMap().getAllShapeLayersIdentifiers())
+				.containsExactlyInAnyOrder(ETestLayer.FIELD, ETestLayer.ROBOTS);
+		assertSameShapes(decoder.getShapeMap(), withoutBall);
+	}
+
+
+	@Test
+	public void testUnsupportedLayerIsReturnedSeparately() throws IOException
+	{
+		ShapeMapEncoder encoder = new ShapeMapEncoder();
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		ShapeMap shapeMap = createShapeMap(0);
+		IDrawableShape lambdaShape = (g, tool, invert) -> {
+		};
+		shapeMap.get(ETestLayer.ROBOTS).add(lambdaShape);
+
+		ShapeMapEncoder.Result result = encoder.encode(shapeMap, true);
+		decoder.decode(result.getData());
+
+		assertThat(result.getUnsupportedLayers().getAllShapeLayersIdentifiers()).containsExactly(ETestLayer.ROBOTS);
+		assertThat(result.getUnsupportedLayers().get(ETestLayer.ROBOTS)).contains(lambdaShape);
+		assertThat(decoder.getShapeMap().getAllShapeLayersIdentifiers())
+				.containsExactlyInAnyOrder(ETestLayer.FIELD, ETestLayer.BALL);
+	}
+
+
+	@Test
+	public void testDecodingStartsAtKeyframe() throws IOException
+	{
+		ShapeMapEncoder encoder = new ShapeMapEncoder();
+		List<byte[]> data = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+		{
+			data.add(encoder.encode(createShapeMap(i), i % 5 == 0).getData());
+		}
+
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		assertThatThrownBy(() -> decoder.decode(data.get(3))).isInstanceOf(IOException.class);
+		assertThat(decoder.isValid()).isFalse();
+
+		for (int i = 5; i < 10; i++)
+		{
+			decoder.decode(data.get(i));
+		}
+		assertThat(ShapeMapDecoder.isKeyframe(data.get(5))).isTrue();
+		assertThat(ShapeMapDecoder.isKeyframe(data.get(6))).isFalse();
+		assertSameShapes(decoder.getShapeMap(), createShapeMap(9));
+	}
+
+
+	@Test
+	public void testDecodeChangedShapeClass() throws IOException
+	{
+		ShapeMap shapeMap = createShapeMap(0);
+		shapeMap.get(ETestLayer.ROBOTS).add(new TestShapeV1(1.5, 3, "bot"));
+		byte[] data = new ShapeMapEncoder().encode(shapeMap, true).getData();
+
+		// simulate that the shape class changed since the data was written
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		decoder.decode(replace(data, "TestShapeV1", "TestShapeV2"));
+
+		List<IDrawableShape> robots = decoder.getShapeMap().get(ETestLayer.ROBOTS);
+		assertThat(robots).hasSize(2);
+		TestShapeV2 shape = (TestShapeV2) robots.get(1);
+		assertThat(shape.x).isEqualTo(1.5);
+		assertThat(shape.size).isEqualTo(3.0);
+		assertThat(shape.label).isEqualTo(-1);
+		assertThat(shape.color).isEqualTo(Color.RED);
+	}
+
+
+	@Test
+	public void testUnknownClassesAreSkipped() throws IOException
+	{
+		ShapeMap shapeMap = createShapeMap(0);
+		shapeMap.get(ETestLayer.ROBOTS).add(new TestShapeV1(1.5, 3, "bot"));
+		byte[] data = new ShapeMapEncoder().encode(shapeMap, true).getData();
+
+		ShapeMapDecoder decoder = new ShapeMapDecoder();
+		decoder.decode(replace(data, "TestShapeV1", "TestShapeX1"));
+		assertThat(decoder.getShapeMap().getAllShapeLayersIdentifiers())
+				.containsExactlyInAnyOrder(ETestLayer.FIELD, ETestLayer.BALL, ETestLayer.ROBOTS);
+		assertThat(decoder.getShapeMap().get(ETestLayer.ROBOTS)).hasSize(1);
+
+		// the layer identifier can not be resolved anymore, so only this layer is dropped
+		decoder.decode(replace(data, "ROBOTS", "ROBOTZ"));
+		assertThat(decoder.isValid()).isTrue();
+		assertThat(decoder.getShapeMap().getAllShapeLayersIdentifiers())
+				.containsExactlyInAnyOrder(ETestLayer.FIELD, ETestLayer.BALL);
+	}
+
+
+	private static byte[] replace(final byte[] data, final String target, final String replacement)
+	{
+		String text = new String(data, StandardCharsets.ISO_8859_1);
+		return text.replace(target, replacement).getBytes(StandardCharsets.ISO_8859_1);
+	}
+
+
+	private static ShapeMap createShapeMap(final int frame)
+	{
+		ShapeMap shapeMap = new ShapeMap();
+		shapeMap.get(ETestLayer.FIELD).add(new DrawableLine(
+				Lines.segmentFromPoints(Vector2.fromXY(-4500, 0), Vector2.fromXY(4500, 0)), Color.WHITE));
+		shapeMap.get(ETestLayer.FIELD).add(new DrawableCircle(Circle.createCircle(Vector2.zero(), 500), Color.WHITE));
+
+		Vector2 ballPos = Vector2.fromXY(frame * 10.0, -frame * 5.0);
+		shapeMap.get(ETestLayer.BALL).add(new DrawableCircle(ballPos, 21.5, Color.ORANGE).setFill(true));
+		shapeMap.get(ETestLayer.ROBOTS).add(new DrawableAnnotation(ballPos, "frame " + frame));
+		return shapeMap;
+	}
+
+
+	/**
+	 * Compare two shape maps by their keyframe encoding
+	 */
+	private static void assertSameShapes(final ShapeMap actual, final ShapeMap expected)
+	{
+		assertThat(actual.getAllShapeLayersIdentifiers())
+				.containsExactlyInAnyOrderElementsOf(expected.getAllShapeLayersIdentifiers());
+		assertThat(new ShapeMapEncoder().encode(actual, true).getData())
+				.isEqualTo(new ShapeMapEncoder().encode(expected, true).getData());
+	}
+
+
+	/**
+	 * A shape as it was written by an older version
+	 */
+	private static class TestShapeV1 implements IDrawableShape
+	{
+		private double x;
+		private int size;
+		private String label;
+		private String removed = "removed";
+
+
+		@SuppressWarnings("unused") // used by the codec
+		private TestShapeV1()
+		{
+		}
+
+
+		private TestShapeV1(final double x, final int size, final String label)
+		{
+			this.x = x;
+			this.size = size;
+			this.label = label;
+		}
+
+
+		@Override
+		public void paintShape(final Graphics2D g, final IDrawableTool tool, final boolean invert)
+		{
+		}
+	}
+
+
+	/**
+	 * The shape of {@link TestShapeV1} after fields were added, removed and changed their type
+	 */
+	private static class TestShapeV2 implements IDrawableShape
+	{
+		private double x;
+		private double size;
+		private int label = -1;
+		private Color color = Color.RED;
+
+
+		@Override
+		public void paintShape(final Graphics2D g, final IDrawableTool tool, final boolean invert)
+		{
+		}
+	}
+
+
+	private enum ETestLayer implements IShapeLayer
+	{
+		FIELD,
+		BALL,
+		ROBOTS,
+		;
+
+
+		@Override
+		public String getCategory()
+		{
+			return "Test";
+		}
+
+
+		@Override
+		public String getLayerName()
+		{
+			return name();
+		}
+
+
+		@Override
+		public String getId()
+		{
+			return name();
+		}
+
+
+		@Override
+		public int getOrderId()
+		{
+			return ordinal();
+		}
+	}
+}
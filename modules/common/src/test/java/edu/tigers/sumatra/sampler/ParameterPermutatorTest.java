@@ -65,4 +65,15 @@ public class ParameterPermutatorTest
 		assertThat(next.get(id2)).isCloseTo(0.0, within(EQUALS_TOLERANCE));
 	}
 	
-}
\ No newline at end of file
+	
+	@Test
+	public void testSize()
+	{
+		ParameterPermutator permutator = new ParameterPermutator();
+		assertThat(permutator.size()).isEqualTo(1);
+		permutator.add("one", 0.5, 1.0, 0.5);
+		assertThat(permutator.size()).isEqualTo(2);
+		permutator.add("two", 0.0, 0.2, 0.1);
+		assertThat(permutator.size()).isEqualTo(6);
+	}
+}
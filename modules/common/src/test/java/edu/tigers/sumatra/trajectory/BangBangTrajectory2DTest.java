@@ -125,4 +125,44 @@ public class BangBangTrajectory2DTest
 
 		assertThat(traj1.getTotalTime()).isCloseTo(traj2.getTotalTime(), within(1e-4));
 	}
+
+
+	@Test
+	public void testBatchEqualsSingle()
+	{
+		int n = 100;
+		double[] s0 = new double[2 * n];
+		double[] s1 = new double[2 * n];
+		double[] v0 = new double[2 * n];
+		double[] vmax = new double[n];
+		double[] acc = new double[n];
+		for (int i = 0; i < n; i++)
+		{
+			s0[2 * i] = getRandomDouble(POS_LIMIT);
+			s0[2 * i + 1] = getRandomDouble(POS_LIMIT);
+			s1[2 * i] = getRandomDouble(POS_LIMIT);
+			s1[2 * i + 1] = getRandomDouble(POS_LIMIT);
+			v0[2 * i] = getRandomDouble(2.0);
+			v0[2 * i + 1] = getRandomDouble(2.0);
+			vmax[i] = 1.5 + rng.nextDouble() * 1.5;
+			acc[i] = 1.0 + rng.nextDouble() * 3;
+		}
+
+		BangBangTrajectory2D[] batch = new BangBangTrajectory2D[n];
+		// generate twice to check that reused trajectories are regenerated correctly
+		trajectoryFactory.sync(s1, s0, v0, vmax, acc, batch);
+		trajectoryFactory.sync(s0, s1, v0, vmax, acc, batch);
+
+		for (int i = 0; i < n; i++)
+		{
+			BangBangTrajectory2D single = trajectoryFactory.sync(
+					Vector2.fromXY(s0[2 * i], s0[2 * i + 1]),
+					Vector2.fromXY(s1[2 * i], s1[2 * i + 1]),
+					Vector2.fromXY(v0[2 * i], v0[2 * i + 1]),
+					vmax[i],
+					acc[i]);
+			assertThat(batch[i].getTotalTime()).isCloseTo(single.getTotalTime(), within(1e-4));
+			assertThat(batch[i].getPosition(0.5).isCloseTo(single.getPosition(0.5), POS_TOLERANCE)).isTrue();
+		}
+	}
 }
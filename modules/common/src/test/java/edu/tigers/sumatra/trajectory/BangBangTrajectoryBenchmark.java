@@ -6,11 +6,14 @@ package edu.tigers.sumatra.trajectory;
 
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2;
+import net.jafama.DoubleWrapper;
+import net.jafama.FastMath;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
@@ -36,10 +39,25 @@ public class BangBangTrajectoryBenchmark
 	private static final double MAX_ACC = 3;
 
 	private static final int NUM_RND_DATA = 10_000;
+	/** must match the accuracy of {@link BangBangTrajectoryFactory} */
+	private static final float SYNC_ACCURACY = 1e-4f;
+
+	/**
+	 * Maximum fraction of trajectories whose total time may differ by more than the sync accuracy from the legacy
+	 * implementation. The time difference between x and y is not always monotonic in alpha, so there are rare cases
+	 * with multiple synchronized solutions, where both implementations find a different, but valid one.
+	 */
+	private static final double MAX_DIFFERENT_SOLUTIONS = 1e-3;
 
 	private final List<IVector2> ps = new ArrayList<>();
 	private final List<IVector2> vs = new ArrayList<>();
 
+	private final double[] batchS0 = new double[2 * NUM_RND_DATA];
+	private final double[] batchS1 = new double[2 * NUM_RND_DATA];
+	private final double[] batchV0 = new double[2 * NUM_RND_DATA];
+	private final double[] batchVMax = new double[NUM_RND_DATA];
+	private final double[] batchAcc = new double[NUM_RND_DATA];
+
 
 	public static void main(String[] args) throws Exception
 	{
@@ -54,6 +72,76 @@ public class BangBangTrajectoryBenchmark
 			ps.add(random(MAX_POS));
 			vs.add(random(MAX_VEL));
 		}
+		for (int i = 0; i < NUM_RND_DATA; i++)
+		{
+			IVector2 p1 = ps.get(i % ps.size());
+			IVector2 p2 = ps.get((i + 1) % ps.size());
+			IVector2 v0 = vs.get(i % vs.size());
+			batchS0[2 * i] = p1.x();
+			batchS0[2 * i + 1] = p1.y();
+			batchS1[2 * i] = p2.x();
+			batchS1[2 * i + 1] = p2.y();
+			batchV0[2 * i] = v0.x();
+			batchV0[2 * i + 1] = v0.y();
+			batchVMax[i] = MAX_VEL;
+			batchAcc[i] = MAX_ACC;
+		}
+	}
+
+
+	/**
+	 * Make sure that the synchronization is equivalent to the legacy binary search before measuring it
+	 */
+	@Setup
+	public void checkEquivalence()
+	{
+		BangBangTrajectory2D[] batch = trajectoryFactory.sync(batchS0, batchS1, batchV0, batchVMax, batchAcc,
+				new BangBangTrajectory2D[NUM_RND_DATA]);
+		int numDifferent = 0;
+		int numUnsynced = 0;
+		int numLegacyUnsynced = 0;
+		for (int i = 0; i < ps.size(); i++)
+		{
+			IVector2 p1 = ps.get(i % ps.size());
+			IVector2 p2 = ps.get((i + 1) % ps.size());
+			IVector2 v0 = vs.get(i % vs.size());
+			BangBangTrajectory2D t = trajectoryFactory.sync(p1, p2, v0, MAX_VEL, MAX_ACC);
+			BangBangTrajectory2D legacy = generateLegacy(p1, p2, v0);
+
+			boolean legacySynced = isSynced(legacy);
+			if (!legacySynced)
+			{
+				// the binary search ran out of steps, so there is no valid reference
+				numLegacyUnsynced++;
+			} else if (Math.abs(t.getTotalTime() - legacy.getTotalTime()) > SYNC_ACCURACY)
+			{
+				numDifferent++;
+			}
+			if (!isSynced(t))
+			{
+				numUnsynced++;
+			}
+			if (!t.getPosition(t.getTotalTime()).isCloseTo(p2, 1e-5)
+					|| batch[i].getTotalTime() != t.getTotalTime())
+			{
+				throw new IllegalStateException("Trajectory does not reach its target: " + t);
+			}
+		}
+		if (numDifferent > MAX_DIFFERENT_SOLUTIONS * ps.size())
+		{
+			throw new IllegalStateException(numDifferent + " trajectories differ from the legacy implementation");
+		}
+		if (numUnsynced > numLegacyUnsynced)
+		{
+			throw new IllegalStateException(numUnsynced + " trajectories are not synchronized within " + SYNC_ACCURACY
+					+ "s, but only " + numLegacyUnsynced + " of the legacy implementation");
+		}
+	}
+
+
+	private static boolean isSynced(final BangBangTrajectory2D t)
+	{
+		return Math.abs(t.x.getTotalTime() - t.y.getTotalTime()) < SYNC_ACCURACY;
 	}
 
 
@@ -93,6 +181,35 @@ public class BangBangTrajectoryBenchmark
 	}
 
 
+	@Benchmark
+	public double generateLegacy()
+	{
+		double sum = 0;
+		for (int i = 0; i < ps.size(); i++)
+		{
+			IVector2 p1 = ps.get(i % ps.size());
+			IVector2 p2 = ps.get((i + 1) % ps.size());
+			IVector2 v0 = vs.get(i % vs.size());
+			BangBangTrajectory2D t = generateLegacy(p1, p2, v0);
+			sum += t.getTotalTime();
+		}
+		return sum;
+	}
+
+
+	@Benchmark
+	public double generateBatch(BatchState state)
+	{
+		trajectoryFactory.sync(batchS0, batchS1, batchV0, batchVMax, batchAcc, state.trajectories);
+		double sum = 0;
+		for (BangBangTrajectory2D t : state.trajectories)
+		{
+			sum += t.getTotalTime();
+		}
+		return sum;
+	}
+
+
 	@Benchmark
 	public double getState()
 	{
@@ -127,8 +244,55 @@ public class BangBangTrajectoryBenchmark
 	}
 
 
+	/**
+	 * The former synchronization with a fixed binary search, kept as reference
+	 */
+	private BangBangTrajectory2D generateLegacy(IVector2 s0, IVector2 s1, IVector2 v0)
+	{
+		BangBangTrajectory2D t = new BangBangTrajectory2D();
+		float vmax = (float) MAX_VEL;
+		float acc = (float) MAX_ACC;
+		float inc = (float) Math.PI / 8.0f;
+		float alpha = (float) Math.PI / 4.0f;
+		while (inc > 1e-7)
+		{
+			DoubleWrapper cos = new DoubleWrapper();
+			final float sA = (float) FastMath.sinAndCos(alpha, cos);
+			final float cA = (float) cos.value;
+
+			t.x.generate((float) s0.x(), (float) s1.x(), (float) v0.x(), vmax * cA, acc * cA);
+			t.y.generate((float) s0.y(), (float) s1.y(), (float) v0.y(), vmax * sA, acc * sA);
+
+			double diff = Math.abs(t.x.getTotalTime() - t.y.getTotalTime());
+			if (diff < SYNC_ACCURACY)
+			{
+				break;
+			}
+			if (t.x.getTotalTime() > t.y.getTotalTime())
+			{
+				alpha -= inc;
+			} else
+			{
+				alpha += inc;
+			}
+			inc *= 0.5f;
+		}
+		return t;
+	}
+
+
 	private IVector2 random(double range)
 	{
 		return Vector2.fromXY(rnd.nextDouble() * range - range / 2, rnd.nextDouble() * range - range / 2);
 	}
+
+
+	/**
+	 * Reused trajectories for the batch generation, one set per thread
+	 */
+	@State(Scope.Thread)
+	public static class BatchState
+	{
+		private final BangBangTrajectory2D[] trajectories = new BangBangTrajectory2D[NUM_RND_DATA];
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee;
 
@@ -28,6 +28,7 @@ public class AutoRefFrame implements IAutoRefFrame
 {
 	private final ShapeMap shapes = new ShapeMap();
 	private final WorldFrameWrapper worldFrameWrapper;
+	private final AutoRefFrameGeometry geometry;
 	private AutoRefFrame previousFrame;
 
 	private List<BotPosition> botsLastTouchedBall = Collections.emptyList();
@@ -38,15 +39,21 @@ public class AutoRefFrame implements IAutoRefFrame
 	private List<GameState> stateHistory = Collections.emptyList();
 
 
-	public AutoRefFrame(final AutoRefFrame previousFrame, final WorldFrameWrapper worldFrameWrapper)
+	public AutoRefFrame(final AutoRefFrame previousFrame, final WorldFrameWrapper worldFrameWrapper,
+			final AutoRefFrameGeometry geometry)
 	{
 		this.previousFrame = previousFrame;
 		this.worldFrameWrapper = worldFrameWrapper;
-		shapes.get(EAutoRefShapesLayer.MODE).add(
-				new DrawableBorderText(
-						Vector2.fromXY(1, 6),
-						"AutoRef: " + SumatraModel.getInstance().getModule(AutoRefModule.class).getMode().toString(),
-						Color.WHITE));
+		this.geometry = geometry;
+		if (SumatraModel.getInstance().isModuleLoaded(AutoRefModule.class))
+		{
+			// the module is not loaded, if the autoRef runs headless
+			shapes.get(EAutoRefShapesLayer.MODE).add(
+					new DrawableBorderText(
+							Vector2.fromXY(1, 6),
+							"AutoRef: " + SumatraModel.getInstance().getModule(AutoRefModule.class).getMode().toString(),
+							Color.WHITE));
+		}
 	}
 
 
@@ -64,6 +71,13 @@ public class AutoRefFrame implements IAutoRefFrame
 	}
 
 
+	@Override
+	public AutoRefFrameGeometry getGeometry()
+	{
+		return geometry;
+	}
+
+
 	@Override
 	public List<BotPosition> getBotsLastTouchedBall()
 	{
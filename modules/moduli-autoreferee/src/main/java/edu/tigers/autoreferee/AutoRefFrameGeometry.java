@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoreferee;
+
+import edu.tigers.sumatra.geometry.Geometry;
+import edu.tigers.sumatra.geometry.GeometrySnapshot;
+import edu.tigers.sumatra.geometry.IPenaltyArea;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.wp.data.ITrackedBot;
+import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Derived geometric information of a single world frame that is shared by all detectors.
+ * <p>
+ * All values are computed lazily on first access and then memoized for the lifetime of the frame, so that
+ * multiple detectors that ask for the same information do not iterate over all bots again.
+ * The field geometry is captured once, so all detectors of a frame see the same field, even if a new
+ * vision geometry arrives in between.
+ * The world frame is never modified and all returned collections are unmodifiable.
+ * Like the {@link AutoRefFrame}, an instance is meant to be used by the autoRef thread only.
+ */
+public class AutoRefFrameGeometry
+{
+	private final GeometrySnapshot fieldGeometry = Geometry.getSnapshot();
+	private final List<ITrackedBot> bots;
+	private final IVector2 ballPos;
+	private final Map<BotID, Integer> botIndices = new HashMap<>();
+
+	private final Map<ETeamColor, List<ITrackedBot>> botsByTeam = new EnumMap<>(ETeamColor.class);
+	private final Map<PenaltyAreaKey, List<ITrackedBot>> botsInPenaltyArea = new HashMap<>();
+	private double[] distancesToBall;
+	private double[] distancesBetweenBots;
+
+
+	/**
+	 * @param worldFrame the world frame to derive the information from
+	 */
+	public AutoRefFrameGeometry(final SimpleWorldFrame worldFrame)
+	{
+		bots = Collections.unmodifiableList(new ArrayList<>(worldFrame.getBots().values()));
+		ballPos = worldFrame.getBall().getPos();
+		for (int i = 0; i < bots.size(); i++)
+		{
+			botIndices.put(bots.get(i).getBotId(), i);
+		}
+	}
+
+
+	/**
+	 * @return the field geometry of this frame
+	 */
+	public GeometrySnapshot getFieldGeometry()
+	{
+		return fieldGeometry;
+	}
+
+
+	/**
+	 * @return all bots of the frame
+	 */
+	public List<ITrackedBot> getBots()
+	{
+		return bots;
+	}
+
+
+	/**
+	 * @param color the team color
+	 * @return all bots of the given team
+	 */
+	public List<ITrackedBot> getBots(final ETeamColor color)
+	{
+		return botsByTeam.computeIfAbsent(color,
+				c -> Collections.unmodifiableList(AutoRefUtil.filterByColor(bots, c)));
+	}
+
+
+	/**
+	 * @param distance the maximum distance [mm] to the ball
+	 * @return all bots with a distance to the ball smaller than the given one
+	 */
+	public List<ITrackedBot> getBotsNearBall(final double distance)
+	{
+		double[] distances = distancesToBall();
+		List<ITrackedBot> result = new ArrayList<>();
+		for (int i = 0; i < distances.length; i++)
+		{
+			if (distances[i] < distance)
+			{
+				result.add(bots.get(i));
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+
+	/**
+	 * @param botA a bot of this frame
+	 * @param botB another bot of this frame
+	 * @return the distance [mm] between the two bot centers
+	 */
+	public double getDistance(final BotID botA, final BotID botB)
+	{
+		return distancesBetweenBots()[indexOf(botA) * bots.size() + indexOf(botB)];
+	}
+
+
+	/**
+	 * @param bot      a bot of this frame
+	 * @param color    the team color of the bots to consider
+	 * @param distance the distance [mm] between the bot centers
+	 * @return all bots of the given team, except the bot itself, that are closer to the bot than the given distance
+	 */
+	public List<ITrackedBot> getBotsNear(final ITrackedBot bot, final ETeamColor color, final double distance)
+	{
+		double[] distances = distancesBetweenBots();
+		int offset = indexOf(bot.getBotId()) * bots.size();
+		List<ITrackedBot> result = new ArrayList<>();
+		for (int i = 0; i < bots.size(); i++)
+		{
+			ITrackedBot other = bots.get(i);
+			if (other != bot && other.getBotId().getTeamColor() == color && distances[offset + i] < distance)
+			{
+				result.add(other);
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+
+	/**
+	 * @param pos      an arbitrary position
+	 * @param color    the team color of the bots to consider
+	 * @param distance the maximum distance [mm] between the bot center and the position
+	 * @return all bots of the given team that are not farther away from the position than the given distance
+	 */
+	public List<ITrackedBot> getBotsNear(final IVector2 pos, final ETeamColor color, final double distance)
+	{
+		List<ITrackedBot> result = new ArrayList<>();
+		for (ITrackedBot other : getBots(color))
+		{
+			if (other.getPos().distanceTo(pos) <= distance)
+			{
+				result.add(other);
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+
+	/**
+	 * @param penAreaColor the team that owns the penalty area
+	 * @param margin       the margin [mm] around the penalty area, negative values shrink the area
+	 * @return all bots (of both teams) inside the penalty area including the margin
+	 */
+	public List<ITrackedBot> getBotsInPenaltyArea(final ETeamColor penAreaColor, final double margin)
+	{
+		return botsInPenaltyArea.computeIfAbsent(new PenaltyAreaKey(penAreaColor, margin), this::calcBotsInPenaltyArea);
+	}
+
+
+	private List<ITrackedBot> calcBotsInPenaltyArea(final PenaltyAreaKey key)
+	{
+		IPenaltyArea penArea = fieldGeometry.getPenaltyArea(key.color, key.margin);
+		List<ITrackedBot> result = new ArrayList<>();
+		for (ITrackedBot bot : bots)
+		{
+			if (penArea.isPointInShape(bot.getPos()))
+			{
+				result.add(bot);
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+
+	private int indexOf(final BotID botId)
+	{
+		Integer index = botIndices.get(botId);
+		if (index == null)
+		{
+			throw new IllegalArgumentException("Bot is not part of this frame: " + botId);
+		}
+		return index;
+	}
+
+
+	private double[] distancesToBall()
+	{
+		if (distancesToBall == null)
+		{
+			distancesToBall = new double[bots.size()];
+			for (int i = 0; i < bots.size(); i++)
+			{
+				distancesToBall[i] = bots.get(i).getPos().distanceTo(ballPos);
+			}
+		}
+		return distancesToBall;
+	}
+
+
+	private double[] distancesBetweenBots()
+	{
+		if (distancesBetweenBots == null)
+		{
+			int n = bots.size();
+			distancesBetweenBots = new double[n * n];
+			for (int i = 0; i < n; i++)
+			{
+				for (int j = i + 1; j < n; j++)
+				{
+					double distance = bots.get(i).getPos().distanceTo(bots.get(j).getPos());
+					distancesBetweenBots[i * n + j] = distance;
+					distancesBetweenBots[j * n + i] = distance;
+				}
+			}
+		}
+		return distancesBetweenBots;
+	}
+
+
+	@Value
+	private static class PenaltyAreaKey
+	{
+		ETeamColor color;
+		double margin;
+	}
+}
@@ -1,23 +1,26 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
+import edu.tigers.autoreferee.engine.IAutoRefStateful;
 import edu.tigers.autoreferee.engine.calc.AllowedDistancesAutoRefVisCalc;
 import edu.tigers.autoreferee.engine.calc.BallLeftFieldAutoRefCalc;
 import edu.tigers.autoreferee.engine.calc.BotBallContactAutoRefCalc;
 import edu.tigers.autoreferee.engine.calc.GameStateHistoryAutoRefCalc;
 import edu.tigers.autoreferee.engine.calc.IAutoRefereeCalc;
 import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import lombok.Value;
 
 
 /**
  * The preprocessor runs some calculators to gather some generic information.
  */
-public class AutoRefFramePreprocessor
+public class AutoRefFramePreprocessor implements IAutoRefStateful
 {
 	private List<IAutoRefereeCalc> calculators = new ArrayList<>();
 	private AutoRefFrame lastFrame;
@@ -34,7 +37,8 @@ public class AutoRefFramePreprocessor
 	
 	public AutoRefFrame process(final WorldFrameWrapper wFrame)
 	{
-		AutoRefFrame frame = new AutoRefFrame(lastFrame, wFrame);
+		AutoRefFrame frame = new AutoRefFrame(lastFrame, wFrame,
+				new AutoRefFrameGeometry(wFrame.getSimpleWorldFrame()));
 		
 		if (lastFrame != null)
 		{
@@ -69,4 +73,34 @@ public class AutoRefFramePreprocessor
 	{
 		return lastFrame != null;
 	}
+	
+	
+	@Override
+	public Object saveState()
+	{
+		// the last frame is not modified anymore, only its link to the previous frame is removed
+		return new State(lastFrame, calculators.stream()
+				.map(IAutoRefereeCalc::saveState)
+				.collect(Collectors.toList()));
+	}
+	
+	
+	@Override
+	public void restoreState(final Object state)
+	{
+		State preprocessorState = (State) state;
+		lastFrame = preprocessorState.lastFrame;
+		for (int i = 0; i < calculators.size(); i++)
+		{
+			calculators.get(i).restoreState(preprocessorState.calcStates.get(i));
+		}
+	}
+	
+	
+	@Value
+	private static class State
+	{
+		AutoRefFrame lastFrame;
+		List<Object> calcStates;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee;
@@ -10,10 +10,13 @@ import edu.tigers.sumatra.persistence.BerkeleyDb;
 import edu.tigers.sumatra.persistence.RecordManager;
 import edu.tigers.sumatra.wp.BerkeleyShapeMapFrame;
 import edu.tigers.sumatra.wp.CamFrameBerkeleyRecorder;
+import edu.tigers.sumatra.wp.ReplayOverviewRecorder;
 import edu.tigers.sumatra.wp.ShapeMapBerkeleyRecorder;
+import edu.tigers.sumatra.wp.ShapeMapFrameBerkeleyAccessor;
 import edu.tigers.sumatra.wp.WfwBerkeleyRecorder;
 import edu.tigers.sumatra.wp.data.BerkeleyCamDetectionFrame;
 import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapperBerkeleyAccessor;
 
 
 public class AutoRefRecordManager extends RecordManager
@@ -24,8 +27,8 @@ public class AutoRefRecordManager extends RecordManager
 	{
 		super.onNewBerkeleyDb(db);
 		db.add(BerkeleyCamDetectionFrame.class, new BerkeleyAccessor<>(BerkeleyCamDetectionFrame.class, true));
-		db.add(BerkeleyShapeMapFrame.class, new BerkeleyAccessor<>(BerkeleyShapeMapFrame.class, true));
-		db.add(WorldFrameWrapper.class, new BerkeleyAccessor<>(WorldFrameWrapper.class, true));
+		db.add(BerkeleyShapeMapFrame.class, new ShapeMapFrameBerkeleyAccessor());
+		db.add(WorldFrameWrapper.class, new WorldFrameWrapperBerkeleyAccessor());
 
 		db.getEnv().getStoreConfig().setMutations(getMutations());
 	}
@@ -38,6 +41,7 @@ public class AutoRefRecordManager extends RecordManager
 		recorder.add(new CamFrameBerkeleyRecorder(recorder.getDb()));
 		recorder.add(new WfwBerkeleyRecorder(recorder.getDb()));
 		recorder.add(new ShapeMapBerkeleyRecorder(recorder.getDb()));
+		recorder.add(new ReplayOverviewRecorder(recorder.getDb()));
 	}
 
 }
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoreferee;
+
+import edu.tigers.autoreferee.engine.GameEventEngine;
+import edu.tigers.autoreferee.engine.IAutoRefEngineObserver;
+import edu.tigers.autoreferee.engine.detector.EGameEventDetectorType;
+import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import lombok.Value;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Runs the autoRef on a recording that is played and seeked in any order, like in the replay.
+ * <p>
+ * The result for a frame must not depend on how the recording was played, so every frame since the start
+ * of the recording has to be processed before. To make seeking fast, {@link #createCheckpoints()} processes the
+ * whole recording once in the background and saves the state of the preprocessor and of all detectors in regular
+ * intervals. A seek restores the latest checkpoint before the requested frame and only processes the frames in
+ * between.
+ */
+public class CheckpointedAutoRef
+{
+	private final IFrameSource frameSource;
+	private final Set<EGameEventDetectorType> activeDetectors;
+	/** [ns] */
+	private final long checkpointInterval;
+	private final Pipeline pipeline;
+	private final Checkpoint initialState;
+	private final NavigableMap<Long, Checkpoint> checkpoints = new ConcurrentSkipListMap<>();
+	private final List<IAutoRefEngineObserver> observers = new CopyOnWriteArrayList<>();
+
+
+	/**
+	 * @param frameSource        the recorded frames
+	 * @param activeDetectors    the detectors to run
+	 * @param checkpointInterval the time between two checkpoints [s], frames that are closer than this to the
+	 *                           last processed frame are reached by playing instead of seeking
+	 */
+	public CheckpointedAutoRef(final IFrameSource frameSource, final Set<EGameEventDetectorType> activeDetectors,
+			final double checkpointInterval)
+	{
+		this.frameSource = frameSource;
+		this.activeDetectors = activeDetectors;
+		this.checkpointInterval = (long) (checkpointInterval * 1e9);
+		pipeline = new Pipeline(activeDetectors);
+		initialState = pipeline.save();
+	}
+
+
+	public void addObserver(final IAutoRefEngineObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	public void removeObserver(final IAutoRefEngineObserver observer)
+	{
+		observers.remove(observer);
+	}
+
+
+	/**
+	 * Process the given frame. If it follows shortly after the last processed frame, all frames in between are
+	 * processed and their game events are reported. Otherwise, the state is restored from the nearest checkpoint
+	 * and only the game events of the given frame are reported.
+	 *
+	 * @param wfw the frame to process, usually the one that is currently shown
+	 * @return the autoRef frame for the given frame
+	 */
+	public synchronized IAutoRefFrame process(final WorldFrameWrapper wfw)
+	{
+		long timestamp = wfw.getSimpleWorldFrame().getTimestamp();
+		if (pipeline.lastFrame != null && pipeline.lastTimestamp == timestamp)
+		{
+			return pipeline.lastFrame;
+		}
+
+		long gap = timestamp - pipeline.lastTimestamp;
+		boolean playing = pipeline.lastFrame != null && gap > 0 && gap <= checkpointInterval;
+		if (!playing)
+		{
+			seek(timestamp);
+		}
+		processUntil(timestamp, playing);
+		notifyGameEvents(pipeline.process(wfw));
+		return pipeline.lastFrame;
+	}
+
+
+	private void seek(final long timestamp)
+	{
+		Map.Entry<Long, Checkpoint> checkpoint = checkpoints.lowerEntry(timestamp);
+		boolean forward = pipeline.lastTimestamp < timestamp;
+		if (checkpoint != null && (!forward || checkpoint.getKey() > pipeline.lastTimestamp))
+		{
+			pipeline.restore(checkpoint.getValue());
+		} else if (!forward)
+		{
+			pipeline.restore(initialState);
+		}
+	}
+
+
+	private void processUntil(final long timestamp, final boolean reportGameEvents)
+	{
+		WorldFrameWrapper next = frameSource.getNext(pipeline.lastTimestamp);
+		while (next != null && next.getSimpleWorldFrame().getTimestamp() < timestamp)
+		{
+			List<IGameEvent> gameEvents = pipeline.process(next);
+			if (reportGameEvents)
+			{
+				notifyGameEvents(gameEvents);
+			}
+			next = frameSource.getNext(pipeline.lastTimestamp);
+		}
+	}
+
+
+	private void notifyGameEvents(final List<IGameEvent> gameEvents)
+	{
+		for (IGameEvent gameEvent : gameEvents)
+		{
+			observers.forEach(o -> o.onNewGameEventDetected(gameEvent));
+		}
+	}
+
+
+	/**
+	 * Process all frames of the source with a separate preprocessor and engine and save a checkpoint
+	 * of their state in regular intervals.
+	 * This takes a while and is meant to run in a background thread. It stops early, if the thread is interrupted.
+	 */
+	public void createCheckpoints()
+	{
+		Pipeline background = new Pipeline(activeDetectors);
+		long nextCheckpoint = Long.MAX_VALUE;
+		WorldFrameWrapper wfw = frameSource.getNext(Long.MIN_VALUE);
+		while (wfw != null && !Thread.currentThread().isInterrupted())
+		{
+			background.process(wfw);
+			if (nextCheckpoint == Long.MAX_VALUE)
+			{
+				// the initial state covers the first frame
+				nextCheckpoint = background.lastTimestamp + checkpointInterval;
+			} else if (background.lastTimestamp >= nextCheckpoint)
+			{
+				checkpoints.put(background.lastTimestamp, background.save());
+				nextCheckpoint = background.lastTimestamp + checkpointInterval;
+			}
+			wfw = frameSource.getNext(background.lastTimestamp);
+		}
+	}
+
+
+	/**
+	 * @return the number of checkpoints that were created so far
+	 */
+	public int getNumCheckpoints()
+	{
+		return checkpoints.size();
+	}
+
+
+	/**
+	 * Random access to the recorded frames
+	 */
+	@FunctionalInterface
+	public interface IFrameSource
+	{
+		/**
+		 * @param timestamp a frame timestamp [ns], {@link Long#MIN_VALUE} for the first frame
+		 * @return the first frame with a greater timestamp, null if there is none
+		 */
+		WorldFrameWrapper getNext(long timestamp);
+	}
+
+	/**
+	 * The preprocessor and the engine together with the position in the recording
+	 */
+	private static class Pipeline
+	{
+		private final AutoRefFramePreprocessor preprocessor = new AutoRefFramePreprocessor();
+		private final GameEventEngine engine;
+		private AutoRefFrame lastFrame = null;
+		private long lastTimestamp = Long.MIN_VALUE;
+
+
+		private Pipeline(final Set<EGameEventDetectorType> activeDetectors)
+		{
+			engine = new GameEventEngine(activeDetectors);
+		}
+
+
+		private List<IGameEvent> process(final WorldFrameWrapper wfw)
+		{
+			boolean hasLastFrame = preprocessor.hasLastFrame();
+			lastFrame = preprocessor.process(wfw);
+			lastTimestamp = lastFrame.getTimestamp();
+			if (hasLastFrame)
+			{
+				return engine.update(lastFrame);
+			}
+			return Collections.emptyList();
+		}
+
+
+		private Checkpoint save()
+		{
+			return new Checkpoint(lastTimestamp, preprocessor.saveState(), engine.saveState());
+		}
+
+
+		private void restore(final Checkpoint checkpoint)
+		{
+			preprocessor.restoreState(checkpoint.preprocessorState);
+			engine.restoreState(checkpoint.engineState);
+			lastFrame = null;
+			lastTimestamp = checkpoint.timestamp;
+		}
+	}
+
+	@Value
+	private static class Checkpoint
+	{
+		long timestamp;
+		Object preprocessorState;
+		Object engineState;
+	}
+}
@@ -28,6 +28,12 @@ public interface IAutoRefFrame
 	GameState getGameState();
 	
 	
+	/**
+	 * @return derived geometric information of the world frame, shared by all detectors
+	 */
+	AutoRefFrameGeometry getGeometry();
+	
+	
 	List<BotPosition> getBotsLastTouchedBall();
 	
 	
@@ -122,9 +122,8 @@ public class ActiveAutoRefEngine extends AutoRefEngine
 
 	private boolean notTooManyBots(final IAutoRefFrame frame, ETeamColor teamColor)
 	{
-		return frame.getWorldFrame().getBots().keySet().stream()
-				.filter(id -> id.getTeamColor() == teamColor)
-				.count() <= frame.getRefereeMsg().getTeamInfo(teamColor).getMaxAllowedBots();
+		return frame.getGeometry().getBots(teamColor).size()
+				<= frame.getRefereeMsg().getTeamInfo(teamColor).getMaxAllowedBots();
 	}
 
 
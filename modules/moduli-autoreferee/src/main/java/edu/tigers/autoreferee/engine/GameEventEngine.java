@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine;
 
@@ -25,7 +25,7 @@ import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 /**
  * The engine consults the {@link IGameEventDetector}s.
  */
-public class GameEventEngine
+public class GameEventEngine implements IAutoRefStateful
 {
 	private static final Logger log = LogManager.getLogger(GameEventEngine.class.getName());
 	private final List<IGameEventDetector> allDetectors = new ArrayList<>();
@@ -87,4 +87,25 @@ public class GameEventEngine
 
 		return gameEvents;
 	}
+
+
+	@Override
+	public Object saveState()
+	{
+		return allDetectors.stream()
+				.map(IGameEventDetector::saveState)
+				.collect(Collectors.toList());
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void restoreState(final Object state)
+	{
+		List<Object> detectorStates = (List<Object>) state;
+		for (int i = 0; i < allDetectors.size(); i++)
+		{
+			allDetectors.get(i).restoreState(detectorStates.get(i));
+		}
+	}
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoreferee.engine;
+
+/**
+ * A part of the autoRef that keeps state between frames.
+ * The state can be saved and restored, so that processing can continue from a checkpoint
+ * instead of processing all frames from the beginning.
+ */
+public interface IAutoRefStateful
+{
+	/**
+	 * @return a snapshot of the current state that is not affected by further processing, null if there is no state
+	 */
+	default Object saveState()
+	{
+		return null;
+	}
+
+
+	/**
+	 * Continue from a snapshot that was returned by {@link #saveState()} of an instance of the same class
+	 *
+	 * @param state the snapshot to restore
+	 */
+	default void restoreState(final Object state)
+	{
+		// no state by default
+	}
+}
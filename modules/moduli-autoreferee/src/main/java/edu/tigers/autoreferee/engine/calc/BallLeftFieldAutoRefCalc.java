@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.calc;
 
@@ -24,13 +24,28 @@ public class BallLeftFieldAutoRefCalc implements IAutoRefereeCalc
 	public void process(final AutoRefFrame frame)
 	{
 		frame.setBallLeftFieldPos(ballLeftFieldCalculator.process(frame.getWorldFrame()));
-		frame.setBallInsideField(Geometry.getField().withMargin(Geometry.getLineWidth() + Geometry.getBallRadius())
+		frame.setBallInsideField(frame.getGeometry().getFieldGeometry()
+				.getField(Geometry.getLineWidth() + Geometry.getBallRadius())
 				.isPointInShape(frame.getWorldFrame().getBall().getPos()));
 		
 		drawBallLeftFieldPos(frame);
 	}
 	
 	
+	@Override
+	public Object saveState()
+	{
+		return ballLeftFieldCalculator.saveState();
+	}
+	
+	
+	@Override
+	public void restoreState(final Object state)
+	{
+		ballLeftFieldCalculator.restoreState((BallLeftFieldCalculator.State) state);
+	}
+	
+	
 	private void drawBallLeftFieldPos(final AutoRefFrame frame)
 	{
 		if (frame.getBallLeftFieldPos().isPresent())
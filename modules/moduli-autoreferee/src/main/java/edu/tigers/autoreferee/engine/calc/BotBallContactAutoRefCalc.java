@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.calc;
@@ -52,4 +52,20 @@ public class BotBallContactAutoRefCalc implements IAutoRefereeCalc
 		currentlyTouchingBots.forEach(b -> frame.getShapes().get(EAutoRefShapesLayer.LAST_BALL_CONTACT)
 				.add(new DrawableCircle(b.getPos(), 100, Color.RED)));
 	}
+	
+	
+	@Override
+	public Object saveState()
+	{
+		// the list is never modified, only replaced
+		return lastBotTouchedBall;
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public void restoreState(final Object state)
+	{
+		lastBotTouchedBall = (List<BotPosition>) state;
+	}
 }
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedList;
+import java.util.List;
 
 import edu.tigers.autoreferee.AutoRefFrame;
 import edu.tigers.sumatra.referee.data.GameState;
@@ -46,4 +47,20 @@ public class GameStateHistoryAutoRefCalc implements IAutoRefereeCalc
 		}
 		stateHistory.offerFirst(state);
 	}
+	
+	
+	@Override
+	public Object saveState()
+	{
+		return new ArrayList<>(stateHistory);
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public void restoreState(final Object state)
+	{
+		stateHistory.clear();
+		stateHistory.addAll((List<GameState>) state);
+	}
 }
@@ -9,12 +9,13 @@
 package edu.tigers.autoreferee.engine.calc;
 
 import edu.tigers.autoreferee.AutoRefFrame;
+import edu.tigers.autoreferee.engine.IAutoRefStateful;
 
 
 /**
  * Auto referee calc
  */
-public interface IAutoRefereeCalc
+public interface IAutoRefereeCalc extends IAutoRefStateful
 {
 	void process(AutoRefFrame frame);
 }
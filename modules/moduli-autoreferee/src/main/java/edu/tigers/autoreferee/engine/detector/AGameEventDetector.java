@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
@@ -11,6 +11,7 @@ import edu.tigers.autoreferee.IAutoRefFrame;
 import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBall;
+import lombok.Value;
 
 
 /**
@@ -91,6 +92,43 @@ public abstract class AGameEventDetector implements IGameEventDetector
 	}
 	
 	
+	@Override
+	public final Object saveState()
+	{
+		return new DetectorState(firstUpdate, active, timestampStart, doSaveState());
+	}
+	
+	
+	@Override
+	public final void restoreState(final Object state)
+	{
+		DetectorState detectorState = (DetectorState) state;
+		firstUpdate = detectorState.firstUpdate;
+		active = detectorState.active;
+		timestampStart = detectorState.timestampStart;
+		doRestoreState(detectorState.state);
+	}
+	
+	
+	/**
+	 * Detectors that keep state between frames must return a copy of it here.
+	 *
+	 * @return a snapshot of the state of the concrete detector, null if it has none
+	 */
+	protected Object doSaveState()
+	{
+		return null;
+	}
+	
+	
+	/**
+	 * @param state a snapshot that was returned by {@link #doSaveState()}
+	 */
+	protected void doRestoreState(final Object state)
+	{
+	}
+	
+	
 	@Override
 	public boolean isActiveIn(final EGameState state)
 	{
@@ -127,4 +165,14 @@ public abstract class AGameEventDetector implements IGameEventDetector
 	{
 		return ((frame.getTimestamp() - timestampStart) / 1e9) >= seconds;
 	}
+	
+	
+	@Value
+	private static class DetectorState
+	{
+		boolean firstUpdate;
+		boolean active;
+		long timestampStart;
+		Object state;
+	}
 }
@@ -1,15 +1,15 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
 
 import com.github.g3force.configurable.Configurable;
+import edu.tigers.autoreferee.AutoRefFrameGeometry;
 import edu.tigers.autoreferee.AutoRefUtil.ColorFilter;
 import edu.tigers.autoreferee.IAutoRefFrame;
 import edu.tigers.sumatra.geometry.Geometry;
 import edu.tigers.sumatra.geometry.IPenaltyArea;
-import edu.tigers.sumatra.geometry.NGeometry;
 import edu.tigers.sumatra.geometry.RuleConstraints;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.ids.ETeamColor;
@@ -19,7 +19,6 @@ import edu.tigers.sumatra.referee.gameevent.AttackerTooCloseToDefenseArea;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
 
-import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -56,6 +55,22 @@ public class AttackerToDefenseAreaDistanceDetector extends AGameEventDetector
 	}
 
 
+	@Override
+	protected Object doSaveState()
+	{
+		return new HashMap<>(eventsSentForBotMap);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		eventsSentForBotMap.clear();
+		eventsSentForBotMap.putAll((Map<BotID, Long>) state);
+	}
+
+
 	@Override
 	public Optional<IGameEvent> doUpdate()
 	{
@@ -100,23 +115,23 @@ public class AttackerToDefenseAreaDistanceDetector extends AGameEventDetector
 		private final ETeamColor attackerColor;
 		private final IPenaltyArea defenderPenArea;
 
-		private final Collection<ITrackedBot> bots;
+		private final AutoRefFrameGeometry geometry;
 
 
 		public Evaluator(final IAutoRefFrame frame, final ETeamColor attackerColor)
 		{
 			this.attackerColor = attackerColor;
-			defenderPenArea = NGeometry.getPenaltyArea(attackerColor.opposite());
-			bots = frame.getWorldFrame().getBots().values();
+			geometry = frame.getGeometry();
+			defenderPenArea = geometry.getFieldGeometry().getPenaltyArea(attackerColor.opposite());
 		}
 
 
 		private Optional<IGameEvent> evaluate()
 		{
-			Optional<ITrackedBot> optOffender = bots.stream()
-					.filter(this::notSentRecently)
+			Optional<ITrackedBot> optOffender = geometry
+					.getBotsInPenaltyArea(attackerColor.opposite(), requiredMargin).stream()
 					.filter(ColorFilter.get(attackerColor))
-					.filter(bot -> defenderPenArea.isPointInShape(bot.getPos(), requiredMargin))
+					.filter(this::notSentRecently)
 					.filter(this::notBeingPushed)
 					.findFirst();
 
@@ -136,11 +151,8 @@ public class AttackerToDefenseAreaDistanceDetector extends AGameEventDetector
 		private boolean notBeingPushed(ITrackedBot bot)
 		{
 			ETeamColor defenderColor = attackerColor.opposite();
-			return bots.stream()
-					// bots from defending team
-					.filter(ColorFilter.get(defenderColor))
-					// that touch the attacker
-					.filter(b -> bot.getPos().distanceTo(b.getPos()) <= Geometry.getBotRadius() * 2)
+			// bots from defending team that touch the attacker
+			return geometry.getBotsNear(bot.getPos(), defenderColor, Geometry.getBotRadius() * 2).stream()
 					// push in direction of penalty area
 					.map(b -> Lines.halfLineFromPoints(b.getPos(), bot.getPos()))
 					// find intersection that show that defenders pushes towards penArea
@@ -154,7 +166,8 @@ public class AttackerToDefenseAreaDistanceDetector extends AGameEventDetector
 
 		private IGameEvent buildViolation(final ITrackedBot offender)
 		{
-			double distance = defenderPenArea.withMargin(requiredMargin).distanceToNearestPointOutside(offender.getPos());
+			double distance = geometry.getFieldGeometry().getPenaltyArea(attackerColor.opposite(), requiredMargin)
+					.distanceToNearestPointOutside(offender.getPos());
 
 			return new AttackerTooCloseToDefenseArea(offender.getBotId(), offender.getPos(), distance,
 					frame.getWorldFrame().getBall().getPos());
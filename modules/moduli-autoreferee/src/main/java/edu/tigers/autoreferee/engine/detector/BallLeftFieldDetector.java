@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
@@ -59,6 +59,20 @@ public class BallLeftFieldDetector extends AGameEventDetector
 	}
 	
 	
+	@Override
+	protected Object doSaveState()
+	{
+		return lastBallLeftFieldPos;
+	}
+	
+	
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		lastBallLeftFieldPos = (TimedPosition) state;
+	}
+	
+	
 	private IGameEvent processBallLeftField(final BallLeftFieldPosition ballLeftFieldPosition)
 	{
 		lastBallLeftFieldPos = ballLeftFieldPosition.getPosition();
@@ -9,7 +9,6 @@ import java.util.stream.Collectors;
 
 import com.github.g3force.configurable.Configurable;
 
-import edu.tigers.autoreferee.AutoRefUtil;
 import edu.tigers.autoreferee.EAutoRefShapesLayer;
 import edu.tigers.sumatra.drawable.DrawableTube;
 import edu.tigers.sumatra.geometry.Geometry;
@@ -49,6 +48,23 @@ public class BallPlacementInterferenceDetector extends AGameEventDetector
 	}
 	
 	
+	@Override
+	protected Object doSaveState()
+	{
+		// violators are mutable, so they are copied
+		return violators.stream().map(Violator::new).collect(Collectors.toList());
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		violators.clear();
+		((List<Violator>) state).stream().map(Violator::new).forEach(violators::add);
+	}
+	
+	
 	@Override
 	protected Optional<IGameEvent> doUpdate()
 	{
@@ -81,8 +97,7 @@ public class BallPlacementInterferenceDetector extends AGameEventDetector
 		frame.getShapes().get(EAutoRefShapesLayer.ALLOWED_DISTANCES)
 				.add(new DrawableTube(placementTube.withMargin(-Geometry.getBotRadius()), Color.red));
 		
-		return frame.getWorldFrame().getBots().values().stream()
-				.filter(AutoRefUtil.ColorFilter.get(placingTeam.opposite()))
+		return frame.getGeometry().getBots(placingTeam.opposite()).stream()
 				.filter(bot -> placementTube.isPointInShape(bot.getPos()))
 				.map(ITrackedBot::getBotId)
 				.collect(Collectors.toSet());
@@ -123,6 +138,14 @@ public class BallPlacementInterferenceDetector extends AGameEventDetector
 		}
 		
 		
+		private Violator(final Violator violator)
+		{
+			this.botId = violator.botId;
+			this.startTimestamp = violator.startTimestamp;
+			this.punished = violator.punished;
+		}
+		
+		
 		public BotID getBotId()
 		{
 			return botId;
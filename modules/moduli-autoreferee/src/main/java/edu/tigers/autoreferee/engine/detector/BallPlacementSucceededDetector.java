@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
@@ -19,11 +19,11 @@ import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.referee.gameevent.PlacementSucceeded;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
+import lombok.Value;
 
 import java.awt.Color;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 
 /**
@@ -68,6 +68,27 @@ public class BallPlacementSucceededDetector extends AGameEventDetector
 	}
 
 
+	@Override
+	protected Object doSaveState()
+	{
+		IVector2 filteredBallPos = ballPosFilter == null ? null : ballPosFilter.getState().getXYVector();
+		return new State(tStart, initialBallPos, filteredBallPos, eventRaised, lastCommandCounter);
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		tStart = s.tStart;
+		initialBallPos = s.initialBallPos;
+		ballPosFilter = s.filteredBallPos == null ? null
+				: new ExponentialMovingAverageFilter2D(ballMovingFilterAlpha, s.filteredBallPos);
+		eventRaised = s.eventRaised;
+		lastCommandCounter = s.lastCommandCounter;
+	}
+
+
 	private void resetState(final IAutoRefFrame frame)
 	{
 		tStart = frame.getTimestamp();
@@ -143,9 +164,7 @@ public class BallPlacementSucceededDetector extends AGameEventDetector
 						? minDistanceToBallForOwnFreeKick
 						: minDistanceToBallDefault);
 
-		return frame.getWorldFrame().getBots().values().stream()
-				.filter(bot -> bot.getPos().distanceTo(frame.getWorldFrame().getBall().getPos()) < minDistance)
-				.collect(Collectors.toList());
+		return frame.getGeometry().getBotsNearBall(minDistance);
 	}
 
 
@@ -162,4 +181,15 @@ public class BallPlacementSucceededDetector extends AGameEventDetector
 		}
 		return false;
 	}
+
+
+	@Value
+	private static class State
+	{
+		long tStart;
+		IVector2 initialBallPos;
+		IVector2 filteredBallPos;
+		boolean eventRaised;
+		long lastCommandCounter;
+	}
 }
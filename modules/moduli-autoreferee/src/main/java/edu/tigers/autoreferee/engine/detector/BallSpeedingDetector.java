@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
@@ -137,4 +137,18 @@ public class BallSpeedingDetector extends AGameEventDetector
 	{
 		lastReportedKickEvent = null;
 	}
+	
+	
+	@Override
+	protected Object doSaveState()
+	{
+		return lastReportedKickEvent;
+	}
+	
+	
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		lastReportedKickEvent = (IKickEvent) state;
+	}
 }
@@ -1,11 +1,10 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
 
 import com.github.g3force.configurable.Configurable;
-import edu.tigers.autoreferee.AutoRefUtil;
 import edu.tigers.autoreferee.IAutoRefFrame;
 import edu.tigers.sumatra.geometry.Geometry;
 import edu.tigers.sumatra.ids.BotID;
@@ -14,7 +13,6 @@ import edu.tigers.sumatra.math.AngleMath;
 import edu.tigers.sumatra.math.line.v2.ILine;
 import edu.tigers.sumatra.math.line.v2.Lines;
 import edu.tigers.sumatra.math.vector.IVector2;
-import edu.tigers.sumatra.math.vector.VectorMath;
 import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.BotCrashDrawn;
 import edu.tigers.sumatra.referee.gameevent.BotCrashUnique;
@@ -22,7 +20,6 @@ import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
@@ -71,9 +68,8 @@ public class BotCollisionDetector extends AGameEventDetector
 	@Override
 	public Optional<IGameEvent> doUpdate()
 	{
-		Collection<ITrackedBot> bots = frame.getWorldFrame().getBots().values();
-		List<ITrackedBot> yellowBots = AutoRefUtil.filterByColor(bots, ETeamColor.YELLOW);
-		List<ITrackedBot> blueBots = AutoRefUtil.filterByColor(bots, ETeamColor.BLUE);
+		List<ITrackedBot> yellowBots = frame.getGeometry().getBots(ETeamColor.YELLOW);
+		List<ITrackedBot> blueBots = frame.getGeometry().getBots(ETeamColor.BLUE);
 
 		List<BotPair> consideredBotPairs = calcConsideredBots(yellowBots, blueBots, frame.getTimestamp());
 		return checkForCrashEvent(consideredBotPairs, frame);
@@ -176,8 +172,8 @@ public class BotCollisionDetector extends AGameEventDetector
 
 	private boolean isRobotPairConsiderable(ITrackedBot blueBot, ITrackedBot yellowBot)
 	{
-		return VectorMath.distancePP(blueBot.getPos(),
-				yellowBot.getPos()) <= (2 * Geometry.getBotRadius() * minDistanceFactor);
+		return frame.getGeometry().getDistance(blueBot.getBotId(), yellowBot.getBotId())
+				<= (2 * Geometry.getBotRadius() * minDistanceFactor);
 	}
 
 
@@ -218,6 +214,22 @@ public class BotCollisionDetector extends AGameEventDetector
 		lastViolators.clear();
 	}
 
+
+	@Override
+	protected Object doSaveState()
+	{
+		return new HashMap<>(lastViolators);
+	}
+
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		lastViolators.clear();
+		lastViolators.putAll((Map<BotID, Long>) state);
+	}
+
 	private class BotPair
 	{
 		ITrackedBot blueBot;
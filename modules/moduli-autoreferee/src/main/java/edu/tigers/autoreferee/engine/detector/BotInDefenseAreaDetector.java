@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
@@ -12,11 +12,9 @@ import java.util.Set;
 
 import com.github.g3force.configurable.Configurable;
 
-import edu.tigers.autoreferee.AutoRefUtil;
 import edu.tigers.autoreferee.generic.BotPosition;
 import edu.tigers.sumatra.geometry.Geometry;
-import edu.tigers.sumatra.geometry.IPenaltyArea;
-import edu.tigers.sumatra.geometry.NGeometry;
+import edu.tigers.sumatra.geometry.GeometrySnapshot;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.ids.ETeamColor;
 import edu.tigers.sumatra.math.vector.IVector2;
@@ -24,6 +22,7 @@ import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.AttackerTouchedBallInDefenseArea;
 import edu.tigers.sumatra.referee.gameevent.DefenderInDefenseArea;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import lombok.Value;
 
 
 /**
@@ -137,24 +136,25 @@ public class BotInDefenseAreaDetector extends AGameEventDetector
 		ETeamColor curKickerColor = curKicker.getBotID().getTeamColor();
 		BotID curKickerId = curKicker.getBotID();
 
-		IPenaltyArea opponentPenArea = NGeometry.getPenaltyArea(curKickerColor.opposite());
-		IPenaltyArea ownPenArea = NGeometry.getPenaltyArea(curKickerColor);
+		GeometrySnapshot fieldGeometry = frame.getGeometry().getFieldGeometry();
+		double botRadius = Geometry.getBotRadius();
 
-		if (opponentPenArea.isPointInShape(curKicker.getPos(), getPartialTouchMargin()))
+		if (fieldGeometry.getPenaltyArea(curKickerColor.opposite(), getPartialTouchMargin())
+				.isPointInShape(curKicker.getPos()))
 		{
 			/*
 			 * Attacker touched the ball while being located partially/fully inside the opponent's penalty area
 			 */
 			lastViolators.put(curKickerId, curKicker);
 
-			double distance = opponentPenArea.withMargin(Geometry.getBotRadius())
+			double distance = fieldGeometry.getPenaltyArea(curKickerColor.opposite(), botRadius)
 					.distanceToNearestPointOutside(curKicker.getPos());
 
 			return Optional.of(new AttackerTouchedBallInDefenseArea(curKickerId, curKicker.getPos(), distance));
 		} else if (defenderIsPushed(curKickerId, curKicker.getPos()))
 		{
 			return Optional.empty();
-		} else if (ownPenArea.isPointInShape(curKicker.getPos(), -Geometry.getBotRadius()))
+		} else if (fieldGeometry.getPenaltyArea(curKickerColor, -botRadius).isPointInShape(curKicker.getPos()))
 		{
 			/*
 			 * Multiple Defender:
@@ -162,7 +162,7 @@ public class BotInDefenseAreaDetector extends AGameEventDetector
 			 */
 			lastViolators.put(curKickerId, curKicker);
 
-			double distance = ownPenArea.withMargin(Geometry.getBotRadius())
+			double distance = fieldGeometry.getPenaltyArea(curKickerColor, botRadius)
 					.distanceToNearestPointOutside(curKicker.getPos());
 
 			return Optional.of(new DefenderInDefenseArea(curKickerId, curKicker.getPos(), distance));
@@ -175,11 +175,8 @@ public class BotInDefenseAreaDetector extends AGameEventDetector
 	{
 		ETeamColor attackerColor = defender.getTeamColor().opposite();
 
-		return frame.getWorldFrame().getBots().values().stream()
-				// bots from attacking team
-				.filter(AutoRefUtil.ColorFilter.get(attackerColor))
-				// that touch the defender
-				.anyMatch(b -> botPos.distanceTo(b.getPos()) <= Geometry.getBotRadius() * 2 + 10);
+		// bots from attacking team that touch the defender
+		return !frame.getGeometry().getBotsNear(botPos, attackerColor, Geometry.getBotRadius() * 2 + 10).isEmpty();
 	}
 
 
@@ -194,4 +191,29 @@ public class BotInDefenseAreaDetector extends AGameEventDetector
 	{
 		lastViolators.clear();
 	}
+
+
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(new HashMap<>(lastViolators), entryTime);
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		lastViolators.clear();
+		lastViolators.putAll(s.lastViolators);
+		entryTime = s.entryTime;
+	}
+
+
+	@Value
+	private static class State
+	{
+		Map<BotID, BotPosition> lastViolators;
+		long entryTime;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
@@ -12,6 +12,7 @@ import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.BotTooFastInStop;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
+import lombok.Value;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -19,6 +20,7 @@ import java.util.Collection;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -70,11 +72,14 @@ public class BotStopSpeedDetector extends AGameEventDetector
 			return Optional.empty();
 		}
 
-		Map<BotID, ITrackedBot> bots = frame.getWorldFrame().getBots();
+		List<ITrackedBot> bots = frame.getGeometry().getBots();
 
 		long delta = frame.getTimestamp() - frame.getPreviousFrame().getTimestamp();
-		Set<BotID> frameViolators = getViolators(bots.values());
-		Set<BotID> frameNonViolators = Sets.difference(bots.keySet(), frameViolators);
+		Set<BotID> frameViolators = getViolators(bots);
+		Set<BotID> frameNonViolators = bots.stream()
+				.map(ITrackedBot::getBotId)
+				.filter(id -> !frameViolators.contains(id))
+				.collect(Collectors.toSet());
 		updateCurrentViolators(frameViolators, frameNonViolators, delta);
 
 
@@ -97,7 +102,7 @@ public class BotStopSpeedDetector extends AGameEventDetector
 		if (optViolator.isPresent())
 		{
 			BotID violator = optViolator.get();
-			ITrackedBot bot = bots.get(violator);
+			ITrackedBot bot = frame.getWorldFrame().getBot(violator);
 			if (bot == null)
 			{
 				log.debug("Bot Stop Speed violator disappeard from the field: " + violator);
@@ -168,4 +173,36 @@ public class BotStopSpeedDetector extends AGameEventDetector
 		lastViolators.clear();
 		currentViolators.clear();
 	}
+
+
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(new HashMap<>(currentViolators), new HashSet<>(lastViolators),
+				new EnumMap<>(infringementRecordedThisStopPhase), entryTime);
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		currentViolators.clear();
+		currentViolators.putAll(s.currentViolators);
+		lastViolators.clear();
+		lastViolators.addAll(s.lastViolators);
+		infringementRecordedThisStopPhase.clear();
+		infringementRecordedThisStopPhase.putAll(s.infringementRecordedThisStopPhase);
+		entryTime = s.entryTime;
+	}
+
+
+	@Value
+	private static class State
+	{
+		Map<BotID, Long> currentViolators;
+		Set<BotID> lastViolators;
+		Map<ETeamColor, Boolean> infringementRecordedThisStopPhase;
+		long entryTime;
+	}
 }
@@ -1,17 +1,17 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
 import com.github.g3force.configurable.Configurable;
 import edu.tigers.autoreferee.generic.BotPosition;
-import edu.tigers.sumatra.geometry.Geometry;
 import edu.tigers.sumatra.ids.ETeamColor;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.BoundaryCrossing;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import lombok.Value;
 import lombok.extern.log4j.Log4j2;
 
 import java.util.EnumSet;
@@ -93,6 +93,23 @@ public class BoundaryCrossingDetector extends AGameEventDetector
 	}
 
 
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(lastTouchedBy, ballLastSeen, lastKnownPosition);
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		lastTouchedBy = s.lastTouchedBy;
+		ballLastSeen = s.ballLastSeen;
+		lastKnownPosition = s.lastKnownPosition;
+	}
+
+
 	private ETeamColor getLastTouchedByTeam()
 	{
 		List<BotPosition> bots = frame.getBotsLastTouchedBall();
@@ -116,9 +133,18 @@ public class BoundaryCrossingDetector extends AGameEventDetector
 	private boolean isBallOnField()
 	{
 		boolean ballVisible = frame.getWorldFrame().getBall().isOnCam(0.1);
-		boolean ballInsideField = Geometry.getField().withMargin(700)
+		boolean ballInsideField = frame.getGeometry().getFieldGeometry().getField(700)
 				.isPointInShape(frame.getWorldFrame().getBall().getPos());
 
 		return ballInsideField && ballVisible;
 	}
+
+
+	@Value
+	private static class State
+	{
+		ETeamColor lastTouchedBy;
+		long ballLastSeen;
+		IVector2 lastKnownPosition;
+	}
 }
@@ -1,12 +1,11 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
 
 import com.github.g3force.configurable.Configurable;
 import com.google.common.collect.Sets;
-import edu.tigers.autoreferee.AutoRefUtil;
 import edu.tigers.sumatra.geometry.Geometry;
 import edu.tigers.sumatra.geometry.RuleConstraints;
 import edu.tigers.sumatra.ids.BotID;
@@ -18,6 +17,7 @@ import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.DefenderTooCloseToKickPoint;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
+import lombok.Value;
 
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -103,8 +103,7 @@ public class DefenderToKickPointDistanceDetector extends AGameEventDetector
 	{
 		ETeamColor attackingColor = frame.getGameState().getForTeam();
 
-		Map<BotID, ITrackedBot> bots = frame.getWorldFrame().getBots();
-		List<ITrackedBot> defendingBots = AutoRefUtil.filterByColor(bots, attackingColor.opposite());
+		List<ITrackedBot> defendingBots = frame.getGeometry().getBots(attackingColor.opposite());
 
 
 		Set<BotID> violators = new HashSet<>();
@@ -159,4 +158,32 @@ public class DefenderToKickPointDistanceDetector extends AGameEventDetector
 		lastViolators.clear();
 		outerCircleBots.clear();
 	}
+
+
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(new HashMap<>(lastViolators), new HashMap<>(outerCircleBots), ballPos);
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		lastViolators.clear();
+		lastViolators.putAll(s.lastViolators);
+		outerCircleBots.clear();
+		outerCircleBots.putAll(s.outerCircleBots);
+		ballPos = s.ballPos;
+	}
+
+
+	@Value
+	private static class State
+	{
+		Map<BotID, Long> lastViolators;
+		Map<BotID, Long> outerCircleBots;
+		IVector2 ballPos;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
@@ -22,6 +22,7 @@ import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.AttackerDoubleTouchedBall;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
+import lombok.Value;
 
 
 /**
@@ -76,6 +77,23 @@ public class DoubleTouchDetector extends AGameEventDetector
 	}
 	
 	
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(ballMoved, kickerID, initialBallPos);
+	}
+	
+	
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		ballMoved = s.ballMoved;
+		kickerID = s.kickerID;
+		initialBallPos = s.initialBallPos;
+	}
+	
+	
 	@Override
 	public Optional<IGameEvent> doUpdate()
 	{
@@ -122,4 +140,13 @@ public class DoubleTouchDetector extends AGameEventDetector
 			}
 		}
 	}
+	
+	
+	@Value
+	private static class State
+	{
+		boolean ballMoved;
+		BotID kickerID;
+		IVector2 initialBallPos;
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
@@ -81,4 +81,20 @@ public class DribblingDetector extends AGameEventDetector
 	{
 		currentContacts.clear();
 	}
+	
+	
+	@Override
+	protected Object doSaveState()
+	{
+		return new HashMap<>(currentContacts);
+	}
+	
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		currentContacts.clear();
+		currentContacts.putAll((Map<BotID, BotPosition>) state);
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.autoreferee.engine.detector;
@@ -22,6 +22,7 @@ import edu.tigers.sumatra.referee.gameevent.PossibleGoal;
 import edu.tigers.sumatra.vision.data.IKickEvent;
 import edu.tigers.sumatra.wp.data.BallLeftFieldPosition;
 import edu.tigers.sumatra.wp.data.TimedPosition;
+import lombok.Value;
 
 
 /**
@@ -73,6 +74,25 @@ public class GoalDetector extends AGameEventDetector
 	}
 
 
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(lastBallLeftFieldPos, new EnumMap<>(lastTouchedMap), new EnumMap<>(maxBallHeightMap));
+	}
+
+
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		lastBallLeftFieldPos = s.lastBallLeftFieldPos;
+		lastTouchedMap.clear();
+		lastTouchedMap.putAll(s.lastTouchedMap);
+		maxBallHeightMap.clear();
+		maxBallHeightMap.putAll(s.maxBallHeightMap);
+	}
+
+
 	private IGameEvent processBallLeftField(final BallLeftFieldPosition ballLeftFieldPosition)
 	{
 		lastBallLeftFieldPos = ballLeftFieldPosition.getPosition();
@@ -118,9 +138,17 @@ public class GoalDetector extends AGameEventDetector
 		final ETeamColor forTeam = goalForTeam(ballLeftFieldPosition);
 		final IVector2 location = ballLeftFieldPosition.getPosition().getPos();
 		final double maxBallHeight = maxBallHeightMap.get(forTeam);
-		final int numRobots = (int) frame.getWorldFrame().getBots().keySet().stream()
-				.filter(b -> b.getTeamColor() == forTeam).count();
+		final int numRobots = frame.getGeometry().getBots(forTeam).size();
 		final long lastTouched = lastTouchedMap.get(forTeam);
 		return new PossibleGoal(forTeam, kickingBot, location, kickLocation, maxBallHeight, numRobots, lastTouched);
 	}
+
+
+	@Value
+	private static class State
+	{
+		TimedPosition lastBallLeftFieldPos;
+		Map<ETeamColor, Long> lastTouchedMap;
+		Map<ETeamColor, Double> maxBallHeightMap;
+	}
 }
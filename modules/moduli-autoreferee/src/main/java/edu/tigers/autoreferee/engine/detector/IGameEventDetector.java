@@ -1,19 +1,21 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.detector;
 
 import java.util.Optional;
 
 import edu.tigers.autoreferee.IAutoRefFrame;
+import edu.tigers.autoreferee.engine.IAutoRefStateful;
 import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 
 
 /**
- * Detects {@link IGameEvent}s
+ * Detects {@link IGameEvent}s.
+ * Detectors that keep state between frames must be able to save and restore it.
  */
-public interface IGameEventDetector
+public interface IGameEventDetector extends IAutoRefStateful
 {
 	/**
 	 * @param state
@@ -30,6 +30,7 @@ import edu.tigers.sumatra.referee.data.EGameState;
 import edu.tigers.sumatra.referee.gameevent.BotPushedBot;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
 import edu.tigers.sumatra.wp.data.ITrackedBot;
+import lombok.Value;
 
 
 /**
@@ -66,6 +67,22 @@ public class PushingDetector extends AGameEventDetector
 	}
 	
 	
+	@Override
+	protected Object doSaveState()
+	{
+		return new State(new HashSet<>(firstRobotPairs), new HashSet<>(recentlyDetectedPushingPairs));
+	}
+	
+	
+	@Override
+	protected void doRestoreState(final Object state)
+	{
+		State s = (State) state;
+		firstRobotPairs = new HashSet<>(s.firstRobotPairs);
+		recentlyDetectedPushingPairs = new HashSet<>(s.recentlyDetectedPushingPairs);
+	}
+	
+	
 	@Override
 	protected Optional<IGameEvent> doUpdate()
 	{
@@ -115,7 +132,7 @@ public class PushingDetector extends AGameEventDetector
 	
 	private Set<RobotPair> latestRobotPairs()
 	{
-		return frame.getWorldFrame().getBots().values().stream()
+		return frame.getGeometry().getBots().stream()
 				.map(this::touchingOpponents)
 				.flatMap(Collection::stream)
 				.collect(Collectors.toSet());
@@ -218,19 +235,15 @@ public class PushingDetector extends AGameEventDetector
 	
 	private List<RobotPair> touchingOpponents(ITrackedBot bot)
 	{
-		return frame.getWorldFrame().getBots().values().stream()
-				.filter(b -> bot.getTeamColor() != b.getTeamColor())
-				.filter(b -> touching(bot, b))
+		return frame.getGeometry().getBotsNear(bot, bot.getTeamColor().opposite(), touchingDistance()).stream()
 				.map(b -> new RobotPair(bot, b))
 				.collect(Collectors.toList());
 	}
 	
 	
-	private boolean touching(ITrackedBot bot1, ITrackedBot bot2)
+	private double touchingDistance()
 	{
-		double minDist = Geometry.getBotRadius() * 2 + botExtraMargin;
-		minDist *= minDist;
-		return bot1.getPos().distanceToSqr(bot2.getPos()) < minDist;
+		return Geometry.getBotRadius() * 2 + botExtraMargin;
 	}
 	
 	private static class RobotPair
@@ -332,4 +345,12 @@ public class PushingDetector extends AGameEventDetector
 			return pushDirection().getLength2();
 		}
 	}
+	
+	
+	@Value
+	private static class State
+	{
+		Set<RobotPair> firstRobotPairs;
+		Set<RobotPair> recentlyDetectedPushingPairs;
+	}
 }
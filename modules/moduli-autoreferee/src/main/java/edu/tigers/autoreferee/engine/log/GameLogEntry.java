@@ -1,11 +1,13 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoreferee.engine.log;
 
 import java.awt.Color;
 import java.time.Instant;
 
+import edu.tigers.sumatra.clock.SumatraClock;
+
 
 public abstract class GameLogEntry
 {
@@ -23,7 +25,7 @@ public abstract class GameLogEntry
 	{
 		this.timestamp = timestamp;
 		this.gameTime = gameTime;
-		this.instant = Instant.now();
+		this.instant = Instant.ofEpochMilli(SumatraClock.currentTimeMillis());
 		this.type = type;
 	}
 	
@@ -27,11 +27,22 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Connector to game controller
+ * <p>
+ * Game events are queued and sent one after another. If the connection is lost, the connector reconnects
+ * with an exponential backoff and replays the queued game events afterwards. A game event is only removed
+ * from the queue, when the game-controller replied to it, so it may be sent twice, if a reply is lost.
+ * The queue is bounded: If it is full, the oldest game event is dropped. Game events that are older than
+ * {@link #MAX_EVENT_AGE} are not sent anymore, because they do not apply to the current situation.
  */
 public class AutoRefToGameControllerConnector implements Runnable
 {
 	private static final Logger log = LogManager.getLogger(AutoRefToGameControllerConnector.class);
 	private static final String AUTO_REF_ID = "TIGERs AutoRef";
+	private static final int DEFAULT_QUEUE_CAPACITY = 100;
+	/** [ms] */
+	private static final long MAX_EVENT_AGE = 10_000;
+	/** [ms] */
+	private static final int READ_TIMEOUT = 1000;
 
 	private GameControllerProtocol protocol;
 	private ExecutorService executorService;
@@ -45,11 +56,24 @@ public class AutoRefToGameControllerConnector implements Runnable
 
 
 	public AutoRefToGameControllerConnector(final String hostname, final int port)
+	{
+		this(hostname, port, DEFAULT_QUEUE_CAPACITY);
+	}
+
+
+	/**
+	 * @param hostname      the host of the game-controller
+	 * @param port          the autoRef port of the game-controller
+	 * @param queueCapacity the maximum number of game events that are kept while the game-controller is not reachable
+	 */
+	AutoRefToGameControllerConnector(final String hostname, final int port, final int queueCapacity)
 	{
 		protocol = new GameControllerProtocol(hostname, port);
+		// the game-controller replies to every message immediately
+		protocol.setReadTimeout(READ_TIMEOUT);
 		protocol.addConnectedHandler(this::register);
 
-		commandQueue = new LinkedBlockingDeque<>();
+		commandQueue = new LinkedBlockingDeque<>(queueCapacity);
 		try
 		{
 			signer = new MessageSigner(
@@ -79,6 +103,7 @@ public class AutoRefToGameControllerConnector implements Runnable
 		if (reply == null || !reply.hasControllerReply())
 		{
 			log.error("Receiving initial Message failed");
+			protocol.disconnect();
 			return;
 		}
 
@@ -97,14 +122,20 @@ public class AutoRefToGameControllerConnector implements Runnable
 		if (reply == null)
 		{
 			log.error("Receiving AutoRefRegistration reply failed");
+			protocol.disconnect();
 		} else if (reply.getControllerReply().getStatusCode() != SslGcRcon.ControllerReply.StatusCode.OK)
 		{
 			log.error("Server did not allow registration: " + reply.getControllerReply().getStatusCode() + " - "
 					+ reply.getControllerReply().getReason());
+			protocol.disconnect();
 		} else
 		{
 			log.info("Successfully registered AutoRef");
 			nextToken = reply.getControllerReply().getNextToken();
+			if (!commandQueue.isEmpty())
+			{
+				log.info("Replaying {} queued game events", commandQueue.size());
+			}
 		}
 	}
 
@@ -137,10 +168,22 @@ public class AutoRefToGameControllerConnector implements Runnable
 	}
 
 
+	/**
+	 * Queue the game event for sending. If the queue is full, the oldest game event is dropped.
+	 *
+	 * @param event the game event to send
+	 */
 	public void sendEvent(final IGameEvent event)
 	{
-		QueueEntry entry = new QueueEntry(event);
-		commandQueue.add(entry);
+		QueueEntry entry = new QueueEntry(event, System.nanoTime());
+		while (!commandQueue.offerLast(entry))
+		{
+			QueueEntry dropped = commandQueue.pollFirst();
+			if (dropped != null)
+			{
+				log.warn("Dropped game event '{}', because the queue is full", dropped.getEvent());
+			}
+		}
 	}
 
 
@@ -148,12 +191,15 @@ public class AutoRefToGameControllerConnector implements Runnable
 	public void run()
 	{
 		log.debug("Started connector");
-		protocol.connectBlocking();
-		log.debug("Connected");
 		while (!executorService.isShutdown())
 		{
 			try
 			{
+				if (!protocol.isConnected())
+				{
+					protocol.connectBlocking();
+					continue;
+				}
 				readWriteLoop();
 			} catch (InterruptedException e)
 			{
@@ -171,6 +217,12 @@ public class AutoRefToGameControllerConnector implements Runnable
 	private void readWriteLoop() throws InterruptedException
 	{
 		QueueEntry entry = commandQueue.take();
+		if (entry.getAge() > MAX_EVENT_AGE)
+		{
+			log.warn("Dropped game event '{}', because it could not be sent within {} ms", entry.getEvent(),
+					MAX_EVENT_AGE);
+			return;
+		}
 		SslGcRconAutoref.AutoRefToController.Builder req = SslGcRconAutoref.AutoRefToController
 				.newBuilder();
 		req.setGameEvent(entry.getEvent().toProtobuf());
@@ -184,14 +236,18 @@ public class AutoRefToGameControllerConnector implements Runnable
 
 		if (!protocol.sendMessage(req.build()))
 		{
-
-			log.info("Put game event '{}' back into queue after lost connection", entry.getEvent());
-			commandQueue.addFirst(entry);
+			requeue(entry);
 			return;
 		}
 		SslGcRconAutoref.ControllerToAutoRef reply = protocol
 				.receiveMessage(SslGcRconAutoref.ControllerToAutoRef.parser());
-		if (reply == null || !reply.hasControllerReply())
+		if (reply == null)
+		{
+			// the game-controller may not have received the game event
+			requeue(entry);
+			return;
+		}
+		if (!reply.hasControllerReply())
 		{
 			log.error("Receiving GameController Reply failed");
 		} else if (reply.getControllerReply()
@@ -202,10 +258,19 @@ public class AutoRefToGameControllerConnector implements Runnable
 							+ reply.getControllerReply().getStatusCode());
 		}
 
-		if (reply != null)
+		responseObserverList.forEach(a -> a.notify(new GameEventResponse(reply.getControllerReply())));
+		nextToken = reply.getControllerReply().getNextToken();
+	}
+
+
+	private void requeue(final QueueEntry entry)
+	{
+		if (commandQueue.offerFirst(entry))
 		{
-			responseObserverList.forEach(a -> a.notify(new GameEventResponse(reply.getControllerReply())));
-			nextToken = reply.getControllerReply().getNextToken();
+			log.info("Put game event '{}' back into queue after lost connection", entry.getEvent());
+		} else
+		{
+			log.warn("Dropped game event '{}' after lost connection, because the queue is full", entry.getEvent());
 		}
 	}
 
@@ -219,11 +284,14 @@ public class AutoRefToGameControllerConnector implements Runnable
 	private static class QueueEntry
 	{
 		private final IGameEvent event;
+		/** [ns] */
+		private final long queuedAt;
 
 
-		public QueueEntry(final IGameEvent event)
+		public QueueEntry(final IGameEvent event, final long queuedAt)
 		{
 			this.event = event;
+			this.queuedAt = queuedAt;
 		}
 
 
@@ -234,6 +302,15 @@ public class AutoRefToGameControllerConnector implements Runnable
 		{
 			return event;
 		}
+
+
+		/**
+		 * @return the time since the event was queued [ms]
+		 */
+		public long getAge()
+		{
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - queuedAt);
+		}
 	}
 
 	@FunctionalInterface
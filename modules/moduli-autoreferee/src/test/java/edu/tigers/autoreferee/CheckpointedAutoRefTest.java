@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.autoreferee;
+
+import edu.tigers.autoreferee.engine.PassiveAutoRefEngine;
+import edu.tigers.autoreferee.engine.detector.EGameEventDetectorType;
+import edu.tigers.autoreferee.generic.BotPosition;
+import edu.tigers.sumatra.clock.SumatraClock;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Seeking with checkpoints must give the same autoRef frames and game events as playing the recording
+ * from the beginning.
+ */
+public class CheckpointedAutoRefTest
+{
+	private static final double CHECKPOINT_INTERVAL = 1;
+
+	private static final NavigableMap<Long, WorldFrameWrapper> recording = new TreeMap<>();
+	private static List<String> straightPlay;
+
+
+	@BeforeClass
+	public static void recordMatch()
+	{
+		SyntheticMatch.run(wfw -> recording.put(wfw.getSimpleWorldFrame().getTimestamp(), wfw));
+		SumatraClock.reset();
+
+		straightPlay = playFromStart();
+	}
+
+
+	@AfterClass
+	public static void clearRecording()
+	{
+		recording.clear();
+	}
+
+
+	@Test
+	public void testStraightPlayDetectsGameEvents()
+	{
+		assertThat(straightPlay).hasSizeGreaterThan(recording.size());
+		assertThat(straightPlay).anyMatch(line -> line.startsWith("event"));
+	}
+
+
+	@Test
+	public void testSeekForwardThenPlay()
+	{
+		CheckpointedAutoRef autoRef = createAutoRef();
+		autoRef.createCheckpoints();
+		assertThat(autoRef.getNumCheckpoints()).isBetween(8, 10);
+
+		assertSeekThenPlay(autoRef, recording.firstKey() + secondsToNs(6.5));
+	}
+
+
+	@Test
+	public void testSeekBackwardThenPlay()
+	{
+		CheckpointedAutoRef autoRef = createAutoRef();
+		autoRef.createCheckpoints();
+		autoRef.process(recording.lastEntry().getValue());
+
+		assertSeekThenPlay(autoRef, recording.firstKey() + secondsToNs(1.2));
+	}
+
+
+	@Test
+	public void testSeekWithoutCheckpoints()
+	{
+		CheckpointedAutoRef autoRef = createAutoRef();
+		autoRef.process(recording.lastEntry().getValue());
+
+		assertSeekThenPlay(autoRef, recording.firstKey() + secondsToNs(3.3));
+	}
+
+
+	private void assertSeekThenPlay(final CheckpointedAutoRef autoRef, final long seekTarget)
+	{
+		long seekTimestamp = recording.ceilingKey(seekTarget);
+		autoRef.process(recording.get(seekTimestamp));
+		// the target frame itself was already processed by the seek, continue with the next one
+		List<String> seekThenPlay = play(autoRef, recording.tailMap(seekTimestamp, false));
+
+		List<String> expected = straightPlay.subList(indexOfFrame(seekTimestamp) + 1, straightPlay.size());
+		assertThat(seekThenPlay).hasSizeGreaterThan(100).isEqualTo(expected);
+	}
+
+
+	private int indexOfFrame(final long timestamp)
+	{
+		String frame = "frame " + timestamp + " ";
+		int index = 0;
+		while (!straightPlay.get(index).startsWith(frame))
+		{
+			index++;
+		}
+		return index;
+	}
+
+
+	/**
+	 * Process every frame with a plain preprocessor and engine, like the autoRef does during a match
+	 */
+	private static List<String> playFromStart()
+	{
+		List<String> output = new ArrayList<>();
+		AutoRefFramePreprocessor preprocessor = new AutoRefFramePreprocessor();
+		PassiveAutoRefEngine engine = new PassiveAutoRefEngine(EnumSet.allOf(EGameEventDetectorType.class));
+		engine.addObserver(gameEvent -> output.add("event " + gameEvent.toProtobuf()));
+		for (WorldFrameWrapper wfw : recording.values())
+		{
+			boolean hasLastFrame = preprocessor.hasLastFrame();
+			AutoRefFrame frame = preprocessor.process(wfw);
+			if (hasLastFrame)
+			{
+				engine.process(frame);
+			}
+			output.add(format(frame));
+		}
+		return output;
+	}
+
+
+	private static CheckpointedAutoRef createAutoRef()
+	{
+		return new CheckpointedAutoRef(t -> {
+			Map.Entry<Long, WorldFrameWrapper> next = recording.higherEntry(t);
+			return next == null ? null : next.getValue();
+		}, EnumSet.allOf(EGameEventDetectorType.class), CHECKPOINT_INTERVAL);
+	}
+
+
+	private static List<String> play(final CheckpointedAutoRef autoRef, final Map<Long, WorldFrameWrapper> frames)
+	{
+		List<String> output = new ArrayList<>();
+		autoRef.addObserver(gameEvent -> output.add("event " + gameEvent.toProtobuf()));
+		for (WorldFrameWrapper wfw : frames.values())
+		{
+			output.add(format(autoRef.process(wfw)));
+		}
+		return output;
+	}
+
+
+	private static String format(final IAutoRefFrame frame)
+	{
+		return "frame " + frame.getTimestamp()
+				+ " " + botIds(frame.getBotsLastTouchedBall())
+				+ " " + botIds(frame.getBotsTouchingBall())
+				+ " " + frame.isBallInsideField()
+				+ " " + frame.getBallLeftFieldPos().map(p -> p.getPosition().getTimestamp() + " " + p.getType())
+				.orElse("-")
+				+ " " + frame.getStateHistory();
+	}
+
+
+	private static String botIds(final List<BotPosition> positions)
+	{
+		return positions.stream()
+				.map(p -> p.getBotID().toString())
+				.collect(Collectors.joining(","));
+	}
+
+
+	private static long secondsToNs(final double seconds)
+	{
+		return (long) (seconds * 1e9);
+	}
+}
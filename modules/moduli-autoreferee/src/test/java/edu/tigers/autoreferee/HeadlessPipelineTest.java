@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.autoreferee;
+
+import edu.tigers.autoreferee.engine.PassiveAutoRefEngine;
+import edu.tigers.autoreferee.engine.detector.EGameEventDetectorType;
+import edu.tigers.sumatra.clock.SumatraClock;
+import edu.tigers.sumatra.clock.VirtualClock;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.wp.data.ITrackedBot;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Run a synthetic match through the whole pipeline (cam -> vision -> wp -> autoRef) with a {@link VirtualClock}.
+ * The camera frames are processed as fast as possible and the outputs must not depend on the machine or the run.
+ */
+public class HeadlessPipelineTest
+{
+	private static final double PUBLISH_DT = 0.0125;
+
+
+	@After
+	public void resetClock()
+	{
+		SumatraClock.reset();
+	}
+
+
+	@Test
+	public void testRunsAreBitIdentical()
+	{
+		List<String> firstRun = runPipeline();
+		List<String> secondRun = runPipeline();
+
+		int numWorldFrames = (int) firstRun.stream().filter(line -> line.startsWith("wf")).count();
+		double duration = SyntheticMatch.DURATION;
+		assertThat(numWorldFrames).isBetween((int) (duration / PUBLISH_DT) - 10, (int) (duration / PUBLISH_DT) + 10);
+		assertThat(secondRun).isEqualTo(firstRun);
+	}
+
+
+	private List<String> runPipeline()
+	{
+		List<String> output = new ArrayList<>();
+
+		AutoRefFramePreprocessor preprocessor = new AutoRefFramePreprocessor();
+		PassiveAutoRefEngine engine = new PassiveAutoRefEngine(EnumSet.allOf(EGameEventDetectorType.class));
+		engine.addObserver(gameEvent -> output.add("event " + gameEvent.toProtobuf()));
+		SyntheticMatch.run(wfw -> {
+			output.add(format(wfw));
+			boolean hasLastFrame = preprocessor.hasLastFrame();
+			AutoRefFrame frame = preprocessor.process(wfw);
+			if (hasLastFrame)
+			{
+				engine.process(frame);
+			}
+		});
+		return output;
+	}
+
+
+	private String format(final WorldFrameWrapper wfw)
+	{
+		StringBuilder sb = new StringBuilder("wf ");
+		sb.append(wfw.getTimestamp()).append(' ')
+				.append(wfw.getUnixTimestamp()).append(' ')
+				.append(wfw.getGameState()).append(' ')
+				.append(wfw.getSimpleWorldFrame().getBall().getNumberList());
+		List<BotID> botIds = new ArrayList<>(wfw.getSimpleWorldFrame().getBots().keySet());
+		Collections.sort(botIds);
+		for (BotID botId : botIds)
+		{
+			ITrackedBot bot = wfw.getSimpleWorldFrame().getBot(botId);
+			sb.append(' ').append(bot.getNumberList());
+		}
+		return sb.toString();
+	}
+}
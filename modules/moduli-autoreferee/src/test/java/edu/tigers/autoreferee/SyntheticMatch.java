@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.autoreferee;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.cam.data.CamRobot;
+import edu.tigers.sumatra.clock.SumatraClock;
+import edu.tigers.sumatra.clock.VirtualClock;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector3;
+import edu.tigers.sumatra.referee.data.RefereeMsgBuilder;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import edu.tigers.sumatra.vision.VisionFilterImpl;
+import edu.tigers.sumatra.wp.IWorldFrameObserver;
+import edu.tigers.sumatra.wp.WorldInfoCollector;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+
+/**
+ * A synthetic match that is run through the vision filter and the world info collector with a {@link VirtualClock}.
+ * The robots drive on small circles, the ball is kicked after one second and leaves the field.
+ */
+final class SyntheticMatch
+{
+	private static final long START_TIME = 1_600_000_000_000_000_000L;
+	private static final long CAM_DT = 16_666_667L;
+	private static final long CAM_1_OFFSET = 7_000_000L;
+	static final double DURATION = 10;
+	private static final int NUM_BOTS_PER_TEAM = 6;
+	private static final double KICK_TIME = 1;
+	private static final IVector2 KICK_VEL = Vector2.fromXY(5000, 1500);
+	private static final double BALL_DECELERATION = 400;
+
+
+	private SyntheticMatch()
+	{
+	}
+
+
+	/**
+	 * Run the match and pass all world frames to the consumer.
+	 * The {@link SumatraClock} is replaced by a virtual clock and must be reset by the caller.
+	 *
+	 * @param consumer the consumer of the world frames
+	 */
+	static void run(final Consumer<WorldFrameWrapper> consumer)
+	{
+		VirtualClock clock = new VirtualClock();
+		SumatraClock.set(clock);
+
+		VisionFilterImpl visionFilter = new VisionFilterImpl();
+		visionFilter.startPublisher();
+		WorldInfoCollector worldInfoCollector = new WorldInfoCollector();
+		worldInfoCollector.connect(visionFilter);
+		worldInfoCollector.addObserver(new IWorldFrameObserver()
+		{
+			@Override
+			public void onNewWorldFrame(final WorldFrameWrapper wfw)
+			{
+				consumer.accept(wfw);
+			}
+		});
+
+		clock.advanceTo(START_TIME);
+		worldInfoCollector.onNewRefereeMsg(RefereeMsgBuilder.aRefereeMsg()
+				.withCommand(SslGcRefereeMessage.Referee.Command.FORCE_START)
+				.withCommandCounter(1)
+				.build());
+
+		Random rnd = new Random(42);
+		long frameId = 0;
+		long numFrames = (long) (DURATION * 1e9 / CAM_DT);
+		for (long camFrame = 0; camFrame < numFrames; camFrame++)
+		{
+			for (int camId = 0; camId < 2; camId++)
+			{
+				long tCapture = START_TIME + camFrame * CAM_DT + camId * CAM_1_OFFSET;
+				// the input drives the clock, the frame is created afterwards like after receiving it
+				clock.advanceTo(tCapture);
+				visionFilter.onNewCamDetectionFrame(createFrame(camId, camFrame, frameId++, tCapture, rnd));
+			}
+		}
+
+		visionFilter.stopPublisher();
+	}
+
+
+	private static CamDetectionFrame createFrame(final int camId, final long camFrame, final long frameId, final long tCapture,
+			final Random rnd)
+	{
+		double t = (tCapture - START_TIME) / 1e9;
+
+		List<CamRobot> yellow = new ArrayList<>();
+		List<CamRobot> blue = new ArrayList<>();
+		for (int i = 0; i < NUM_BOTS_PER_TEAM; i++)
+		{
+			addRobot(yellow, BotID.createBotId(i, ETeamColor.YELLOW), camId, frameId, tCapture, t, rnd);
+			addRobot(blue, BotID.createBotId(i, ETeamColor.BLUE), camId, frameId, tCapture, t, rnd);
+		}
+
+		List<CamBall> balls = new ArrayList<>();
+		IVector2 ballPos = ballPos(t).addNew(noise(rnd));
+		if (isVisible(camId, ballPos))
+		{
+			balls.add(new CamBall(0.9, 30, Vector3.from2d(ballPos, 0), ballPos, tCapture, camId, frameId));
+		}
+
+		return new CamDetectionFrame(tCapture, tCapture, camId, camFrame, frameId, balls, yellow, blue);
+	}
+
+
+	private static void addRobot(final List<CamRobot> robots, final BotID botId, final int camId, final long frameId,
+			final long tCapture, final double t, final Random rnd)
+	{
+		int index = botId.getNumberWithColorOffset();
+		double sign = botId.getTeamColor() == ETeamColor.YELLOW ? -1 : 1;
+		IVector2 center = Vector2.fromXY(sign * (1000 + (index % 3) * 1500), (index % 6) * 1200.0 - 3000);
+		double angle = 0.5 * t + index;
+		IVector2 pos = center.addNew(Vector2.fromXY(400 * Math.cos(angle), 300 * Math.sin(angle))).addNew(noise(rnd));
+		if (isVisible(camId, pos))
+		{
+			robots.add(new CamRobot(0.9, pos, tCapture, camId, frameId, pos, angle + rnd.nextGaussian() * 0.01, 150,
+					botId));
+		}
+	}
+
+
+	private static IVector2 ballPos(final double t)
+	{
+		if (t < KICK_TIME)
+		{
+			return Vector2.zero();
+		}
+		double vel = KICK_VEL.getLength();
+		double dt = Math.min(t - KICK_TIME, vel / BALL_DECELERATION);
+		double dist = vel * dt - 0.5 * BALL_DECELERATION * dt * dt;
+		return KICK_VEL.scaleToNew(dist);
+	}
+
+
+	private static IVector2 noise(final Random rnd)
+	{
+		return Vector2.fromXY(rnd.nextGaussian() * 2, rnd.nextGaussian() * 2);
+	}
+
+
+	private static boolean isVisible(final int camId, final IVector2 pos)
+	{
+		if (Math.abs(pos.x()) > 6500 || Math.abs(pos.y()) > 5000)
+		{
+			return false;
+		}
+		return camId == 0 ? pos.x() < 500 : pos.x() > -500;
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.autoreferee.remote;
+
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.referee.gameevent.NoProgressInGame;
+import edu.tigers.sumatra.referee.proto.SslGcRcon;
+import edu.tigers.sumatra.referee.proto.SslGcRconAutoref;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Run the connector against a local stub game-controller that is killed and restarted
+ */
+public class AutoRefToGameControllerConnectorTest
+{
+	private StubGameController gameController;
+	private AutoRefToGameControllerConnector connector;
+
+
+	@Before
+	public void setUp() throws IOException
+	{
+		gameController = new StubGameController(freePort());
+	}
+
+
+	@After
+	public void tearDown()
+	{
+		if (connector != null)
+		{
+			connector.stop();
+		}
+		gameController.kill();
+	}
+
+
+	@Test
+	public void testReplayAfterRestartUnderLoad() throws Exception
+	{
+		gameController.start();
+		connector = new AutoRefToGameControllerConnector("localhost", gameController.port, 1000);
+		connector.start();
+
+		int numEvents = 1000;
+		for (int i = 0; i < numEvents; i++)
+		{
+			connector.sendEvent(new NoProgressInGame(Vector2.zero(), i));
+			if (i == numEvents / 3)
+			{
+				gameController.kill();
+			} else if (i == 2 * numEvents / 3)
+			{
+				gameController.start();
+			}
+			Thread.sleep(1);
+		}
+
+		awaitTrue(() -> gameController.received.size() == numEvents, 5000);
+		assertThat(gameController.received)
+				.containsExactlyElementsOf(IntStream.range(0, numEvents).boxed().collect(Collectors.toList()));
+		assertThat(gameController.registrations).hasSize(2);
+		// the connector was retrying while the game-controller was down, so it is back within the maximum backoff
+		assertThat(gameController.registrations.get(1) - gameController.startedAt).isLessThan(
+				TimeUnit.MILLISECONDS.toNanos(1000));
+	}
+
+
+	@Test
+	public void testOnlyNewestEventsAreKeptWhileDisconnected() throws Exception
+	{
+		connector = new AutoRefToGameControllerConnector("localhost", gameController.port, 10);
+		connector.start();
+
+		for (int i = 0; i < 50; i++)
+		{
+			connector.sendEvent(new NoProgressInGame(Vector2.zero(), i));
+		}
+		gameController.start();
+
+		awaitTrue(() -> gameController.received.size() >= 10, 5000);
+		Thread.sleep(100);
+		assertThat(gameController.received)
+				.containsExactlyElementsOf(IntStream.range(40, 50).boxed().collect(Collectors.toList()));
+	}
+
+
+	private static void awaitTrue(final BooleanSupplier condition, final long timeout) throws InterruptedException
+	{
+		long deadline = System.currentTimeMillis() + timeout;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+	}
+
+
+	private static int freePort() throws IOException
+	{
+		try (ServerSocket socket = new ServerSocket(0))
+		{
+			return socket.getLocalPort();
+		}
+	}
+
+
+	/**
+	 * Accepts autoRef connections like the game-controller and replies with OK to all messages.
+	 * The time of the received {@link NoProgressInGame} events is recorded.
+	 */
+	private static class StubGameController
+	{
+		private final int port;
+		private final Set<Integer> received = new ConcurrentSkipListSet<>();
+		/** the time of the registrations [ns] */
+		private final List<Long> registrations = new CopyOnWriteArrayList<>();
+		private final List<Socket> clients = new CopyOnWriteArrayList<>();
+		private ServerSocket serverSocket;
+		private Thread acceptThread;
+		/** [ns] */
+		private volatile long startedAt;
+
+
+		private StubGameController(final int port)
+		{
+			this.port = port;
+		}
+
+
+		private void start() throws IOException
+		{
+			serverSocket = new ServerSocket();
+			serverSocket.setReuseAddress(true);
+			serverSocket.bind(new InetSocketAddress("localhost", port));
+			startedAt = System.nanoTime();
+			ServerSocket acceptSocket = serverSocket;
+			acceptThread = new Thread(() -> accept(acceptSocket), "StubGameController");
+			acceptThread.start();
+		}
+
+
+		private void kill()
+		{
+			if (serverSocket == null)
+			{
+				return;
+			}
+			close(serverSocket);
+			clients.forEach(StubGameController::close);
+			clients.clear();
+			serverSocket = null;
+		}
+
+
+		private void accept(final ServerSocket acceptSocket)
+		{
+			while (!acceptSocket.isClosed())
+			{
+				try
+				{
+					Socket client = acceptSocket.accept();
+					clients.add(client);
+					new Thread(() -> handle(client), "StubGameControllerClient").start();
+				} catch (IOException e)
+				{
+					// killed
+				}
+			}
+		}
+
+
+		private void handle(final Socket client)
+		{
+			try (client)
+			{
+				InputStream in = client.getInputStream();
+				OutputStream out = client.getOutputStream();
+				reply(out);
+				if (SslGcRconAutoref.AutoRefRegistration.parseDelimitedFrom(in) == null)
+				{
+					return;
+				}
+				registrations.add(System.nanoTime());
+				reply(out);
+				SslGcRconAutoref.AutoRefToController request;
+				while ((request = SslGcRconAutoref.AutoRefToController.parseDelimitedFrom(in)) != null)
+				{
+					received.add((int) request.getGameEvent().getNoProgressInGame().getTime());
+					reply(out);
+				}
+			} catch (IOException e)
+			{
+				// killed
+			}
+		}
+
+
+		private void reply(final OutputStream out) throws IOException
+		{
+			SslGcRconAutoref.ControllerToAutoRef.newBuilder()
+					.setControllerReply(SslGcRcon.ControllerReply.newBuilder()
+							.setStatusCode(SslGcRcon.ControllerReply.StatusCode.OK)
+							.setNextToken("token"))
+					.build()
+					.writeDelimitedTo(out);
+			out.flush();
+		}
+
+
+		private static void close(final AutoCloseable closeable)
+		{
+			try
+			{
+				closeable.close();
+			} catch (Exception e)
+			{
+				// already closed
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@ public abstract class ACam extends AModule
 
 	private final CamDetectionConverter		camDetectionConverter	= new CamDetectionConverter();
 	private final CamObjectFilter				camObjectFilter			= new CamObjectFilter();
+	private final TimeSync						timeSync						= new TimeSync();
 
 
 	@Override
@@ -51,8 +52,18 @@ public abstract class ACam extends AModule
 	}
 
 
+	/**
+	 * @return the synchronization of the camera clocks with the local clock, based on the received frames
+	 */
+	public TimeSync getTimeSync()
+	{
+		return timeSync;
+	}
+
+
 	protected void notifyNewCameraFrame(final SSL_DetectionFrame frame)
 	{
+		timeSync.update(frame.getCameraId(), frame.getTSent());
 		CamDetectionFrame camDetectionFrame = camDetectionConverter.convertDetectionFrame(frame);
 		camDetectionFrame = camObjectFilter.filter(camDetectionFrame);
 		for (ICamFrameObserver observer : observers)
@@ -82,6 +93,7 @@ public abstract class ACam extends AModule
 
 	protected void notifyVisionLost()
 	{
+		timeSync.reset();
 		for (ICamFrameObserver observer : observers)
 		{
 			observer.onClearCamFrame();
@@ -0,0 +1,549 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.cam;
+
+import lombok.Value;
+
+import java.util.Arrays;
+
+
+/**
+ * Estimate the relation between the clock of a single vision camera and the local clock from the sent timestamps
+ * of its detection frames and their local receive times.
+ * <p>
+ * The delay of a packet (receive time - sent time) consists of the clock offset, the clock drift times the elapsed
+ * time and a network delay that is never below the minimal transport latency. Jitter and congestion only ever add
+ * delay, so the lower envelope of the delays is fitted instead of their average:
+ * the samples within the time window are grouped into buckets and the minimal delay of each bucket is taken.
+ * A robust line (offset and drift) is fitted through these minima with the Theil-Sen estimator first.
+ * Minima that are further away from it than a multiple of their median absolute deviation are rejected
+ * and the final line is fitted through the remaining minima with least squares.
+ * Single packets that are delayed by more than {@link #RESET_THRESHOLD} are dropped.
+ * <p>
+ * The estimated offset contains the minimal transport latency, as it can not be separated from the clock offset
+ * with one-way timestamps only.
+ * <p>
+ * All timestamps are in nanoseconds. This class is thread-safe.
+ */
+public class CamClockEstimator
+{
+	/** [ns] */
+	public static final long DEFAULT_WINDOW = 10_000_000_000L;
+	/** [ns] */
+	public static final long DEFAULT_BUCKET_DURATION = 250_000_000L;
+
+	/** [ns] the estimator is reset, if a sample is off by more than this */
+	private static final long RESET_THRESHOLD = 300_000_000L;
+	/** number of consecutive samples above the reset threshold that are treated as clock jump instead of outliers */
+	private static final int MAX_DELAYED_SAMPLES = 30;
+	/** [ns] the minimal time span of the window before a drift is estimated */
+	private static final long MIN_DRIFT_SPAN = 2_000_000_000L;
+	/** [ppm] */
+	private static final double MAX_DRIFT = 1000;
+	/** number of median absolute deviations for outlier rejection */
+	private static final double OUTLIER_MADS = 3;
+	/** [ns] residuals below this are never rejected */
+	private static final double MIN_OUTLIER_THRESHOLD = 50_000;
+	/** scale of the median absolute deviation to the standard deviation of a normal distribution */
+	private static final double MAD_TO_STD = 1.4826;
+	private static final int CAPACITY = 1024;
+
+	private final long window;
+	private final long bucketDuration;
+
+	private final long[] sent = new long[CAPACITY];
+	private final long[] delays = new long[CAPACITY];
+	private int head = 0;
+	private int size = 0;
+
+	private final double[] bucketX;
+	private final double[] bucketY;
+	private final boolean[] inliers;
+	private final double[] scratch = new double[CAPACITY];
+	private final double[] pairSlopes;
+
+	private int numDelayedSamples = 0;
+	private long numDroppedSamples = 0;
+	private long numResets = 0;
+
+	/** true, if samples were added after the last fit */
+	private boolean dirty = false;
+	/** [ns] the sent time of the newest sample at the last fit, the fit is relative to it */
+	private long tRef;
+	/** [ns] the delay of the first sample after a reset, the fit is relative to it to keep double precision */
+	private long delayRef;
+	/** [ns] the fitted delay at tRef relative to delayRef */
+	private double offset;
+	/** [ns/s] */
+	private double slope;
+	/** [ns] standard error of the fitted offset at tRef, NaN if not enough buckets */
+	private double fitUncertainty;
+	private int numBuckets;
+	private int numRejectedBuckets;
+
+	private Estimate estimate;
+
+
+	/**
+	 * Create an estimator with the default time window and bucket duration
+	 */
+	public CamClockEstimator()
+	{
+		this(DEFAULT_WINDOW, DEFAULT_BUCKET_DURATION);
+	}
+
+
+	/**
+	 * @param window the time span of the samples that are used for the fit [ns]
+	 * @param bucketDuration the time span of the buckets for the minimum filter [ns]
+	 */
+	public CamClockEstimator(final long window, final long bucketDuration)
+	{
+		if (bucketDuration <= 0 || window < bucketDuration)
+		{
+			throw new IllegalArgumentException("Invalid window " + window + " or bucket duration " + bucketDuration);
+		}
+		this.window = window;
+		this.bucketDuration = bucketDuration;
+		int maxBuckets = (int) (window / bucketDuration) + 2;
+		bucketX = new double[maxBuckets];
+		bucketY = new double[maxBuckets];
+		inliers = new boolean[maxBuckets];
+		pairSlopes = new double[maxBuckets * (maxBuckets - 1) / 2];
+	}
+
+
+	/**
+	 * Add a new sample
+	 *
+	 * @param tSent the time the packet was sent in the camera clock [ns]
+	 * @param tReceive the time the packet was received in the local clock [ns]
+	 * @return true, if the estimator was (re)synchronized with this sample
+	 */
+	public synchronized boolean update(final long tSent, final long tReceive)
+	{
+		long delay = tReceive - tSent;
+		boolean reset = size == 0;
+		if (!reset)
+		{
+			long newestSent = sentAt(size - 1);
+			if (tSent <= newestSent)
+			{
+				// reordered or duplicated packets are dropped, a camera clock that jumped back starts over
+				if (newestSent - tSent <= RESET_THRESHOLD)
+				{
+					numDroppedSamples++;
+					return false;
+				}
+				reset = true;
+			} else
+			{
+				double residual = delay - delayRef - predictDelay(tSent);
+				if (residual < -RESET_THRESHOLD)
+				{
+					reset = true;
+				} else if (residual > RESET_THRESHOLD && ++numDelayedSamples <= MAX_DELAYED_SAMPLES)
+				{
+					numDroppedSamples++;
+					return false;
+				} else if (residual > RESET_THRESHOLD)
+				{
+					reset = true;
+				}
+			}
+		}
+
+		if (reset)
+		{
+			if (size > 0)
+			{
+				numResets++;
+			}
+			size = 0;
+			head = 0;
+			delayRef = delay;
+		}
+		numDelayedSamples = 0;
+		add(tSent, delay);
+		dirty = true;
+		// the fit only changes notably with a new bucket, queries fit the latest samples on demand
+		if (reset || tSent - tRef >= bucketDuration)
+		{
+			fit();
+		}
+		return reset;
+	}
+
+
+	/**
+	 * Discard all samples
+	 */
+	public synchronized void reset()
+	{
+		size = 0;
+		head = 0;
+		numDelayedSamples = 0;
+		dirty = false;
+		estimate = null;
+	}
+
+
+	/**
+	 * @return true, if there is at least one sample
+	 */
+	public synchronized boolean isSynced()
+	{
+		return size > 0;
+	}
+
+
+	/**
+	 * Convert a timestamp of the camera clock to the local clock
+	 *
+	 * @param tVision the timestamp in the camera clock [ns]
+	 * @return the corresponding local time [ns], unchanged, if there is no sample yet
+	 */
+	public synchronized long toLocalTime(final long tVision)
+	{
+		if (size == 0)
+		{
+			return tVision;
+		}
+		if (dirty)
+		{
+			fit();
+		}
+		return tVision + delayRef + Math.round(predictDelay(tVision));
+	}
+
+
+	/**
+	 * Convert a timestamp of the local clock to the camera clock
+	 *
+	 * @param tLocal the timestamp in the local clock [ns]
+	 * @return the corresponding camera time [ns], unchanged, if there is no sample yet
+	 */
+	public synchronized long toVisionTime(final long tLocal)
+	{
+		if (size == 0)
+		{
+			return tLocal;
+		}
+		if (dirty)
+		{
+			fit();
+		}
+		// tLocal = tVision + delayRef + offset + slope * (tVision - tRef)
+		long dt = tLocal - tRef - delayRef - Math.round(offset);
+		return tRef + Math.round(dt / (1 + slope * 1e-9));
+	}
+
+
+	/**
+	 * @return the current estimate, or null, if there is no sample yet
+	 */
+	public synchronized Estimate getEstimate()
+	{
+		if (size == 0)
+		{
+			return null;
+		}
+		if (dirty)
+		{
+			fit();
+		}
+		if (estimate == null)
+		{
+			double jitter = calcJitter();
+			double offsetUncertainty = Double.isNaN(fitUncertainty) ? jitter : fitUncertainty;
+			estimate = new Estimate(
+					delayRef + Math.round(offset),
+					slope / 1e3,
+					jitter,
+					offsetUncertainty,
+					size,
+					numBuckets,
+					numRejectedBuckets,
+					numDroppedSamples,
+					numResets);
+		}
+		return estimate;
+	}
+
+
+	private double predictDelay(final long tSent)
+	{
+		return offset + slope * (tSent - tRef) * 1e-9;
+	}
+
+
+	private long sentAt(final int i)
+	{
+		return sent[(head + i) % CAPACITY];
+	}
+
+
+	private long delayAt(final int i)
+	{
+		return delays[(head + i) % CAPACITY];
+	}
+
+
+	private void add(final long tSent, final long delay)
+	{
+		if (size == CAPACITY)
+		{
+			head = (head + 1) % CAPACITY;
+			size--;
+		}
+		int idx = (head + size) % CAPACITY;
+		sent[idx] = tSent;
+		delays[idx] = delay;
+		size++;
+
+		while (sentAt(0) < tSent - window)
+		{
+			head = (head + 1) % CAPACITY;
+			size--;
+		}
+	}
+
+
+	private void fit()
+	{
+		tRef = sentAt(size - 1);
+		collectBucketMinima();
+
+		boolean fitDrift = sentAt(size - 1) - sentAt(0) >= MIN_DRIFT_SPAN;
+		fitRobustLine(fitDrift);
+		numRejectedBuckets = rejectOutliers();
+		fitLine(fitDrift);
+		dirty = false;
+		estimate = null;
+	}
+
+
+	private void collectBucketMinima()
+	{
+		numBuckets = 0;
+		long first = sentAt(0);
+		long currentBucket = -1;
+		for (int i = 0; i < size; i++)
+		{
+			long s = sentAt(i);
+			long bucket = (s - first) / bucketDuration;
+			double y = (double) (delayAt(i) - delayRef);
+			if (bucket != currentBucket)
+			{
+				currentBucket = bucket;
+				bucketX[numBuckets] = (s - tRef) * 1e-9;
+				bucketY[numBuckets] = y;
+				numBuckets++;
+			} else if (y < bucketY[numBuckets - 1])
+			{
+				bucketX[numBuckets - 1] = (s - tRef) * 1e-9;
+				bucketY[numBuckets - 1] = y;
+			}
+		}
+	}
+
+
+	/**
+	 * Fit the median of all pairwise slopes and the median intercept, which tolerates outliers at the edges of the
+	 * window, where they have the most leverage on least squares
+	 */
+	private void fitRobustLine(final boolean fitDrift)
+	{
+		slope = 0;
+		if (fitDrift && numBuckets > 2)
+		{
+			int n = 0;
+			for (int i = 0; i < numBuckets; i++)
+			{
+				for (int j = i + 1; j < numBuckets; j++)
+				{
+					pairSlopes[n++] = (bucketY[j] - bucketY[i]) / (bucketX[j] - bucketX[i]);
+				}
+			}
+			slope = clampSlope(median(pairSlopes, n));
+		}
+		for (int i = 0; i < numBuckets; i++)
+		{
+			scratch[i] = bucketY[i] - slope * bucketX[i];
+		}
+		offset = median(scratch, numBuckets);
+	}
+
+
+	private void fitLine(final boolean fitDrift)
+	{
+		int n = 0;
+		double meanX = 0;
+		double meanY = 0;
+		for (int i = 0; i < numBuckets; i++)
+		{
+			if (inliers[i])
+			{
+				meanX += bucketX[i];
+				meanY += bucketY[i];
+				n++;
+			}
+		}
+		meanX /= n;
+		meanY /= n;
+
+		double sxx = 0;
+		double sxy = 0;
+		for (int i = 0; i < numBuckets; i++)
+		{
+			if (inliers[i])
+			{
+				double dx = bucketX[i] - meanX;
+				sxx += dx * dx;
+				sxy += dx * (bucketY[i] - meanY);
+			}
+		}
+
+		if (fitDrift && n > 2 && sxx > 0)
+		{
+			slope = clampSlope(sxy / sxx);
+		} else
+		{
+			slope = 0;
+			sxx = 0;
+		}
+		offset = meanY - slope * meanX;
+
+		if (n > 2)
+		{
+			double sse = 0;
+			for (int i = 0; i < numBuckets; i++)
+			{
+				if (inliers[i])
+				{
+					double r = bucketResidual(i);
+					sse += r * r;
+				}
+			}
+			int dof = sxx > 0 ? n - 2 : n - 1;
+			double sigma = Math.sqrt(sse / dof);
+			double leverage = sxx > 0 ? meanX * meanX / sxx : 0;
+			fitUncertainty = sigma * Math.sqrt(1.0 / n + leverage);
+		} else
+		{
+			fitUncertainty = Double.NaN;
+		}
+	}
+
+
+	private int rejectOutliers()
+	{
+		Arrays.fill(inliers, 0, numBuckets, true);
+		if (numBuckets < 3)
+		{
+			return 0;
+		}
+		for (int i = 0; i < numBuckets; i++)
+		{
+			scratch[i] = bucketResidual(i);
+		}
+		double median = median(scratch, numBuckets);
+		for (int i = 0; i < numBuckets; i++)
+		{
+			scratch[i] = Math.abs(bucketResidual(i) - median);
+		}
+		double threshold = Math.max(OUTLIER_MADS * MAD_TO_STD * median(scratch, numBuckets), MIN_OUTLIER_THRESHOLD);
+
+		int rejected = 0;
+		for (int i = 0; i < numBuckets; i++)
+		{
+			if (Math.abs(bucketResidual(i) - median) > threshold)
+			{
+				inliers[i] = false;
+				rejected++;
+			}
+		}
+		// use all minima, if nearly all of them are rejected
+		if (numBuckets - rejected < 2)
+		{
+			Arrays.fill(inliers, 0, numBuckets, true);
+			return 0;
+		}
+		return rejected;
+	}
+
+
+	private static double clampSlope(final double slope)
+	{
+		return Math.max(-MAX_DRIFT * 1e3, Math.min(MAX_DRIFT * 1e3, slope));
+	}
+
+
+	private double bucketResidual(final int i)
+	{
+		return bucketY[i] - offset - slope * bucketX[i];
+	}
+
+
+	/**
+	 * @return the robust standard deviation of the delays above the fitted lower envelope [ns]
+	 */
+	private double calcJitter()
+	{
+		for (int i = 0; i < size; i++)
+		{
+			scratch[i] = delayAt(i) - delayRef - predictDelay(sentAt(i));
+		}
+		double median = median(scratch, size);
+		for (int i = 0; i < size; i++)
+		{
+			scratch[i] = Math.abs(scratch[i] - median);
+		}
+		return MAD_TO_STD * median(scratch, size);
+	}
+
+
+	/**
+	 * @param values the values, the first n values are sorted in place
+	 * @param n the number of values
+	 * @return the median of the first n values
+	 */
+	private static double median(final double[] values, final int n)
+	{
+		Arrays.sort(values, 0, n);
+		if (n % 2 == 1)
+		{
+			return values[n / 2];
+		}
+		return (values[n / 2 - 1] + values[n / 2]) / 2;
+	}
+
+
+	/**
+	 * The estimated relation of a camera clock to the local clock
+	 */
+	@Value
+	public static class Estimate
+	{
+		/** [ns] local time - camera time of a packet sent at the newest sample, including the minimal latency */
+		long offset;
+		/** [ppm] drift of the local clock relative to the camera clock */
+		double drift;
+		/** [ns] robust standard deviation of the delays above the minimal latency */
+		double jitter;
+		/** [ns] standard error of the offset */
+		double offsetUncertainty;
+		/** number of samples in the time window */
+		int numSamples;
+		/** number of buckets in the time window */
+		int numBuckets;
+		/** number of bucket minima that were rejected as outliers */
+		int numRejectedBuckets;
+		/** number of samples that were dropped as delayed or reordered since creation */
+		long numDroppedSamples;
+		/** number of resynchronizations since creation */
+		long numResets;
+	}
+}
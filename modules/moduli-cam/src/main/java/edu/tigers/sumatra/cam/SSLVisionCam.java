@@ -10,9 +10,11 @@ import com.github.g3force.configurable.IConfigObserver;
 import edu.tigers.moduli.exceptions.InitModuleException;
 import edu.tigers.sumatra.cam.data.CamGeometry;
 import edu.tigers.sumatra.cam.proto.MessagesRobocupSslWrapper.SSL_WrapperPacket;
+import edu.tigers.sumatra.network.IReceiver;
 import edu.tigers.sumatra.network.IReceiverObserver;
 import edu.tigers.sumatra.network.MulticastUDPReceiver;
 import edu.tigers.sumatra.network.NetworkUtility;
+import edu.tigers.sumatra.network.SelectorMulticastUDPReceiver;
 import lombok.extern.log4j.Log4j2;
 
 import java.io.ByteArrayInputStream;
@@ -35,7 +37,7 @@ public class SSLVisionCam extends ACam implements Runnable, IReceiverObserver, I
 	private final byte[] bufferArr = new byte[BUFFER_SIZE];
 
 	private Thread cam;
-	private MulticastUDPReceiver receiver;
+	private IReceiver receiver;
 	private boolean expectIOE = false;
 	private int port;
 	private String address;
@@ -47,6 +49,9 @@ public class SSLVisionCam extends ACam implements Runnable, IReceiverObserver, I
 	@Configurable(comment = "Enter a network address to limit network to a certain network interface")
 	private static String network = "";
 
+	@Configurable(defValue = "false", comment = "Wait on all network interfaces at once instead of polling them one after another")
+	private static boolean useSelectorReceiver = false;
+
 
 	static
 	{
@@ -69,13 +74,11 @@ public class SSLVisionCam extends ACam implements Runnable, IReceiverObserver, I
 		if (nif == null)
 		{
 			log.debug("No nif for vision-cam specified, will try all.");
-			receiver = new MulticastUDPReceiver(port, address);
 		} else
 		{
 			log.debug("Chose nif for vision-cam: " + nif.getDisplayName());
-			receiver = new MulticastUDPReceiver(port, address, nif);
 		}
-		receiver.addObserver(this);
+		receiver = createReceiver(nif);
 
 		cam = new Thread(this, "SSLVisionCam");
 		cam.start();
@@ -84,6 +87,24 @@ public class SSLVisionCam extends ACam implements Runnable, IReceiverObserver, I
 	}
 
 
+	private IReceiver createReceiver(final NetworkInterface nif)
+	{
+		if (useSelectorReceiver)
+		{
+			SelectorMulticastUDPReceiver selectorReceiver = nif == null
+					? new SelectorMulticastUDPReceiver(port, address)
+					: new SelectorMulticastUDPReceiver(port, address, nif);
+			selectorReceiver.addObserver(this);
+			return selectorReceiver;
+		}
+		MulticastUDPReceiver multicastReceiver = nif == null
+				? new MulticastUDPReceiver(port, address)
+				: new MulticastUDPReceiver(port, address, nif);
+		multicastReceiver.addObserver(this);
+		return multicastReceiver;
+	}
+
+
 	@Override
 	public void stopModule()
 	{
@@ -178,7 +199,13 @@ public class SSLVisionCam extends ACam implements Runnable, IReceiverObserver, I
 		if (receiver != null)
 		{
 			expectIOE = true;
-			receiver.cleanup();
+			try
+			{
+				receiver.cleanup();
+			} catch (IOException err)
+			{
+				log.debug("Socket closed...", err);
+			}
 			receiver = null;
 		}
 	}
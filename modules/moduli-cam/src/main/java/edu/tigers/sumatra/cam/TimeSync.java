@@ -1,52 +1,57 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.cam;
 
-import java.util.Collection;
-import java.util.Queue;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.collections4.queue.CircularFifoQueue;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import edu.tigers.sumatra.clock.SumatraClock;
+
 
 /**
- * Synchronize between vision time and Sumatra internal time
+ * Synchronize between vision time and Sumatra internal time.
+ * <p>
+ * The cameras may be connected to different vision hosts with their own clocks,
+ * so the offset and drift is estimated for each camera with a {@link CamClockEstimator}.
  */
 public class TimeSync
 {
 	private static final Logger log = LogManager.getLogger(TimeSync.class.getName());
 
-	private static final int BUFFER_SIZE = 30;
-
-	private long offset = 0;
-	private final Queue<Long> offsetBuffer = new CircularFifoQueue<>(BUFFER_SIZE);
-	private final Queue<Long> diffBuffer = new CircularFifoQueue<>(BUFFER_SIZE);
+	private final Map<Integer, CamClockEstimator> estimators = new ConcurrentHashMap<>();
 
 
 	/**
-	 * @param timestamp
+	 * Add a sample that was received now
+	 *
+	 * @param camId the camera id
+	 * @param tSent the sent timestamp of the vision packet [s]
 	 */
-	public void update(final double timestamp)
+	public void update(final int camId, final double tSent)
 	{
-		long tNow = System.nanoTime();
-		long localSentNs = convertVision2LocalTime(timestamp, offset);
-		long diff = tNow - localSentNs;
-
-		diffBuffer.add(diff);
+		update(camId, tSent, SumatraClock.nanoTime());
+	}
 
-		double avgDiff = Math.abs(average(diffBuffer));
 
-		if ((avgDiff > 3e8) || !offsetBuffer.isEmpty())
+	/**
+	 * @param camId the camera id
+	 * @param tSent the sent timestamp of the vision packet [s]
+	 * @param tReceive the local receive time [ns]
+	 */
+	public void update(final int camId, final double tSent, final long tReceive)
+	{
+		CamClockEstimator estimator = estimators.computeIfAbsent(camId, id -> new CamClockEstimator());
+		if (estimator.update(toNanos(tSent), tReceive))
 		{
-			offsetBuffer.add(calcOffset(tNow, timestamp));
-			offset = (long) average(offsetBuffer);
-			if (avgDiff < 100_000)
-			{
-				log.info("Synced with Vision clock. offset={}ns diff={}ns", offset, avgDiff);
-				offsetBuffer.clear();
-			}
+			CamClockEstimator.Estimate estimate = estimator.getEstimate();
+			log.info("Synced with vision clock of camera {}. offset={}ns resets={}", camId, estimate.getOffset(),
+					estimate.getNumResets());
 		}
 	}
 
@@ -54,47 +59,77 @@ public class TimeSync
 	/**
 	 * Convert from unix seconds to internal nano seconds
 	 *
-	 * @param timestamp
-	 * @return
+	 * @param camId the camera id
+	 * @param timestamp the vision timestamp [s]
+	 * @return the local time [ns]
 	 */
-	public long sync(final double timestamp)
+	public long sync(final int camId, final double timestamp)
 	{
-		return convertVision2LocalTime(timestamp, offset);
+		CamClockEstimator estimator = estimators.get(camId);
+		if (estimator == null)
+		{
+			return toNanos(timestamp);
+		}
+		return estimator.toLocalTime(toNanos(timestamp));
 	}
 
 
 	/**
 	 * Convert from internal nano seconds to unix seconds
 	 *
-	 * @param timestamp
-	 * @return
+	 * @param camId the camera id
+	 * @param timestamp the local time [ns]
+	 * @return the vision timestamp [s]
+	 */
+	public double reverseSync(final int camId, final long timestamp)
+	{
+		CamClockEstimator estimator = estimators.get(camId);
+		if (estimator == null)
+		{
+			return timestamp * 1e-9;
+		}
+		return estimator.toVisionTime(timestamp) * 1e-9;
+	}
+
+
+	/**
+	 * @param camId the camera id
+	 * @return the estimated clock relation of the camera, if it was synced
 	 */
-	public double reverseSync(final long timestamp)
+	public Optional<CamClockEstimator.Estimate> getEstimate(final int camId)
 	{
-		return (timestamp + offset) * 1e-9;
+		return Optional.ofNullable(estimators.get(camId)).map(CamClockEstimator::getEstimate);
 	}
 
 
-	private long convertVision2LocalTime(final double visionS, final long offset)
+	/**
+	 * @return the estimated clock relations of all synced cameras
+	 */
+	public Map<Integer, CamClockEstimator.Estimate> getEstimates()
 	{
-		return ((long) (visionS * 1e9)) - offset;
+		Map<Integer, CamClockEstimator.Estimate> estimates = new HashMap<>();
+		estimators.forEach((camId, estimator) -> {
+			CamClockEstimator.Estimate estimate = estimator.getEstimate();
+			if (estimate != null)
+			{
+				estimates.put(camId, estimate);
+			}
+		});
+		return estimates;
 	}
 
 
-	private long calcOffset(final long tNow, final double tVision)
+	/**
+	 * Forget all cameras
+	 */
+	public void reset()
 	{
-		return (long) (tVision * 1e9) - tNow;
+		estimators.clear();
 	}
 
 
-	private double average(final Collection<Long> deque)
+	private long toNanos(final double visionS)
 	{
-		int size = deque.size();
-		double avg = 0;
-		for (Long l : deque)
-		{
-			avg += (double) l / size;
-		}
-		return avg;
+		return (long) (visionS * 1e9);
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.cam.data;
 
@@ -9,6 +9,8 @@ import java.util.List;
 
 import com.sleepycat.persist.model.Persistent;
 
+import edu.tigers.sumatra.clock.SumatraClock;
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.math.vector.IVector;
 import edu.tigers.sumatra.math.vector.IVector2;
@@ -57,7 +59,7 @@ public abstract class ACamObject implements IExportable
 		this.confidence = confidence;
 		this.pixel = pixel.copy();
 		this.tCapture = tCapture;
-		this.tAssembly = System.nanoTime();
+		this.tAssembly = SumatraClock.nanoTime();
 		this.camId = camId;
 		this.frameId = frameId;
 	}
@@ -93,6 +95,24 @@ public abstract class ACamObject implements IExportable
 	}
 	
 	
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(getFrameId());
+		writer.writeLong(getCameraId());
+		writer.writeLong(gettCapture());
+		writer.writeLong(gettAssembly());
+		writer.writeDouble(getPixel().x());
+		writer.writeDouble(getPixel().y());
+		writer.writeDouble(getConfidence());
+		IVector pos = getPos();
+		for (int d = 0; d < pos.getNumDimensions(); d++)
+		{
+			writer.writeDouble(pos.get(d));
+		}
+	}
+	
+	
 	@Override
 	public List<String> getHeaders()
 	{
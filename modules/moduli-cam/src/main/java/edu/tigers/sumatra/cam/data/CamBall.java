@@ -8,6 +8,7 @@ import java.util.List;
 
 import com.sleepycat.persist.model.Persistent;
 
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.IVector3;
 import edu.tigers.sumatra.math.vector.Vector3;
@@ -153,6 +154,15 @@ public class CamBall extends ACamObject
 	}
 	
 	
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		super.writeValues(writer);
+		writer.writeLong(area);
+		writer.writeDouble(pos.z());
+	}
+	
+	
 	@Override
 	public List<String> getHeaders()
 	{
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.cam.data;
 
@@ -10,6 +10,8 @@ import java.util.stream.Collectors;
 
 import com.sleepycat.persist.model.Persistent;
 
+import edu.tigers.sumatra.clock.SumatraClock;
+
 
 /**
  * This class contains every information a
@@ -82,7 +84,7 @@ public class CamDetectionFrame
 		robotsYellow = yellowBots;
 		robotsBlue = blueBots;
 		
-		tAssembly = System.nanoTime();
+		tAssembly = SumatraClock.nanoTime();
 	}
 	
 	
@@ -8,6 +8,7 @@ import java.util.List;
 
 import com.sleepycat.persist.model.Persistent;
 
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
@@ -170,6 +171,17 @@ public class CamRobot extends ACamObject
 	}
 
 
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		super.writeValues(writer);
+		writer.writeDouble(getOrientation());
+		writer.writeLong(getRobotID());
+		writer.writeLong(botId.getTeamColor().getId());
+		writer.writeDouble(getHeight());
+	}
+
+
 	@Override
 	public List<String> getHeaders()
 	{
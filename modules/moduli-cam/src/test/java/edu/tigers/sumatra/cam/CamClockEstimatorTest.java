@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.cam;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+
+/**
+ * Estimate the clock relation of synthetic packet timings with known offset and drift
+ */
+public class CamClockEstimatorTest
+{
+	/** [ns] */
+	private static final long T_START = 1_600_000_000_000_000_000L;
+	/** [ns] local time - vision time */
+	private static final long OFFSET = -T_START + 42_000_000_000L;
+	/** [ns] */
+	private static final long PERIOD = 13_333_333;
+
+
+	private static long toLocalTime(final long tVision, final double drift)
+	{
+		return tVision + OFFSET + Math.round((tVision - T_START) * drift * 1e-6);
+	}
+
+
+	@Test
+	public void testConstantOffset()
+	{
+		CamClockEstimator estimator = new CamClockEstimator();
+		assertFalse(estimator.isSynced());
+		for (long t = T_START; t < T_START + 5_000_000_000L; t += PERIOD)
+		{
+			estimator.update(t, toLocalTime(t, 0));
+		}
+
+		assertTrue(estimator.isSynced());
+		long tVision = T_START + 6_000_000_000L;
+		assertEquals(toLocalTime(tVision, 0), estimator.toLocalTime(tVision));
+		assertEquals(tVision, estimator.toVisionTime(toLocalTime(tVision, 0)));
+
+		CamClockEstimator.Estimate estimate = estimator.getEstimate();
+		assertEquals(OFFSET, estimate.getOffset());
+		assertEquals(0, estimate.getDrift(), 1e-6);
+		assertEquals(0, estimate.getJitter(), 1e-6);
+		assertEquals(0, estimate.getOffsetUncertainty(), 1e-6);
+	}
+
+
+	@Test
+	public void testDriftWithJitterSpikesAndBursts()
+	{
+		double drift = 50;
+		Random rnd = new Random(42);
+		CamClockEstimator estimator = new CamClockEstimator();
+		for (long t = T_START; t < T_START + 30_000_000_000L; t += PERIOD)
+		{
+			// half-normal jitter, 5% spikes of 5 to 80ms and a congestion burst of 20ms for 1s every 10s
+			double delayMs = Math.abs(rnd.nextGaussian()) * 0.5;
+			if (rnd.nextDouble() < 0.05)
+			{
+				delayMs += 5 + rnd.nextDouble() * 75;
+			}
+			if ((t - T_START) % 10_000_000_000L < 1_000_000_000L)
+			{
+				delayMs += 20;
+			}
+			estimator.update(t, toLocalTime(t, drift) + (long) (delayMs * 1e6));
+
+			// the burst at the start is in the window until the drift was estimated from enough buckets
+			if (t - T_START > 5_000_000_000L)
+			{
+				long tVision = t + 500_000_000L;
+				assertEquals(toLocalTime(tVision, drift), estimator.toLocalTime(tVision), 200_000);
+			}
+		}
+
+		CamClockEstimator.Estimate estimate = estimator.getEstimate();
+		assertEquals(drift, estimate.getDrift(), 10);
+		// standard deviation of the half-normal distribution is 0.3ms, the burst adds some more
+		assertEquals(300_000, estimate.getJitter(), 150_000);
+		assertTrue(estimate.getOffsetUncertainty() < 50_000);
+		assertTrue(estimate.getNumRejectedBuckets() > 0);
+	}
+
+
+	@Test
+	public void testDelayedAndReorderedPackets()
+	{
+		CamClockEstimator estimator = new CamClockEstimator();
+		long t = T_START;
+		for (; t < T_START + 2_000_000_000L; t += PERIOD)
+		{
+			estimator.update(t, toLocalTime(t, 0));
+		}
+
+		assertFalse(estimator.update(t, toLocalTime(t, 0) + 1_000_000_000L));
+		assertFalse(estimator.update(t - PERIOD * 2, toLocalTime(t - PERIOD * 2, 0)));
+
+		CamClockEstimator.Estimate estimate = estimator.getEstimate();
+		assertEquals(OFFSET, estimate.getOffset());
+		assertEquals(2, estimate.getNumDroppedSamples());
+		assertEquals(0, estimate.getNumResets());
+	}
+
+
+	@Test
+	public void testClockJump()
+	{
+		CamClockEstimator estimator = new CamClockEstimator();
+		long jump = 10_000_000_000L;
+		long t = T_START;
+		for (; t < T_START + 2_000_000_000L; t += PERIOD)
+		{
+			estimator.update(t, toLocalTime(t, 0));
+		}
+
+		// the vision clock jumps forward, so the packets arrive earlier than possible
+		assertTrue(estimator.update(t + jump, toLocalTime(t, 0)));
+		for (t += PERIOD; t < T_START + 4_000_000_000L; t += PERIOD)
+		{
+			assertFalse(estimator.update(t + jump, toLocalTime(t, 0)));
+		}
+
+		assertEquals(toLocalTime(t, 0), estimator.toLocalTime(t + jump));
+		assertEquals(OFFSET - jump, estimator.getEstimate().getOffset());
+		assertEquals(1, estimator.getEstimate().getNumResets());
+	}
+}
@@ -15,26 +15,18 @@ import edu.tigers.sumatra.cam.data.CamGeometry;
 import edu.tigers.sumatra.cam.proto.MessagesRobocupSslGeometry;
 import edu.tigers.sumatra.ids.ETeamColor;
 import edu.tigers.sumatra.math.SumatraMath;
-import edu.tigers.sumatra.math.circle.Circle;
 import edu.tigers.sumatra.math.circle.ICircle;
 import edu.tigers.sumatra.math.line.v2.ILineSegment;
-import edu.tigers.sumatra.math.line.v2.Lines;
 import edu.tigers.sumatra.math.rectangle.IRectangle;
-import edu.tigers.sumatra.math.rectangle.Rectangle;
 import edu.tigers.sumatra.math.vector.IVector2;
-import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
 import edu.tigers.sumatra.model.SumatraModel;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 
 /**
@@ -176,18 +168,10 @@ public class Geometry
 	private static double robotFeedbackDelay = 0.0;
 
 
-	private final IRectangle field;
-	private final IRectangle fieldWBorders;
-	private final Goal goalOur;
-	private final Goal goalTheir;
-	private final IPenaltyArea penaltyAreaOur;
-	private final IPenaltyArea penaltyAreaTheir;
-	private final ICircle centerCircle;
-	private final IRectangle ourHalf;
-	private final IRectangle theirHalf;
-	private final List<ILineSegment> touchLines;
+	private static long nextVersion = 0;
 
-	private CamGeometry lastCamGeometry;
+	private final GeometrySnapshot snapshot;
+	private final CamGeometry lastCamGeometry;
 
 	private static BallParameters ballParameters = new BallParameters();
 
@@ -201,7 +185,7 @@ public class Geometry
 		}
 	}
 
-	private static Geometry instance;
+	private static volatile Geometry instance;
 
 	static
 	{
@@ -211,66 +195,42 @@ public class Geometry
 	}
 
 
-	private Geometry()
+	private Geometry(final CamGeometry lastCamGeometry)
 	{
-		// noinspection SuspiciousNameCombination
-		field = Rectangle.fromCenter(Vector2f.ZERO_VECTOR, fieldLength, fieldWidth);
-		fieldWBorders = field.withMargin(boundaryOffset + boundaryWidth);
-		goalOur = calcOurGoal(goalWidth, goalDepth, fieldLength);
-		goalTheir = calcTheirGoal(goalWidth, goalDepth, fieldLength);
-
-		if (legacyPenArea)
-		{
-			penaltyAreaOur = new LegacyPenArea(penaltyAreaDepth, penaltyAreaFrontLineLength, -1);
-			penaltyAreaTheir = new LegacyPenArea(penaltyAreaDepth, penaltyAreaFrontLineLength, 1);
-		} else
-		{
-			penaltyAreaOur = new PenaltyArea(goalOur.getCenter(), penaltyAreaDepth, penaltyAreaFrontLineLength);
-			penaltyAreaTheir = new PenaltyArea(goalTheir.getCenter(), penaltyAreaDepth, penaltyAreaFrontLineLength);
-		}
-
-		centerCircle = calcCenterCircle(Vector2f.ZERO_VECTOR, centerCircleRadius);
-
-		ourHalf = Rectangle.fromCenter(field.center().subtractNew(Vector2.fromXY(field.xExtent() / 4, 0)),
-				field.xExtent() / 2,
-				field.yExtent());
-
-		theirHalf = Rectangle.fromCenter(field.center().addNew(Vector2.fromXY(field.xExtent() / 4, 0)),
-				field.xExtent() / 2,
-				field.yExtent());
-
-		touchLines = new ArrayList<>();
-		touchLines.addAll(calcTouchLines());
-
-		lastCamGeometry = new CamGeometry(new HashMap<>(),
-				new CamFieldSize(MessagesRobocupSslGeometry.SSL_GeometryFieldSize.getDefaultInstance()),
-				MessagesRobocupSslGeometry.SSL_GeometryModels.getDefaultInstance());
-	}
-
-
-	private Set<ILineSegment> calcTouchLines()
-	{
-		Set<ILineSegment> lines = new HashSet<>();
-		lines.add(Lines.segmentFromPoints(Vector2.fromXY(-fieldLength / 2, fieldWidth / 2),
-				Vector2.fromXY(fieldLength / 2, fieldWidth / 2)));
-		lines.add(Lines.segmentFromPoints(Vector2.fromXY(-fieldLength / 2, -fieldWidth / 2),
-				Vector2.fromXY(fieldLength / 2, -fieldWidth / 2)));
-		return lines;
+		snapshot = GeometrySnapshot.builder()
+				.version(nextVersion++)
+				.negativeHalfTeam(negativeHalfTeam)
+				.fieldLength(fieldLength)
+				.fieldWidth(fieldWidth)
+				.boundaryWidth(boundaryOffset + boundaryWidth)
+				.centerCircleRadius(centerCircleRadius)
+				.goalWidth(goalWidth)
+				.goalDepth(goalDepth)
+				.goalWallThickness(goalWallThickness)
+				.penaltyAreaDepth(penaltyAreaDepth)
+				.penaltyAreaFrontLineLength(penaltyAreaFrontLineLength)
+				.distanceToPenaltyMark(distanceToPenaltyMark)
+				.legacyPenArea(legacyPenArea)
+				.build();
+		this.lastCamGeometry = lastCamGeometry;
 	}
 
 
 	private static synchronized void update()
 	{
-		instance = new Geometry();
+		instance = new Geometry(new CamGeometry(new HashMap<>(),
+				new CamFieldSize(MessagesRobocupSslGeometry.SSL_GeometryFieldSize.getDefaultInstance()),
+				MessagesRobocupSslGeometry.SSL_GeometryModels.getDefaultInstance()));
 	}
 
 
 	/**
 	 * @param geometry
 	 */
-	public static void setCamDetection(final CamGeometry geometry)
+	public static synchronized void setCamDetection(final CamGeometry geometry)
 	{
 		CamGeometry saveCamGeometry = getLastCamGeometry();
+		saveCamGeometry.update(geometry);
 
 		boundaryWidth = geometry.getField().getBoundaryWidth();
 		fieldLength = geometry.getField().getFieldLength();
@@ -282,11 +242,8 @@ public class Geometry
 
 		applyBallModels(geometry);
 
-		update();
-
-		instance.lastCamGeometry = saveCamGeometry;
-
-		instance.lastCamGeometry.update(geometry);
+		// publish the new geometry at once, so that it is never observed partially updated
+		instance = new Geometry(saveCamGeometry);
 	}
 
 
@@ -386,7 +343,7 @@ public class Geometry
 	/**
 	 * Update parameters according to environment
 	 */
-	public static void refresh()
+	public static synchronized void refresh()
 	{
 		String env = SumatraModel.getInstance().getEnvironment();
 		ConfigRegistration.applySpezi("geom", env);
@@ -396,21 +353,15 @@ public class Geometry
 	}
 
 
-	private Goal calcOurGoal(final double goalSize, final double goalDepth, final double fieldLength)
-	{
-		return new Goal(goalSize, Vector2f.fromXY(-fieldLength / 2, 0), goalDepth, goalWallThickness);
-	}
-
-
-	private Goal calcTheirGoal(final double goalSize, final double goalDepth, final double fieldLength)
-	{
-		return new Goal(goalSize, Vector2f.fromXY(fieldLength / 2, 0), goalDepth, goalWallThickness);
-	}
-
-
-	private ICircle calcCenterCircle(final IVector2 center, final double radius)
+	/**
+	 * Get the current geometry as an immutable snapshot.
+	 * Obtain it once per frame to get consistent shapes, even if the geometry is updated concurrently.
+	 *
+	 * @return the current geometry snapshot
+	 */
+	public static GeometrySnapshot getSnapshot()
 	{
-		return Circle.createCircle(center, radius);
+		return instance.snapshot;
 	}
 
 
@@ -419,7 +370,7 @@ public class Geometry
 	 */
 	public static double getPenaltyAreaDepth()
 	{
-		return penaltyAreaDepth;
+		return instance.snapshot.getPenaltyAreaDepth();
 	}
 
 
@@ -428,7 +379,7 @@ public class Geometry
 	 */
 	public static double getPenaltyAreaFrontLineLength()
 	{
-		return penaltyAreaFrontLineLength;
+		return instance.snapshot.getPenaltyAreaFrontLineLength();
 	}
 
 
@@ -439,7 +390,7 @@ public class Geometry
 	 */
 	public static Goal getGoalOur()
 	{
-		return instance.goalOur;
+		return instance.snapshot.getGoalOur();
 	}
 
 
@@ -450,7 +401,7 @@ public class Geometry
 	 */
 	public static Goal getGoalTheir()
 	{
-		return instance.goalTheir;
+		return instance.snapshot.getGoalTheir();
 	}
 
 
@@ -461,7 +412,7 @@ public class Geometry
 	 */
 	public static List<Goal> getGoals()
 	{
-		return Arrays.asList(instance.goalOur, instance.goalTheir);
+		return instance.snapshot.getGoals();
 	}
 
 
@@ -510,7 +461,7 @@ public class Geometry
 	 */
 	public static double getFieldLength()
 	{
-		return fieldLength;
+		return instance.snapshot.getFieldLength();
 	}
 
 
@@ -521,7 +472,7 @@ public class Geometry
 	 */
 	public static double getFieldWidth()
 	{
-		return fieldWidth;
+		return instance.snapshot.getFieldWidth();
 	}
 
 
@@ -530,7 +481,7 @@ public class Geometry
 	 */
 	public static IRectangle getField()
 	{
-		return instance.field;
+		return instance.snapshot.getField();
 	}
 
 
@@ -541,7 +492,7 @@ public class Geometry
 	 */
 	public static IRectangle getFieldWBorders()
 	{
-		return instance.fieldWBorders;
+		return instance.snapshot.getFieldWBorders();
 	}
 
 
@@ -559,7 +510,7 @@ public class Geometry
 	 */
 	public static ICircle getCenterCircle()
 	{
-		return instance.centerCircle;
+		return instance.snapshot.getCenterCircle();
 	}
 
 
@@ -568,7 +519,7 @@ public class Geometry
 	 */
 	public static IPenaltyArea getPenaltyAreaOur()
 	{
-		return instance.penaltyAreaOur;
+		return instance.snapshot.getPenaltyAreaOur();
 	}
 
 
@@ -577,7 +528,7 @@ public class Geometry
 	 */
 	public static IPenaltyArea getPenaltyAreaTheir()
 	{
-		return instance.penaltyAreaTheir;
+		return instance.snapshot.getPenaltyAreaTheir();
 	}
 
 
@@ -586,7 +537,7 @@ public class Geometry
 	 */
 	public static IRectangle getFieldHalfOur()
 	{
-		return instance.ourHalf;
+		return instance.snapshot.getFieldHalfOur();
 	}
 
 
@@ -595,7 +546,7 @@ public class Geometry
 	 */
 	public static IRectangle getFieldHalfTheir()
 	{
-		return instance.theirHalf;
+		return instance.snapshot.getFieldHalfTheir();
 	}
 
 
@@ -604,7 +555,7 @@ public class Geometry
 	 */
 	public static IVector2 getPenaltyMarkOur()
 	{
-		return Vector2f.fromXY((-fieldLength / 2) + distanceToPenaltyMark, 0.0);
+		return instance.snapshot.getPenaltyMarkOur();
 	}
 
 
@@ -613,7 +564,7 @@ public class Geometry
 	 */
 	public static IVector2 getPenaltyMarkTheir()
 	{
-		return Vector2f.fromXY((fieldLength / 2) - distanceToPenaltyMark, 0.0);
+		return instance.snapshot.getPenaltyMarkTheir();
 	}
 
 
@@ -622,7 +573,7 @@ public class Geometry
 	 */
 	public static double getBoundaryWidth()
 	{
-		return boundaryWidth + boundaryOffset;
+		return instance.snapshot.getBoundaryWidth();
 	}
 
 
@@ -631,7 +582,7 @@ public class Geometry
 	 */
 	public static double getBoundaryLength()
 	{
-		return boundaryWidth + boundaryOffset;
+		return instance.snapshot.getBoundaryWidth();
 	}
 
 
@@ -666,7 +617,7 @@ public class Geometry
 
 	public static List<ILineSegment> getTouchLines()
 	{
-		return instance.touchLines;
+		return instance.snapshot.getTouchLines();
 	}
 
 
@@ -676,9 +627,18 @@ public class Geometry
 	}
 
 
-	public static void setNegativeHalfTeam(final ETeamColor negativeHalfTeam)
+	/**
+	 * Set the team on the negative half and publish a new snapshot, if it changed
+	 *
+	 * @param negativeHalfTeam the team on the negative half
+	 */
+	public static synchronized void setNegativeHalfTeam(final ETeamColor negativeHalfTeam)
 	{
-		Geometry.negativeHalfTeam = negativeHalfTeam;
+		if (Geometry.negativeHalfTeam != negativeHalfTeam)
+		{
+			Geometry.negativeHalfTeam = negativeHalfTeam;
+			instance = new Geometry(getLastCamGeometry());
+		}
 	}
 
 
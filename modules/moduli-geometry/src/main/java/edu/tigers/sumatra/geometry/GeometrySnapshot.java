@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.geometry;
+
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.circle.Circle;
+import edu.tigers.sumatra.math.circle.ICircle;
+import edu.tigers.sumatra.math.line.v2.ILineSegment;
+import edu.tigers.sumatra.math.line.v2.Lines;
+import edu.tigers.sumatra.math.rectangle.IRectangle;
+import edu.tigers.sumatra.math.rectangle.Rectangle;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector2f;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.DoubleFunction;
+
+
+/**
+ * An immutable state of the field geometry.
+ * <p>
+ * A new snapshot with a higher version is published by {@link Geometry} each time the geometry changes, so a
+ * snapshot that was obtained once per frame never changes in between, even if a new vision geometry arrives.
+ * Shapes with a margin are memoized by margin, so that asking for the same margin repeatedly does not allocate
+ * new shapes. The snapshot is thread-safe.
+ */
+@Getter
+public final class GeometrySnapshot
+{
+	/**
+	 * Limit the number of memoized margins per shape in case margins are calculated dynamically
+	 */
+	private static final int MAX_MEMOIZED_MARGINS = 64;
+
+	/**
+	 * the version of this snapshot, increasing with each geometry change
+	 */
+	private final long version;
+	/**
+	 * the team on the negative half when this snapshot was created
+	 */
+	private final ETeamColor negativeHalfTeam;
+	private final double fieldLength;
+	private final double fieldWidth;
+	/**
+	 * the width of the border around the field, including the TIGERs internal offset
+	 */
+	private final double boundaryWidth;
+	private final double penaltyAreaDepth;
+	private final double penaltyAreaFrontLineLength;
+
+	private final IRectangle field;
+	private final IRectangle fieldWBorders;
+	private final IRectangle fieldHalfOur;
+	private final IRectangle fieldHalfTheir;
+	private final Goal goalOur;
+	private final Goal goalTheir;
+	private final List<Goal> goals;
+	private final IPenaltyArea penaltyAreaOur;
+	private final IPenaltyArea penaltyAreaTheir;
+	private final IVector2 penaltyMarkOur;
+	private final IVector2 penaltyMarkTheir;
+	private final ICircle centerCircle;
+	private final List<ILineSegment> touchLines;
+
+	@Getter(AccessLevel.NONE)
+	private final MarginCache<IRectangle> fieldWithMargin;
+	@Getter(AccessLevel.NONE)
+	private final MarginCache<IPenaltyArea> penaltyAreaOurWithMargin;
+	@Getter(AccessLevel.NONE)
+	private final MarginCache<IPenaltyArea> penaltyAreaTheirWithMargin;
+	@Getter(AccessLevel.NONE)
+	private final MarginCache<Goal> goalOurWithMargin;
+	@Getter(AccessLevel.NONE)
+	private final MarginCache<Goal> goalTheirWithMargin;
+
+
+	@SuppressWarnings("squid:S00107") // the snapshot is only created by the builder
+	@Builder(access = AccessLevel.PACKAGE)
+	private GeometrySnapshot(
+			final long version,
+			final ETeamColor negativeHalfTeam,
+			final double fieldLength,
+			final double fieldWidth,
+			final double boundaryWidth,
+			final double centerCircleRadius,
+			final double goalWidth,
+			final double goalDepth,
+			final double goalWallThickness,
+			final double penaltyAreaDepth,
+			final double penaltyAreaFrontLineLength,
+			final double distanceToPenaltyMark,
+			final boolean legacyPenArea)
+	{
+		this.version = version;
+		this.negativeHalfTeam = negativeHalfTeam;
+		this.fieldLength = fieldLength;
+		this.fieldWidth = fieldWidth;
+		this.boundaryWidth = boundaryWidth;
+		this.penaltyAreaDepth = penaltyAreaDepth;
+		this.penaltyAreaFrontLineLength = penaltyAreaFrontLineLength;
+
+		// noinspection SuspiciousNameCombination
+		field = Rectangle.fromCenter(Vector2f.ZERO_VECTOR, fieldLength, fieldWidth);
+		fieldWBorders = field.withMargin(boundaryWidth);
+		goalOur = new Goal(goalWidth, Vector2f.fromXY(-fieldLength / 2, 0), goalDepth, goalWallThickness);
+		goalTheir = new Goal(goalWidth, Vector2f.fromXY(fieldLength / 2, 0), goalDepth, goalWallThickness);
+		goals = Collections.unmodifiableList(Arrays.asList(goalOur, goalTheir));
+
+		if (legacyPenArea)
+		{
+			penaltyAreaOur = new LegacyPenArea(penaltyAreaDepth, penaltyAreaFrontLineLength, -1);
+			penaltyAreaTheir = new LegacyPenArea(penaltyAreaDepth, penaltyAreaFrontLineLength, 1);
+		} else
+		{
+			penaltyAreaOur = new PenaltyArea(goalOur.getCenter(), penaltyAreaDepth, penaltyAreaFrontLineLength);
+			penaltyAreaTheir = new PenaltyArea(goalTheir.getCenter(), penaltyAreaDepth, penaltyAreaFrontLineLength);
+		}
+		penaltyMarkOur = Vector2f.fromXY((-fieldLength / 2) + distanceToPenaltyMark, 0.0);
+		penaltyMarkTheir = Vector2f.fromXY((fieldLength / 2) - distanceToPenaltyMark, 0.0);
+
+		centerCircle = Circle.createCircle(Vector2f.ZERO_VECTOR, centerCircleRadius);
+
+		fieldHalfOur = Rectangle.fromCenter(field.center().subtractNew(Vector2.fromXY(field.xExtent() / 4, 0)),
+				field.xExtent() / 2,
+				field.yExtent());
+		fieldHalfTheir = Rectangle.fromCenter(field.center().addNew(Vector2.fromXY(field.xExtent() / 4, 0)),
+				field.xExtent() / 2,
+				field.yExtent());
+
+		touchLines = Collections.unmodifiableList(Arrays.asList(
+				Lines.segmentFromPoints(Vector2.fromXY(-fieldLength / 2, fieldWidth / 2),
+						Vector2.fromXY(fieldLength / 2, fieldWidth / 2)),
+				Lines.segmentFromPoints(Vector2.fromXY(-fieldLength / 2, -fieldWidth / 2),
+						Vector2.fromXY(fieldLength / 2, -fieldWidth / 2))));
+
+		fieldWithMargin = new MarginCache<>(field::withMargin);
+		penaltyAreaOurWithMargin = new MarginCache<>(penaltyAreaOur::withMargin);
+		penaltyAreaTheirWithMargin = new MarginCache<>(penaltyAreaTheir::withMargin);
+		goalOurWithMargin = new MarginCache<>(goalOur::withMargin);
+		goalTheirWithMargin = new MarginCache<>(goalTheir::withMargin);
+	}
+
+
+	/**
+	 * @param margin [mm], negative values shrink the field
+	 * @return the field with the given margin
+	 */
+	public IRectangle getField(final double margin)
+	{
+		return fieldWithMargin.get(margin);
+	}
+
+
+	/**
+	 * @param margin [mm], negative values shrink the penalty area
+	 * @return our penalty area with the given margin
+	 */
+	public IPenaltyArea getPenaltyAreaOur(final double margin)
+	{
+		return penaltyAreaOurWithMargin.get(margin);
+	}
+
+
+	/**
+	 * @param margin [mm], negative values shrink the penalty area
+	 * @return their penalty area with the given margin
+	 */
+	public IPenaltyArea getPenaltyAreaTheir(final double margin)
+	{
+		return penaltyAreaTheirWithMargin.get(margin);
+	}
+
+
+	/**
+	 * @param margin [mm], negative values shrink the goal
+	 * @return our goal with the given margin
+	 */
+	public Goal getGoalOur(final double margin)
+	{
+		return goalOurWithMargin.get(margin);
+	}
+
+
+	/**
+	 * @param margin [mm], negative values shrink the goal
+	 * @return their goal with the given margin
+	 */
+	public Goal getGoalTheir(final double margin)
+	{
+		return goalTheirWithMargin.get(margin);
+	}
+
+
+	/**
+	 * @param color the team that owns the penalty area, based on the {@link #getNegativeHalfTeam()} of this snapshot
+	 * @return the penalty area of the team
+	 */
+	public IPenaltyArea getPenaltyArea(final ETeamColor color)
+	{
+		return color == negativeHalfTeam ? penaltyAreaOur : penaltyAreaTheir;
+	}
+
+
+	/**
+	 * @param color  the team that owns the penalty area, based on the {@link #getNegativeHalfTeam()} of this snapshot
+	 * @param margin [mm], negative values shrink the penalty area
+	 * @return the penalty area of the team with the given margin
+	 */
+	public IPenaltyArea getPenaltyArea(final ETeamColor color, final double margin)
+	{
+		return color == negativeHalfTeam ? getPenaltyAreaOur(margin) : getPenaltyAreaTheir(margin);
+	}
+
+
+	/**
+	 * @param color the team that owns the goal, based on the {@link #getNegativeHalfTeam()} of this snapshot
+	 * @return the goal of the team
+	 */
+	public Goal getGoal(final ETeamColor color)
+	{
+		return color == negativeHalfTeam ? goalOur : goalTheir;
+	}
+
+
+	/**
+	 * Shapes by margin. Usually, there are only a few distinct margins per shape, so a linear search over a
+	 * copy-on-write array is used, which does neither box the margin nor allocate on a cache hit.
+	 */
+	private static class MarginCache<T>
+	{
+		private final DoubleFunction<T> creator;
+		private volatile Entries entries = new Entries(new double[0], new Object[0]);
+
+
+		MarginCache(final DoubleFunction<T> creator)
+		{
+			this.creator = creator;
+		}
+
+
+		@SuppressWarnings("unchecked")
+		T get(final double margin)
+		{
+			Entries current = entries;
+			for (int i = 0; i < current.margins.length; i++)
+			{
+				if (Double.compare(current.margins[i], margin) == 0)
+				{
+					return (T) current.shapes[i];
+				}
+			}
+			T shape = creator.apply(margin);
+			add(margin, shape);
+			return shape;
+		}
+
+
+		private synchronized void add(final double margin, final T shape)
+		{
+			Entries current = entries;
+			int n = current.margins.length;
+			if (n < MAX_MEMOIZED_MARGINS)
+			{
+				double[] margins = Arrays.copyOf(current.margins, n + 1);
+				Object[] shapes = Arrays.copyOf(current.shapes, n + 1);
+				margins[n] = margin;
+				shapes[n] = shape;
+				entries = new Entries(margins, shapes);
+			}
+		}
+	}
+
+	private static class Entries
+	{
+		final double[] margins;
+		final Object[] shapes;
+
+
+		Entries(final double[] margins, final Object[] shapes)
+		{
+			this.margins = margins;
+			this.shapes = shapes;
+		}
+	}
+}
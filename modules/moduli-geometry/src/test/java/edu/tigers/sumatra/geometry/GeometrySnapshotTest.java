@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.geometry;
+
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.rectangle.IRectangle;
+import edu.tigers.sumatra.math.vector.Vector2;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class GeometrySnapshotTest
+{
+	@Test
+	public void testMarginShapesAreMemoized()
+	{
+		GeometrySnapshot snapshot = Geometry.getSnapshot();
+
+		assertThat(snapshot.getField(700)).isSameAs(snapshot.getField(700));
+		assertThat(snapshot.getPenaltyAreaOur(-90)).isSameAs(snapshot.getPenaltyAreaOur(-90));
+		assertThat(snapshot.getPenaltyAreaTheir(90)).isSameAs(snapshot.getPenaltyAreaTheir(90));
+		assertThat(snapshot.getGoalOur(10)).isSameAs(snapshot.getGoalOur(10));
+		assertThat(snapshot.getGoalTheir(10)).isSameAs(snapshot.getGoalTheir(10));
+		assertThat(snapshot.getField(700)).isNotSameAs(snapshot.getField(-700));
+	}
+
+
+	@Test
+	public void testMarginShapesMatchWithMargin()
+	{
+		GeometrySnapshot snapshot = Geometry.getSnapshot();
+
+		IRectangle expectedField = snapshot.getField().withMargin(700);
+		assertThat(snapshot.getField(700).xExtent()).isEqualTo(expectedField.xExtent());
+		assertThat(snapshot.getField(700).yExtent()).isEqualTo(expectedField.yExtent());
+
+		Vector2 point = Vector2.fromXY(-snapshot.getFieldLength() / 2 + snapshot.getPenaltyAreaDepth() + 50, 0);
+		for (double margin : new double[] { -100, 0, 40, 100 })
+		{
+			assertThat(snapshot.getPenaltyAreaOur(margin).isPointInShape(point))
+					.isEqualTo(snapshot.getPenaltyAreaOur().isPointInShape(point, margin));
+			assertThat(snapshot.getPenaltyAreaOur(margin).distanceToNearestPointOutside(point))
+					.isEqualTo(snapshot.getPenaltyAreaOur().withMargin(margin).distanceToNearestPointOutside(point));
+		}
+	}
+
+
+	@Test
+	public void testPenaltyAreaByColor()
+	{
+		GeometrySnapshot snapshot = Geometry.getSnapshot();
+		ETeamColor negativeHalfTeam = Geometry.getNegativeHalfTeam();
+
+		assertThat(snapshot.getPenaltyArea(negativeHalfTeam)).isSameAs(snapshot.getPenaltyAreaOur());
+		assertThat(snapshot.getPenaltyArea(negativeHalfTeam.opposite(), 10))
+				.isSameAs(snapshot.getPenaltyAreaTheir(10));
+		assertThat(snapshot.getGoal(negativeHalfTeam)).isSameAs(snapshot.getGoalOur());
+	}
+
+
+	@Test
+	public void testNegativeHalfTeamIsCapturedBySnapshot()
+	{
+		ETeamColor negativeHalfTeam = Geometry.getNegativeHalfTeam();
+		GeometrySnapshot before = Geometry.getSnapshot();
+		try
+		{
+			Geometry.setNegativeHalfTeam(negativeHalfTeam.opposite());
+
+			assertThat(before.getNegativeHalfTeam()).isEqualTo(negativeHalfTeam);
+			assertThat(before.getPenaltyArea(negativeHalfTeam)).isSameAs(before.getPenaltyAreaOur());
+			assertThat(before.getGoal(negativeHalfTeam)).isSameAs(before.getGoalOur());
+
+			GeometrySnapshot after = Geometry.getSnapshot();
+			assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+			assertThat(after.getPenaltyArea(negativeHalfTeam)).isSameAs(after.getPenaltyAreaTheir());
+			assertThat(after.getGoal(negativeHalfTeam)).isSameAs(after.getGoalTheir());
+		} finally
+		{
+			Geometry.setNegativeHalfTeam(negativeHalfTeam);
+		}
+	}
+
+
+	@Test
+	public void testRefreshPublishesNewSnapshot()
+	{
+		GeometrySnapshot before = Geometry.getSnapshot();
+		IRectangle fieldBefore = before.getField();
+
+		Geometry.refresh();
+
+		GeometrySnapshot after = Geometry.getSnapshot();
+		assertThat(after).isNotSameAs(before);
+		assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+		assertThat(before.getField()).isSameAs(fieldBefore);
+		assertThat(Geometry.getField()).isSameAs(after.getField());
+	}
+}
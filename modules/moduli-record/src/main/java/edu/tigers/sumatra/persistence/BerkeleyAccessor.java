@@ -1,11 +1,12 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.persistence;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -84,6 +85,16 @@ public class BerkeleyAccessor<T> implements IBerkeleyAccessor<T>
 	}
 
 
+	/**
+	 * @param key the exact key of the element
+	 * @return the element with exactly this key or null, if there is none
+	 */
+	protected synchronized T getExact(final long key)
+	{
+		return frameByTimestamp.get(key);
+	}
+
+
 	@Override
 	public synchronized Long getNearestKey(final long key)
 	{
@@ -169,6 +180,19 @@ public class BerkeleyAccessor<T> implements IBerkeleyAccessor<T>
 	}
 
 
+	@Override
+	public void forEach(final Consumer<? super T> consumer)
+	{
+		try (EntityCursor<T> cursor = frameByTimestamp.entities(null, CursorConfig.READ_UNCOMMITTED))
+		{
+			for (T element : cursor)
+			{
+				consumer.accept(element);
+			}
+		}
+	}
+
+
 	@Override
 	public boolean isSumatraTimestampBased()
 	{
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.persistence;
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.TimeZone;
+import java.util.function.Consumer;
 
 
 /**
@@ -159,6 +160,23 @@ public class BerkeleyDb
 	}
 
 
+	/**
+	 * Pass all elements of the given type in key order to the consumer, without loading all of them into memory.
+	 *
+	 * @param clazz    the element type
+	 * @param consumer the consumer of the elements
+	 * @param <T>      the element type
+	 */
+	public <T> void forEach(Class<T> clazz, Consumer<? super T> consumer)
+	{
+		IBerkeleyAccessor<T> accessor = getAccessor(clazz);
+		if (accessor != null)
+		{
+			accessor.forEach(consumer);
+		}
+	}
+
+
 	public <T> long size(Class<T> clazz)
 	{
 		IBerkeleyAccessor<T> accessor = getAccessor(clazz);
@@ -254,6 +272,15 @@ public class BerkeleyDb
 	}
 
 
+	/**
+	 * Remove obsolete records from the database files
+	 */
+	public void cleanLog()
+	{
+		env.cleanLog();
+	}
+
+
 	/**
 	 * Compress the database
 	 *
@@ -3,6 +3,7 @@
  */
 package edu.tigers.sumatra.persistence;
 
+import com.sleepycat.je.CheckpointConfig;
 import com.sleepycat.je.DatabaseException;
 import com.sleepycat.je.Environment;
 import com.sleepycat.je.EnvironmentConfig;
@@ -161,6 +162,31 @@ public class BerkeleyEnv
 	}
 
 
+	/**
+	 * Remove obsolete records from the log files, e.g. after rewriting many entities.
+	 * This may take a while for large databases.
+	 */
+	public void cleanLog()
+	{
+		if (!isOpen())
+		{
+			throw new IllegalStateException("Database must be open for cleaning.");
+		}
+		boolean anyCleaned = false;
+		while (session.myEnv.cleanLog() > 0)
+		{
+			anyCleaned = true;
+		}
+		if (anyCleaned)
+		{
+			// cleaned files are deleted during the next checkpoint
+			CheckpointConfig force = new CheckpointConfig();
+			force.setForce(true);
+			session.myEnv.checkpoint(force);
+		}
+	}
+
+
 	/**
 	 * Compress the database
 	 *
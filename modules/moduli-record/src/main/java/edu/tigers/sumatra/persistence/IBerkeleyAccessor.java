@@ -1,11 +1,12 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.persistence;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.sleepycat.persist.EntityStore;
 
@@ -39,6 +40,14 @@ public interface IBerkeleyAccessor<T>
 	List<T> load();
 	
 	
+	/**
+	 * Pass all stored elements in key order to the consumer, without loading all of them into memory at once.
+	 *
+	 * @param consumer the consumer of the elements
+	 */
+	void forEach(Consumer<? super T> consumer);
+	
+	
 	/**
 	 * Write elements to database
 	 * 
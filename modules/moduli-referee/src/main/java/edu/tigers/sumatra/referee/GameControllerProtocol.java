@@ -6,10 +6,12 @@ package edu.tigers.sumatra.referee;
 
 import com.google.protobuf.Message;
 import com.google.protobuf.Parser;
+import edu.tigers.sumatra.thread.ExponentialBackoff;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,15 +23,34 @@ import java.util.List;
  * messages sent TO the server contain a secret token and a signature.
  * For more details about this protocol, visit the Repository of the official SSL-Game-Controller:
  * https://github.com/RoboCup-SSL/ssl-game-controller
+ * <p>
+ * If sending or receiving fails, the connection is closed and {@link #connectBlocking()} must be called to
+ * reconnect. Reconnecting uses an exponential backoff that starts with a few milliseconds, so that a restarted
+ * game-controller is reached again almost immediately.
  */
 @Log4j2
 public class GameControllerProtocol
 {
+	/** [ms] */
+	private static final int CONNECT_TIMEOUT = 1000;
+	/** [ms] */
+	private static final long INITIAL_RETRY_DELAY = 5;
+	/** [ms] */
+	private static final long MAX_RETRY_DELAY = 1000;
+
 	@Setter
 	private String hostname;
 	private Socket socket;
 	private int port;
+	/**
+	 * Timeout for receiving a message [ms], 0 to wait forever.
+	 * A timeout closes the connection, so it should only be set, if a reply is expected for each message.
+	 * It applies to the next connection.
+	 */
+	@Setter
+	private int readTimeout = 0;
 
+	private final ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_RETRY_DELAY, MAX_RETRY_DELAY);
 	private boolean connected = false;
 	private List<IConnectedHandler> connectHandlerList = new ArrayList<>();
 
@@ -57,45 +78,37 @@ public class GameControllerProtocol
 
 
 	/**
-	 * Repeats connect until it succeeds
+	 * Repeats connect until it succeeds or the thread is interrupted
 	 * Will call the onConnected callbacks and will close old sockets if it was already connected (aka reconnect)
+	 * The connect handlers can call {@link #disconnect()}, if they could not set up the connection. Connecting is
+	 * retried in this case.
 	 */
 	public void connectBlocking()
 	{
 		if (isConnected())
 		{
 			disconnect();
-			try
-			{
-				Thread.sleep(1000);
-			} catch (InterruptedException e)
-			{
-				Thread.currentThread().interrupt();
-				return;
-			}
 			log.info("Reconnecting to " + hostname + ":" + port);
 		} else
 		{
 			log.info("Connecting to " + hostname + ":" + port);
 		}
 
+		backoff.reset();
 		long start = System.nanoTime();
-		while (true)
+		int attempts = 0;
+		while (!Thread.currentThread().isInterrupted())
 		{
-			if (connect())
+			attempts++;
+			if (connect(attempts == 1))
 			{
-				long time = System.nanoTime() - start;
-				time /= 1_000_000; // Convert to ms
-				log.info("successfully connect to " + hostname + ":" + port + " after " + time + "ms");
+				long time = (System.nanoTime() - start) / 1_000_000;
+				log.info("successfully connect to " + hostname + ":" + port + " after " + time + "ms and "
+						+ attempts + " attempts");
 				return;
 			}
-
-			try
+			if (!backoff.sleep())
 			{
-				Thread.sleep(1000);
-			} catch (InterruptedException e2)
-			{
-				Thread.currentThread().interrupt();
 				// thread was probably interrupted to be shutdown, so exit endless loop here
 				return;
 			}
@@ -103,20 +116,42 @@ public class GameControllerProtocol
 	}
 
 
-	private boolean connect()
+	private boolean connect(final boolean firstAttempt)
 	{
+		Socket newSocket = new Socket();
 		try
 		{
-			socket = new Socket(hostname, port);
-			socket.setTcpNoDelay(true);
-			connected = true;
-			notifyOnConnect();
-			return true;
+			newSocket.connect(new InetSocketAddress(hostname, port), CONNECT_TIMEOUT);
+			newSocket.setTcpNoDelay(true);
+			newSocket.setSoTimeout(readTimeout);
 		} catch (IOException e)
 		{
-			log.warn("Connection to SSL-Game-Controller ({}:{}) failed", hostname, port, e);
+			close(newSocket);
+			if (firstAttempt)
+			{
+				log.warn("Connection to SSL-Game-Controller ({}:{}) failed: {}", hostname, port, e.getMessage());
+			} else
+			{
+				log.debug("Connection to SSL-Game-Controller ({}:{}) failed", hostname, port, e);
+			}
+			return false;
+		}
+		socket = newSocket;
+		connected = true;
+		notifyOnConnect();
+		return connected;
+	}
+
+
+	private void close(final Socket socketToClose)
+	{
+		try
+		{
+			socketToClose.close();
+		} catch (IOException e)
+		{
+			log.warn("Closing Socket failed", e);
 		}
-		return false;
 	}
 
 
@@ -127,15 +162,9 @@ public class GameControllerProtocol
 	 */
 	public void disconnect()
 	{
-		try
+		if (connected)
 		{
-			if (connected)
-			{
-				socket.close();
-			}
-		} catch (IOException e)
-		{
-			log.warn("Closing Socket failed", e);
+			close(socket);
 		}
 
 		socket = null;
@@ -150,10 +179,14 @@ public class GameControllerProtocol
 	 * b) You signed the message using the MessageSigner class
 	 *
 	 * @param msg The Protobuf message
-	 * @return true on success else false
+	 * @return true on success else false, the connection is closed in this case
 	 */
 	public boolean sendMessage(Message msg)
 	{
+		if (!connected)
+		{
+			return false;
+		}
 		try
 		{
 			msg.writeDelimitedTo(socket.getOutputStream());
@@ -161,7 +194,7 @@ public class GameControllerProtocol
 		} catch (IOException e)
 		{
 			log.warn("Sending message to ssl-game-controller failed", e);
-			connectBlocking();
+			disconnect();
 			return false;
 		}
 		return true;
@@ -175,10 +208,14 @@ public class GameControllerProtocol
 	 *
 	 * @param parser Protobuf-Parser for message type T
 	 * @param <T> Type of Protobuf Message
-	 * @return Parsed Message of type T or null if an error occurred
+	 * @return Parsed Message of type T or null if an error occurred, the connection is closed in this case
 	 */
 	public <T extends Message> T receiveMessage(Parser<T> parser)
 	{
+		if (!connected)
+		{
+			return null;
+		}
 		try
 		{
 			T message = parser.parseDelimitedFrom(socket.getInputStream());
@@ -191,13 +228,17 @@ public class GameControllerProtocol
 		{
 			log.warn("Receiving message from SSL-Game-Controller failed", e);
 		}
-		connectBlocking();
+		disconnect();
 		return null;
 	}
 
 
 	public boolean newMessageAvailable()
 	{
+		if (!connected)
+		{
+			return false;
+		}
 		try
 		{
 			return socket.getInputStream().available() != 0;
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.referee;
 
@@ -30,6 +30,8 @@ import java.util.concurrent.CopyOnWriteArrayList;
 public class Referee extends AReferee
 {
 	private static final int DEFAULT_GC_UI_PORT = 50543;
+	/** [ms] */
+	private static final long GC_STARTUP_TIMEOUT = 5000;
 	private final Map<ERefereeMessageSource, ARefereeMessageSource> msgSources = new EnumMap<>(
 			ERefereeMessageSource.class);
 
@@ -101,6 +103,10 @@ public class Referee extends AReferee
 		}
 
 		new Thread(sslGameControllerProcess).start();
+		if (!sslGameControllerProcess.awaitReady(GC_STARTUP_TIMEOUT))
+		{
+			log.warn("game-controller did not get ready within {} ms", GC_STARTUP_TIMEOUT);
+		}
 		initGameController();
 		internalGameControlledActive = true;
 	}
@@ -1,9 +1,10 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.referee;
 
+import edu.tigers.sumatra.thread.ExponentialBackoff;
 import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.io.IOUtils;
@@ -12,6 +13,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -29,13 +32,21 @@ public class SslGameControllerProcess implements Runnable
 	private static final String BINARY_NAME = "ssl-game-controller";
 	private static final Path TEMP_DIR = Paths.get("temp");
 	private static final File BINARY_FILE = TEMP_DIR.resolve(BINARY_NAME).toFile();
+	private static final String LOCALHOST = "localhost";
+	/** [ms] */
+	private static final int PROBE_TIMEOUT = 200;
+	/** [ms] */
+	private static final long INITIAL_PROBE_DELAY = 5;
+	/** [ms] */
+	private static final long MAX_PROBE_DELAY = 200;
 
 	@Getter
 	private final int gcUiPort;
 	private final String publishAddress;
 	private final String timeAcquisitionMode;
 
-	private Process process = null;
+	private volatile Process process = null;
+	private volatile boolean finished = false;
 
 
 	public SslGameControllerProcess(int gcUiPort, String publishAddress, String timeAcquisitionMode)
@@ -51,6 +62,18 @@ public class SslGameControllerProcess implements Runnable
 	{
 		Thread.currentThread().setName(BINARY_NAME);
 
+		try
+		{
+			runProcess();
+		} finally
+		{
+			finished = true;
+		}
+	}
+
+
+	private void runProcess()
+	{
 		if (!setupBinary())
 		{
 			return;
@@ -162,6 +185,50 @@ public class SslGameControllerProcess implements Runnable
 	}
 
 
+	/**
+	 * Wait until the game-controller accepts connections on its UI port, which it opens together with its other ports.
+	 * The port is probed with an exponential backoff that starts with a few milliseconds, so that the
+	 * game-controller is used as soon as it is ready.
+	 *
+	 * @param timeout the maximum time to wait [ms]
+	 * @return true, if the game-controller is ready, false if it is not running or did not get ready in time
+	 */
+	public boolean awaitReady(final long timeout)
+	{
+		ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_PROBE_DELAY, MAX_PROBE_DELAY);
+		long start = System.nanoTime();
+		long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+		while (!finished)
+		{
+			Process gcProcess = process;
+			if (gcProcess != null && gcProcess.isAlive() && probe())
+			{
+				log.debug("game-controller ready after {} ms", (System.nanoTime() - start) / 1_000_000);
+				return true;
+			}
+			if (System.nanoTime() > deadline || !backoff.sleep())
+			{
+				return false;
+			}
+		}
+		return false;
+	}
+
+
+	private boolean probe()
+	{
+		try (Socket socket = new Socket())
+		{
+			socket.connect(new InetSocketAddress(LOCALHOST, gcUiPort), PROBE_TIMEOUT);
+			return true;
+		} catch (IOException e)
+		{
+			log.trace("game-controller not ready yet", e);
+			return false;
+		}
+	}
+
+
 	public void stop()
 	{
 		Process gcProcess = process;
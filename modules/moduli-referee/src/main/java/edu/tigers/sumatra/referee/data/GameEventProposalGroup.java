@@ -9,12 +9,14 @@ import java.util.List;
 import com.sleepycat.persist.model.Persistent;
 
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import lombok.EqualsAndHashCode;
 
 
 /**
  * A proposed game event.
  */
 @Persistent
+@EqualsAndHashCode
 public class GameEventProposalGroup
 {
 	private final List<IGameEvent> gameEvents;
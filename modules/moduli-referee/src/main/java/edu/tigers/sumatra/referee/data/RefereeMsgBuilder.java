@@ -1,9 +1,10 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.referee.data;
 
+import edu.tigers.sumatra.clock.SumatraClock;
 import edu.tigers.sumatra.ids.ETeamColor;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
@@ -46,7 +47,7 @@ public class RefereeMsgBuilder
 
 	private void initMessage()
 	{
-		messageBuilder.setPacketTimestamp(System.currentTimeMillis());
+		messageBuilder.setPacketTimestamp(SumatraClock.currentTimeMillis());
 		messageBuilder.setCommand(SslGcRefereeMessage.Referee.Command.HALT);
 		messageBuilder.setCommandCounter(-1);
 		messageBuilder.setCommandTimestamp(0);
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.referee.data;
+
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.referee.gameevent.GameEventFactory;
+import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import edu.tigers.sumatra.referee.proto.SslGcGameEvent;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Decode a stream of protobuf referee messages into {@link RefereeMsg}s incrementally.
+ * <p>
+ * The GameController repeats all game events of the current stage in each packet, so decoding every packet from
+ * scratch gets more expensive over time. This decoder remembers the result of the previous packet and reuses
+ * everything that did not change, compared by the content of the protobuf messages:
+ * <ul>
+ * <li>an equal packet with the same frame timestamp returns the previous {@link RefereeMsg}</li>
+ * <li>equal game event and proposal lists and team infos are shared with the previous {@link RefereeMsg}</li>
+ * <li>game events that were already part of the previous packet are not converted again</li>
+ * </ul>
+ * Only the values of the previous packet are kept, so the memory does not grow over time.
+ * The decoded lists are shared between messages and must not be modified.
+ * An instance is not thread-safe and should be used by a single receiving thread.
+ */
+public class RefereeMsgDecoder
+{
+	private SslGcRefereeMessage.Referee lastMsg;
+	private RefereeMsg lastRefereeMsg;
+	private Map<SslGcGameEvent.GameEvent, IGameEvent> lastGameEvents = new HashMap<>();
+	private Map<SslGcRefereeMessage.GameEventProposalGroup, GameEventProposalGroup> lastProposalGroups = new HashMap<>();
+	private long numDecodedGameEvents = 0;
+
+
+	/**
+	 * Decode a referee message, reusing the unchanged parts of the previous one
+	 *
+	 * @param frameTimestamp the Sumatra-internal timestamp
+	 * @param sslRefereeMsg  the protobuf message
+	 * @return the decoded referee message
+	 */
+	public RefereeMsg decode(final long frameTimestamp, final SslGcRefereeMessage.Referee sslRefereeMsg)
+	{
+		if (lastRefereeMsg != null
+				&& lastRefereeMsg.getFrameTimestamp() == frameTimestamp
+				&& sslRefereeMsg.equals(lastMsg))
+		{
+			return lastRefereeMsg;
+		}
+
+		RefereeMsg.RefereeMsgBuilder builder = RefereeMsg.builder()
+				.frameTimestamp(frameTimestamp)
+				.command(sslRefereeMsg.getCommand())
+				.cmdTimestamp(sslRefereeMsg.getCommandTimestamp())
+				.cmdCounter(sslRefereeMsg.getCommandCounter())
+				.packetTimestamp(sslRefereeMsg.getPacketTimestamp())
+				.stage(sslRefereeMsg.getStage())
+				.stageTimeLeft(sslRefereeMsg.getStageTimeLeft())
+				.teamInfoYellow(decodeTeamInfo(sslRefereeMsg.getYellow(), ETeamColor.YELLOW))
+				.teamInfoBlue(decodeTeamInfo(sslRefereeMsg.getBlue(), ETeamColor.BLUE))
+				.negativeHalfTeam(sslRefereeMsg.getBlueTeamOnPositiveHalf() ? ETeamColor.YELLOW : ETeamColor.BLUE)
+				.nextCommand(sslRefereeMsg.hasNextCommand() ? sslRefereeMsg.getNextCommand() : null)
+				.gameEvents(decodeGameEvents(sslRefereeMsg))
+				.gameEventProposalGroups(decodeProposalGroups(sslRefereeMsg))
+				.currentActionTimeRemaining(sslRefereeMsg.getCurrentActionTimeRemaining() / 1e6);
+
+		if (sslRefereeMsg.hasDesignatedPosition())
+		{
+			SslGcRefereeMessage.Referee.Point msgBallPos = sslRefereeMsg.getDesignatedPosition();
+			builder.ballPlacementPos(Vector2.fromXY(msgBallPos.getX(), msgBallPos.getY()));
+		}
+
+		lastMsg = sslRefereeMsg;
+		lastRefereeMsg = builder.build();
+		return lastRefereeMsg;
+	}
+
+
+	/**
+	 * @return the total number of game events that were converted from protobuf so far
+	 */
+	public long getNumDecodedGameEvents()
+	{
+		return numDecodedGameEvents;
+	}
+
+
+	private TeamInfo decodeTeamInfo(final SslGcRefereeMessage.Referee.TeamInfo teamInfo, final ETeamColor color)
+	{
+		if (lastMsg != null)
+		{
+			SslGcRefereeMessage.Referee.TeamInfo lastTeamInfo = color == ETeamColor.YELLOW
+					? lastMsg.getYellow()
+					: lastMsg.getBlue();
+			if (teamInfo.equals(lastTeamInfo))
+			{
+				return lastRefereeMsg.getTeamInfo(color);
+			}
+		}
+		return new TeamInfo(teamInfo);
+	}
+
+
+	private List<IGameEvent> decodeGameEvents(final SslGcRefereeMessage.Referee sslRefereeMsg)
+	{
+		if (lastMsg != null && sslRefereeMsg.getGameEventsList().equals(lastMsg.getGameEventsList()))
+		{
+			return lastRefereeMsg.getGameEvents();
+		}
+		Map<SslGcGameEvent.GameEvent, IGameEvent> gameEvents = new HashMap<>();
+		List<IGameEvent> decoded = decodeGameEvents(sslRefereeMsg.getGameEventsList(), gameEvents);
+		lastGameEvents = gameEvents;
+		return decoded;
+	}
+
+
+	private List<GameEventProposalGroup> decodeProposalGroups(final SslGcRefereeMessage.Referee sslRefereeMsg)
+	{
+		if (lastMsg != null && sslRefereeMsg.getGameEventProposalsList().equals(lastMsg.getGameEventProposalsList()))
+		{
+			return lastRefereeMsg.getGameEventProposalGroups();
+		}
+		Map<SslGcRefereeMessage.GameEventProposalGroup, GameEventProposalGroup> proposalGroups = new HashMap<>();
+		List<GameEventProposalGroup> decoded = new ArrayList<>(sslRefereeMsg.getGameEventProposalsCount());
+		for (SslGcRefereeMessage.GameEventProposalGroup group : sslRefereeMsg.getGameEventProposalsList())
+		{
+			GameEventProposalGroup decodedGroup = lastProposalGroups.get(group);
+			if (decodedGroup == null)
+			{
+				decodedGroup = new GameEventProposalGroup(decodeGameEvents(group.getGameEventList(), new HashMap<>()));
+			}
+			proposalGroups.put(group, decodedGroup);
+			decoded.add(decodedGroup);
+		}
+		lastProposalGroups = proposalGroups;
+		return decoded;
+	}
+
+
+	/**
+	 * @param events    the protobuf game events
+	 * @param collector receives all decoded game events by their protobuf message
+	 * @return the decoded game events, without unknown ones
+	 */
+	private List<IGameEvent> decodeGameEvents(
+			final List<SslGcGameEvent.GameEvent> events,
+			final Map<SslGcGameEvent.GameEvent, IGameEvent> collector)
+	{
+		List<IGameEvent> decoded = new ArrayList<>(events.size());
+		for (SslGcGameEvent.GameEvent event : events)
+		{
+			IGameEvent gameEvent = lastGameEvents.get(event);
+			if (gameEvent == null)
+			{
+				gameEvent = GameEventFactory.fromProtobuf(event).orElse(null);
+				numDecodedGameEvents++;
+			}
+			if (gameEvent != null)
+			{
+				collector.put(event, gameEvent);
+				decoded.add(gameEvent);
+			}
+		}
+		return decoded;
+	}
+}
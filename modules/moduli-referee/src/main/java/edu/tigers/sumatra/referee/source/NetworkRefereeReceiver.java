@@ -8,15 +8,16 @@ import com.github.g3force.configurable.Configurable;
 import edu.tigers.sumatra.network.IReceiver;
 import edu.tigers.sumatra.network.MulticastUDPReceiver;
 import edu.tigers.sumatra.network.NetworkUtility;
+import edu.tigers.sumatra.network.SelectorMulticastUDPReceiver;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
+import java.util.Arrays;
 import java.util.Optional;
 
 
@@ -35,6 +36,9 @@ public class NetworkRefereeReceiver extends ARefereeMessageSource implements Run
 	@Configurable
 	private static String network;
 
+	@Configurable(defValue = "false", comment = "Wait on all network interfaces at once instead of polling them one after another")
+	private static boolean useSelectorReceiver = false;
+
 	private int port;
 	private Thread referee;
 	private IReceiver receiver;
@@ -65,22 +69,38 @@ public class NetworkRefereeReceiver extends ARefereeMessageSource implements Run
 		if (nif == null)
 		{
 			log.debug("No nif for referee specified, will try all.");
-			receiver = new MulticastUDPReceiver(port, address);
 		} else
 		{
 			log.info("Chose nif for referee: {}", nif.getDisplayName());
-			receiver = new MulticastUDPReceiver(port, address, nif);
 		}
+		receiver = createReceiver(nif);
 
 		referee = new Thread(this, "External Referee");
 		referee.start();
 	}
 
 
+	private IReceiver createReceiver(final NetworkInterface nif)
+	{
+		if (useSelectorReceiver)
+		{
+			return nif == null
+					? new SelectorMulticastUDPReceiver(port, address)
+					: new SelectorMulticastUDPReceiver(port, address, nif);
+		}
+		return nif == null
+				? new MulticastUDPReceiver(port, address)
+				: new MulticastUDPReceiver(port, address, nif);
+	}
+
+
 	@Override
 	public void run()
 	{
 		final DatagramPacket packet = new DatagramPacket(new byte[BUFFER_SIZE], BUFFER_SIZE);
+		final byte[] lastData = new byte[BUFFER_SIZE];
+		int lastLength = -1;
+		SslGcRefereeMessage.Referee lastRefereeMsg = null;
 
 		while (!Thread.currentThread().isInterrupted())
 		{
@@ -97,12 +117,22 @@ public class NetworkRefereeReceiver extends ARefereeMessageSource implements Run
 			}
 
 			refBoxAddress = packet.getAddress();
-			final ByteArrayInputStream packetIn = new ByteArrayInputStream(packet.getData(), 0, packet.getLength());
+			final byte[] data = packet.getData();
+			final int length = packet.getLength();
+
+			// protobuf messages are immutable, so an identical datagram does not need to be parsed again
+			if (lastRefereeMsg != null && Arrays.equals(data, 0, length, lastData, 0, lastLength))
+			{
+				notifyNewRefereeMessage(lastRefereeMsg);
+				continue;
+			}
 
-			SslGcRefereeMessage.Referee sslRefereeMsg;
 			try
 			{
-				sslRefereeMsg = SslGcRefereeMessage.Referee.parseFrom(packetIn);
+				SslGcRefereeMessage.Referee sslRefereeMsg = SslGcRefereeMessage.Referee.parser().parseFrom(data, 0, length);
+				System.arraycopy(data, 0, lastData, 0, length);
+				lastLength = length;
+				lastRefereeMsg = sslRefereeMsg;
 
 				// Notify the receipt of a new RefereeMessage to any other observers
 				notifyNewRefereeMessage(sslRefereeMsg);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.referee;
@@ -61,7 +61,8 @@ public class TestTeamClient
 		request = gc.receiveMessage(SslGcRconTeam.ControllerToTeam.parser());
 		if (request == null)
 		{
-			log.error("Failed to receive Controller Request");
+			log.error("Failed to receive Controller Request, reconnecting");
+			gc.connectBlocking();
 		}
 	}
 
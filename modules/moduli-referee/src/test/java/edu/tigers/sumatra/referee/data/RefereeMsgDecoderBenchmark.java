@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.referee.data;
+
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.referee.gameevent.BallLeftFieldTouchLine;
+import edu.tigers.sumatra.referee.gameevent.BotCrashUnique;
+import edu.tigers.sumatra.referee.gameevent.BotTooFastInStop;
+import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Decode the referee stream of a full match, either with the {@link RefereeMsgDecoder}
+ * or by creating each {@link RefereeMsg} from scratch.
+ * <p>
+ * The stream contains two halves of 5 minutes with a packet every 100ms, a new game event every 20s
+ * and the game events of the current half are repeated in each packet, like the GameController does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 3)
+public class RefereeMsgDecoderBenchmark
+{
+	private static final int PACKETS_PER_HALF = 3000;
+	private static final int PACKETS_PER_GAME_EVENT = 200;
+
+	@Param({ "true", "false" })
+	private boolean incremental;
+
+	private final List<SslGcRefereeMessage.Referee> stream = new ArrayList<>();
+
+
+	public static void main(String[] args) throws Exception
+	{
+		org.openjdk.jmh.Main.main(args);
+	}
+
+
+	@Setup
+	public void setup()
+	{
+		addHalf(SslGcRefereeMessage.Referee.Stage.NORMAL_FIRST_HALF, 0);
+		addHalf(SslGcRefereeMessage.Referee.Stage.NORMAL_SECOND_HALF, PACKETS_PER_HALF);
+	}
+
+
+	private void addHalf(final SslGcRefereeMessage.Referee.Stage stage, final int packetOffset)
+	{
+		SslGcRefereeMessage.Referee.Builder builder = RefereeMsgBuilder.aRefereeMsg()
+				.withStage(stage)
+				.build().toBuilder();
+		for (int i = 0; i < PACKETS_PER_HALF; i++)
+		{
+			if (i % PACKETS_PER_GAME_EVENT == PACKETS_PER_GAME_EVENT - 1)
+			{
+				builder.setCommandCounter(builder.getCommandCounter() + 1);
+				builder.addGameEvents(gameEvent(i).toProtobuf());
+			}
+			builder.setPacketTimestamp((packetOffset + i) * 100_000L);
+			builder.setStageTimeLeft((PACKETS_PER_HALF - i) * 100_000L);
+			stream.add(builder.build());
+		}
+	}
+
+
+	private IGameEvent gameEvent(final int i)
+	{
+		BotID bot = BotID.createBotId(i % 11, i % 2 == 0 ? ETeamColor.YELLOW : ETeamColor.BLUE);
+		switch (i % 3)
+		{
+			case 0:
+				return new BallLeftFieldTouchLine(bot, Vector2.fromXY(i, 4500));
+			case 1:
+				return new BotTooFastInStop(bot, Vector2.fromXY(i, -i), 1.8);
+			default:
+				return new BotCrashUnique(bot, BotID.createBotId(i % 7, bot.getTeamColor().opposite()),
+						Vector2.fromXY(-i, i), 2.1, 1.2, 0.3);
+		}
+	}
+
+
+	@Benchmark
+	public void decodeMatch(Blackhole blackhole)
+	{
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+		long frameTimestamp = 0;
+		for (SslGcRefereeMessage.Referee msg : stream)
+		{
+			frameTimestamp += 100_000_000L;
+			if (incremental)
+			{
+				blackhole.consume(decoder.decode(frameTimestamp, msg));
+			} else
+			{
+				blackhole.consume(new RefereeMsg(frameTimestamp, msg));
+			}
+		}
+	}
+}
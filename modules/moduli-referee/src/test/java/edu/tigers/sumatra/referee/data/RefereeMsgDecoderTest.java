@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.referee.data;
+
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.referee.gameevent.BallLeftFieldTouchLine;
+import edu.tigers.sumatra.referee.gameevent.BotPushedBot;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class RefereeMsgDecoderTest
+{
+	private final SslGcRefereeMessage.Referee.Builder builder = RefereeMsgBuilder.aRefereeMsg()
+			.withCommand(SslGcRefereeMessage.Referee.Command.STOP)
+			.withBallPlacementPos(Vector2.fromXY(1000, -500))
+			.build().toBuilder()
+			.addGameEvents(new BallLeftFieldTouchLine(BotID.createBotId(1, ETeamColor.BLUE), Vector2.fromXY(100, 3000))
+					.toProtobuf())
+			.addGameEventProposals(SslGcRefereeMessage.GameEventProposalGroup.newBuilder()
+					.addGameEvent(new BotPushedBot(BotID.createBotId(2, ETeamColor.YELLOW),
+							BotID.createBotId(3, ETeamColor.BLUE), Vector2.fromXY(-200, 400), 300).toProtobuf()));
+
+
+	@Test
+	public void testDecodeEqualsFullDecoding()
+	{
+		SslGcRefereeMessage.Referee msg = builder.build();
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+
+		assertThat(decoder.decode(42, msg)).isEqualTo(new RefereeMsg(42, msg));
+		assertThat(decoder.decode(43, msg)).isEqualTo(new RefereeMsg(43, msg));
+	}
+
+
+	@Test
+	public void testEqualPacketIsReused()
+	{
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+
+		RefereeMsg first = decoder.decode(42, builder.build());
+		assertThat(decoder.decode(42, builder.build())).isSameAs(first);
+		assertThat(decoder.decode(43, builder.build())).isNotSameAs(first);
+	}
+
+
+	@Test
+	public void testUnchangedPartsAreShared()
+	{
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+
+		RefereeMsg first = decoder.decode(42, builder.setPacketTimestamp(1).build());
+		RefereeMsg second = decoder.decode(42, builder.setPacketTimestamp(2).build());
+
+		assertThat(second.getPacketTimestamp()).isEqualTo(2);
+		assertThat(second.getGameEvents()).isSameAs(first.getGameEvents());
+		assertThat(second.getGameEventProposalGroups()).isSameAs(first.getGameEventProposalGroups());
+		assertThat(second.getTeamInfoBlue()).isSameAs(first.getTeamInfoBlue());
+		assertThat(decoder.getNumDecodedGameEvents()).isEqualTo(2);
+	}
+
+
+	@Test
+	public void testOnlyNewGameEventsAreDecoded()
+	{
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+
+		RefereeMsg first = decoder.decode(42, builder.build());
+		BallLeftFieldTouchLine newEvent = new BallLeftFieldTouchLine(BotID.createBotId(4, ETeamColor.YELLOW),
+				Vector2.fromXY(-100, -3000));
+		RefereeMsg second = decoder.decode(42, builder.addGameEvents(newEvent.toProtobuf()).build());
+
+		assertThat(second.getGameEvents()).hasSize(2);
+		assertThat(second.getGameEvents().get(0)).isSameAs(first.getGameEvents().get(0));
+		assertThat(second.getGameEvents().get(1)).isEqualTo(newEvent);
+		assertThat(decoder.getNumDecodedGameEvents()).isEqualTo(3);
+	}
+
+
+	@Test
+	public void testRemovedGameEventsAreForgotten()
+	{
+		RefereeMsgDecoder decoder = new RefereeMsgDecoder();
+
+		decoder.decode(42, builder.build());
+		RefereeMsg cleared = decoder.decode(42, builder.clearGameEvents().clearGameEventProposals().build());
+
+		assertThat(cleared.getGameEvents()).isEqualTo(Collections.emptyList());
+		assertThat(cleared.getGameEventProposalGroups()).isEqualTo(Collections.emptyList());
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision;
 
@@ -24,6 +24,7 @@ import edu.tigers.sumatra.vision.data.KickEvent;
 import edu.tigers.sumatra.vision.data.StraightBallTrajectory;
 import edu.tigers.sumatra.vision.kick.detectors.EarlyKickDetector;
 import edu.tigers.sumatra.vision.kick.detectors.KickDetector;
+import edu.tigers.sumatra.vision.kick.estimators.BallModelIdentTask;
 import edu.tigers.sumatra.vision.kick.estimators.ChipKickEstimator;
 import edu.tigers.sumatra.vision.kick.estimators.EKickEstimatorType;
 import edu.tigers.sumatra.vision.kick.estimators.IBallModelIdentResult;
@@ -43,6 +44,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
@@ -71,6 +73,8 @@ public class BallFilterPreprocessor
 	@Configurable(comment = "Enable model identification solver", defValue = "false")
 	private boolean doModelIdentification = false;
 
+	private Consumer<BallModelIdentTask> modelIdentTaskConsumer = null;
+
 
 	static
 	{
@@ -141,18 +145,38 @@ public class BallFilterPreprocessor
 	}
 
 
+	/**
+	 * Hand the model identification tasks of all finished kicks to the given consumer instead of solving them inline.
+	 * This allows to solve them on other threads, e.g. for offline identification of recordings.
+	 *
+	 * @param modelIdentTaskConsumer the consumer of identification tasks, null to disable
+	 */
+	public void setModelIdentTaskConsumer(final Consumer<BallModelIdentTask> modelIdentTaskConsumer)
+	{
+		this.modelIdentTaskConsumer = modelIdentTaskConsumer;
+	}
+
+
 	public List<IDrawableShape> getShapes()
 	{
 		List<IDrawableShape> shapes = new ArrayList<>();
 
 		shapes.addAll(ballTrackerMerger.getShapes());
-		shapes.addAll(kickDetectors.getShapes());
 		shapes.addAll(kickEstimators.getShapes());
 
 		return shapes;
 	}
 
 
+	/**
+	 * @return debug shapes of the kick detectors
+	 */
+	public List<IDrawableShape> getKickDetectorShapes()
+	{
+		return kickDetectors.getShapes();
+	}
+
+
 	private class KickEstimators
 	{
 		private final List<IKickEstimator> estimators = new ArrayList<>();
@@ -174,6 +198,27 @@ public class BallFilterPreprocessor
 		}
 
 
+		private void processModelIdentTask(final BallModelIdentTask task)
+		{
+			Consumer<BallModelIdentTask> consumer = modelIdentTaskConsumer;
+			if (consumer != null)
+			{
+				consumer.accept(task);
+				return;
+			}
+
+			Optional<IBallModelIdentResult> result = task.solve();
+			if (result.isPresent())
+			{
+				log.info("{} model:{}{}", task.getType(), System.lineSeparator(), result.get());
+				notifyBallModelIdentificationResult(result.get());
+			} else
+			{
+				log.info("{} model identification failed.", task.getType());
+			}
+		}
+
+
 		private BallTrajectoryState process(final KickEvent kickEvent, final MergedBall ball,
 				final List<FilteredVisionBot> mergedRobots, final Map<BotID, RobotInfo> robotInfos,
 				final long timestamp)
@@ -185,13 +230,13 @@ public class BallFilterPreprocessor
 			}
 
 			// run completed check
-			if (doModelIdentification)
+			if (doModelIdentification || modelIdentTaskConsumer != null)
 			{
 				estimators.stream()
 						.filter(e -> e.isDone(mergedRobots, timestamp))
-						.map(IKickEstimator::getModelIdentResult)
+						.map(IKickEstimator::getModelIdentTask)
 						.flatMap(Optional::stream)
-						.forEach(this::notifyBallModelIdentificationResult);
+						.forEach(this::processModelIdentTask);
 			}
 			if (lastBestEstimator != null && lastBestEstimator.isDone(mergedRobots, timestamp))
 			{
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision;
 
@@ -20,12 +20,12 @@ import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.vision.data.FilteredVisionBot;
 import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
 import edu.tigers.sumatra.vision.tracker.RobotTracker;
-import org.apache.commons.math3.util.Pair;
 
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -40,8 +40,9 @@ import java.util.stream.Collectors;
 public class QualityInspector
 {
 	private List<CamCalibration> problematicCams = new ArrayList<>();
-	private List<RobotDeviationIssue> deviationIssues = new ArrayList<>();
-	private List<RobotInvisibleIssue> invisibleIssues = new ArrayList<>();
+	private final Map<BotID, RobotDeviationIssue> deviationIssues = new IdentityHashMap<>();
+	private final Map<BotID, RobotInvisibleIssue> invisibleIssues = new IdentityHashMap<>();
+	private final Map<BotID, List<RobotTracker>> trackersById = new IdentityHashMap<>();
 	private List<FilteredVisionBot> filteredBots = new ArrayList<>();
 	private Map<Integer, CamCalibration> calibrations = new HashMap<>();
 
@@ -86,6 +87,9 @@ public class QualityInspector
 
 	/**
 	 * Inspect robots for issues.
+	 * <p>
+	 * The trackers of all cameras are grouped by robot into reused lists and issues are looked up by robot,
+	 * so the effort only depends on the number of trackers and the number of cameras that see the same robot.
 	 *
 	 * @param camFilters
 	 * @param timestamp
@@ -93,138 +97,124 @@ public class QualityInspector
 	public void inspectRobots(final Collection<CamFilter> camFilters, final long timestamp)
 	{
 		// remove old issues
-		deviationIssues.removeIf(i -> (timestamp - i.lastOccurence) > (issueTimeout * 1e9));
-		invisibleIssues.removeIf(i -> (timestamp - i.lastOccurence) > (issueTimeout * 1e9));
+		deviationIssues.values().removeIf(i -> (timestamp - i.lastOccurence) > (issueTimeout * 1e9));
+		invisibleIssues.values().removeIf(i -> (timestamp - i.lastOccurence) > (issueTimeout * 1e9));
 
-		// just get all RobotTracker in one list
-		List<RobotTracker> allTrackers = camFilters.stream()
-				.flatMap(f -> f.getValidRobots().values().stream())
-				.collect(Collectors.toList());
+		for (List<RobotTracker> trackers : trackersById.values())
+		{
+			trackers.clear();
+		}
 
 		for (CamFilter filter : camFilters)
 		{
-			if (!filter.getViewport().isPresent())
+			Optional<IRectangle> viewport = filter.getViewport();
+			for (RobotTracker tracker : filter.getValidRobots().values())
 			{
-				continue;
-			}
+				if (viewport.isPresent())
+				{
+					checkInvisibleRobot(timestamp, tracker, viewport.get());
+				}
 
-			IRectangle viewport = filter.getViewport().get();
-			checkInvisibleRobot(timestamp, filter, viewport);
+				// group trackers by BotID, there is at most one tracker per camera and robot
+				if (((timestamp - tracker.getLastUpdateTimestamp()) < (maxTimeDiffForDeviation * 1e9))
+						&& (tracker.getVelocity().getLength2() < (maxSpeedForDeviation * 1e3)))
+				{
+					trackersById.computeIfAbsent(tracker.getBotId(), id -> new ArrayList<>()).add(tracker);
+				}
+			}
 		}
 
-		// group trackers by BotID
-		Map<BotID, List<RobotTracker>> trackersById = allTrackers.stream()
-				.filter(t -> (timestamp - t.getLastUpdateTimestamp()) < (maxTimeDiffForDeviation * 1e9))
-				.filter(t -> t.getVelocity().getLength2() < (maxSpeedForDeviation * 1e3))
-				.collect(Collectors.groupingBy(RobotTracker::getBotId));
-
-		// go through all grouped trackers
+		// go through all grouped trackers, robots on a single camera cannot be judged
 		for (List<RobotTracker> trackers : trackersById.values())
 		{
-			// robots on a single camera cannot be judged
-			if (trackers.size() == 1)
-			{
-				continue;
-			}
-
-			// create all possible combinations of trackers in this group
-			List<Pair<RobotTracker, RobotTracker>> allPairs = new ArrayList<>();
+			// investigate distances of all possible combinations of trackers in this group
 			for (int i = 0; i < trackers.size(); i++)
 			{
-				for (int j = i; j < trackers.size(); j++)
+				for (int j = i + 1; j < trackers.size(); j++)
 				{
-					allPairs.add(new Pair<>(trackers.get(i), trackers.get(j)));
+					checkPositionDeviation(timestamp, trackers.get(i), trackers.get(j));
 				}
 			}
-
-			// investigate tracker distances
-			checkPositionDeviation(timestamp, allPairs);
 		}
 	}
 
 
-	private void checkInvisibleRobot(final long timestamp, final CamFilter filter, final IRectangle viewport)
+	private void checkInvisibleRobot(final long timestamp, final RobotTracker tracker, final IRectangle viewport)
 	{
-		for (RobotTracker tracker : filter.getValidRobots().values())
+		if ((tracker.getVelocity().getLength2() <= (minSpeedForInvisibleCheck * 1e3))
+				|| ((timestamp - tracker.getLastUpdateTimestamp()) <= (minInvisibleTime * 1e9)))
 		{
-			if (viewport.isPointInShape(tracker.getPosition(timestamp))
-					&& (tracker.getVelocity().getLength2() > (minSpeedForInvisibleCheck * 1e3))
-					&& ((timestamp - tracker.getLastUpdateTimestamp()) > (minInvisibleTime * 1e9)))
-			{
-				Optional<RobotInvisibleIssue> sameBotIssue = invisibleIssues.stream()
-						.filter(i -> i.botId.equals(tracker.getBotId()))
-						.findFirst();
+			return;
+		}
 
-				if (!sameBotIssue.isPresent())
-				{
-					RobotInvisibleIssue issue = new RobotInvisibleIssue();
-					issue.botId = tracker.getBotId();
-					issue.firstPos = tracker.getPosition(timestamp);
-					issue.lastPos = issue.firstPos;
-					issue.lastOccurence = timestamp;
+		IVector2 pos = tracker.getPosition(timestamp);
+		if (!viewport.isPointInShape(pos))
+		{
+			return;
+		}
 
-					invisibleIssues.add(issue);
+		RobotInvisibleIssue sameBotIssue = invisibleIssues.get(tracker.getBotId());
+		if (sameBotIssue == null)
+		{
+			RobotInvisibleIssue issue = new RobotInvisibleIssue();
+			issue.botId = tracker.getBotId();
+			issue.firstPos = pos;
+			issue.lastPos = issue.firstPos;
+			issue.lastOccurence = timestamp;
 
-					continue;
-				}
+			invisibleIssues.put(issue.botId, issue);
+			return;
+		}
 
-				if (sameBotIssue.get().lastPos.distanceTo(tracker.getPosition(timestamp)) < 1000)
-				{
-					sameBotIssue.get().lastOccurence = timestamp;
-					sameBotIssue.get().lastPos = tracker.getPosition(timestamp);
-				} else
-				{
-					sameBotIssue.get().botId = tracker.getBotId();
-					sameBotIssue.get().firstPos = tracker.getPosition(timestamp);
-					sameBotIssue.get().lastPos = sameBotIssue.get().firstPos;
-					sameBotIssue.get().lastOccurence = timestamp;
-				}
-			}
+		if (sameBotIssue.lastPos.distanceTo(pos) < 1000)
+		{
+			sameBotIssue.lastOccurence = timestamp;
+			sameBotIssue.lastPos = pos;
+		} else
+		{
+			sameBotIssue.firstPos = pos;
+			sameBotIssue.lastPos = sameBotIssue.firstPos;
+			sameBotIssue.lastOccurence = timestamp;
 		}
 	}
 
 
-	private void checkPositionDeviation(final long timestamp, final List<Pair<RobotTracker, RobotTracker>> allPairs)
+	private void checkPositionDeviation(final long timestamp, final RobotTracker first, final RobotTracker second)
 	{
-		for (Pair<RobotTracker, RobotTracker> pair : allPairs)
+		IVector2 firstPos = first.getPosition(timestamp);
+		IVector2 secondPos = second.getPosition(timestamp);
+		if (firstPos.distanceTo(secondPos) <= maxOverlapDist)
 		{
-			double dist = pair.getFirst().getPosition(timestamp).distanceTo(pair.getSecond().getPosition(timestamp));
-
-			if (dist > maxOverlapDist)
-			{
-				// that's bad
-				Optional<RobotDeviationIssue> sameBotIssue = deviationIssues.stream()
-						.filter(i -> i.botId.equals(pair.getFirst().getBotId()))
-						.findFirst();
+			return;
+		}
 
-				if (sameBotIssue.isPresent())
-				{
-					// update same issue
-					sameBotIssue.get().firstPos = pair.getFirst().getPosition(timestamp);
-					sameBotIssue.get().secondPos = pair.getSecond().getPosition(timestamp);
-					sameBotIssue.get().lastOccurence = timestamp;
-					sameBotIssue.get().firstCam = pair.getFirst().getCamId();
-					sameBotIssue.get().secondCam = pair.getSecond().getCamId();
-					continue;
-				}
+		// that's bad
+		RobotDeviationIssue sameBotIssue = deviationIssues.get(first.getBotId());
+		if (sameBotIssue != null)
+		{
+			// update same issue
+			sameBotIssue.firstPos = firstPos;
+			sameBotIssue.secondPos = secondPos;
+			sameBotIssue.lastOccurence = timestamp;
+			sameBotIssue.firstCam = first.getCamId();
+			sameBotIssue.secondCam = second.getCamId();
+			return;
+		}
 
-				RobotDeviationIssue issue = new RobotDeviationIssue();
-				issue.firstPos = pair.getFirst().getPosition(timestamp);
-				issue.secondPos = pair.getSecond().getPosition(timestamp);
-				issue.botId = pair.getFirst().getBotId();
-				issue.lastOccurence = timestamp;
-				issue.firstCam = pair.getFirst().getCamId();
-				issue.secondCam = pair.getSecond().getCamId();
+		RobotDeviationIssue issue = new RobotDeviationIssue();
+		issue.firstPos = firstPos;
+		issue.secondPos = secondPos;
+		issue.botId = first.getBotId();
+		issue.lastOccurence = timestamp;
+		issue.firstCam = first.getCamId();
+		issue.secondCam = second.getCamId();
 
-				long nearByIssues = deviationIssues.stream()
-						.filter(i -> i.getCenterPos().distanceTo(issue.getCenterPos()) < 200)
-						.count();
+		boolean nearByIssue = deviationIssues.values().stream()
+				.anyMatch(i -> i.getCenterPos().distanceTo(issue.getCenterPos()) < 200);
 
-				if (nearByIssues == 0)
-				{
-					deviationIssues.add(issue);
-				}
-			}
+		if (!nearByIssue)
+		{
+			deviationIssues.put(issue.botId, issue);
 		}
 	}
 
@@ -336,7 +326,7 @@ public class QualityInspector
 		if (drawRobotDeviationIssues)
 		{
 			// draw problematic robot deviations
-			for (RobotDeviationIssue issue : deviationIssues)
+			for (RobotDeviationIssue issue : deviationIssues.values())
 			{
 				DrawableCircle circle = new DrawableCircle(issue.getCenterPos(), 160, Color.ORANGE);
 				circle.setStrokeWidth(20);
@@ -372,7 +362,7 @@ public class QualityInspector
 		if (drawRobotInvisibleIssues)
 		{
 			// draw invisible fast robots
-			for (RobotInvisibleIssue issue : invisibleIssues)
+			for (RobotInvisibleIssue issue : invisibleIssues.values())
 			{
 				DrawableCircle circle = new DrawableCircle(issue.getCenterPos(), 160,
 						issue.botId.getTeamColor().getColor());
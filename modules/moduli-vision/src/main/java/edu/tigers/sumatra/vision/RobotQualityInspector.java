@@ -9,14 +9,17 @@ import com.github.g3force.configurable.Configurable;
 import edu.tigers.sumatra.cam.data.CamRobot;
 import edu.tigers.sumatra.ids.BotID;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.IdentityHashMap;
-import java.util.List;
 import java.util.Map;
 
 
 /**
  * Track the overall quality/visibility of each robot by counting the number of detection over a fixed time horizon.
+ * <p>
+ * The detection timestamps of each robot are stored in a primitive ring buffer, so adding a detection, pruning old
+ * detections and counting them does neither box timestamps nor shift the remaining ones.
  */
 public class RobotQualityInspector
 {
@@ -31,7 +34,9 @@ public class RobotQualityInspector
 		ConfigRegistration.registerClass("vision", RobotQualityInspector.class);
 	}
 
-	private final Map<BotID, List<Long>> measurements = new IdentityHashMap<>();
+	private static final int INITIAL_CAPACITY = 256;
+
+	private final Map<BotID, TimestampBuffer> measurements = new IdentityHashMap<>();
 
 	private double maxPossibleDetectionsPerCam = trackingTimeHorizon / 0.01;
 
@@ -40,7 +45,7 @@ public class RobotQualityInspector
 	{
 		for (BotID botID : BotID.getAll())
 		{
-			measurements.put(botID, new ArrayList<>());
+			measurements.put(botID, new TimestampBuffer(INITIAL_CAPACITY));
 		}
 	}
 
@@ -51,21 +56,26 @@ public class RobotQualityInspector
 	}
 
 
+	/**
+	 * Add all robot detections of a camera frame at once.
+	 *
+	 * @param camRobots the detected robots
+	 */
+	public synchronized void addDetections(Collection<CamRobot> camRobots)
+	{
+		for (CamRobot camRobot : camRobots)
+		{
+			measurements.get(camRobot.getBotId()).add(camRobot.getTimestamp());
+		}
+	}
+
+
 	public synchronized void prune(long currentTimestamp)
 	{
 		long timestamp = currentTimestamp - (long) (trackingTimeHorizon * 1e9);
-		for (List<Long> timestamps : measurements.values())
+		for (TimestampBuffer timestamps : measurements.values())
 		{
-			while (!timestamps.isEmpty())
-			{
-				if (timestamps.get(0) < timestamp)
-				{
-					timestamps.remove(0);
-				} else
-				{
-					break;
-				}
-			}
+			timestamps.removeOlderThan(timestamp);
 		}
 	}
 
@@ -98,4 +108,64 @@ public class RobotQualityInspector
 	{
 		return getQuality(botID) > robotQualityThreshold;
 	}
+
+
+	/**
+	 * A growing FIFO ring buffer of timestamps in the order of their arrival.
+	 */
+	private static class TimestampBuffer
+	{
+		private long[] timestamps;
+		private int head = 0;
+		private int size = 0;
+
+
+		TimestampBuffer(int capacity)
+		{
+			timestamps = new long[capacity];
+		}
+
+
+		void add(long timestamp)
+		{
+			if (size == timestamps.length)
+			{
+				grow();
+			}
+			timestamps[(head + size) % timestamps.length] = timestamp;
+			size++;
+		}
+
+
+		/**
+		 * Remove timestamps from the head as long as they are older than the given one.
+		 * Timestamps from different cameras may arrive slightly out of order, so like before, pruning stops at the
+		 * first timestamp that is not too old.
+		 *
+		 * @param timestamp the oldest timestamp to keep
+		 */
+		void removeOlderThan(long timestamp)
+		{
+			while (size > 0 && timestamps[head] < timestamp)
+			{
+				head = (head + 1) % timestamps.length;
+				size--;
+			}
+		}
+
+
+		int size()
+		{
+			return size;
+		}
+
+
+		private void grow()
+		{
+			long[] grown = Arrays.copyOf(timestamps, timestamps.length * 2);
+			// move the wrapped part behind the old end
+			System.arraycopy(timestamps, 0, grown, timestamps.length, head);
+			timestamps = grown;
+		}
+	}
 }
@@ -9,6 +9,8 @@ import com.github.g3force.configurable.Configurable;
 import edu.tigers.sumatra.cam.data.CamCalibration;
 import edu.tigers.sumatra.cam.data.CamDetectionFrame;
 import edu.tigers.sumatra.cam.data.CamGeometry;
+import edu.tigers.sumatra.clock.IClockTask;
+import edu.tigers.sumatra.clock.SumatraClock;
 import edu.tigers.sumatra.drawable.DrawableAnnotation;
 import edu.tigers.sumatra.drawable.DrawableArrow;
 import edu.tigers.sumatra.drawable.DrawableCircle;
@@ -21,7 +23,6 @@ import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.IVector3;
 import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
-import edu.tigers.sumatra.thread.NamedThreadFactory;
 import edu.tigers.sumatra.util.Safe;
 import edu.tigers.sumatra.vision.BallFilter.BallFilterOutput;
 import edu.tigers.sumatra.vision.BallFilterPreprocessor.BallFilterPreprocessorOutput;
@@ -32,6 +33,7 @@ import edu.tigers.sumatra.vision.data.FilteredVisionBot;
 import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
 import edu.tigers.sumatra.vision.data.IBallModelIdentificationObserver;
 import edu.tigers.sumatra.vision.data.KickEvent;
+import edu.tigers.sumatra.vision.kick.estimators.BallModelIdentTask;
 import edu.tigers.sumatra.vision.kick.estimators.IBallModelIdentResult;
 import edu.tigers.sumatra.vision.tracker.BallTracker;
 import edu.tigers.sumatra.vision.tracker.RobotTracker;
@@ -44,9 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 
@@ -80,7 +80,7 @@ public class VisionFilterImpl extends AVisionFilter
 			new BallFilterPreprocessorOutput(null, null, null)
 	);
 
-	private ScheduledExecutorService publisherExecutor;
+	private IClockTask publishTask;
 
 
 	private void publish()
@@ -126,7 +126,7 @@ public class VisionFilterImpl extends AVisionFilter
 			return;
 		}
 		processCamDetectionFrame(camDetectionFrame);
-		if (publisherExecutor == null)
+		if (publishTask == null)
 		{
 			publish();
 		}
@@ -156,7 +156,7 @@ public class VisionFilterImpl extends AVisionFilter
 		camFilter.update(camDetectionFrame, lastFrame);
 
 		// update robot quality inspector
-		camDetectionFrame.getRobots().forEach(robotQualityInspector::addDetection);
+		robotQualityInspector.addDetections(camDetectionFrame.getRobots());
 	}
 
 
@@ -213,6 +213,8 @@ public class VisionFilterImpl extends AVisionFilter
 		frame.getShapeMap().get(EVisionFilterShapesLayer.CAM_INFO_SHAPES).addAll(getCamInfoShapes());
 		frame.getShapeMap().get(EVisionFilterShapesLayer.BALL_TRACKER_SHAPES_IMPORTANT)
 				.addAll(ballFilterPreprocessor.getShapes());
+		frame.getShapeMap().get(EVisionFilterShapesLayer.KICK_DETECTOR)
+				.addAll(ballFilterPreprocessor.getKickDetectorShapes());
 		frame.getShapeMap().get(EVisionFilterShapesLayer.ROBOT_TRACKER_SHAPES)
 				.addAll(getRobotTrackerShapes(timestamp));
 		frame.getShapeMap().get(EVisionFilterShapesLayer.BALL_TRACKER_SHAPES)
@@ -328,24 +330,43 @@ public class VisionFilterImpl extends AVisionFilter
 
 		if (useThreads)
 		{
-			publisherExecutor = Executors
-					.newSingleThreadScheduledExecutor(new NamedThreadFactory("VisionFilter Publisher"));
-			publisherExecutor
-					.scheduleAtFixedRate(() -> Safe.run(this::publish), 0, (long) (publishDt * 1e9), TimeUnit.NANOSECONDS);
+			startPublisher();
 			log.info("Using threaded VisionFilter");
 		}
 	}
 
 
+	/**
+	 * Publish filtered frames with a fixed rate in the time of the {@link SumatraClock},
+	 * instead of publishing a frame after each camera frame.
+	 * This is done on start of the module, if threads are enabled.
+	 */
+	public void startPublisher()
+	{
+		stopPublisher();
+		publishTask = SumatraClock.get().scheduleAtFixedRate("VisionFilter Publisher",
+				() -> Safe.run(this::publish), 0, (long) (publishDt * 1e9));
+	}
+
+
+	/**
+	 * Stop publishing with a fixed rate and publish after each camera frame again.
+	 */
+	public void stopPublisher()
+	{
+		if (publishTask != null)
+		{
+			publishTask.cancel();
+			publishTask = null;
+		}
+	}
+
+
 	@Override
 	protected void stop()
 	{
 		super.stop();
-		if (publisherExecutor != null)
-		{
-			publisherExecutor.shutdown();
-			publisherExecutor = null;
-		}
+		stopPublisher();
 		cams.clear();
 		viewportArchitect.removeObserver(this);
 		ballFilterPreprocessor.removeObserver(this);
@@ -369,6 +390,16 @@ public class VisionFilterImpl extends AVisionFilter
 	}
 
 
+	/**
+	 * @param consumer receives the model identification tasks of all finished kicks instead of solving them inline
+	 * @see BallFilterPreprocessor#setModelIdentTaskConsumer(Consumer)
+	 */
+	public void setModelIdentTaskConsumer(final Consumer<BallModelIdentTask> consumer)
+	{
+		ballFilterPreprocessor.setModelIdentTaskConsumer(consumer);
+	}
+
+
 	@Override
 	public void onClearCamFrame()
 	{
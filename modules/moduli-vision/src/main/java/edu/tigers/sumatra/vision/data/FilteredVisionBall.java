@@ -4,6 +4,7 @@
 
 package edu.tigers.sumatra.vision.data;
 
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.math.vector.IVector3;
 import lombok.Builder;
@@ -129,6 +130,28 @@ public class FilteredVisionBall implements IExportable
 	}
 
 
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(timestamp);
+		IVector3 pos = getPos();
+		writer.writeDouble(pos.x());
+		writer.writeDouble(pos.y());
+		writer.writeDouble(pos.z());
+		IVector3 vel = getVel();
+		writer.writeDouble(vel.x() * 1e-3);
+		writer.writeDouble(vel.y() * 1e-3);
+		writer.writeDouble(vel.z() * 1e-3);
+		IVector3 acc = getAcc();
+		writer.writeDouble(acc.x() * 1e-3);
+		writer.writeDouble(acc.y() * 1e-3);
+		writer.writeDouble(acc.z() * 1e-3);
+		writer.writeLong(lastVisibleTimestamp);
+		writer.writeDouble(getVSwitch());
+		writer.writeLong(isChipped() ? 1 : 0);
+	}
+
+
 	@Override
 	public List<String> getHeaders()
 	{
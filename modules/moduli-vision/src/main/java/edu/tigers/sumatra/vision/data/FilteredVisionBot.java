@@ -6,6 +6,7 @@ package edu.tigers.sumatra.vision.data;
 
 import edu.tigers.sumatra.bot.BotState;
 import edu.tigers.sumatra.bot.State;
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.math.AngleMath;
@@ -113,6 +114,25 @@ public class FilteredVisionBot implements IExportable
 	}
 
 
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(botID.getNumber());
+		writer.writeLong(botID.getTeamColor().getId());
+		writer.writeLong(timestamp);
+		writer.writeDouble(pos.x());
+		writer.writeDouble(pos.y());
+		writer.writeDouble(orientation);
+		writer.writeDouble(vel.x());
+		writer.writeDouble(vel.y());
+		writer.writeDouble(angularVel);
+		writer.writeDouble(0);
+		writer.writeDouble(0);
+		writer.writeDouble(0);
+		writer.writeDouble(getQuality());
+	}
+
+
 	@Override
 	public List<String> getHeaders()
 	{
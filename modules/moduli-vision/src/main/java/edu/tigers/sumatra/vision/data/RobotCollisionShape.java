@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.data;
 
@@ -34,6 +34,13 @@ public class RobotCollisionShape
 	private final double maxCircleLoss;
 	private final double maxFrontLoss;
 	
+	private final double dirX;
+	private final double dirY;
+	private final double minX;
+	private final double minY;
+	private final double maxX;
+	private final double maxY;
+	
 	
 	/**
 	 * @param pos
@@ -53,6 +60,171 @@ public class RobotCollisionShape
 		this.center2Dribbler = center2Dribbler;
 		this.maxCircleLoss = maxCircleLoss;
 		this.maxFrontLoss = maxFrontLoss;
+		
+		dirX = SumatraMath.cos(orient);
+		dirY = SumatraMath.sin(orient);
+		double extent = radius + Geometry.getBallRadius();
+		minX = pos.x() - extent;
+		minY = pos.y() - extent;
+		maxX = pos.x() + extent;
+		maxY = pos.y() + extent;
+	}
+	
+	
+	/**
+	 * Check if the bounding box of this shape, enlarged by the ball radius, overlaps the given box.
+	 * This is a cheap test to skip distant robots before {@link #sweep}.
+	 * 
+	 * @param boxMinX [mm]
+	 * @param boxMinY [mm]
+	 * @param boxMaxX [mm]
+	 * @param boxMaxY [mm]
+	 * @return true, if the boxes overlap
+	 */
+	public boolean overlapsBoundingBox(final double boxMinX, final double boxMinY, final double boxMaxX,
+			final double boxMaxY)
+	{
+		return boxMinX <= maxX && boxMaxX >= minX && boxMinY <= maxY && boxMaxY >= minY;
+	}
+	
+	
+	/**
+	 * Sweep the ball with a constant velocity over a time step and find the first contact with this robot.
+	 * <p>
+	 * The ball is treated as a point against the robot shape enlarged by the ball radius, which is the intersection of
+	 * the hull circle and the half plane behind the dribbler. The ball collides, if it enters this shape within the
+	 * time step, or if its center already is inside the robot at the start (like in {@link #getCollision}).
+	 * The reflection at the contact point is the same as in {@link #getCollision}.
+	 * 
+	 * @param ballX ball position at the start of the step [mm]
+	 * @param ballY ball position at the start of the step [mm]
+	 * @param ballVelX ball velocity [mm/s]
+	 * @param ballVelY ball velocity [mm/s]
+	 * @param dt duration of the step [s]
+	 * @param result the result, filled if there is a collision
+	 * @return true, if the ball collides with this robot
+	 */
+	public boolean sweep(final double ballX, final double ballY, final double ballVelX, final double ballVelY,
+			final double dt, final SweptCollision result)
+	{
+		final double ballRadius = Geometry.getBallRadius();
+		final double wX = ballX - pos.x();
+		final double wY = ballY - pos.y();
+		final double dist2 = (wX * wX) + (wY * wY);
+		final double distFront = (wX * dirX) + (wY * dirY);
+		final boolean inside = dist2 <= (radius * radius) && distFront <= center2Dribbler;
+		
+		double vX = ballVelX;
+		double vY = ballVelY;
+		double speed2 = (vX * vX) + (vY * vY);
+		if (inside && speed2 < 100)
+		{
+			// ball very slow, generate an inbound vel from the nearest point outside of the hull
+			double dist = SumatraMath.sqrt(dist2);
+			if (dist < 1e-6)
+			{
+				vX = -dirX;
+				vY = -dirY;
+			} else
+			{
+				double scale = 1 - ((radius + ballRadius) / dist);
+				vX = wX * scale;
+				vY = wY * scale;
+			}
+			speed2 = (vX * vX) + (vY * vY);
+		}
+		if (speed2 < 1e-12)
+		{
+			if (inside)
+			{
+				result.set(0, ECollisionLocation.CIRCLE);
+				return true;
+			}
+			return false;
+		}
+		
+		// entry and exit time of the line into the hull circle
+		final double hullRadius = radius + ballRadius;
+		final double b = (wX * vX) + (wY * vY);
+		final double c = dist2 - (hullRadius * hullRadius);
+		final double discriminant = (b * b) - (speed2 * c);
+		if (discriminant < 0)
+		{
+			return false;
+		}
+		final double root = SumatraMath.sqrt(discriminant);
+		final double tInCircle = (-b - root) / speed2;
+		final double tOutCircle = (-b + root) / speed2;
+		
+		// entry and exit time of the line into the half plane behind the dribbler
+		final double frontDist = distFront - (center2Dribbler + ballRadius);
+		final double frontVel = (vX * dirX) + (vY * dirY);
+		double tInFront = Double.NEGATIVE_INFINITY;
+		double tOutFront = Double.POSITIVE_INFINITY;
+		if (frontVel > 0)
+		{
+			tOutFront = -frontDist / frontVel;
+		} else if (frontVel < 0)
+		{
+			tInFront = -frontDist / frontVel;
+		} else if (frontDist > 0)
+		{
+			return false;
+		}
+		
+		final double tIn = Math.max(tInCircle, tInFront);
+		final double tOut = Math.min(tOutCircle, tOutFront);
+		if (tIn > tOut)
+		{
+			return false;
+		}
+		
+		final double tContact;
+		if (tIn >= 0 && tIn <= dt && !inside)
+		{
+			tContact = tIn;
+		} else if (inside)
+		{
+			// already inside, trace back to where the ball entered
+			tContact = 0;
+		} else
+		{
+			return false;
+		}
+		
+		final double speed = SumatraMath.sqrt(speed2);
+		final double normalX;
+		final double normalY;
+		final double loss;
+		final ECollisionLocation location;
+		if (tInFront >= tInCircle)
+		{
+			normalX = dirX;
+			normalY = dirY;
+			loss = maxFrontLoss;
+			location = ECollisionLocation.FRONT;
+		} else
+		{
+			normalX = (wX + (vX * tIn)) / hullRadius;
+			normalY = (wY + (vY * tIn)) / hullRadius;
+			loss = maxCircleLoss;
+			location = ECollisionLocation.CIRCLE;
+		}
+		
+		final double inboundVel = -((vX * normalX) + (vY * normalY));
+		if (inboundVel <= 0)
+		{
+			// ball is rolling away from robot => no real collision with reflection
+			result.set(tContact, ECollisionLocation.CIRCLE);
+			return true;
+		}
+		
+		final double outVelAbs = speed - (inboundVel * loss);
+		final double reflectedX = vX + (2 * inboundVel * normalX);
+		final double reflectedY = vY + (2 * inboundVel * normalY);
+		final double scale = outVelAbs / speed;
+		result.set(tContact, location, reflectedX * scale, reflectedY * scale);
+		return true;
 	}
 	
 	
@@ -173,6 +345,94 @@ public class RobotCollisionShape
 		}
 	}
 	
+	/**
+	 * Mutable result of {@link #sweep}, so that it can be reused for each prediction.
+	 */
+	public static class SweptCollision
+	{
+		private double time;
+		private ECollisionLocation location = ECollisionLocation.NONE;
+		private boolean reflected;
+		private double reflectedVelX;
+		private double reflectedVelY;
+		
+		
+		private void set(final double time, final ECollisionLocation location)
+		{
+			this.time = time;
+			this.location = location;
+			reflected = false;
+			reflectedVelX = 0;
+			reflectedVelY = 0;
+		}
+		
+		
+		private void set(final double time, final ECollisionLocation location, final double reflectedVelX,
+				final double reflectedVelY)
+		{
+			this.time = time;
+			this.location = location;
+			reflected = true;
+			this.reflectedVelX = reflectedVelX;
+			this.reflectedVelY = reflectedVelY;
+		}
+		
+		
+		/**
+		 * @param other the collision to copy
+		 */
+		public void copy(final SweptCollision other)
+		{
+			time = other.time;
+			location = other.location;
+			reflected = other.reflected;
+			reflectedVelX = other.reflectedVelX;
+			reflectedVelY = other.reflectedVelY;
+		}
+		
+		
+		/**
+		 * @return the time of the contact after the start of the step [s]
+		 */
+		public double getTime()
+		{
+			return time;
+		}
+		
+		
+		public ECollisionLocation getLocation()
+		{
+			return location;
+		}
+		
+		
+		/**
+		 * @return true, if the ball is reflected
+		 */
+		public boolean isReflected()
+		{
+			return reflected;
+		}
+		
+		
+		/**
+		 * @return the reflected ball velocity [mm/s]
+		 */
+		public double getReflectedVelX()
+		{
+			return reflectedVelX;
+		}
+		
+		
+		/**
+		 * @return the reflected ball velocity [mm/s]
+		 */
+		public double getReflectedVelY()
+		{
+			return reflectedVelY;
+		}
+	}
+	
 	/**
 	 * Collision location.
 	 */
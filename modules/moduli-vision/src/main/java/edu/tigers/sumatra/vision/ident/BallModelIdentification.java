@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.ident;
+
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import edu.tigers.sumatra.vision.VisionFilterImpl;
+import edu.tigers.sumatra.vision.kick.estimators.BallModelIdentTask;
+import edu.tigers.sumatra.vision.kick.estimators.EBallModelIdentType;
+import edu.tigers.sumatra.vision.kick.estimators.IBallModelIdentResult;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+/**
+ * Offline ball model identification over recorded camera frames.
+ * <p>
+ * The camera frames are passed through a {@link VisionFilterImpl} in capture order, which detects and segments
+ * the kicks. The identification solver of each finished kick runs on a worker pool, so that segmentation of the
+ * following frames and solving of all kicks so far happen in parallel. In contrast to the live identification, the
+ * vision filter does not wait for the solver.
+ */
+@Log4j2
+public class BallModelIdentification
+{
+	private final VisionFilterImpl visionFilter = new VisionFilterImpl();
+	private final ExecutorService executor;
+	private final List<Future<Optional<IBallModelIdentResult>>> futures = new ArrayList<>();
+	private final Map<EBallModelIdentType, Integer> numKicks = new EnumMap<>(EBallModelIdentType.class);
+	private final long tStart = System.nanoTime();
+	private long numFrames = 0;
+
+
+	/**
+	 * Create an identification with one worker per core
+	 */
+	public BallModelIdentification()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * @param numThreads number of parallel solvers
+	 */
+	public BallModelIdentification(final int numThreads)
+	{
+		executor = Executors.newFixedThreadPool(numThreads, new NamedThreadFactory("BallModelIdent"));
+		visionFilter.setModelIdentTaskConsumer(this::submit);
+	}
+
+
+	/**
+	 * Start a new recording. The state of the vision filter is cleared, as the frames of the previous recording
+	 * are not related to the next ones.
+	 */
+	public void startRecording()
+	{
+		visionFilter.onClearCamFrame();
+	}
+
+
+	/**
+	 * Add the next camera frame. Frames must be added in order of their capture time.
+	 *
+	 * @param camFrame the next camera frame
+	 */
+	public void add(final CamDetectionFrame camFrame)
+	{
+		visionFilter.onNewCamDetectionFrame(camFrame);
+		numFrames++;
+	}
+
+
+	private void submit(final BallModelIdentTask task)
+	{
+		numKicks.merge(task.getType(), 1, Integer::sum);
+		futures.add(executor.submit(task::solve));
+	}
+
+
+	/**
+	 * Wait for all solvers and aggregate their results.
+	 * No more frames must be added afterwards.
+	 *
+	 * @return the aggregated result
+	 */
+	public Result finish()
+	{
+		executor.shutdown();
+		long tSegmented = System.nanoTime();
+
+		Map<EBallModelIdentType, Integer> numIdentified = new EnumMap<>(EBallModelIdentType.class);
+		Map<EBallModelIdentType, Map<String, List<Double>>> samples = new EnumMap<>(EBallModelIdentType.class);
+		for (Future<Optional<IBallModelIdentResult>> future : futures)
+		{
+			Optional<IBallModelIdentResult> result = getResult(future);
+			if (result.isEmpty())
+			{
+				continue;
+			}
+			EBallModelIdentType type = result.get().getType();
+			numIdentified.merge(type, 1, Integer::sum);
+			Map<String, List<Double>> typeSamples = samples.computeIfAbsent(type, t -> new LinkedHashMap<>());
+			result.get().getModelParameters()
+					.forEach((name, value) -> typeSamples.computeIfAbsent(name, n -> new ArrayList<>()).add(value));
+		}
+		long tEnd = System.nanoTime();
+
+		List<BallParameterEstimate> estimates = new ArrayList<>();
+		samples.forEach((type, typeSamples) -> {
+			for (String name : type.getParameterNames())
+			{
+				List<Double> values = typeSamples.get(name);
+				if (values != null)
+				{
+					estimates.add(BallParameterEstimate.fromSamples(type, name, values));
+				}
+			}
+		});
+
+		Result result = new Result(numFrames, numKicks, numIdentified, estimates,
+				(tSegmented - tStart) * 1e-9, (tEnd - tStart) * 1e-9);
+		log.info("Identified {} of {} kicks from {} frames in {}s ({} kicks/s)",
+				result.getNumIdentifiedTotal(), result.getNumKicksTotal(), numFrames,
+				String.format("%.1f", result.getDuration()), String.format("%.1f", result.getKicksPerSecond()));
+		return result;
+	}
+
+
+	private Optional<IBallModelIdentResult> getResult(final Future<Optional<IBallModelIdentResult>> future)
+	{
+		try
+		{
+			return future.get();
+		} catch (ExecutionException e)
+		{
+			log.warn("Model identification of a kick failed", e);
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			executor.shutdownNow();
+		}
+		return Optional.empty();
+	}
+
+
+	/**
+	 * The aggregated result of an identification run
+	 */
+	@Value
+	public static class Result
+	{
+		long numFrames;
+		/** number of segmented kicks per model */
+		Map<EBallModelIdentType, Integer> numKicks;
+		/** number of kicks per model for which the solver found a solution */
+		Map<EBallModelIdentType, Integer> numIdentified;
+		List<BallParameterEstimate> estimates;
+		/** time until all frames were segmented [s] */
+		double segmentationDuration;
+		/** total time until all kicks were solved [s] */
+		double duration;
+
+
+		/**
+		 * @return the number of segmented kicks of all models
+		 */
+		public int getNumKicksTotal()
+		{
+			return numKicks.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+
+		/**
+		 * @return the number of identified kicks of all models
+		 */
+		public int getNumIdentifiedTotal()
+		{
+			return numIdentified.values().stream().mapToInt(Integer::intValue).sum();
+		}
+
+
+		/**
+		 * @return the throughput of segmentation and identification [kicks/s]
+		 */
+		public double getKicksPerSecond()
+		{
+			return duration > 0 ? getNumKicksTotal() / duration : 0;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.ident;
+
+import edu.tigers.sumatra.geometry.BallParameters;
+import edu.tigers.sumatra.vision.kick.estimators.EBallModelIdentType;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+
+/**
+ * Robust estimate of a single ball model parameter from the identification results of many kicks.
+ * <p>
+ * The estimate is the median of all samples. Its 95% confidence interval is taken from the order statistics
+ * of the samples, so it does not assume a distribution and is not affected by a few failed fits.
+ */
+@Value
+public class BallParameterEstimate
+{
+	/** names of the {@link BallParameters} fields, indexed by the parameter name of the identification results */
+	private static final Map<String, String> BALL_PARAMETER_NAMES = Map.of(
+			"accSlide", "accSlide",
+			"accRoll", "accRoll",
+			"kSwitch", "kSwitch",
+			"dampXYFirst", "chipDampingXYFirstHop",
+			"dampXYOther", "chipDampingXYOtherHops",
+			"dampZ", "chipDampingZ"
+	);
+	/** two-sided 95% quantile of the normal distribution */
+	private static final double Z_95 = 1.96;
+	/** scales the median absolute deviation to the standard deviation of a normal distribution */
+	private static final double MAD_SCALE = 1.4826;
+
+	EBallModelIdentType type;
+	/** parameter name of the identification results */
+	String name;
+	int numSamples;
+	double median;
+	/** lower bound of the 95% confidence interval of the median */
+	double lower;
+	/** upper bound of the 95% confidence interval of the median */
+	double upper;
+	/** median absolute deviation, scaled to be comparable to a standard deviation */
+	double mad;
+
+
+	/**
+	 * @param type    the identified model
+	 * @param name    the parameter name of the identification results
+	 * @param samples the identified values of all kicks, must not be empty
+	 * @return the estimate of the parameter
+	 */
+	public static BallParameterEstimate fromSamples(final EBallModelIdentType type, final String name,
+			final Collection<Double> samples)
+	{
+		if (samples.isEmpty())
+		{
+			throw new IllegalArgumentException("No samples for " + name);
+		}
+		double[] sorted = samples.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+		int n = sorted.length;
+		double median = median(sorted);
+
+		double[] deviations = Arrays.stream(sorted).map(v -> Math.abs(v - median)).sorted().toArray();
+		double mad = median(deviations) * MAD_SCALE;
+
+		double halfWidth = Z_95 * Math.sqrt(n) / 2;
+		int lowerIdx = (int) Math.max(0, Math.round(n / 2.0 - halfWidth) - 1);
+		int upperIdx = (int) Math.min(n - 1, Math.round(1 + n / 2.0 + halfWidth) - 1);
+
+		return new BallParameterEstimate(type, name, n, median, sorted[lowerIdx], sorted[upperIdx], mad);
+	}
+
+
+	private static double median(final double[] sorted)
+	{
+		int n = sorted.length;
+		if (n % 2 == 1)
+		{
+			return sorted[n / 2];
+		}
+		return (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+	}
+
+
+	/**
+	 * @return the name of the corresponding field in {@link BallParameters} or the parameter name, if there is none
+	 */
+	public String getBallParameterName()
+	{
+		return BALL_PARAMETER_NAMES.getOrDefault(name, name);
+	}
+
+
+	@Override
+	public String toString()
+	{
+		return String.format("%s = %.4f (95%% CI [%.4f, %.4f], MAD %.4f, n=%d)",
+				getBallParameterName(), median, lower, upper, mad, numSamples);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.detectors;
 
@@ -68,8 +68,7 @@ public class EarlyKickDetector implements IKickDetector
 		}
 
 		int camId = camBall.get().getCameraId();
-		camBallMap.putIfAbsent(camId, new LinkedList<>());
-		LinkedList<MergedBall> camBallList = camBallMap.get(camId);
+		LinkedList<MergedBall> camBallList = camBallMap.computeIfAbsent(camId, id -> new LinkedList<>());
 
 		if (!camBallList.isEmpty())
 		{
@@ -129,16 +128,6 @@ public class EarlyKickDetector implements IKickDetector
 		CamBall ball1 = balls.get(1).getLatestCamBall().get();
 		CamBall ball2 = balls.get(2).getLatestCamBall().get();
 
-		long numNearRobots = mergedRobots.stream()
-				.filter(b -> b.getPos().distanceTo(ball0.getPos().getXYVector()) < nearBotLimit)
-				.count();
-
-		if (numNearRobots == 0)
-		{
-			// no kicking robot nearby :(
-			return false;
-		}
-
 		double t0 = (ball0.gettCapture() * 1e-9);
 		double t1 = (ball1.gettCapture() * 1e-9);
 		double t2 = (ball2.gettCapture() * 1e-9);
@@ -156,16 +145,32 @@ public class EarlyKickDetector implements IKickDetector
 			return false;
 		}
 
-		// trigger on velocity jump
-		if ((vel2.getLength2() - vel1.getLength2()) > velocityThreshold)
+		// trigger on velocity jump or on large vel AND direction jump
+		boolean velocityJump = (vel2.getLength2() - vel1.getLength2()) > velocityThreshold;
+		boolean directionJump = (vel1.getLength2() > velocityThresholdDirection)
+				&& (vel2.getLength2() > velocityThresholdDirection)
+				&& (vel1.angleToAbs(vel2).orElse(0.0) > AngleMath.deg2rad(directionThreshold));
+		if (!velocityJump && !directionJump)
 		{
-			return true;
+			return false;
 		}
 
-		// trigger on large vel AND direction jump
-		return (vel1.getLength2() > velocityThresholdDirection) && (vel2.getLength2() > velocityThresholdDirection)
-				&& (vel1.angleToAbs(vel2).orElse(0.0) > AngleMath.deg2rad(directionThreshold));
+		// the robots are only checked if the ball looks like a kick, as this is rare
+		return isRobotNear(ball0.getPos().getXYVector(), mergedRobots);
+	}
+
 
+	private boolean isRobotNear(final IVector2 pos, final List<FilteredVisionBot> mergedRobots)
+	{
+		for (FilteredVisionBot bot : mergedRobots)
+		{
+			if (bot.getPos().distanceTo(pos) < nearBotLimit)
+			{
+				return true;
+			}
+		}
+		// no kicking robot nearby :(
+		return false;
 	}
 
 
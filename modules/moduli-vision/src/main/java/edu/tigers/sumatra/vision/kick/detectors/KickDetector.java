@@ -1,60 +1,68 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.detectors;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
-import edu.tigers.sumatra.drawable.DrawableAnnotation;
 import edu.tigers.sumatra.drawable.IDrawableShape;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.math.vector.IVector2;
-import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
 import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.data.FrameRecord;
 import edu.tigers.sumatra.vision.data.KickEvent;
+import edu.tigers.sumatra.vision.kick.validators.BallWindow;
 import edu.tigers.sumatra.vision.kick.validators.DirectionValidator;
 import edu.tigers.sumatra.vision.kick.validators.DistanceValidator;
 import edu.tigers.sumatra.vision.kick.validators.IKickValidator;
 import edu.tigers.sumatra.vision.kick.validators.InFrontValidator;
 import edu.tigers.sumatra.vision.kick.validators.IncreasingDistanceValidator;
+import edu.tigers.sumatra.vision.kick.validators.RobotWindow;
 import edu.tigers.sumatra.vision.kick.validators.VelocityValidator;
 import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
-import org.apache.commons.lang.Validate;
 import org.apache.commons.math3.util.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.awt.Color;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 
 /**
  * Detect kicks based on velocity and direction changes.
+ * <p>
+ * The balls and the states of each robot are kept in rolling windows, which are updated with each new ball.
+ * Only robots that are known for the whole window and are near the ball are checked by the validators.
  */
 public class KickDetector implements IKickDetector
 {
 	private static final Logger log = LogManager.getLogger(KickDetector.class.getName());
 
-	private LinkedList<FrameRecord> frameHistory = new LinkedList<>();
-
 	private static int frameHistorySize = 5;
 
+	private final BallWindow balls = new BallWindow(frameHistorySize);
+	private final Map<BotID, RobotWindow> robots = new HashMap<>();
+
 	private long lastKickTimestamp;
 
-	private List<IKickValidator> kickValidators = new ArrayList<>();
-	private String lastKVText = "";
+	private final IKickValidator[] kickValidators;
+	private final String[] kickValidatorNames;
 	private IVector2 lastKnownBallPosition = Vector2f.ZERO_VECTOR;
 
+	/** bots checked in the last frame together with their validation results, one bit per validator */
+	private BotID[] checkedBots = new BotID[8];
+	private int[] checkedResults = new int[8];
+	private int numCheckedBots = 0;
+
 	@Configurable(defValue = "0.1", comment = "Minimum time between two kicks [s]")
 	private static double minDeltaTime = 0.1;
 
+	@Configurable(defValue = "1000.0", comment = "Only bots within this distance to the first ball are checked [mm]")
+	private static double maxBotDistance = 1000.0;
+
 	static
 	{
 		ConfigRegistration.registerClass("vision", KickDetector.class);
@@ -66,10 +74,15 @@ public class KickDetector implements IKickDetector
 	 */
 	public KickDetector()
 	{
-		kickValidators.add(new DistanceValidator());
-		kickValidators.add(new VelocityValidator());
-		kickValidators.add(new InFrontValidator());
-		kickValidators.add(new IncreasingDistanceValidator());
+		kickValidators = new IKickValidator[] {
+				new DistanceValidator(),
+				new VelocityValidator(),
+				new InFrontValidator(),
+				new IncreasingDistanceValidator()
+		};
+		kickValidatorNames = Arrays.stream(kickValidators)
+				.map(IKickValidator::getName)
+				.toArray(String[]::new);
 	}
 
 
@@ -84,23 +97,24 @@ public class KickDetector implements IKickDetector
 	{
 		lastKnownBallPosition = mergedBall.getCamPos();
 
-		boolean isVirtualBall = mergedBall.getLatestCamBall().map(b -> b.getConfidence() < 0.1).orElse(false);
+		boolean isVirtualBall = mergedBall.getLatestCamBall().map(b -> b.getConfidence() < 0.1).orElse(true);
 		if (isVirtualBall)
 		{
 			return null;
 		}
 
-		FrameRecord rec = new FrameRecord(mergedBall, mergedRobots);
-		frameHistory.add(rec);
-
-		if (frameHistory.size() > frameHistorySize)
+		balls.add(mergedBall);
+		for (FilteredVisionBot bot : mergedRobots)
 		{
-			frameHistory.remove();
+			robots.computeIfAbsent(bot.getBotID(), id -> new RobotWindow(frameHistorySize)).add(bot, balls);
 		}
+		// bots that are missing in this frame need to start over anyway
+		robots.values().removeIf(w -> w.getSequence() != balls.getSequence());
 
-		if (frameHistory.size() == frameHistorySize)
+		numCheckedBots = 0;
+		if (balls.isFull())
 		{
-			return processFrames();
+			return processFrame(mergedRobots);
 		}
 
 		return null;
@@ -114,76 +128,61 @@ public class KickDetector implements IKickDetector
 	public void reset()
 	{
 		lastKickTimestamp = 0;
-		frameHistory.clear();
+		balls.clear();
+		robots.clear();
+		numCheckedBots = 0;
 	}
 
 
-	private KickEvent processFrames()
+	private KickEvent processFrame(final List<FilteredVisionBot> mergedRobots)
 	{
-		List<MergedBall> balls = frameHistory.stream()
-				.map(FrameRecord::getBall)
-				.collect(Collectors.toList());
-
-		Map<BotID, List<FilteredVisionBot>> bots = frameHistory.stream()
-				.flatMap(f -> f.getRobots().stream())
-				.collect(Collectors.groupingBy(FilteredVisionBot::getBotID));
-
-		// remove bots from checklist if no full history is available (new bot)
-		bots.entrySet().removeIf(e -> e.getValue().size() < frameHistorySize);
-
-		// remove bots from checklist which are too far away
-		bots.entrySet().removeIf(e -> e.getValue().get(0).getPos().distanceTo(balls.get(0).getCamPos()) > 1000);
+		double firstBallX = balls.getCamPosX(0);
+		double firstBallY = balls.getCamPosY(0);
 
-		lastKVText = "";
-
-		StringBuilder kvText = new StringBuilder();
-
-		List<FilteredVisionBot> kickedBot = null;
-		for (List<FilteredVisionBot> b : bots.values())
+		RobotWindow kickedBot = null;
+		for (FilteredVisionBot current : mergedRobots)
 		{
-			Validate.isTrue(b.size() == balls.size());
-
-			boolean kick = true;
-			kvText.append("KV (" + b.get(0).getBotID() + "):");
-			for (IKickValidator k : kickValidators)
+			RobotWindow window = robots.get(current.getBotID());
+			if (!window.isAlignedWith(balls) || isTooFarAway(window.get(0), firstBallX, firstBallY))
 			{
-				boolean valid = k.validateKick(b, balls);
-				kvText.append(valid ? "+" : "-");
-				kvText.append(k.getName() + ",");
+				continue;
+			}
 
-				if (!valid)
+			int results = 0;
+			for (int i = 0; i < kickValidators.length; i++)
+			{
+				if (kickValidators[i].validateKick(balls, window))
 				{
-					kick = false;
+					results |= 1 << i;
 				}
 			}
+			addCheckedBot(current.getBotID(), results);
 
-			kvText.append("\n");
-
-			if (kick)
+			if (results == (1 << kickValidators.length) - 1)
 			{
-				kickedBot = b;
+				kickedBot = window;
 				break;
 			}
 		}
 
-		lastKVText = kvText.toString();
-
-		if ((kickedBot != null) && (Math.abs((balls.get(0).getTimestamp() - lastKickTimestamp) * 1e-9) > minDeltaTime))
+		MergedBall firstBall = balls.get(0);
+		if ((kickedBot != null) && (Math.abs((firstBall.getTimestamp() - lastKickTimestamp) * 1e-9) > minDeltaTime))
 		{
 			FilteredVisionBot bot = kickedBot.get(0);
 			log.debug("Kick detected, Bot: {}", bot.getBotID());
 
+			List<MergedBall> records = balls.toList();
 			KickEvent kick = KickEvent.builder()
 					.kickingBot(bot.getBotID())
-					.position(balls.get(0).getCamPos())
+					.position(firstBall.getCamPos())
 					.botDirection(bot.getOrientation())
-					.timestamp(balls.get(0).getTimestamp())
-					.recordsSinceKick(balls)
+					.timestamp(firstBall.getTimestamp())
+					.recordsSinceKick(records)
 					.isEarlyDetection(false)
 					.build();
-			lastKickTimestamp = balls.get(0).getTimestamp();
+			lastKickTimestamp = firstBall.getTimestamp();
 
-			Optional<Pair<Long, IVector2>> backtrack = DirectionValidator.backtrack(kickedBot, balls);
+			Optional<Pair<Long, IVector2>> backtrack = DirectionValidator.backtrack(kickedBot.toList(), records);
 			if (backtrack.isPresent())
 			{
 				log.debug("Backtrack possible");
@@ -192,7 +191,7 @@ public class KickDetector implements IKickDetector
 						.position(backtrack.get().getSecond())
 						.botDirection(bot.getOrientation())
 						.timestamp(backtrack.get().getFirst())
-						.recordsSinceKick(balls)
+						.recordsSinceKick(records)
 						.isEarlyDetection(false)
 						.build();
 				lastKickTimestamp = backtrack.get().getFirst();
@@ -205,18 +204,34 @@ public class KickDetector implements IKickDetector
 	}
 
 
-	@Override
-	public List<IDrawableShape> getDrawableShapes()
+	private boolean isTooFarAway(final FilteredVisionBot bot, final double ballX, final double ballY)
 	{
-		List<IDrawableShape> shapes = new ArrayList<>();
+		double dx = bot.getPos().x() - ballX;
+		double dy = bot.getPos().y() - ballY;
+		return ((dx * dx) + (dy * dy)) > (maxBotDistance * maxBotDistance);
+	}
+
+
+	private void addCheckedBot(final BotID botID, final int results)
+	{
+		if (numCheckedBots == checkedBots.length)
+		{
+			checkedBots = Arrays.copyOf(checkedBots, numCheckedBots * 2);
+			checkedResults = Arrays.copyOf(checkedResults, numCheckedBots * 2);
+		}
+		checkedBots[numCheckedBots] = botID;
+		checkedResults[numCheckedBots] = results;
+		numCheckedBots++;
+	}
 
-		DrawableAnnotation kvText = new DrawableAnnotation(lastKnownBallPosition, lastKVText);
-		kvText.withOffset(Vector2.fromXY(0, 30));
-		kvText.withCenterHorizontally(true);
-		kvText.withFontHeight(20);
-		kvText.setColor(Color.MAGENTA);
-		shapes.add(kvText);
 
-		return shapes;
+	/**
+	 * The validation text is only formatted when the shape is actually painted.
+	 */
+	@Override
+	public List<IDrawableShape> getDrawableShapes()
+	{
+		return List.of(new KickValidatorAnnotation(lastKnownBallPosition, kickValidatorNames,
+				Arrays.copyOf(checkedBots, numCheckedBots), Arrays.copyOf(checkedResults, numCheckedBots)));
 	}
 }
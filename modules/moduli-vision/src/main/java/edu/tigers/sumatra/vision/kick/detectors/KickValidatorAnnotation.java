@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.vision.kick.detectors;
+
+import edu.tigers.sumatra.drawable.DrawableAnnotation;
+import edu.tigers.sumatra.drawable.IDrawableShape;
+import edu.tigers.sumatra.drawable.IDrawableTool;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+
+/**
+ * Text with the kick validator results of each checked bot.
+ * The text is created on first paint, so it costs nothing as long as the shape layer is hidden.
+ */
+class KickValidatorAnnotation implements IDrawableShape
+{
+	private final IVector2 position;
+	private final String[] validatorNames;
+	private final BotID[] bots;
+	private final int[] results;
+
+	private DrawableAnnotation annotation;
+
+
+	/**
+	 * @param position       the ball position
+	 * @param validatorNames the names of the validators
+	 * @param bots           the checked bots
+	 * @param results        the validator results of each bot, one bit per validator
+	 */
+	KickValidatorAnnotation(final IVector2 position, final String[] validatorNames, final BotID[] bots,
+			final int[] results)
+	{
+		this.position = position;
+		this.validatorNames = validatorNames;
+		this.bots = bots;
+		this.results = results;
+	}
+
+
+	@Override
+	public void paintShape(final Graphics2D g, final IDrawableTool tool, final boolean invert)
+	{
+		if (annotation == null)
+		{
+			annotation = new DrawableAnnotation(position, getText());
+			annotation.withOffset(Vector2.fromXY(0, 30));
+			annotation.withCenterHorizontally(true);
+			annotation.withFontHeight(20);
+			annotation.setColor(Color.MAGENTA);
+		}
+		annotation.paintShape(g, tool, invert);
+	}
+
+
+	/**
+	 * @return the validation text, one line per bot
+	 */
+	String getText()
+	{
+		StringBuilder text = new StringBuilder();
+		for (int b = 0; b < bots.length; b++)
+		{
+			text.append("KV (").append(bots[b]).append("):");
+			for (int i = 0; i < validatorNames.length; i++)
+			{
+				text.append((results[b] & (1 << i)) != 0 ? "+" : "-");
+				text.append(validatorNames[i]).append(',');
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.kick.estimators;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+
+/**
+ * The model identification of a single kick.
+ * <p>
+ * The records of the kick are selected when the kick is done. The expensive solver only runs in {@link #solve()},
+ * which does not depend on the state of the kick estimator anymore and can be called later and on any thread.
+ */
+public class BallModelIdentTask
+{
+	private final EBallModelIdentType type;
+	private final List<CamBall> records;
+	private final Function<List<CamBall>, Optional<IBallModelIdentResult>> solver;
+
+
+	/**
+	 * @param type    the type of the identified model
+	 * @param records the cam balls of the kick
+	 * @param solver  the identification solver
+	 */
+	public BallModelIdentTask(final EBallModelIdentType type, final List<CamBall> records,
+			final Function<List<CamBall>, Optional<IBallModelIdentResult>> solver)
+	{
+		this.type = type;
+		this.records = Collections.unmodifiableList(records);
+		this.solver = solver;
+	}
+
+
+	/**
+	 * @return the type of the identified model
+	 */
+	public EBallModelIdentType getType()
+	{
+		return type;
+	}
+
+
+	/**
+	 * @return the cam balls of the kick
+	 */
+	public List<CamBall> getRecords()
+	{
+		return records;
+	}
+
+
+	/**
+	 * Run the identification solver.
+	 *
+	 * @return the identified model parameters, if the solver found a solution
+	 */
+	public Optional<IBallModelIdentResult> solve()
+	{
+		return solver.apply(records);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.estimators;
 
@@ -29,8 +29,6 @@ import edu.tigers.sumatra.vision.kick.estimators.chip.ChipKickSolverLin3Offset;
 import edu.tigers.sumatra.vision.kick.estimators.chip.ChipKickSolverLin5Offset;
 import edu.tigers.sumatra.vision.kick.estimators.chip.ChipKickSolverNonLin3Direct;
 import edu.tigers.sumatra.vision.kick.estimators.chip.ChipKickSolverNonLinIdentDirect;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import java.awt.Color;
 import java.util.ArrayList;
@@ -49,8 +47,6 @@ import java.util.stream.IntStream;
  */
 public class ChipKickEstimator implements IKickEstimator
 {
-	private static final Logger log = LogManager.getLogger(ChipKickEstimator.class.getName());
-
 	private final Map<Integer, CamCalibration> camCalib;
 	private final List<CamBall> records = new ArrayList<>();
 	private final List<CamBall> allRecords = new ArrayList<>();
@@ -340,7 +336,7 @@ public class ChipKickEstimator implements IKickEstimator
 
 
 	@Override
-	public Optional<IBallModelIdentResult> getModelIdentResult()
+	public Optional<BallModelIdentTask> getModelIdentTask()
 	{
 		if (allRecords.size() < 20)
 		{
@@ -364,17 +360,8 @@ public class ChipKickEstimator implements IKickEstimator
 		ChipKickSolverNonLinIdentDirect identSolver = new ChipKickSolverNonLinIdentDirect(
 				solverNonLin.getKickPosition(), solverNonLin.getKickTimestamp(), camCalib, fitResult.getKickVel());
 
-		Optional<IBallModelIdentResult> result = identSolver.identModel(usedRecords);
-		if (result.isPresent())
-		{
-			final String lineSeparator = System.lineSeparator();
-			log.info("Chip Model:{}{}", lineSeparator, result.get());
-		} else
-		{
-			log.info("Chip model identification failed.");
-		}
-
-		return result;
+		return Optional.of(new BallModelIdentTask(EBallModelIdentType.CHIP_FIXED_LOSS_PLUS_ROLLING, usedRecords,
+				identSolver::identModel));
 	}
 
 
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2016, DHBW Mannheim - Tigers Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.estimators;
 
@@ -59,9 +59,9 @@ public interface IKickEstimator
 	
 	
 	/**
-	 * Do model identification.
+	 * Prepare the model identification of a finished kick.
 	 * 
-	 * @return
+	 * @return the identification task, empty if the kick is not suited for identification
 	 */
-	Optional<IBallModelIdentResult> getModelIdentResult();
+	Optional<BallModelIdentTask> getModelIdentTask();
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.estimators;
 
@@ -17,8 +17,6 @@ import org.apache.commons.math3.linear.QRDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import org.apache.commons.math3.linear.SingularMatrixException;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
@@ -48,8 +46,6 @@ import edu.tigers.sumatra.vision.kick.estimators.straight.StraightKickSolverNonL
  */
 public class StraightKickEstimator implements IKickEstimator
 {
-	private static final Logger log = LogManager.getLogger(StraightKickEstimator.class.getName());
-
 	private final List<CamBall> records = new ArrayList<>();
 	private final List<CamBall> allRecords = new ArrayList<>();
 	private int pruneIndex = 1;
@@ -235,7 +231,7 @@ public class StraightKickEstimator implements IKickEstimator
 
 
 	@Override
-	public Optional<IBallModelIdentResult> getModelIdentResult()
+	public Optional<BallModelIdentTask> getModelIdentTask()
 	{
 		if (allRecords.size() < 20)
 		{
@@ -253,17 +249,8 @@ public class StraightKickEstimator implements IKickEstimator
 		// solve to estimate all parameters
 		StraightKickSolverNonLinIdentDirect identSolver = new StraightKickSolverNonLinIdentDirect();
 
-		Optional<IBallModelIdentResult> result = identSolver.identModel(usedRecords);
-		if (result.isPresent())
-		{
-			final String lineSeparator = System.lineSeparator();
-			log.info("Straight Model:{}{}", lineSeparator, result.get());
-		} else
-		{
-			log.info("Straight model identification failed.");
-		}
-
-		return result;
+		return Optional.of(new BallModelIdentTask(EBallModelIdentType.STRAIGHT_TWO_PHASE, usedRecords,
+				identSolver::identModel));
 	}
 
 
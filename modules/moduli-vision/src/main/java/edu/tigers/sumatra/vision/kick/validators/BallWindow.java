@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.vision.kick.validators;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Rolling window of the most recent merged balls that are checked for a kick.
+ * <p>
+ * The values that all validators need are extracted once when a ball is added, so that checking a robot does
+ * not need to read them from the merged balls again. Balls are indexed from the oldest (0) to the newest
+ * ({@link #size()} - 1). Each ball must have a latest cam ball.
+ */
+public class BallWindow
+{
+	private final int capacity;
+	private final MergedBall[] balls;
+	private final int[] cameraIds;
+	private final long[] captureTimes;
+	private final double[] camBallX;
+	private final double[] camBallY;
+	private final double[] camPosX;
+	private final double[] camPosY;
+	/** sequence number of the previous ball of the same camera, -1 if none */
+	private final long[] prevOfCamera;
+
+	private long sequence = -1;
+	private int size = 0;
+
+
+	/**
+	 * @param capacity the number of balls in a full window
+	 */
+	public BallWindow(final int capacity)
+	{
+		this.capacity = capacity;
+		balls = new MergedBall[capacity];
+		cameraIds = new int[capacity];
+		captureTimes = new long[capacity];
+		camBallX = new double[capacity];
+		camBallY = new double[capacity];
+		camPosX = new double[capacity];
+		camPosY = new double[capacity];
+		prevOfCamera = new long[capacity];
+	}
+
+
+	/**
+	 * Add the next ball and drop the oldest one, if the window is full.
+	 *
+	 * @param ball a merged ball with a latest cam ball
+	 */
+	public void add(final MergedBall ball)
+	{
+		CamBall camBall = ball.getLatestCamBall().orElseThrow(IllegalArgumentException::new);
+		int camId = camBall.getCameraId();
+		long prev = -1;
+		for (int i = size - 1; i >= 0; i--)
+		{
+			if (getCameraId(i) == camId)
+			{
+				prev = getSequence(i);
+				break;
+			}
+		}
+
+		sequence++;
+		size = Math.min(size + 1, capacity);
+		int slot = slot(sequence);
+		balls[slot] = ball;
+		cameraIds[slot] = camId;
+		captureTimes[slot] = camBall.gettCapture();
+		camBallX[slot] = camBall.getPos().x();
+		camBallY[slot] = camBall.getPos().y();
+		camPosX[slot] = ball.getCamPos().x();
+		camPosY[slot] = ball.getCamPos().y();
+		prevOfCamera[slot] = prev;
+	}
+
+
+	/**
+	 * Remove all balls. The sequence numbers keep increasing, so that they stay unique for this window.
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+
+
+	/**
+	 * @return the number of balls in the window
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+
+	/**
+	 * @return true, if the window contains the configured number of balls
+	 */
+	public boolean isFull()
+	{
+		return size == capacity;
+	}
+
+
+	/**
+	 * @return the sequence number of the newest ball, -1 if no ball was added yet
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the sequence number of the ball
+	 */
+	public long getSequence(final int i)
+	{
+		return sequence - size + 1 + i;
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the merged ball
+	 */
+	public MergedBall get(final int i)
+	{
+		return balls[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the camera id of the latest cam ball
+	 */
+	public int getCameraId(final int i)
+	{
+		return cameraIds[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the capture time of the latest cam ball [ns]
+	 */
+	public long getCaptureTime(final int i)
+	{
+		return captureTimes[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the x position of the latest cam ball [mm]
+	 */
+	public double getCamBallX(final int i)
+	{
+		return camBallX[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the y position of the latest cam ball [mm]
+	 */
+	public double getCamBallY(final int i)
+	{
+		return camBallY[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the x position of the merged ball [mm]
+	 */
+	public double getCamPosX(final int i)
+	{
+		return camPosX[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the y position of the merged ball [mm]
+	 */
+	public double getCamPosY(final int i)
+	{
+		return camPosY[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest ball
+	 * @return the index of the previous ball of the same camera within the window, -1 if there is none
+	 */
+	public int getPreviousOfCamera(final int i)
+	{
+		long prev = prevOfCamera[index(i)];
+		long first = getSequence(0);
+		return prev < first ? -1 : (int) (prev - first);
+	}
+
+
+	/**
+	 * @return a new list of all balls, from the oldest to the newest
+	 */
+	public List<MergedBall> toList()
+	{
+		List<MergedBall> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			list.add(get(i));
+		}
+		return list;
+	}
+
+
+	private int index(final int i)
+	{
+		return slot(getSequence(i));
+	}
+
+
+	private int slot(final long seq)
+	{
+		return (int) (seq % capacity);
+	}
+}
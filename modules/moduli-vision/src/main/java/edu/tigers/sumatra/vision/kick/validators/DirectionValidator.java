@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
@@ -53,11 +53,11 @@ public class DirectionValidator implements IKickValidator
 
 
 	@Override
-	public boolean validateKick(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	public boolean validateKick(final BallWindow balls, final RobotWindow bots)
 	{
 		FilteredVisionBot bot = bots.get(0);
 
-		Map<Integer, List<MergedBall>> groupedBalls = balls.stream()
+		Map<Integer, List<MergedBall>> groupedBalls = balls.toList().stream()
 				.collect(Collectors.groupingBy((final MergedBall b) -> b.getLatestCamBall().get().getCameraId()));
 
 		for (List<MergedBall> group : groupedBalls.values())
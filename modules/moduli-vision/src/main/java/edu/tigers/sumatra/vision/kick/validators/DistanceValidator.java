@@ -1,19 +1,10 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
-import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
-import org.apache.commons.math3.util.Pair;
-
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 
 /**
@@ -46,39 +37,34 @@ public class DistanceValidator implements IKickValidator
 
 
 	@Override
-	public boolean validateKick(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	public boolean validateKick(final BallWindow balls, final RobotWindow bot)
 	{
-		Map<Integer, List<Pair<MergedBall, FilteredVisionBot>>> dataById = new HashMap<>();
-
-		for (int i = 0; i < bots.size(); i++)
+		// check the samples of each camera separately, starting at the first sample of each camera
+		for (int first = 0; first < balls.size(); first++)
 		{
-			dataById.putIfAbsent(balls.get(i).getLatestCamBall().get().getCameraId(), new ArrayList<>());
-			dataById.get(balls.get(i).getLatestCamBall().get().getCameraId()).add(new Pair<>(balls.get(i), bots.get(i)));
-		}
-
-		for (List<Pair<MergedBall, FilteredVisionBot>> data : dataById.values())
-		{
-			List<Double> distances = data.stream()
-					.map(d -> d.getFirst().getLatestCamBall().get().getPos().getXYVector()
-							.distanceTo(d.getSecond().getPos()))
-					.collect(Collectors.toList());
-
-			boolean distantBall = false;
-			if (distances.stream().anyMatch(d -> d > atLeastOneBeyondDist))
+			if (balls.getPreviousOfCamera(first) >= 0)
 			{
-				distantBall = true;
+				continue;
 			}
 
-			if ((distances.get(0) < thresholdDist1)
-					&& distances.subList(1, distances.size()).stream().allMatch(d -> d > thresholdDist1)
-					&& distantBall)
+			int camId = balls.getCameraId(first);
+			double firstDist = bot.getBallDistance(first);
+			boolean distantBall = firstDist > atLeastOneBeyondDist;
+			boolean othersBeyond1 = true;
+			boolean othersBeyond2 = true;
+			for (int i = first + 1; i < balls.size(); i++)
 			{
-				return true;
+				if (balls.getCameraId(i) == camId)
+				{
+					double dist = bot.getBallDistance(i);
+					distantBall |= dist > atLeastOneBeyondDist;
+					othersBeyond1 &= dist > thresholdDist1;
+					othersBeyond2 &= dist > thresholdDist2;
+				}
 			}
 
-			if ((distances.get(0) < thresholdDist2)
-					&& distances.subList(1, distances.size()).stream().allMatch(d -> d > thresholdDist2)
-					&& distantBall)
+			if (distantBall
+					&& (((firstDist < thresholdDist1) && othersBeyond1) || ((firstDist < thresholdDist2) && othersBeyond2)))
 			{
 				return true;
 			}
@@ -1,13 +1,8 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - Tigers Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
-import java.util.List;
-
-import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
-
 
 /**
  * Check a single criterion for a kick.
@@ -26,10 +21,11 @@ public interface IKickValidator
 	
 	/**
 	 * Check the validator's condition.
+	 * The check should only use the values that are prepared by the windows, so that it is cheap for each robot.
 	 * 
-	 * @param bots Filtered bots
 	 * @param balls Most recent merged balls. Number of balls is set in KickDetector.
+	 * @param bot States of a single robot, aligned with the balls
 	 * @return true if the validator's condition for a kick is satisfied
 	 */
-	boolean validateKick(List<FilteredVisionBot> bots, List<MergedBall> balls);
+	boolean validateKick(BallWindow balls, RobotWindow bot);
 }
@@ -1,16 +1,11 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
-import edu.tigers.sumatra.math.line.Line;
-import edu.tigers.sumatra.math.vector.Vector2;
 import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
-
-import java.util.List;
 
 
 /**
@@ -40,30 +35,27 @@ public class InFrontValidator implements IKickValidator
 
 
 	@Override
-	public boolean validateKick(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	public boolean validateKick(final BallWindow balls, final RobotWindow bot)
 	{
-		FilteredVisionBot bot = bots.get(0);
-
-		Line orientLine = Line.fromDirection(bot.getPos(), Vector2.fromAngle(bot.getOrientation()));
+		FilteredVisionBot firstBot = bot.get(0);
+		double botX = firstBot.getPos().x();
+		double botY = firstBot.getPos().y();
+		double dirX = Math.cos(firstBot.getOrientation());
+		double dirY = Math.sin(firstBot.getOrientation());
 
-		for (MergedBall b : balls)
+		for (int i = 0; i < balls.size(); i++)
 		{
-			Vector2 leadPoint = orientLine.leadPointOf(b.getCamPos());
-
-			if (!orientLine.isPointInFront(leadPoint))
-			{
-				return false;
-			}
-
-			double distBotToLeadPoint = bot.getPos().distanceTo(leadPoint);
+			double relX = balls.getCamPosX(i) - botX;
+			double relY = balls.getCamPosY(i) - botY;
 
+			// distance of the lead point on the orientation line in front of the bot
+			double distBotToLeadPoint = (relX * dirX) + (relY * dirY);
 			if (distBotToLeadPoint < minDistanceInFront)
 			{
 				return false;
 			}
 
-			double distBallToLeadPoint = b.getCamPos().distanceTo(leadPoint);
-
+			double distBallToLeadPoint = Math.abs((relX * dirY) - (relY * dirX));
 			if (distBallToLeadPoint > (minDistanceOrthogonal + (distBotToLeadPoint - minDistanceInFront)))
 			{
 				return false;
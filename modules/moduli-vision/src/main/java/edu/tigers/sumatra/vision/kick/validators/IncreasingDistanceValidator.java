@@ -1,15 +1,9 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - Tigers Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
 import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
 
 
 /**
@@ -28,32 +22,35 @@ public class IncreasingDistanceValidator implements IKickValidator
 	
 	
 	@Override
-	public boolean validateKick(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	public boolean validateKick(final BallWindow balls, final RobotWindow bot)
 	{
-		FilteredVisionBot bot = bots.get(0);
-		
-		Map<Integer, List<MergedBall>> groupedBalls = balls.stream()
-				.collect(Collectors.groupingBy((final MergedBall b) -> b.getLatestCamBall().get().getCameraId()));
+		FilteredVisionBot firstBot = bot.get(0);
+		double botX = firstBot.getPos().x();
+		double botY = firstBot.getPos().y();
 		
-		for (List<MergedBall> group : groupedBalls.values())
+		for (int first = 0; first < balls.size(); first++)
 		{
-			final List<Double> distances1 = group.stream()
-					.map(ball -> ball.getLatestCamBall().get().getPos().getXYVector().distanceTo(bot.getPos()))
-					.collect(Collectors.toList());
-			
-			if (distances1.size() < 2)
+			if (balls.getPreviousOfCamera(first) >= 0)
 			{
 				continue;
 			}
 			
+			int camId = balls.getCameraId(first);
+			double lastDist = distance(balls, first, botX, botY);
+			int numBalls = 1;
 			boolean valid = true;
-			if (!IntStream.range(1, distances1.size())
-					.allMatch(i -> distances1.get(i) > distances1.get(i - 1)))
+			for (int i = first + 1; (i < balls.size()) && valid; i++)
 			{
-				valid = false;
+				if (balls.getCameraId(i) == camId)
+				{
+					double dist = distance(balls, i, botX, botY);
+					valid = dist > lastDist;
+					lastDist = dist;
+					numBalls++;
+				}
 			}
 			
-			if (valid)
+			if (valid && (numBalls >= 2))
 			{
 				return true;
 			}
@@ -61,4 +58,12 @@ public class IncreasingDistanceValidator implements IKickValidator
 		
 		return false;
 	}
+	
+	
+	private double distance(final BallWindow balls, final int i, final double botX, final double botY)
+	{
+		double dx = balls.getCamBallX(i) - botX;
+		double dy = balls.getCamBallY(i) - botY;
+		return Math.sqrt((dx * dx) + (dy * dy));
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.vision.kick.validators;
+
+import edu.tigers.sumatra.vision.data.FilteredVisionBot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Rolling window of the states of a single robot, aligned with a {@link BallWindow}.
+ * <p>
+ * The robot state is added together with each ball. If the robot is missing in a frame, its window starts over.
+ * The distance between robot and latest cam ball of each frame is calculated once when the frame is added.
+ */
+public class RobotWindow
+{
+	private final int capacity;
+	private final FilteredVisionBot[] bots;
+	private final double[] ballDistances;
+
+	private long sequence = -1;
+	private int size = 0;
+
+
+	/**
+	 * @param capacity the number of states in a full window, same as the ball window
+	 */
+	public RobotWindow(final int capacity)
+	{
+		this.capacity = capacity;
+		bots = new FilteredVisionBot[capacity];
+		ballDistances = new double[capacity];
+	}
+
+
+	/**
+	 * Add the robot state of the frame of the newest ball in the given window.
+	 *
+	 * @param bot   the robot state
+	 * @param balls the ball window, which already contains the ball of this frame
+	 */
+	public void add(final FilteredVisionBot bot, final BallWindow balls)
+	{
+		long ballSequence = balls.getSequence();
+		if (ballSequence != sequence + 1)
+		{
+			// robot was missing in between
+			size = 0;
+		}
+		sequence = ballSequence;
+		size = Math.min(size + 1, capacity);
+
+		int newest = balls.size() - 1;
+		int slot = slot(sequence);
+		bots[slot] = bot;
+		double dx = balls.getCamBallX(newest) - bot.getPos().x();
+		double dy = balls.getCamBallY(newest) - bot.getPos().y();
+		ballDistances[slot] = Math.sqrt((dx * dx) + (dy * dy));
+	}
+
+
+	/**
+	 * @param balls the ball window
+	 * @return true, if this window contains a robot state for each ball of the full ball window
+	 */
+	public boolean isAlignedWith(final BallWindow balls)
+	{
+		return balls.isFull() && size == capacity && sequence == balls.getSequence();
+	}
+
+
+	/**
+	 * @return the sequence number of the newest ball this robot was added with
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+
+	/**
+	 * @param i index from the oldest state
+	 * @return the robot state
+	 */
+	public FilteredVisionBot get(final int i)
+	{
+		return bots[index(i)];
+	}
+
+
+	/**
+	 * @param i index from the oldest state
+	 * @return the distance from the robot to the latest cam ball of the same frame [mm]
+	 */
+	public double getBallDistance(final int i)
+	{
+		return ballDistances[index(i)];
+	}
+
+
+	/**
+	 * @return a new list of all robot states, from the oldest to the newest
+	 */
+	public List<FilteredVisionBot> toList()
+	{
+		List<FilteredVisionBot> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			list.add(get(i));
+		}
+		return list;
+	}
+
+
+	private int index(final int i)
+	{
+		return slot(sequence - size + 1 + i);
+	}
+
+
+	private int slot(final long seq)
+	{
+		return (int) (seq % capacity);
+	}
+}
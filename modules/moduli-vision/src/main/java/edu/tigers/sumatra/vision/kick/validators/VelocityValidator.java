@@ -1,22 +1,16 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.kick.validators;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
-import edu.tigers.sumatra.cam.data.CamBall;
-import edu.tigers.sumatra.math.vector.IVector2;
-import edu.tigers.sumatra.vision.data.FilteredVisionBot;
-import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
-
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 
 /**
  * Check if raw camera balls all have a minimum distance.
+ * <p>
+ * The result does not depend on the robot, so it is only calculated once for each ball window.
  *
  * @author AndreR
  */
@@ -25,6 +19,9 @@ public class VelocityValidator implements IKickValidator
 	@Configurable(defValue = "600.0", comment = "Minimum required ball velocity [mm/s]")
 	private static double minVelocity = 600.0;
 
+	private long lastSequence = -1;
+	private boolean lastResult = false;
+
 	static
 	{
 		ConfigRegistration.registerClass("vision", VelocityValidator.class);
@@ -39,33 +36,34 @@ public class VelocityValidator implements IKickValidator
 
 
 	@Override
-	public boolean validateKick(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	public boolean validateKick(final BallWindow balls, final RobotWindow bot)
 	{
-		Map<Integer, List<MergedBall>> groupedBalls = balls.stream()
-				.collect(Collectors.groupingBy((final MergedBall b) -> b.getLatestCamBall().get().getCameraId()));
+		if (balls.getSequence() != lastSequence)
+		{
+			lastSequence = balls.getSequence();
+			lastResult = validateBalls(balls);
+		}
+		return lastResult;
+	}
+
 
-		for (List<MergedBall> group : groupedBalls.values())
+	private boolean validateBalls(final BallWindow balls)
+	{
+		// the balls of at least one camera must all be fast
+		for (int first = 0; first < balls.size(); first++)
 		{
-			boolean valid = true;
-			for (int i = 1; i < group.size(); i++)
+			if (balls.getPreviousOfCamera(first) >= 0)
 			{
-				CamBall bPrev = group.get(i - 1).getLatestCamBall().orElseThrow(IllegalStateException::new);
-				CamBall bNow = group.get(i).getLatestCamBall().orElseThrow(IllegalStateException::new);
-				long tPrev = bPrev.gettCapture();
-				long tNow = bNow.gettCapture();
-				IVector2 prev = bPrev.getFlatPos();
-				IVector2 now = bNow.getFlatPos();
-
-				if (tPrev == tNow)
-				{
-					continue;
-				}
-
-				double vel = prev.distanceTo(now) / ((tNow - tPrev) * 1e-9);
+				continue;
+			}
 
-				if (vel < minVelocity)
+			int camId = balls.getCameraId(first);
+			boolean valid = true;
+			for (int i = first + 1; (i < balls.size()) && valid; i++)
+			{
+				if (balls.getCameraId(i) == camId)
 				{
-					valid = false;
+					valid = !isSlow(balls, balls.getPreviousOfCamera(i), i);
 				}
 			}
 
@@ -77,4 +75,20 @@ public class VelocityValidator implements IKickValidator
 
 		return false;
 	}
+
+
+	private boolean isSlow(final BallWindow balls, final int prev, final int now)
+	{
+		long tPrev = balls.getCaptureTime(prev);
+		long tNow = balls.getCaptureTime(now);
+		if (tPrev == tNow)
+		{
+			return false;
+		}
+
+		double dx = balls.getCamBallX(now) - balls.getCamBallX(prev);
+		double dy = balls.getCamBallY(now) - balls.getCamBallY(prev);
+		double vel = Math.sqrt((dx * dx) + (dy * dy)) / ((tNow - tPrev) * 1e-9);
+		return vel < minVelocity;
+	}
 }
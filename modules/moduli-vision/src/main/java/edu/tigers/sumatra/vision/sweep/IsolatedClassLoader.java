@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.sweep;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * A child-first class loader that loads all classes with one of the given package prefixes itself.
+ * All other classes are delegated to the parent.
+ * <p>
+ * Each instance gets its own copy of the isolated classes and thus its own static state,
+ * including the static {@link com.github.g3force.configurable.Configurable} fields.
+ */
+@Log4j2
+class IsolatedClassLoader extends URLClassLoader
+{
+	static
+	{
+		registerAsParallelCapable();
+	}
+
+	private final List<String> isolatedPrefixes;
+
+
+	IsolatedClassLoader(final List<String> isolatedPrefixes, final ClassLoader parent)
+	{
+		super(classPathUrls(), parent);
+		this.isolatedPrefixes = isolatedPrefixes;
+	}
+
+
+	private static URL[] classPathUrls()
+	{
+		List<URL> urls = new ArrayList<>();
+		for (String entry : System.getProperty("java.class.path").split(File.pathSeparator))
+		{
+			try
+			{
+				urls.add(new File(entry).toURI().toURL());
+			} catch (MalformedURLException e)
+			{
+				log.warn("Invalid class path entry: {}", entry, e);
+			}
+		}
+		return urls.toArray(new URL[0]);
+	}
+
+
+	private boolean isIsolated(final String name)
+	{
+		return isolatedPrefixes.stream().anyMatch(name::startsWith);
+	}
+
+
+	@Override
+	protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException
+	{
+		if (!isIsolated(name))
+		{
+			return super.loadClass(name, resolve);
+		}
+		synchronized (getClassLoadingLock(name))
+		{
+			Class<?> c = findLoadedClass(name);
+			if (c == null)
+			{
+				c = findClass(name);
+			}
+			if (resolve)
+			{
+				resolveClass(c);
+			}
+			return c;
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.sweep;
+
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.vision.data.FilteredVisionBot;
+import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
+import edu.tigers.sumatra.vision.data.IKickEvent;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Objective quality metrics of a vision filter run, accumulated from its filtered frames.
+ * Smaller values are better for all metrics, except {@link #DETECTED_KICKS}.
+ */
+public class VisionFilterMetrics
+{
+	/** RMS deviation [mm] of the robot position from the constant velocity prediction of the previous frame */
+	public static final String ROBOT_JITTER = "robotJitter";
+	/** Number of times a robot disappeared from the filtered frames */
+	public static final String LOST_TRACKS = "lostTracks";
+	/** Average time [s] between the estimated kick timestamp and the first frame reporting the kick */
+	public static final String KICK_LATENCY = "kickLatency";
+	/** Number of detected kicks */
+	public static final String DETECTED_KICKS = "detectedKicks";
+
+	private Map<BotID, FilteredVisionBot> lastBots = new HashMap<>();
+	private long lastTimestamp = 0;
+	private double sumSqJitter = 0;
+	private long numJitterSamples = 0;
+	private long lostTracks = 0;
+	private long lastKickTimestamp = 0;
+	private double sumKickLatency = 0;
+	private long numKicks = 0;
+
+
+	/**
+	 * Add the next filtered frame
+	 *
+	 * @param frame a filtered frame
+	 */
+	public void add(final FilteredVisionFrame frame)
+	{
+		double dt = (frame.getTimestamp() - lastTimestamp) * 1e-9;
+		Map<BotID, FilteredVisionBot> bots = new HashMap<>();
+		for (FilteredVisionBot bot : frame.getBots())
+		{
+			bots.put(bot.getBotID(), bot);
+			FilteredVisionBot lastBot = lastBots.get(bot.getBotID());
+			if (lastBot != null && dt > 0)
+			{
+				IVector2 predicted = lastBot.getPos().addNew(lastBot.getVel().multiplyNew(dt * 1000));
+				sumSqJitter += predicted.distanceToSqr(bot.getPos());
+				numJitterSamples++;
+			}
+		}
+		lostTracks += lastBots.keySet().stream().filter(id -> !bots.containsKey(id)).count();
+
+		frame.getKickEvent().ifPresent(kickEvent -> addKickEvent(kickEvent, frame.getTimestamp()));
+
+		lastBots = bots;
+		lastTimestamp = frame.getTimestamp();
+	}
+
+
+	private void addKickEvent(final IKickEvent kickEvent, final long timestamp)
+	{
+		if (kickEvent.getTimestamp() != lastKickTimestamp)
+		{
+			lastKickTimestamp = kickEvent.getTimestamp();
+			sumKickLatency += (timestamp - kickEvent.getTimestamp()) * 1e-9;
+			numKicks++;
+		}
+	}
+
+
+	/**
+	 * @return all metrics by name
+	 */
+	public Map<String, Double> toMap()
+	{
+		Map<String, Double> metrics = new LinkedHashMap<>();
+		metrics.put(ROBOT_JITTER, numJitterSamples > 0 ? Math.sqrt(sumSqJitter / numJitterSamples) : 0.0);
+		metrics.put(LOST_TRACKS, (double) lostTracks);
+		metrics.put(KICK_LATENCY, numKicks > 0 ? sumKickLatency / numKicks : Double.POSITIVE_INFINITY);
+		metrics.put(DETECTED_KICKS, (double) numKicks);
+		return metrics;
+	}
+}
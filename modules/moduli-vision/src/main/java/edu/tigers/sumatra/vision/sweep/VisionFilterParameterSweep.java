@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.sweep;
+
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.sampler.ParameterPermutator;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+
+/**
+ * Sweep vision filter parameters over recorded camera frames.
+ * <p>
+ * Each parameter combination runs in its own {@link VisionFilterSweepRunner} that is loaded by a separate
+ * {@link IsolatedClassLoader}, so that the combinations do not share any static configuration and can run in
+ * parallel on all cores. The camera frames are loaded only once and shared read-only by all runs.
+ */
+@Log4j2
+public class VisionFilterParameterSweep
+{
+	private static final List<String> ISOLATED_PREFIXES = List.of(
+			"edu.tigers.sumatra.vision.",
+			"com.github.g3force.configurable."
+	);
+
+	private final List<CamDetectionFrame> camFrames;
+	private final int numThreads;
+
+
+	/**
+	 * @param camFrames all camera frames, sorted by capture time
+	 */
+	public VisionFilterParameterSweep(final List<CamDetectionFrame> camFrames)
+	{
+		this(camFrames, Runtime.getRuntime().availableProcessors());
+	}
+
+
+	/**
+	 * @param camFrames  all camera frames, sorted by capture time
+	 * @param numThreads number of parallel runs
+	 */
+	public VisionFilterParameterSweep(final List<CamDetectionFrame> camFrames, final int numThreads)
+	{
+		this.camFrames = Collections.unmodifiableList(camFrames);
+		this.numThreads = numThreads;
+	}
+
+
+	/**
+	 * Run all parameter combinations of the given permutator
+	 *
+	 * @param permutator the parameter grid
+	 * @return the results of all combinations
+	 */
+	public List<Result> run(final ParameterPermutator permutator)
+	{
+		int numCombinations = permutator.size();
+		log.info("Running {} parameter combinations on {} frames with {} threads",
+				numCombinations, camFrames.size(), numThreads);
+
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, new NamedThreadFactory("VisionSweep"));
+		List<Future<Result>> futures = new ArrayList<>();
+		for (int i = 0; i < numCombinations; i++)
+		{
+			Map<String, Double> parameters = permutator.next();
+			futures.add(executor.submit(() -> runIsolated(parameters)));
+		}
+		executor.shutdown();
+
+		List<Result> results = new ArrayList<>();
+		for (Future<Result> future : futures)
+		{
+			try
+			{
+				results.add(future.get());
+			} catch (ExecutionException e)
+			{
+				log.error("Parameter combination failed", e);
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				executor.shutdownNow();
+				break;
+			}
+		}
+		return results;
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private Result runIsolated(final Map<String, Double> parameters) throws ReflectiveOperationException, IOException
+	{
+		long tStart = System.nanoTime();
+		try (IsolatedClassLoader classLoader = new IsolatedClassLoader(ISOLATED_PREFIXES, getClass().getClassLoader()))
+		{
+			Class<?> runnerClass = classLoader.loadClass(VisionFilterSweepRunner.class.getName());
+			Function<List<CamDetectionFrame>, Map<String, Double>> runner =
+					(Function<List<CamDetectionFrame>, Map<String, Double>>) runnerClass
+							.getConstructor(Map.class)
+							.newInstance(parameters);
+			Map<String, Double> metrics = runner.apply(camFrames);
+			log.debug("Finished {} in {}s: {}", parameters, (System.nanoTime() - tStart) * 1e-9, metrics);
+			return new Result(parameters, metrics);
+		}
+	}
+
+
+	/**
+	 * Find all results that are not dominated by any other result.
+	 *
+	 * @param results    all results
+	 * @param objectives the metrics to minimize
+	 * @return the Pareto-optimal results
+	 */
+	public static List<Result> paretoFront(final List<Result> results, final List<String> objectives)
+	{
+		return results.stream()
+				.filter(r -> results.stream().noneMatch(o -> o.dominates(r, objectives)))
+				.collect(Collectors.toList());
+	}
+
+
+	/**
+	 * The metrics of a single parameter combination
+	 */
+	@Value
+	public static class Result
+	{
+		Map<String, Double> parameters;
+		Map<String, Double> metrics;
+
+
+		/**
+		 * @param other      the other result
+		 * @param objectives the metrics to minimize
+		 * @return true, if this result is at least as good as the other in all objectives and better in at least one
+		 */
+		public boolean dominates(final Result other, final List<String> objectives)
+		{
+			boolean better = false;
+			for (String objective : objectives)
+			{
+				double mine = metrics.get(objective);
+				double theirs = other.metrics.get(objective);
+				if (mine > theirs)
+				{
+					return false;
+				}
+				better |= mine < theirs;
+			}
+			return better;
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.sweep;
+
+import com.github.g3force.configurable.Configurable;
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.vision.IVisionFilterObserver;
+import edu.tigers.sumatra.vision.VisionFilterImpl;
+import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+
+/**
+ * Runs a single {@link VisionFilterImpl} with a given parameter combination over a list of camera frames.
+ * <p>
+ * This class is meant to be loaded by an {@link IsolatedClassLoader}, so that the parameters can be applied
+ * to the static configurables without affecting other runs. Only JDK types and camera frames cross the class
+ * loader boundary.
+ */
+public class VisionFilterSweepRunner implements Function<List<CamDetectionFrame>, Map<String, Double>>
+{
+	private static final String[] PACKAGES = {
+			"edu.tigers.sumatra.vision.",
+			"edu.tigers.sumatra.vision.tracker.",
+			"edu.tigers.sumatra.vision.kick.detectors.",
+			"edu.tigers.sumatra.vision.kick.estimators.",
+			"edu.tigers.sumatra.vision.kick.validators.",
+	};
+
+
+	/**
+	 * @param parameters configurable values, identified by "SimpleClassName.fieldName" or the fully qualified name
+	 */
+	public VisionFilterSweepRunner(final Map<String, Double> parameters)
+	{
+		parameters.forEach(this::applyParameter);
+	}
+
+
+	@Override
+	public Map<String, Double> apply(final List<CamDetectionFrame> camFrames)
+	{
+		VisionFilterMetrics metrics = new VisionFilterMetrics();
+		VisionFilterImpl visionFilter = new VisionFilterImpl();
+		visionFilter.addObserver(new IVisionFilterObserver()
+		{
+			@Override
+			public void onNewFilteredVisionFrame(final FilteredVisionFrame filteredVisionFrame)
+			{
+				metrics.add(filteredVisionFrame);
+			}
+		});
+		camFrames.forEach(visionFilter::onNewCamDetectionFrame);
+		return metrics.toMap();
+	}
+
+
+	private void applyParameter(final String key, final double value)
+	{
+		int sep = key.lastIndexOf('.');
+		if (sep <= 0)
+		{
+			throw new IllegalArgumentException("Invalid parameter key: " + key);
+		}
+		Class<?> clazz = findClass(key.substring(0, sep));
+		try
+		{
+			Field field = clazz.getDeclaredField(key.substring(sep + 1));
+			if (!Modifier.isStatic(field.getModifiers()) || !field.isAnnotationPresent(Configurable.class))
+			{
+				throw new IllegalArgumentException("Not a configurable: " + key);
+			}
+			field.setAccessible(true);
+			setValue(field, value);
+		} catch (NoSuchFieldException | IllegalAccessException e)
+		{
+			throw new IllegalArgumentException("Could not apply parameter " + key, e);
+		}
+	}
+
+
+	private Class<?> findClass(final String className)
+	{
+		ClassLoader classLoader = getClass().getClassLoader();
+		String[] packages = className.contains(".") ? new String[] { "" } : PACKAGES;
+		for (String pkg : packages)
+		{
+			Class<?> clazz = loadClass(pkg + className, classLoader);
+			if (clazz != null)
+			{
+				return clazz;
+			}
+		}
+		throw new IllegalArgumentException("Unknown vision filter class: " + className);
+	}
+
+
+	private Class<?> loadClass(final String className, final ClassLoader classLoader)
+	{
+		try
+		{
+			return Class.forName(className, true, classLoader);
+		} catch (ClassNotFoundException e)
+		{
+			return null;
+		}
+	}
+
+
+	private void setValue(final Field field, final double value) throws IllegalAccessException
+	{
+		Class<?> type = field.getType();
+		if (type == double.class || type == Double.class)
+		{
+			field.set(null, value);
+		} else if (type == float.class || type == Float.class)
+		{
+			field.set(null, (float) value);
+		} else if (type == int.class || type == Integer.class)
+		{
+			field.set(null, (int) Math.round(value));
+		} else if (type == long.class || type == Long.class)
+		{
+			field.set(null, Math.round(value));
+		} else if (type == boolean.class || type == Boolean.class)
+		{
+			field.set(null, value != 0);
+		} else
+		{
+			throw new IllegalArgumentException("Unsupported configurable type " + type + " of " + field);
+		}
+	}
+}
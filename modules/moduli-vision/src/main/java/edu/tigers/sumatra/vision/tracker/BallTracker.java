@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.vision.tracker;
 
@@ -12,8 +12,7 @@ import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.Vector2f;
 import edu.tigers.sumatra.vision.data.FilteredVisionBall;
 import edu.tigers.sumatra.vision.data.RobotCollisionShape;
-import edu.tigers.sumatra.vision.data.RobotCollisionShape.CollisionResult;
-import edu.tigers.sumatra.vision.data.RobotCollisionShape.ECollisionLocation;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.SweptCollision;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.math3.linear.RealVector;
 
@@ -39,6 +38,9 @@ public class BallTracker
 
 	private double maxDistance = -1.0;
 
+	private final SweptCollision sweptCollision = new SweptCollision();
+	private final SweptCollision firstCollision = new SweptCollision();
+
 
 	@Configurable(defValue = "1000.0")
 	private static double initialCovarianceXY = 1000.0;
@@ -111,7 +113,7 @@ public class BallTracker
 	{
 		if (!airborne)
 		{
-			processCollisions(bots);
+			processCollisions(timestamp, bots);
 		}
 
 		filter.predict(timestamp);
@@ -188,20 +190,50 @@ public class BallTracker
 	}
 
 
-	private void processCollisions(final List<RobotCollisionShape> bots)
+	/**
+	 * Sweep the ball from the last filter time to the given timestamp and reflect it at the first robot it hits.
+	 * Robots that are not near the swept path are skipped with a bounding box test.
+	 * The filter is predicted to the contact time, so that fast balls do not pass through robots between two frames.
+	 */
+	private void processCollisions(final long timestamp, final List<RobotCollisionShape> bots)
 	{
+		RealVector state = filter.getStateEstimate();
+		double x = state.getEntry(0);
+		double y = state.getEntry(1);
+		double vx = state.getEntry(2);
+		double vy = state.getEntry(3);
+		double dt = Math.max(0, (timestamp - filter.getLastTimestamp()) * 1e-9);
+
+		double endX = x + (vx * dt);
+		double endY = y + (vy * dt);
+		double minX = Math.min(x, endX);
+		double minY = Math.min(y, endY);
+		double maxX = Math.max(x, endX);
+		double maxY = Math.max(y, endY);
+
+		boolean collision = false;
 		for (RobotCollisionShape col : bots)
 		{
-			CollisionResult result = col.getCollision(filter.getPositionEstimate(), filter.getVelocityEstimate());
-			if (result.getLocation() != ECollisionLocation.NONE)
+			if (col.overlapsBoundingBox(minX, minY, maxX, maxY)
+					&& col.sweep(x, y, vx, vy, dt, sweptCollision)
+					&& (!collision || sweptCollision.getTime() < firstCollision.getTime()))
 			{
-				filter.resetCovariance(initialCovarianceXY);
-				if (result.getBallReflectedVel() != null)
-				{
-					filter.setVelocity(result.getBallReflectedVel());
-				}
+				firstCollision.copy(sweptCollision);
+				collision = true;
 			}
 		}
+
+		if (!collision)
+		{
+			return;
+		}
+
+		filter.resetCovariance(initialCovarianceXY);
+		if (firstCollision.isReflected())
+		{
+			filter.predict(filter.getLastTimestamp() + (long) (firstCollision.getTime() * 1e9));
+			filter.setVelocity(firstCollision.getReflectedVelX(), firstCollision.getReflectedVelY());
+		}
 	}
 
 
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision;
+
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.cam.data.CamRobot;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.rectangle.Rectangle;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector2f;
+import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measure the quality inspection per vision frame with a growing number of cameras and robots.
+ * <p>
+ * All cameras see all robots, which is the worst case for the pairwise deviation check. Each camera measures the
+ * robots with a small camera-specific offset, so that there are deviation issues between distant cameras.
+ * The detection history of the {@link RobotQualityInspector} is measured in its steady state, where each frame adds
+ * as many detections as it prunes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 5)
+public class QualityInspectorBenchmark
+{
+	private static final long FRAME_DT = 10_000_000L;
+	private static final int NUM_INITIAL_FRAMES = 10;
+	private static final double CAM_OFFSET = 10;
+
+	@Param({ "1", "4", "8" })
+	private int numCams;
+
+	@Param({ "6", "22" })
+	private int numRobots;
+
+	private final List<CamFilter> camFilters = new ArrayList<>();
+	private final QualityInspector qualityInspector = new QualityInspector();
+	private final RobotQualityInspector robotQualityInspector = new RobotQualityInspector();
+	private final List<BotID> botIds = new ArrayList<>();
+	private final List<IVector2> botPositions = new ArrayList<>();
+
+	private long inspectionTimestamp;
+	private long detectionTimestamp;
+	private long frameId;
+
+
+	public static void main(String[] args) throws Exception
+	{
+		org.openjdk.jmh.Main.main(args);
+	}
+
+
+	@Setup
+	public void setup()
+	{
+		for (int i = 0; i < numRobots; i++)
+		{
+			ETeamColor color = i % 2 == 0 ? ETeamColor.YELLOW : ETeamColor.BLUE;
+			botIds.add(BotID.createBotId(i / 2, color));
+			botPositions.add(Vector2f.fromXY(-5000 + i * 450.0, (i % 5) * 1000.0 - 2000));
+		}
+
+		FilteredVisionFrame emptyFrame = FilteredVisionFrame.createEmptyFrame();
+		for (int cam = 0; cam < numCams; cam++)
+		{
+			CamFilter camFilter = new CamFilter(cam);
+			camFilter.updateViewport(Rectangle.fromCenter(Vector2f.ZERO_VECTOR, 13000, 10000));
+			for (int frame = 1; frame <= NUM_INITIAL_FRAMES; frame++)
+			{
+				long timestamp = frame * FRAME_DT;
+				List<CamRobot> robots = createDetections(cam, frame, timestamp);
+				camFilter.update(new CamDetectionFrame(timestamp, timestamp, cam, frame, frame,
+						Collections.emptyList(), robots, Collections.emptyList()), emptyFrame);
+				inspectionTimestamp = Math.max(inspectionTimestamp, camFilter.getTimestamp());
+			}
+			camFilters.add(camFilter);
+		}
+	}
+
+
+	private List<CamRobot> createDetections(final int cam, final long frame, final long timestamp)
+	{
+		List<CamRobot> robots = new ArrayList<>(numRobots);
+		for (int i = 0; i < numRobots; i++)
+		{
+			IVector2 pos = botPositions.get(i).addNew(Vector2.fromX(cam * CAM_OFFSET));
+			robots.add(new CamRobot(1.0, pos, timestamp, cam, frame, pos, 0, 150, botIds.get(i)));
+		}
+		return robots;
+	}
+
+
+	/**
+	 * Inspect the trackers of all cameras, like it is done for each filtered vision frame.
+	 */
+	@Benchmark
+	public void inspectRobots()
+	{
+		qualityInspector.inspectRobots(camFilters, inspectionTimestamp);
+	}
+
+
+	/**
+	 * Add the detections of one frame of each camera and prune the detection history afterwards.
+	 * This includes the creation of the detections.
+	 */
+	@Benchmark
+	public long trackDetections()
+	{
+		detectionTimestamp += FRAME_DT;
+		frameId++;
+		for (int cam = 0; cam < numCams; cam++)
+		{
+			robotQualityInspector.addDetections(createDetections(cam, frameId, detectionTimestamp));
+		}
+		robotQualityInspector.prune(detectionTimestamp);
+		return robotQualityInspector.getNumDetections(botIds.get(0));
+	}
+}
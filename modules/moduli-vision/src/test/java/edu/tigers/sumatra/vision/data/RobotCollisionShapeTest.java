@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.data;
+
+import edu.tigers.sumatra.geometry.Geometry;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.CollisionResult;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.ECollisionLocation;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.SweptCollision;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+
+public class RobotCollisionShapeTest
+{
+	private static final double RADIUS = 90;
+	private static final double CENTER_2_DRIBBLER = 75;
+	private static final double CIRCLE_LOSS = 0.6;
+	private static final double FRONT_LOSS = 0.5;
+	private static final double DT = 1.0 / 60;
+
+	private final RobotCollisionShape robot = new RobotCollisionShape(Vector2.zero(), 0, RADIUS, CENTER_2_DRIBBLER,
+			CIRCLE_LOSS, FRONT_LOSS);
+	private final SweptCollision collision = new SweptCollision();
+
+
+	@Test
+	public void testStraightShotOnDribbler()
+	{
+		// ball is shot straight on the dribbler and hits it between two frames
+		assertThat(robot.sweep(200, 0, -8000, 0, DT, collision)).isTrue();
+
+		double contactX = CENTER_2_DRIBBLER + Geometry.getBallRadius();
+		assertThat(collision.getLocation()).isEqualTo(ECollisionLocation.FRONT);
+		assertThat(collision.getTime()).isCloseTo((200 - contactX) / 8000, within(1e-9));
+		assertThat(collision.isReflected()).isTrue();
+		assertThat(collision.getReflectedVelX()).isCloseTo(8000 * (1 - FRONT_LOSS), within(1e-6));
+		assertThat(collision.getReflectedVelY()).isCloseTo(0, within(1e-6));
+	}
+
+
+	@Test
+	public void testFastBallDoesNotTunnelThroughHull()
+	{
+		// the ball passes the back of the robot within one frame and is outside of it in both frames
+		double x0 = -100;
+		double y = 100;
+		double vel = 15000;
+		assertThat(robot.getCollision(Vector2.fromXY(x0, y), Vector2.fromX(vel)).getLocation())
+				.isEqualTo(ECollisionLocation.NONE);
+		assertThat(robot.getCollision(Vector2.fromXY(x0 + vel * DT, y), Vector2.fromX(vel)).getLocation())
+				.isEqualTo(ECollisionLocation.NONE);
+
+		assertThat(robot.sweep(x0, y, vel, 0, DT, collision)).isTrue();
+
+		double hullRadius = RADIUS + Geometry.getBallRadius();
+		double contactX = -Math.sqrt(hullRadius * hullRadius - y * y);
+		assertThat(collision.getLocation()).isEqualTo(ECollisionLocation.CIRCLE);
+		assertThat(collision.getTime()).isCloseTo((contactX - x0) / vel, within(1e-9));
+		assertThat(collision.isReflected()).isTrue();
+		assertThat(collision.getReflectedVelY()).isPositive();
+
+		double inboundVel = -vel * contactX / hullRadius;
+		double reflectedVel = Math.hypot(collision.getReflectedVelX(), collision.getReflectedVelY());
+		assertThat(reflectedVel).isCloseTo(vel - inboundVel * CIRCLE_LOSS, within(1e-6));
+	}
+
+
+	@Test
+	public void testBallPassingBy()
+	{
+		assertThat(robot.sweep(-500, 150, 15000, 0, DT, collision)).isFalse();
+		assertThat(robot.sweep(-500, 0, 15000, 0, 0.01, collision)).isFalse();
+		assertThat(robot.sweep(200, 0, 8000, 0, DT, collision)).isFalse();
+	}
+
+
+	@Test
+	public void testBallAtDribblerIsNoCollision()
+	{
+		// a ball that is dribbled touches the enlarged shape, but is not inside the robot
+		double x = CENTER_2_DRIBBLER + Geometry.getBallRadius() - 1;
+		assertThat(robot.sweep(x, 0, -10, 0, DT, collision)).isFalse();
+		assertThat(robot.sweep(x, 0, 0, 0, DT, collision)).isFalse();
+	}
+
+
+	@Test
+	public void testBoundingBox()
+	{
+		double extent = RADIUS + Geometry.getBallRadius();
+		assertThat(robot.overlapsBoundingBox(-1000, -1000, -extent - 1, 1000)).isFalse();
+		assertThat(robot.overlapsBoundingBox(extent + 1, -1000, 1000, 1000)).isFalse();
+		assertThat(robot.overlapsBoundingBox(-1000, extent + 1, 1000, 1000)).isFalse();
+		assertThat(robot.overlapsBoundingBox(-1000, -extent + 1, -extent + 1, -extent + 1)).isTrue();
+		assertThat(robot.overlapsBoundingBox(-10, -10, 10, 10)).isTrue();
+	}
+
+
+	@Test
+	public void testBallInsideRobotIsReflectedLikeBefore()
+	{
+		Random rnd = new Random(0);
+		RobotCollisionShape turnedRobot = new RobotCollisionShape(Vector2.fromXY(1000, -500), 2.1, RADIUS,
+				CENTER_2_DRIBBLER, CIRCLE_LOSS, FRONT_LOSS);
+		int numCollisions = 0;
+		for (int i = 0; i < 1000; i++)
+		{
+			IVector2 pos = Vector2.fromXY(1000 + (rnd.nextDouble() - 0.5) * 2 * RADIUS,
+					-500 + (rnd.nextDouble() - 0.5) * 2 * RADIUS);
+			IVector2 vel = Vector2.fromAngle(rnd.nextDouble() * 2 * Math.PI).scaleTo(1000 + rnd.nextDouble() * 5000);
+
+			CollisionResult expected = turnedRobot.getCollision(pos, vel);
+			boolean collides = turnedRobot.sweep(pos.x(), pos.y(), vel.x(), vel.y(), 0, collision);
+
+			assertThat(collides).isEqualTo(expected.getLocation() != ECollisionLocation.NONE);
+			if (!collides)
+			{
+				continue;
+			}
+			numCollisions++;
+			assertThat(collision.getTime()).isZero();
+			assertThat(collision.getLocation()).isEqualTo(expected.getLocation());
+			assertThat(collision.isReflected()).isEqualTo(expected.getBallReflectedVel() != null);
+			if (collision.isReflected())
+			{
+				assertThat(collision.getReflectedVelX()).isCloseTo(expected.getBallReflectedVel().x(), within(1e-3));
+				assertThat(collision.getReflectedVelY()).isCloseTo(expected.getBallReflectedVel().y(), within(1e-3));
+			}
+		}
+		assertThat(numCollisions).isGreaterThan(500);
+	}
+}
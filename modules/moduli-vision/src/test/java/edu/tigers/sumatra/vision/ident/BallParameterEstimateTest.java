@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.ident;
+
+import edu.tigers.sumatra.vision.kick.estimators.EBallModelIdentType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+
+public class BallParameterEstimateTest
+{
+	@Test
+	public void testSingleSample()
+	{
+		BallParameterEstimate estimate = BallParameterEstimate.fromSamples(
+				EBallModelIdentType.STRAIGHT_TWO_PHASE, "accRoll", List.of(-260.0));
+
+		assertThat(estimate.getNumSamples()).isEqualTo(1);
+		assertThat(estimate.getMedian()).isEqualTo(-260.0);
+		assertThat(estimate.getLower()).isEqualTo(-260.0);
+		assertThat(estimate.getUpper()).isEqualTo(-260.0);
+		assertThat(estimate.getMad()).isZero();
+	}
+
+
+	@Test
+	public void testEvenNumberOfSamples()
+	{
+		BallParameterEstimate estimate = BallParameterEstimate.fromSamples(
+				EBallModelIdentType.STRAIGHT_TWO_PHASE, "kSwitch", List.of(0.7, 0.6, 0.5, 0.8));
+
+		assertThat(estimate.getMedian()).isCloseTo(0.65, within(1e-9));
+		assertThat(estimate.getLower()).isEqualTo(0.5);
+		assertThat(estimate.getUpper()).isEqualTo(0.8);
+	}
+
+
+	@Test
+	public void testRobustToOutliers()
+	{
+		Random rnd = new Random(42);
+		List<Double> samples = new ArrayList<>();
+		for (int i = 0; i < 200; i++)
+		{
+			samples.add(-3000 + rnd.nextGaussian() * 100);
+		}
+		// failed fits end up at the bounds of the solver
+		for (int i = 0; i < 20; i++)
+		{
+			samples.add(-20000.0);
+		}
+
+		BallParameterEstimate estimate = BallParameterEstimate.fromSamples(
+				EBallModelIdentType.STRAIGHT_TWO_PHASE, "accSlide", samples);
+
+		assertThat(estimate.getMedian()).isCloseTo(-3000, within(30.0));
+		assertThat(estimate.getMad()).isCloseTo(100, within(40.0));
+		assertThat(estimate.getLower()).isLessThan(estimate.getMedian()).isGreaterThan(-3100);
+		assertThat(estimate.getUpper()).isGreaterThan(estimate.getMedian()).isLessThan(-2900);
+	}
+
+
+	@Test
+	public void testBallParameterName()
+	{
+		assertThat(BallParameterEstimate.fromSamples(
+				EBallModelIdentType.CHIP_FIXED_LOSS_PLUS_ROLLING, "dampZ", List.of(0.5)).getBallParameterName())
+				.isEqualTo("chipDampingZ");
+		assertThat(BallParameterEstimate.fromSamples(
+				EBallModelIdentType.STRAIGHT_TWO_PHASE, "accSlide", List.of(-3000.0)).getBallParameterName())
+				.isEqualTo("accSlide");
+	}
+
+
+	@Test
+	public void testNoSamples()
+	{
+		List<Double> samples = List.of();
+		assertThatThrownBy(() -> BallParameterEstimate.fromSamples(
+				EBallModelIdentType.STRAIGHT_TWO_PHASE, "accSlide", samples))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
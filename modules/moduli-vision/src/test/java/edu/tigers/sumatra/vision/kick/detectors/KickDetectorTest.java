@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.vision.kick.detectors;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+import edu.tigers.sumatra.drawable.IDrawableShape;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector3;
+import edu.tigers.sumatra.vision.data.FilteredVisionBot;
+import edu.tigers.sumatra.vision.data.KickEvent;
+import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Compare the kick detector with the former implementation on synthetic kicks.
+ * Two cameras see the ball alternately, a few frames have virtual balls or missing robots.
+ */
+public class KickDetectorTest
+{
+	private static final long CAM_FRAME_PERIOD = 16_666_667L;
+	private static final double ROLL_DECELERATION = 400;
+
+	private final Random rnd = new Random(42);
+	private final List<Frame> frames = new ArrayList<>();
+	private long tCapture = 1_000_000_000L;
+
+
+	@Test
+	public void testSameKicksAsLegacyDetector()
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			addKick();
+		}
+
+		KickDetector detector = new KickDetector();
+		LegacyKickDetector legacyDetector = new LegacyKickDetector();
+		List<String> kicks = new ArrayList<>();
+		List<String> legacyKicks = new ArrayList<>();
+		for (Frame frame : frames)
+		{
+			addKick(kicks, detector.addRecord(frame.ball, frame.bots));
+			addKick(legacyKicks, legacyDetector.addRecord(frame.ball, frame.bots));
+		}
+
+		assertThat(kicks).hasSizeGreaterThan(50).isEqualTo(legacyKicks);
+	}
+
+
+	@Test
+	public void testReset()
+	{
+		addKick();
+		addKick();
+
+		KickDetector detector = new KickDetector();
+		List<String> kicks = new ArrayList<>();
+		frames.forEach(f -> addKick(kicks, detector.addRecord(f.ball, f.bots)));
+		detector.reset();
+		List<String> kicksAfterReset = new ArrayList<>();
+		frames.forEach(f -> addKick(kicksAfterReset, detector.addRecord(f.ball, f.bots)));
+
+		assertThat(kicks).isNotEmpty().isEqualTo(kicksAfterReset);
+	}
+
+
+	@Test
+	public void testValidatorText()
+	{
+		addKick();
+
+		KickDetector detector = new KickDetector();
+		for (Frame frame : frames.subList(0, 20))
+		{
+			detector.addRecord(frame.ball, frame.bots);
+		}
+
+		List<IDrawableShape> shapes = detector.getDrawableShapes();
+		assertThat(shapes).hasSize(1);
+		assertThat(((KickValidatorAnnotation) shapes.get(0)).getText())
+				.startsWith("KV (")
+				.contains("Dist,", "Vel,", "InFront,", "IncDist,");
+	}
+
+
+	private void addKick(final List<String> kicks, final KickEvent kick)
+	{
+		if (kick != null)
+		{
+			kicks.add(kick.getTimestamp() + " " + kick.getKickingBot());
+		}
+	}
+
+
+	/**
+	 * Add the frames of a ball lying in front of a robot, which is then kicked and rolls out.
+	 */
+	private void addKick()
+	{
+		BotID kickerId = BotID.createBotId(rnd.nextInt(8), rnd.nextBoolean() ? ETeamColor.YELLOW : ETeamColor.BLUE);
+		IVector2 kickerPos = Vector2.fromXY(rnd.nextDouble() * 8000 - 4000, rnd.nextDouble() * 5000 - 2500);
+		double orientation = rnd.nextDouble() * 2 * Math.PI - Math.PI;
+		IVector2 dir = Vector2.fromAngle(orientation);
+		IVector2 ballStart = kickerPos.addNew(dir.multiplyNew(90));
+		IVector2 kickDir = Vector2.fromAngle(orientation + rnd.nextGaussian() * 0.05);
+		double kickSpeed = 1500 + rnd.nextDouble() * 5000;
+
+		List<BotPose> poses = new ArrayList<>();
+		poses.add(new BotPose(kickerId, kickerPos, orientation));
+		// a team mate right beside the kicker and some robots elsewhere
+		poses.add(new BotPose(BotID.createBotId(kickerId.getNumber(), kickerId.getTeamColor().opposite()),
+				kickerPos.addNew(dir.turnNew(Math.PI / 2).multiplyNew(250)), orientation));
+		for (int i = 0; i < 3; i++)
+		{
+			poses.add(new BotPose(BotID.createBotId(8 + i, ETeamColor.YELLOW),
+					Vector2.fromXY(rnd.nextDouble() * 8000 - 4000, rnd.nextDouble() * 5000 - 2500),
+					rnd.nextDouble() * 2 * Math.PI - Math.PI));
+		}
+
+		double tKick = 0.2 + rnd.nextDouble() * 0.1;
+		double tRoll = Math.min(kickSpeed / ROLL_DECELERATION, 1.0);
+		for (double t = 0; t < tKick + tRoll; t += CAM_FRAME_PERIOD * 1e-9 / 2)
+		{
+			double tSinceKick = Math.max(0, t - tKick);
+			double travelled = kickSpeed * tSinceKick - 0.5 * ROLL_DECELERATION * tSinceKick * tSinceKick;
+			addFrame(ballStart.addNew(kickDir.multiplyNew(travelled)), poses);
+		}
+	}
+
+
+	private void addFrame(final IVector2 ballPos, final List<BotPose> poses)
+	{
+		// two cameras with an offset of half a frame
+		tCapture += CAM_FRAME_PERIOD / 2;
+		int camId = frames.size() % 2;
+		double confidence = rnd.nextDouble() < 0.02 ? 0.05 : 0.9;
+
+		IVector2 camBallPos = ballPos.addNew(Vector2.fromXY(rnd.nextGaussian() * 3, rnd.nextGaussian() * 3));
+		CamBall camBall = new CamBall(confidence, 30, Vector3.from2d(camBallPos, 0), camBallPos, tCapture, camId,
+				frames.size());
+		MergedBall ball = new MergedBall(ballPos, camBallPos, Vector2.zero(), tCapture, camBall);
+
+		List<FilteredVisionBot> bots = new ArrayList<>();
+		for (BotPose pose : poses)
+		{
+			if (rnd.nextDouble() < 0.03)
+			{
+				// robot not detected in this frame
+				continue;
+			}
+			bots.add(FilteredVisionBot.builder()
+					.withBotID(pose.id)
+					.withTimestamp(tCapture)
+					.withPos(pose.pos.addNew(Vector2.fromXY(rnd.nextGaussian() * 2, rnd.nextGaussian() * 2)))
+					.withVel(Vector2.zero())
+					.withOrientation(pose.orientation + rnd.nextGaussian() * 0.01)
+					.withAngularVel(0.0)
+					.withQuality(1.0)
+					.build());
+		}
+
+		frames.add(new Frame(ball, bots));
+	}
+
+
+	private static class BotPose
+	{
+		final BotID id;
+		final IVector2 pos;
+		final double orientation;
+
+
+		BotPose(final BotID id, final IVector2 pos, final double orientation)
+		{
+			this.id = id;
+			this.pos = pos;
+			this.orientation = orientation;
+		}
+	}
+
+	private static class Frame
+	{
+		final MergedBall ball;
+		final List<FilteredVisionBot> bots;
+
+
+		Frame(final MergedBall ball, final List<FilteredVisionBot> bots)
+		{
+			this.ball = ball;
+			this.bots = bots;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.vision.kick.detectors;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.math.line.Line;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.vision.data.FilteredVisionBot;
+import edu.tigers.sumatra.vision.data.KickEvent;
+import edu.tigers.sumatra.vision.kick.validators.DirectionValidator;
+import edu.tigers.sumatra.vision.tracker.BallTracker.MergedBall;
+import org.apache.commons.math3.util.Pair;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+
+/**
+ * The kick detector as it was before the rolling windows, with the default configuration.
+ * It regroups the whole history for each frame and is used as a reference for {@link KickDetector}.
+ */
+class LegacyKickDetector
+{
+	private static final int FRAME_HISTORY_SIZE = 5;
+
+	private final LinkedList<MergedBall> ballHistory = new LinkedList<>();
+	private final LinkedList<List<FilteredVisionBot>> robotHistory = new LinkedList<>();
+	private long lastKickTimestamp;
+
+
+	KickEvent addRecord(final MergedBall mergedBall, final List<FilteredVisionBot> mergedRobots)
+	{
+		boolean isVirtualBall = mergedBall.getLatestCamBall().map(b -> b.getConfidence() < 0.1).orElse(false);
+		if (isVirtualBall)
+		{
+			return null;
+		}
+
+		ballHistory.add(mergedBall);
+		robotHistory.add(mergedRobots);
+		if (ballHistory.size() > FRAME_HISTORY_SIZE)
+		{
+			ballHistory.remove();
+			robotHistory.remove();
+		}
+
+		if (ballHistory.size() == FRAME_HISTORY_SIZE)
+		{
+			return processFrames();
+		}
+		return null;
+	}
+
+
+	private KickEvent processFrames()
+	{
+		List<MergedBall> balls = new ArrayList<>(ballHistory);
+
+		Map<BotID, List<FilteredVisionBot>> bots = robotHistory.stream()
+				.flatMap(List::stream)
+				.collect(Collectors.groupingBy(FilteredVisionBot::getBotID));
+		bots.entrySet().removeIf(e -> e.getValue().size() < FRAME_HISTORY_SIZE);
+		bots.entrySet().removeIf(e -> e.getValue().get(0).getPos().distanceTo(balls.get(0).getCamPos()) > 1000);
+
+		List<FilteredVisionBot> kickedBot = null;
+		for (List<FilteredVisionBot> b : bots.values())
+		{
+			if (distance(b, balls) && velocity(balls) && inFront(b, balls) && increasingDistance(b, balls))
+			{
+				kickedBot = b;
+				break;
+			}
+		}
+
+		if ((kickedBot != null) && (Math.abs((balls.get(0).getTimestamp() - lastKickTimestamp) * 1e-9) > 0.1))
+		{
+			FilteredVisionBot bot = kickedBot.get(0);
+			KickEvent kick = KickEvent.builder()
+					.kickingBot(bot.getBotID())
+					.position(balls.get(0).getCamPos())
+					.botDirection(bot.getOrientation())
+					.timestamp(balls.get(0).getTimestamp())
+					.recordsSinceKick(balls)
+					.isEarlyDetection(false)
+					.build();
+			lastKickTimestamp = balls.get(0).getTimestamp();
+
+			Optional<Pair<Long, IVector2>> backtrack = DirectionValidator.backtrack(kickedBot, balls);
+			if (backtrack.isPresent())
+			{
+				kick = kick.toBuilder()
+						.position(backtrack.get().getSecond())
+						.timestamp(backtrack.get().getFirst())
+						.build();
+				lastKickTimestamp = backtrack.get().getFirst();
+			}
+			return kick;
+		}
+		return null;
+	}
+
+
+	private static Map<Integer, List<Integer>> indicesByCamera(final List<MergedBall> balls)
+	{
+		return IntStream.range(0, balls.size()).boxed()
+				.collect(Collectors.groupingBy(i -> balls.get(i).getLatestCamBall().get().getCameraId()));
+	}
+
+
+	private static IVector2 camBallPos(final MergedBall ball)
+	{
+		return ball.getLatestCamBall().get().getPos().getXYVector();
+	}
+
+
+	private static boolean distance(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	{
+		for (List<Integer> group : indicesByCamera(balls).values())
+		{
+			List<Double> distances = group.stream()
+					.map(i -> camBallPos(balls.get(i)).distanceTo(bots.get(i).getPos()))
+					.collect(Collectors.toList());
+			boolean distantBall = distances.stream().anyMatch(d -> d > 160);
+			for (double threshold : new double[] { 130, 150 })
+			{
+				if ((distances.get(0) < threshold)
+						&& distances.subList(1, distances.size()).stream().allMatch(d -> d > threshold)
+						&& distantBall)
+				{
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	private static boolean velocity(final List<MergedBall> balls)
+	{
+		for (List<Integer> group : indicesByCamera(balls).values())
+		{
+			boolean valid = true;
+			for (int i = 1; i < group.size(); i++)
+			{
+				CamBall bPrev = balls.get(group.get(i - 1)).getLatestCamBall().get();
+				CamBall bNow = balls.get(group.get(i)).getLatestCamBall().get();
+				if (bPrev.gettCapture() == bNow.gettCapture())
+				{
+					continue;
+				}
+				double vel = bPrev.getFlatPos().distanceTo(bNow.getFlatPos())
+						/ ((bNow.gettCapture() - bPrev.gettCapture()) * 1e-9);
+				if (vel < 600)
+				{
+					valid = false;
+				}
+			}
+			if (valid)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	private static boolean inFront(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	{
+		FilteredVisionBot bot = bots.get(0);
+		Line orientLine = Line.fromDirection(bot.getPos(), Vector2.fromAngle(bot.getOrientation()));
+		for (MergedBall b : balls)
+		{
+			Vector2 leadPoint = orientLine.leadPointOf(b.getCamPos());
+			if (!orientLine.isPointInFront(leadPoint))
+			{
+				return false;
+			}
+			double distBotToLeadPoint = bot.getPos().distanceTo(leadPoint);
+			if (distBotToLeadPoint < 70)
+			{
+				return false;
+			}
+			if (b.getCamPos().distanceTo(leadPoint) > (40 + (distBotToLeadPoint - 70)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	private static boolean increasingDistance(final List<FilteredVisionBot> bots, final List<MergedBall> balls)
+	{
+		FilteredVisionBot bot = bots.get(0);
+		for (List<Integer> group : indicesByCamera(balls).values())
+		{
+			List<Double> distances = group.stream()
+					.map(i -> camBallPos(balls.get(i)).distanceTo(bot.getPos()))
+					.collect(Collectors.toList());
+			if ((distances.size() >= 2)
+					&& IntStream.range(1, distances.size()).allMatch(i -> distances.get(i) > distances.get(i - 1)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
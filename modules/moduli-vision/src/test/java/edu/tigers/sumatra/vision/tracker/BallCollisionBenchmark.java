@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.tracker;
+
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.ECollisionLocation;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape.SweptCollision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measure the ball-robot collision check of all ball trackers of one camera frame.
+ * <p>
+ * Most balls are somewhere on the field, but some are shot at a robot, like in ricochets close to the robots.
+ * The swept check with bounding box culling is compared to the previous check of the ball position against
+ * each robot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 5)
+public class BallCollisionBenchmark
+{
+	private static final double DT = 1.0 / 60;
+	private static final int NUM_BALLS = 10;
+
+	@Param({ "12", "22" })
+	private int numRobots;
+
+	private final List<RobotCollisionShape> robots = new ArrayList<>();
+	private final SweptCollision collision = new SweptCollision();
+	private IVector2[] ballPos;
+	private IVector2[] ballVel;
+
+
+	public static void main(String[] args) throws Exception
+	{
+		org.openjdk.jmh.Main.main(args);
+	}
+
+
+	@Setup
+	public void setup()
+	{
+		Random rnd = new Random(42);
+		List<IVector2> robotPositions = new ArrayList<>();
+		for (int i = 0; i < numRobots; i++)
+		{
+			IVector2 pos = Vector2.fromXY((rnd.nextDouble() - 0.5) * 12000, (rnd.nextDouble() - 0.5) * 9000);
+			robotPositions.add(pos);
+			robots.add(new RobotCollisionShape(pos, rnd.nextDouble() * 2 * Math.PI, 90, 75, 0.6, 1.0));
+		}
+
+		ballPos = new IVector2[NUM_BALLS];
+		ballVel = new IVector2[NUM_BALLS];
+		for (int i = 0; i < NUM_BALLS; i++)
+		{
+			IVector2 vel = Vector2.fromAngle(rnd.nextDouble() * 2 * Math.PI).scaleTo(rnd.nextDouble() * 8000);
+			if (i % 3 == 0)
+			{
+				// shot at a robot that is hit within the next frame
+				IVector2 target = robotPositions.get(i % numRobots);
+				ballPos[i] = target.subtractNew(vel.scaleToNew(100 + vel.getLength2() * DT * 0.5));
+			} else
+			{
+				ballPos[i] = Vector2.fromXY((rnd.nextDouble() - 0.5) * 12000, (rnd.nextDouble() - 0.5) * 9000);
+			}
+			ballVel[i] = vel;
+		}
+	}
+
+
+	/**
+	 * Check the ball position of each tracker against each robot.
+	 */
+	@Benchmark
+	public int positionCheck()
+	{
+		int numCollisions = 0;
+		for (int i = 0; i < NUM_BALLS; i++)
+		{
+			for (RobotCollisionShape robot : robots)
+			{
+				if (robot.getCollision(ballPos[i], ballVel[i]).getLocation() != ECollisionLocation.NONE)
+				{
+					numCollisions++;
+				}
+			}
+		}
+		return numCollisions;
+	}
+
+
+	/**
+	 * Sweep the ball of each tracker over one frame, skipping robots outside of the swept bounding box.
+	 */
+	@Benchmark
+	public int sweptCheck()
+	{
+		int numCollisions = 0;
+		for (int i = 0; i < NUM_BALLS; i++)
+		{
+			double x = ballPos[i].x();
+			double y = ballPos[i].y();
+			double vx = ballVel[i].x();
+			double vy = ballVel[i].y();
+			double endX = x + vx * DT;
+			double endY = y + vy * DT;
+			for (RobotCollisionShape robot : robots)
+			{
+				if (robot.overlapsBoundingBox(Math.min(x, endX), Math.min(y, endY), Math.max(x, endX), Math.max(y, endY))
+						&& robot.sweep(x, y, vx, vy, DT, collision))
+				{
+					numCollisions++;
+				}
+			}
+		}
+		return numCollisions;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.vision.tracker;
+
+import edu.tigers.sumatra.cam.data.CamBall;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector3;
+import edu.tigers.sumatra.vision.data.RobotCollisionShape;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+
+public class BallTrackerTest
+{
+	private static final long FRAME_DT = 16_666_667L;
+
+
+	@Test
+	public void testFastBallIsReflectedBetweenFrames()
+	{
+		// robot faces the ball, which is shot on its dribbler and would be behind the robot in the next frame
+		List<RobotCollisionShape> robots = List.of(
+				new RobotCollisionShape(Vector2.fromX(0), Math.PI, 90, 75, 0.6, 0.5),
+				new RobotCollisionShape(Vector2.fromXY(3000, 2000), 0, 90, 75, 0.6, 0.5));
+		BallTracker tracker = createTracker(Vector2.fromX(-150), Vector2.fromX(12000));
+
+		tracker.predict(FRAME_DT, robots, false);
+
+		IVector2 vel = tracker.getVelocity();
+		assertThat(vel.x()).isCloseTo(-6000, within(1e-6));
+		assertThat(vel.y()).isCloseTo(0, within(1e-6));
+		assertThat(tracker.getFilter().getPositionEstimate().x()).isLessThan(-96.5);
+	}
+
+
+	@Test
+	public void testAirborneBallIsNotReflected()
+	{
+		List<RobotCollisionShape> robots = List.of(
+				new RobotCollisionShape(Vector2.fromX(0), Math.PI, 90, 75, 0.6, 0.5));
+		BallTracker tracker = createTracker(Vector2.fromX(-150), Vector2.fromX(12000));
+
+		tracker.predict(FRAME_DT, robots, true);
+
+		assertThat(tracker.getVelocity().x()).isCloseTo(12000, within(1e-6));
+		assertThat(tracker.getFilter().getPositionEstimate().x()).isCloseTo(50, within(1e-3));
+	}
+
+
+	@Test
+	public void testBallWithoutRobots()
+	{
+		BallTracker tracker = createTracker(Vector2.fromX(-150), Vector2.fromX(12000));
+
+		tracker.predict(FRAME_DT, Collections.emptyList(), false);
+
+		assertThat(tracker.getVelocity().x()).isCloseTo(12000, within(1e-6));
+	}
+
+
+	private BallTracker createTracker(final IVector2 pos, final IVector2 vel)
+	{
+		CamBall camBall = new CamBall(1.0, 30, Vector3.from2d(pos, 0), pos, 0, 0, 0);
+		BallTracker tracker = new BallTracker(camBall);
+		tracker.getFilter().setVelocity(vel);
+		return tracker;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp;
@@ -18,7 +18,13 @@ import edu.tigers.sumatra.drawable.ShapeMap;
 import edu.tigers.sumatra.drawable.ShapeMapSource;
 
 
-@Entity(version = 1)
+/**
+ * The shape maps of all sources at one timestamp.
+ * <p>
+ * Since version 2, the shape maps are stored encoded, see {@link ShapeMapFrameBerkeleyAccessor}.
+ * The accessor resolves them, before the frame is handed out.
+ */
+@Entity(version = 2)
 public class BerkeleyShapeMapFrame
 {
 	@PrimaryKey
@@ -27,6 +33,8 @@ public class BerkeleyShapeMapFrame
 	/** Old map for compatibility to older DBs */
 	private Map<String, ShapeMap> shapeMaps = null;
 	private final Map<ShapeMapSource, ShapeMap> shapeMapsBySource = new HashMap<>();
+	/** Encoded shape maps, the shape maps by source only contain the layers that could not be encoded then */
+	private Map<ShapeMapSource, EncodedShapeMap> encodedShapeMaps = null;
 
 
 	@SuppressWarnings("unused")
@@ -54,6 +62,66 @@ public class BerkeleyShapeMapFrame
 	}
 
 
+	/**
+	 * @param source      the source of the shape map
+	 * @param shapeMap    the encoded shape map
+	 * @param unsupported the layers that could not be encoded, may be empty
+	 */
+	public void putEncodedShapeMap(ShapeMapSource source, EncodedShapeMap shapeMap, ShapeMap unsupported)
+	{
+		if (encodedShapeMaps == null)
+		{
+			encodedShapeMaps = new HashMap<>();
+		}
+		encodedShapeMaps.put(source, shapeMap);
+		if (!unsupported.getAllShapeLayers().isEmpty())
+		{
+			shapeMapsBySource.put(source, unsupported);
+		}
+	}
+
+
+	/**
+	 * @return the encoded shape maps, empty if the frame is resolved or was not encoded
+	 */
+	public Map<ShapeMapSource, EncodedShapeMap> getEncodedShapeMaps()
+	{
+		if (encodedShapeMaps == null)
+		{
+			return Collections.emptyMap();
+		}
+		return Collections.unmodifiableMap(encodedShapeMaps);
+	}
+
+
+	/**
+	 * @return true, if the shape maps are encoded and have to be resolved, before they can be used
+	 */
+	public boolean isUnresolved()
+	{
+		return encodedShapeMaps != null;
+	}
+
+
+	/**
+	 * Replace the encoded shape maps with the decoded ones
+	 *
+	 * @param decodedShapeMaps the decoded shape maps by source
+	 */
+	public void resolve(Map<ShapeMapSource, ShapeMap> decodedShapeMaps)
+	{
+		decodedShapeMaps.forEach((source, shapeMap) -> {
+			ShapeMap unsupported = shapeMapsBySource.get(source);
+			if (unsupported != null)
+			{
+				shapeMap.addAll(unsupported);
+			}
+			shapeMapsBySource.put(source, shapeMap);
+		});
+		encodedShapeMaps = null;
+	}
+
+
 	public Map<ShapeMapSource, ShapeMap> getShapeMaps()
 	{
 		if (shapeMaps != null)
@@ -84,6 +152,7 @@ public class BerkeleyShapeMapFrame
 				.append("timestamp", timestamp)
 				.append("shapeMaps", shapeMaps)
 				.append("shapeMapsBySource", shapeMapsBySource)
+				.append("encodedShapeMaps", encodedShapeMaps)
 				.toString();
 	}
 }
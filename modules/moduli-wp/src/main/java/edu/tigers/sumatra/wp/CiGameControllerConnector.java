@@ -4,9 +4,9 @@
 
 package edu.tigers.sumatra.wp;
 
-import edu.tigers.sumatra.clock.ThreadUtil;
 import edu.tigers.sumatra.referee.proto.SslGcApi;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import edu.tigers.sumatra.thread.ExponentialBackoff;
 import edu.tigers.sumatra.thread.Watchdog;
 import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
 import edu.tigers.sumatra.wp.proto.SslGcCi;
@@ -14,28 +14,49 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.codec.binary.Base64OutputStream;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
  * This connector connects to the CI interface of a local game-controller directly with a fast TCP connection.
- * It sends the current time and the tracker packets to the GC and receives the updated referee messages afterwards.
+ * It sends the current time and the tracker packets to the GC and receives the updated referee messages.
+ * <p>
+ * By default, inputs are sent without waiting for the response and the referee messages are collected by a
+ * dedicated reader thread. They are handed out with the next call of {@link #process}.
+ * In lockstep mode, each call waits for the response of the GC, so that the referee messages always
+ * belong to the frame that was just sent. This is only required, if strict determinism is requested.
  */
 @RequiredArgsConstructor
 @Log4j2
 public class CiGameControllerConnector
 {
 	private static final String HOSTNAME = "localhost";
+	/** [ms] */
+	private static final long CONNECT_DEADLINE = 2000;
+	/** [ms] */
+	private static final long INITIAL_CONNECT_RETRY_DELAY = 5;
+	/** [ms] */
+	private static final long MAX_CONNECT_RETRY_DELAY = 200;
 	private final int port;
-	private Socket socket;
+	private final boolean lockstep;
+	private final Queue<SslGcRefereeMessage.Referee> receivedMessages = new ConcurrentLinkedQueue<>();
+	/** the current connection, it is cleared by the thread that closes it, which may be the reader or the watchdog */
+	private final AtomicReference<Socket> socket = new AtomicReference<>();
+	private OutputStream outputStream;
+	private volatile Thread readerThread;
 	private Watchdog watchdog;
-	private SslGcCi.CiInput lastInput;
+	private volatile SslGcCi.CiInput lastInput;
 
 	private TrackerPacketGenerator trackerPacketGenerator;
 
@@ -49,7 +70,8 @@ public class CiGameControllerConnector
 		connect();
 		// Initialize connection by performing one roundtrip
 		send(0);
-		receiveRefereeMessages();
+		receivedMessages.addAll(receiveRefereeMessages());
+		startReader();
 		log.trace("Started");
 	}
 
@@ -59,6 +81,11 @@ public class CiGameControllerConnector
 		log.trace("Stopping");
 		watchdog.stop();
 		disconnect();
+		if (readerThread != null)
+		{
+			readerThread.interrupt();
+			readerThread = null;
+		}
 		log.trace("Stopped");
 	}
 
@@ -67,40 +94,98 @@ public class CiGameControllerConnector
 	{
 		log.trace("Connecting");
 
-		for (int i = 0; i < 10; i++)
+		// Allow the GC to come up, but use it as soon as it accepts connections
+		ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_CONNECT_RETRY_DELAY, MAX_CONNECT_RETRY_DELAY);
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_DEADLINE);
+		do
 		{
-			// Allow the GC to come up
-			ThreadUtil.parkNanosSafe(TimeUnit.MILLISECONDS.toNanos(200));
 			try
 			{
-				socket = new Socket(HOSTNAME, port);
-				socket.setTcpNoDelay(true);
+				Socket newSocket = new Socket(HOSTNAME, port);
+				newSocket.setTcpNoDelay(true);
+				outputStream = new BufferedOutputStream(newSocket.getOutputStream());
+				socket.set(newSocket);
 				log.debug("Connected");
 				return;
 			} catch (IOException e)
 			{
 				log.debug("Connection to SSL-Game-Controller failed", e);
 			}
-		}
+		} while (System.nanoTime() < deadline && backoff.sleep());
 		throw new IOException("Connection to SSL-Game-Controller failed repeatedly");
 	}
 
 
 	private void disconnect()
 	{
+		disconnect(socket.get());
+	}
+
+
+	/**
+	 * Close the given connection, if it is still the current one.
+	 * The reader of the connection terminates, as soon as its socket is closed.
+	 *
+	 * @param oldSocket the connection to close
+	 * @return true, if the connection was closed by this call
+	 */
+	private boolean disconnect(final Socket oldSocket)
+	{
+		if (oldSocket == null || !socket.compareAndSet(oldSocket, null))
+		{
+			return false;
+		}
 		log.trace("Disconnect");
-		if (socket != null)
+		try
 		{
-			try
+			oldSocket.close();
+		} catch (IOException e)
+		{
+			log.warn("Closing socket failed", e);
+		}
+		log.trace("Disconnected");
+		return true;
+	}
+
+
+	private void startReader()
+	{
+		if (lockstep)
+		{
+			return;
+		}
+		Socket readerSocket = socket.get();
+		readerThread = new Thread(() -> read(readerSocket), "CiGameControllerReader");
+		readerThread.setDaemon(true);
+		readerThread.start();
+	}
+
+
+	private void read(final Socket readerSocket)
+	{
+		try
+		{
+			while (!Thread.currentThread().isInterrupted())
 			{
-				socket.close();
-				socket = null;
-			} catch (IOException e)
+				SslGcCi.CiOutput output = SslGcCi.CiOutput.parseDelimitedFrom(readerSocket.getInputStream());
+				if (output == null)
+				{
+					throw new IOException(
+							"Receiving Message failed: Socket was at EOF, most likely the connection was closed");
+				}
+				watchdog.setActive(false);
+				if (output.hasRefereeMsg())
+				{
+					receivedMessages.add(output.getRefereeMsg());
+				}
+			}
+		} catch (IOException e)
+		{
+			if (disconnect(readerSocket))
 			{
-				log.warn("Closing socket failed", e);
+				log.warn("Receiving CI message from SSL-Game-Controller failed", e);
 			}
 		}
-		log.trace("Disconnected");
 	}
 
 
@@ -125,19 +210,21 @@ public class CiGameControllerConnector
 
 	private void send(final SslGcCi.CiInput input)
 	{
-		if (socket == null)
+		if (socket.get() == null)
 		{
 			return;
 		}
 		try
 		{
 			lastInput = input;
-			input.writeDelimitedTo(socket.getOutputStream());
-			socket.getOutputStream().flush();
+			// arm the watchdog first, so that it also detects a write that blocks
 			watchdog.reset();
 			watchdog.setActive(true);
+			input.writeDelimitedTo(outputStream);
+			outputStream.flush();
 		} catch (IOException e)
 		{
+			watchdog.setActive(false);
 			log.warn("Could not write to socket", e);
 		}
 	}
@@ -149,11 +236,12 @@ public class CiGameControllerConnector
 	private List<SslGcRefereeMessage.Referee> receiveRefereeMessages()
 	{
 		List<SslGcRefereeMessage.Referee> messages = new ArrayList<>();
+		Socket currentSocket = socket.get();
 		try
 		{
 			do
 			{
-				SslGcCi.CiOutput output = SslGcCi.CiOutput.parseDelimitedFrom(socket.getInputStream());
+				SslGcCi.CiOutput output = SslGcCi.CiOutput.parseDelimitedFrom(currentSocket.getInputStream());
 				if (output == null)
 				{
 					throw new IOException(
@@ -164,11 +252,13 @@ public class CiGameControllerConnector
 				{
 					messages.add(output.getRefereeMsg());
 				}
-			} while (socket.getInputStream().available() > 0);
+			} while (currentSocket.getInputStream().available() > 0);
 		} catch (IOException e)
 		{
-			log.warn("Receiving CI message from SSL-Game-Controller failed", e);
-			disconnect();
+			if (disconnect(currentSocket))
+			{
+				log.warn("Receiving CI message from SSL-Game-Controller failed", e);
+			}
 		} finally
 		{
 			watchdog.setActive(false);
@@ -180,23 +270,40 @@ public class CiGameControllerConnector
 	public synchronized List<SslGcRefereeMessage.Referee> process(final SimpleWorldFrame swf,
 			List<SslGcApi.Input> inputs)
 	{
-		if (socket == null)
+		if (socket.get() == null)
 		{
 			try
 			{
 				connect();
+				startReader();
 			} catch (IOException e)
 			{
 				log.warn("Failed to reconnect", e);
 			}
 		}
-		if (socket == null)
+		if (socket.get() == null)
 		{
 			return Collections.emptyList();
 		}
 
 		send(swf, inputs);
-		return receiveRefereeMessages();
+		if (lockstep)
+		{
+			receivedMessages.addAll(receiveRefereeMessages());
+		}
+		return pollReceivedMessages();
+	}
+
+
+	private List<SslGcRefereeMessage.Referee> pollReceivedMessages()
+	{
+		List<SslGcRefereeMessage.Referee> messages = new ArrayList<>();
+		SslGcRefereeMessage.Referee message;
+		while ((message = receivedMessages.poll()) != null)
+		{
+			messages.add(message);
+		}
+		return messages;
 	}
 
 
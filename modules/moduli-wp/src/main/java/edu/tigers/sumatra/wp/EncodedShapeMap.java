@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.wp;
+
+import com.sleepycat.persist.model.Persistent;
+import edu.tigers.sumatra.drawable.ShapeMapEncoder;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * The shape map of one source in a {@link BerkeleyShapeMapFrame}, encoded by a {@link ShapeMapEncoder}
+ */
+@Persistent
+@Getter
+@RequiredArgsConstructor
+public class EncodedShapeMap
+{
+	/** the timestamp of the frame with the previous data of the same source, the own timestamp for keyframes */
+	private final long baseTimestamp;
+	private final byte[] data;
+
+
+	@SuppressWarnings("unused") // berkeley
+	private EncodedShapeMap()
+	{
+		baseTimestamp = 0;
+		data = new byte[0];
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp;
+
+import edu.tigers.sumatra.model.SumatraModel;
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.persistence.IBerkeleyRecorder;
+import edu.tigers.sumatra.wp.data.ReplayOverview;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+
+/**
+ * Collects the {@link ReplayOverview} while recording and stores it with the recording when the recorder stops.
+ */
+@Log4j2
+public class ReplayOverviewRecorder implements IBerkeleyRecorder
+{
+	private final ReplayOverview.Builder overviewBuilder = new ReplayOverview.Builder();
+	private final WfwObserver wfwObserver = new WfwObserver();
+	private final BerkeleyDb db;
+
+
+	public ReplayOverviewRecorder(final BerkeleyDb db)
+	{
+		this.db = db;
+	}
+
+
+	@Override
+	public void start()
+	{
+		AWorldPredictor wp = SumatraModel.getInstance().getModule(AWorldPredictor.class);
+		wp.addObserver(wfwObserver);
+	}
+
+
+	@Override
+	public void stop()
+	{
+		AWorldPredictor wp = SumatraModel.getInstance().getModule(AWorldPredictor.class);
+		wp.removeObserver(wfwObserver);
+		try
+		{
+			overviewBuilder.build().write(Paths.get(db.getDbPath()));
+		} catch (IOException e)
+		{
+			log.warn("Could not write replay overview to {}", db.getDbPath(), e);
+		}
+	}
+
+
+	@Override
+	public void flush()
+	{
+		// the overview is written on stop
+	}
+
+	private class WfwObserver implements IWorldFrameObserver
+	{
+		@Override
+		public void onNewWorldFrame(final WorldFrameWrapper wFrameWrapper)
+		{
+			overviewBuilder.add(wFrameWrapper);
+		}
+	}
+}
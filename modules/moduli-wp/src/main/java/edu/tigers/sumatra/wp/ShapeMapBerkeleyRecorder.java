@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp;
@@ -11,8 +11,8 @@ import edu.tigers.sumatra.persistence.BerkeleyDb;
 import edu.tigers.sumatra.persistence.IBerkeleyRecorder;
 
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 
 
@@ -60,13 +60,14 @@ public class ShapeMapBerkeleyRecorder implements IBerkeleyRecorder
 	@Override
 	public void flush()
 	{
-		Map<Long, BerkeleyShapeMapFrame> toSave = new HashMap<>();
+		// sorted, because the shape maps are stored as deltas to the previous frame
+		Map<Long, BerkeleyShapeMapFrame> toSave = new TreeMap<>();
 
 		ShapeMapWithSource s = buffer.pollFirst();
 		while (s != null)
 		{
-			// drop frame, if it is too old
-			if (s.timestamp > latestWrittenTimestamp)
+			// drop frame, if it is too old. Late shape maps of the last written timestamp are merged into its frame
+			if (s.timestamp >= latestWrittenTimestamp)
 			{
 				// frame is not too old, check if it is still buffering
 				if (isBuffering(s.timestamp))
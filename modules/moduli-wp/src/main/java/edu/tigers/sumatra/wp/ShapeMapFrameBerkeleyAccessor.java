@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.wp;
+
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapDecoder;
+import edu.tigers.sumatra.drawable.ShapeMapEncoder;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import edu.tigers.sumatra.persistence.BerkeleyAccessor;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+
+/**
+ * Accessor for {@link BerkeleyShapeMapFrame}s that stores the shape maps of each source as keyframes and deltas.
+ * <p>
+ * A keyframe is written at least every {@link #KEYFRAME_INTERVAL} and after {@link #MAX_DELTAS} deltas, so a frame
+ * can be reconstructed from at most {@link #MAX_DELTAS} previous frames. Sequential reads only decode the next delta.
+ * Layers that can not be encoded and recordings without encoded shape maps are stored and read as before.
+ */
+@Log4j2
+public class ShapeMapFrameBerkeleyAccessor extends BerkeleyAccessor<BerkeleyShapeMapFrame>
+{
+	/** [ns] */
+	private static final long KEYFRAME_INTERVAL = 1_000_000_000L;
+	private static final int MAX_DELTAS = 100;
+
+	private final Map<ShapeMapSource, SourceEncoder> encoders = new HashMap<>();
+	private final Map<ShapeMapSource, SourceDecoder> decoders = new HashMap<>();
+
+
+	public ShapeMapFrameBerkeleyAccessor()
+	{
+		super(BerkeleyShapeMapFrame.class, true);
+	}
+
+
+	@Override
+	public synchronized void write(final BerkeleyShapeMapFrame element)
+	{
+		if (element == null || element.isUnresolved())
+		{
+			super.write(element);
+			return;
+		}
+		BerkeleyShapeMapFrame encodedFrame = new BerkeleyShapeMapFrame(element.getTimestamp());
+		element.getShapeMaps().forEach((source, shapeMap) -> encode(encodedFrame, source, shapeMap));
+		mergeExistingFrame(encodedFrame);
+		super.write(encodedFrame);
+	}
+
+
+	/**
+	 * Shape maps of other sources may arrive late and are then written with the timestamp of an existing frame.
+	 * Keep the shape maps of the existing frame, as the deltas of the following frames may be based on them.
+	 * A source that is written again is encoded as keyframe, so it can be replaced.
+	 */
+	private void mergeExistingFrame(final BerkeleyShapeMapFrame frame)
+	{
+		BerkeleyShapeMapFrame existingFrame = getExact(frame.getTimestamp());
+		if (existingFrame == null)
+		{
+			return;
+		}
+		Set<ShapeMapSource> sources = new HashSet<>(frame.getShapeMaps().keySet());
+		sources.addAll(frame.getEncodedShapeMaps().keySet());
+		existingFrame.getEncodedShapeMaps().entrySet().stream()
+				.filter(e -> !sources.contains(e.getKey()))
+				.forEach(e -> frame.putEncodedShapeMap(e.getKey(), e.getValue(), new ShapeMap()));
+		existingFrame.getShapeMaps().entrySet().stream()
+				.filter(e -> !sources.contains(e.getKey()))
+				.forEach(e -> frame.putShapeMap(e.getKey(), e.getValue()));
+	}
+
+
+	@Override
+	public synchronized BerkeleyShapeMapFrame get(final long tCur)
+	{
+		return resolve(super.get(tCur));
+	}
+
+
+	@Override
+	public synchronized List<BerkeleyShapeMapFrame> load()
+	{
+		List<BerkeleyShapeMapFrame> frames = super.load();
+		frames.forEach(this::resolve);
+		return frames;
+	}
+
+
+	@Override
+	public synchronized void forEach(final Consumer<? super BerkeleyShapeMapFrame> consumer)
+	{
+		super.forEach(frame -> consumer.accept(resolve(frame)));
+	}
+
+
+	private void encode(final BerkeleyShapeMapFrame frame, final ShapeMapSource source, final ShapeMap shapeMap)
+	{
+		long timestamp = frame.getTimestamp();
+		SourceEncoder sourceEncoder = encoders.computeIfAbsent(source, s -> new SourceEncoder());
+		boolean keyframe = sourceEncoder.isKeyframeRequired(timestamp);
+		try
+		{
+			ShapeMapEncoder.Result result = sourceEncoder.encoder.encode(shapeMap, keyframe);
+			long baseTimestamp = keyframe ? timestamp : sourceEncoder.lastTimestamp;
+			frame.putEncodedShapeMap(source, new EncodedShapeMap(baseTimestamp, result.getData()),
+					result.getUnsupportedLayers());
+			sourceEncoder.update(timestamp, keyframe);
+		} catch (RuntimeException e)
+		{
+			log.warn("Could not encode shape map of {}, storing it unencoded", source, e);
+			// start with a keyframe next time
+			encoders.remove(source);
+			frame.putShapeMap(source, shapeMap);
+		}
+	}
+
+
+	private BerkeleyShapeMapFrame resolve(final BerkeleyShapeMapFrame frame)
+	{
+		if (frame != null && frame.isUnresolved())
+		{
+			Map<ShapeMapSource, ShapeMap> decoded = new HashMap<>();
+			frame.getEncodedShapeMaps().forEach(
+					(source, encoded) -> decoded.put(source, decode(source, frame.getTimestamp(), encoded)));
+			frame.resolve(decoded);
+		}
+		return frame;
+	}
+
+
+	private ShapeMap decode(final ShapeMapSource source, final long timestamp, final EncodedShapeMap encoded)
+	{
+		SourceDecoder sourceDecoder = decoders.computeIfAbsent(source, s -> new SourceDecoder());
+		if (sourceDecoder.decoder.isValid() && sourceDecoder.timestamp == timestamp)
+		{
+			return sourceDecoder.decoder.getShapeMap();
+		}
+		Deque<byte[]> chain = collectChain(source, timestamp, encoded, sourceDecoder);
+		if (chain == null)
+		{
+			return new ShapeMap();
+		}
+		try
+		{
+			for (byte[] data : chain)
+			{
+				sourceDecoder.decoder.decode(data);
+			}
+			sourceDecoder.timestamp = timestamp;
+			return sourceDecoder.decoder.getShapeMap();
+		} catch (IOException e)
+		{
+			log.warn("Could not decode shape map of {} at {}", source, timestamp, e);
+			return new ShapeMap();
+		}
+	}
+
+
+	/**
+	 * Collect the data that has to be decoded to reconstruct the shape map, going back to the last keyframe
+	 * or to the state of the decoder, whichever comes first.
+	 *
+	 * @return the data in decoding order or null, if a base frame is missing
+	 */
+	private Deque<byte[]> collectChain(final ShapeMapSource source, final long timestamp,
+			final EncodedShapeMap encoded, final SourceDecoder sourceDecoder)
+	{
+		Deque<byte[]> chain = new ArrayDeque<>();
+		EncodedShapeMap current = encoded;
+		long currentTimestamp = timestamp;
+		chain.addFirst(current.getData());
+		while (!ShapeMapDecoder.isKeyframe(current.getData()))
+		{
+			long baseTimestamp = current.getBaseTimestamp();
+			if (sourceDecoder.decoder.isValid() && sourceDecoder.timestamp == baseTimestamp)
+			{
+				return chain;
+			}
+			// the base is always older, so corrupt data can not result in a loop
+			BerkeleyShapeMapFrame baseFrame = baseTimestamp < currentTimestamp ? getExact(baseTimestamp) : null;
+			current = baseFrame == null ? null : baseFrame.getEncodedShapeMaps().get(source);
+			if (current == null)
+			{
+				log.warn("Base {} of shape map of {} at {} is missing", baseTimestamp, source, timestamp);
+				return null;
+			}
+			currentTimestamp = baseTimestamp;
+			chain.addFirst(current.getData());
+		}
+		return chain;
+	}
+
+
+	private static class SourceEncoder
+	{
+		private final ShapeMapEncoder encoder = new ShapeMapEncoder();
+		private boolean started = false;
+		private long lastTimestamp;
+		private long lastKeyframeTimestamp;
+		private int numDeltas;
+
+
+		private boolean isKeyframeRequired(final long timestamp)
+		{
+			return !started
+					|| timestamp <= lastTimestamp
+					|| timestamp - lastKeyframeTimestamp >= KEYFRAME_INTERVAL
+					|| numDeltas >= MAX_DELTAS;
+		}
+
+
+		private void update(final long timestamp, final boolean keyframe)
+		{
+			started = true;
+			lastTimestamp = timestamp;
+			if (keyframe)
+			{
+				lastKeyframeTimestamp = timestamp;
+				numDeltas = 0;
+			} else
+			{
+				numDeltas++;
+			}
+		}
+	}
+
+	private static class SourceDecoder
+	{
+		private final ShapeMapDecoder decoder = new ShapeMapDecoder();
+		private long timestamp;
+	}
+}
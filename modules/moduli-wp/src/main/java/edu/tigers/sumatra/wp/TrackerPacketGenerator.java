@@ -19,13 +19,16 @@ import edu.tigers.sumatra.wp.proto.SslVisionDetectionTracked;
 import edu.tigers.sumatra.wp.proto.SslVisionWrapperTracked;
 import lombok.RequiredArgsConstructor;
 
-import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 
+/**
+ * Generate tracker packets from world frames.
+ * <p>
+ * The protobuf builders are reused for all packets, so an instance must not be shared between threads.
+ */
 @RequiredArgsConstructor
 public class TrackerPacketGenerator
 {
@@ -34,6 +37,11 @@ public class TrackerPacketGenerator
 	private int frameNumber = 0;
 	private final String uuid = UUID.randomUUID().toString();
 
+	private final SslVisionWrapperTracked.TrackerWrapperPacket.Builder wrapper = SslVisionWrapperTracked.TrackerWrapperPacket
+			.newBuilder();
+	private final SslVisionDetectionTracked.TrackedFrame.Builder frame = SslVisionDetectionTracked.TrackedFrame
+			.newBuilder();
+
 	static
 	{
 		CAPABILITIES.add(SslVisionDetectionTracked.Capability.CAPABILITY_DETECT_FLYING_BALLS);
@@ -43,17 +51,18 @@ public class TrackerPacketGenerator
 
 	public SslVisionWrapperTracked.TrackerWrapperPacket generate(final SimpleWorldFrame swf)
 	{
-		SslVisionDetectionTracked.TrackedFrame.Builder frame = SslVisionDetectionTracked.TrackedFrame.newBuilder();
+		frame.clear();
 		frame.setFrameNumber(frameNumber++);
 		frame.setTimestamp(buildTimestamp(swf.getTimestamp()));
-		frame.addBalls(buildBall(swf.getBall()));
-		frame.addAllRobots(buildRobots(swf.getBots().values()));
-		swf.getKickFitState()
-				.map(s -> buildKickEvent(swf, s))
-				.ifPresent(frame::setKickedBall);
+		buildBall(frame.addBallsBuilder(), swf.getBall());
+		for (ITrackedBot bot : swf.getBots().values())
+		{
+			buildRobot(frame.addRobotsBuilder(), bot);
+		}
+		swf.getKickFitState().ifPresent(s -> buildKickEvent(frame.getKickedBallBuilder(), swf, s));
 		frame.addAllCapabilities(CAPABILITIES);
-		SslVisionWrapperTracked.TrackerWrapperPacket.Builder wrapper = SslVisionWrapperTracked.TrackerWrapperPacket
-				.newBuilder();
+
+		wrapper.clear();
 		wrapper.setUuid(uuid);
 		wrapper.setSourceName(sourceName);
 		wrapper.setTrackedFrame(frame);
@@ -61,84 +70,63 @@ public class TrackerPacketGenerator
 	}
 
 
-	private SslVisionDetectionTracked.KickedBall buildKickEvent(final SimpleWorldFrame wFrame,
+	private void buildKickEvent(final SslVisionDetectionTracked.KickedBall.Builder kickedBall,
+			final SimpleWorldFrame wFrame,
 			final BallKickFitState ballKickFitState)
 	{
 		final IVector2 stopPos = wFrame.getBall().getTrajectory().getPosByVel(0.0).getXYVector();
 		final double time2Stop = wFrame.getBall().getTrajectory().getTimeByPos(stopPos);
 		final long stopTimestamp = wFrame.getTimestamp() + (Double.isFinite(time2Stop) ? ((long) (time2Stop * 1e9)) : 0);
-		final SslVisionDetectionTracked.KickedBall.Builder kickedBall = SslVisionDetectionTracked.KickedBall
-				.newBuilder()
-				.setPos(buildVector2(ballKickFitState.getKickPos().multiplyNew(1e-3)))
-				.setVel(buildVector3(ballKickFitState.getKickVel().multiplyNew(1e-3)))
-				.setStartTimestamp(buildTimestamp(ballKickFitState.getKickTimestamp()))
-				.setStopTimestamp(buildTimestamp(stopTimestamp))
-				.setStopPos(buildVector2(stopPos.multiplyNew(1e-3)));
+		buildVector2(kickedBall.getPosBuilder(), ballKickFitState.getKickPos(), 1e-3);
+		buildVector3(kickedBall.getVelBuilder(), ballKickFitState.getKickVel(), 1e-3);
+		kickedBall.setStartTimestamp(buildTimestamp(ballKickFitState.getKickTimestamp()));
+		kickedBall.setStopTimestamp(buildTimestamp(stopTimestamp));
+		buildVector2(kickedBall.getStopPosBuilder(), stopPos, 1e-3);
 
 		wFrame.getKickEvent()
 				.map(IKickEvent::getKickingBot)
-				.map(this::buildRobotId)
-				.ifPresent(kickedBall::setRobotId);
-		return kickedBall.build();
-	}
-
-
-	private Iterable<? extends SslVisionDetectionTracked.TrackedRobot> buildRobots(
-			final Collection<ITrackedBot> values)
-	{
-		return values.stream().map(this::buildRobot).collect(Collectors.toList());
+				.ifPresent(botId -> buildRobotId(kickedBall.getRobotIdBuilder(), botId));
 	}
 
 
-	private SslVisionDetectionTracked.TrackedRobot buildRobot(final ITrackedBot bot)
+	private void buildRobot(final SslVisionDetectionTracked.TrackedRobot.Builder robot, final ITrackedBot bot)
 	{
-		return SslVisionDetectionTracked.TrackedRobot.newBuilder()
-				.setRobotId(buildRobotId(bot.getBotId()))
-				.setPos(buildVector2(bot.getPos().multiplyNew(1e-3)))
-				.setOrientation((float) bot.getOrientation())
-				.setVel(buildVector2(bot.getVel()))
-				.setVelAngular((float) bot.getAngularVel())
-				.setVisibility((float) bot.getQuality())
-				.build();
+		buildRobotId(robot.getRobotIdBuilder(), bot.getBotId());
+		buildVector2(robot.getPosBuilder(), bot.getPos(), 1e-3);
+		robot.setOrientation((float) bot.getOrientation());
+		buildVector2(robot.getVelBuilder(), bot.getVel(), 1);
+		robot.setVelAngular((float) bot.getAngularVel());
+		robot.setVisibility((float) bot.getQuality());
 	}
 
 
-	private SslGcCommon.RobotId buildRobotId(final BotID botId)
+	private void buildRobotId(final SslGcCommon.RobotId.Builder robotId, final BotID botId)
 	{
-		return SslGcCommon.RobotId.newBuilder()
-				.setId(botId.getNumber())
-				.setTeam(GcEventFactory.map(botId.getTeamColor()))
-				.build();
+		robotId.setId(botId.getNumber());
+		robotId.setTeam(GcEventFactory.map(botId.getTeamColor()));
 	}
 
 
-	private SslVisionDetectionTracked.TrackedBall buildBall(final ITrackedBall ball)
+	private void buildBall(final SslVisionDetectionTracked.TrackedBall.Builder trackedBall, final ITrackedBall ball)
 	{
-		return SslVisionDetectionTracked.TrackedBall
-				.newBuilder()
-				.setPos(buildVector3(ball.getPos3().multiplyNew(1e-3)))
-				.setVel(buildVector3(ball.getVel3()))
-				.setVisibility((float) ball.getQuality())
-				.build();
+		buildVector3(trackedBall.getPosBuilder(), ball.getPos3(), 1e-3);
+		buildVector3(trackedBall.getVelBuilder(), ball.getVel3(), 1);
+		trackedBall.setVisibility((float) ball.getQuality());
 	}
 
 
-	private SslGcGeometry.Vector3 buildVector3(final IVector3 pos3)
+	private void buildVector3(final SslGcGeometry.Vector3.Builder vector, final IVector3 vec3, final double scale)
 	{
-		return SslGcGeometry.Vector3.newBuilder()
-				.setX((float) pos3.x())
-				.setY((float) pos3.y())
-				.setZ((float) pos3.z())
-				.build();
+		vector.setX((float) (vec3.x() * scale));
+		vector.setY((float) (vec3.y() * scale));
+		vector.setZ((float) (vec3.z() * scale));
 	}
 
 
-	private SslGcGeometry.Vector2 buildVector2(final IVector2 pos2)
+	private void buildVector2(final SslGcGeometry.Vector2.Builder vector, final IVector2 vec2, final double scale)
 	{
-		return SslGcGeometry.Vector2.newBuilder()
-				.setX((float) pos2.x())
-				.setY((float) pos2.y())
-				.build();
+		vector.setX((float) (vec2.x() * scale));
+		vector.setY((float) (vec2.y() * scale));
 	}
 
 
@@ -28,6 +28,7 @@ import edu.tigers.sumatra.referee.IRefereeObserver;
 import edu.tigers.sumatra.referee.Referee;
 import edu.tigers.sumatra.referee.data.GameState;
 import edu.tigers.sumatra.referee.data.RefereeMsg;
+import edu.tigers.sumatra.referee.data.RefereeMsgDecoder;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
 import edu.tigers.sumatra.referee.source.ERefereeMessageSource;
 import edu.tigers.sumatra.util.Safe;
@@ -95,6 +96,7 @@ public class WorldInfoCollector extends AWorldPredictor
 
 	private long lastWFTimestamp;
 	private RefereeMsg latestRefereeMsg;
+	private RefereeMsgDecoder refereeMsgDecoder = new RefereeMsgDecoder();
 	private IKickEvent lastKickEvent;
 	private final TimestampBasedBuffer<ITrackedBall> ballBuffer = new TimestampBasedBuffer<>(0.3);
 
@@ -361,7 +363,8 @@ public class WorldInfoCollector extends AWorldPredictor
 		if (referee.getActiveSource().getType() == ERefereeMessageSource.CI)
 		{
 			int port = getSubnodeConfiguration().getInt("ci-port", 11009);
-			ciGameControllerConnector = new CiGameControllerConnector(port);
+			boolean lockstep = getSubnodeConfiguration().getBoolean("ci-lockstep", false);
+			ciGameControllerConnector = new CiGameControllerConnector(port, lockstep);
 			try
 			{
 				ciGameControllerConnector.start();
@@ -417,6 +420,20 @@ public class WorldInfoCollector extends AWorldPredictor
 	}
 
 
+	/**
+	 * Process the frames of the given vision filter without the module system, e.g. to run the pipeline headless.
+	 * Referee messages can be passed to {@link #onNewRefereeMsg(SslGcRefereeMessage.Referee)} directly.
+	 *
+	 * @param visionFilter the vision filter that provides the filtered vision frames
+	 */
+	public void connect(final AVisionFilter visionFilter)
+	{
+		reset();
+		this.visionFilter = visionFilter;
+		visionFilter.addObserver(this);
+	}
+
+
 	private void unregisterFromVisionFilterModule()
 	{
 		if (visionFilter != null)
@@ -469,6 +486,7 @@ public class WorldInfoCollector extends AWorldPredictor
 		botStateFromTraj.clear();
 		lastWFTimestamp = 0;
 		latestRefereeMsg = new RefereeMsg();
+		refereeMsgDecoder = new RefereeMsgDecoder();
 		lastKickEvent = null;
 	}
 
@@ -504,7 +522,7 @@ public class WorldInfoCollector extends AWorldPredictor
 		{
 			ts = latestRefereeMsg.getFrameTimestamp();
 		}
-		latestRefereeMsg = new RefereeMsg(ts, refMsg);
+		latestRefereeMsg = refereeMsgDecoder.decode(ts, refMsg);
 		updateTeamOnPositiveHalf(latestRefereeMsg);
 	}
 
@@ -536,6 +554,7 @@ public class WorldInfoCollector extends AWorldPredictor
 		gameStateCalculator.reset();
 		worldFrameVisualization.reset();
 		latestRefereeMsg = new RefereeMsg();
+		refereeMsgDecoder = new RefereeMsgDecoder();
 	}
 
 
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.wp.data;
+
+import com.sleepycat.persist.model.Entity;
+import com.sleepycat.persist.model.PrimaryKey;
+import edu.tigers.sumatra.referee.data.RefereeMsg;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+
+/**
+ * Entity for a referee message that is shared by all subsequent {@link WorldFrameWrapper}s until it changes.
+ * The key is the timestamp of the first world frame that contained the message.
+ */
+@Entity
+@Data
+@RequiredArgsConstructor
+public class BerkeleyRefereeMsg
+{
+	@PrimaryKey
+	private final long timestamp;
+
+	private final RefereeMsg refereeMsg;
+
+
+	@SuppressWarnings("unused")
+	private BerkeleyRefereeMsg()
+	{
+		timestamp = 0;
+		refereeMsg = null;
+	}
+}
@@ -0,0 +1,535 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.wp.data;
+
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.referee.data.EGameState;
+import edu.tigers.sumatra.referee.data.RefereeMsg;
+import edu.tigers.sumatra.referee.gameevent.EGameEvent;
+import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+
+/**
+ * A compact overview of a recording with one {@link Entry} per second.
+ * <p>
+ * The overview is stored as {@value #FILE_NAME} in the folder of the recording, so that the replay can show it and
+ * search in it without reading world frames from the database. It also contains the team names, so that it
+ * serves as the header of the recording.
+ */
+@Log4j2
+public class ReplayOverview
+{
+	/** name of the overview file in the folder of the recording */
+	public static final String FILE_NAME = "overview.bin";
+	/** duration of one entry [ns] */
+	public static final long ENTRY_DURATION = 1_000_000_000L;
+
+	private static final int FILE_MAGIC = 0x53524f56;
+	private static final int FILE_VERSION = 2;
+	private static final long SAMPLE_PERIOD = 100_000_000L;
+
+	private final long startTimestamp;
+	private final List<Entry> entries;
+	private final String teamYellow;
+	private final String teamBlue;
+
+
+	private ReplayOverview(final long startTimestamp, final List<Entry> entries, final String teamYellow,
+			final String teamBlue)
+	{
+		this.startTimestamp = startTimestamp;
+		this.entries = Collections.unmodifiableList(entries);
+		this.teamYellow = teamYellow;
+		this.teamBlue = teamBlue;
+	}
+
+
+	/**
+	 * Create an overview by sampling the world frames of a recording.
+	 * This reads only a few world frames per second, but may still take a while for long recordings.
+	 *
+	 * @param db       an open recording
+	 * @param canceled checked before each read, so that the recording can be closed without waiting for the overview
+	 * @return the overview of the recording, empty if it was canceled
+	 */
+	public static Optional<ReplayOverview> fromRecording(final BerkeleyDb db, final BooleanSupplier canceled)
+	{
+		Builder builder = new Builder();
+		Long firstKey = db.getFirstKey();
+		Long lastKey = db.getLastKey();
+		if (firstKey == null || lastKey == null)
+		{
+			return Optional.of(builder.build());
+		}
+		long lastTimestamp = Long.MIN_VALUE;
+		for (long t = firstKey; t <= lastKey; t += SAMPLE_PERIOD)
+		{
+			if (canceled.getAsBoolean())
+			{
+				return Optional.empty();
+			}
+			WorldFrameWrapper wfw = db.get(WorldFrameWrapper.class, t);
+			if (wfw != null && wfw.getTimestamp() > lastTimestamp)
+			{
+				builder.add(wfw);
+				lastTimestamp = wfw.getTimestamp();
+			}
+		}
+		return Optional.of(builder.build());
+	}
+
+
+	/**
+	 * Read the overview that is stored with a recording
+	 *
+	 * @param recordingFolder the folder of the recording
+	 * @return the overview, if it exists and could be read
+	 */
+	public static Optional<ReplayOverview> read(final Path recordingFolder)
+	{
+		Path file = recordingFolder.resolve(FILE_NAME);
+		if (!Files.exists(file))
+		{
+			return Optional.empty();
+		}
+		try (InputStream in = Files.newInputStream(file))
+		{
+			return read(in, file.toString());
+		} catch (IOException e)
+		{
+			log.warn("Could not read replay overview: {}", file, e);
+			return Optional.empty();
+		}
+	}
+
+
+	/**
+	 * Read an overview from a stream, for example from an entry of a compressed recording.
+	 * The stream is not closed.
+	 *
+	 * @param inputStream the content of an overview file
+	 * @param source      the name of the source for log messages
+	 * @return the overview, if it has a known format
+	 * @throws IOException if the stream could not be read
+	 */
+	public static Optional<ReplayOverview> read(final InputStream inputStream, final String source)
+			throws IOException
+	{
+		DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream));
+		if (in.readInt() != FILE_MAGIC)
+		{
+			log.warn("Ignoring replay overview with unknown format: {}", source);
+			return Optional.empty();
+		}
+		int version = in.readInt();
+		if (version < 1 || version > FILE_VERSION)
+		{
+			log.warn("Ignoring replay overview with unknown version {}: {}", version, source);
+			return Optional.empty();
+		}
+		long startTimestamp = in.readLong();
+		int numEntries = in.readInt();
+		List<Entry> entries = new ArrayList<>(numEntries);
+		for (int i = 0; i < numEntries; i++)
+		{
+			entries.add(Entry.read(in));
+		}
+		// version 1 did not contain the team names
+		String teamYellow = version >= 2 ? in.readUTF() : "";
+		String teamBlue = version >= 2 ? in.readUTF() : "";
+		return Optional.of(new ReplayOverview(startTimestamp, entries, teamYellow, teamBlue));
+	}
+
+
+	/**
+	 * Store this overview with a recording. An existing overview is replaced.
+	 *
+	 * @param recordingFolder the folder of the recording
+	 * @throws IOException if the overview could not be written
+	 */
+	public void write(final Path recordingFolder) throws IOException
+	{
+		Path file = recordingFolder.resolve(FILE_NAME);
+		Path tmpFile = recordingFolder.resolve(FILE_NAME + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile))))
+		{
+			out.writeInt(FILE_MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeLong(startTimestamp);
+			out.writeInt(entries.size());
+			for (Entry entry : entries)
+			{
+				entry.write(out);
+			}
+			out.writeUTF(teamYellow);
+			out.writeUTF(teamBlue);
+		}
+		Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+
+	/**
+	 * @return the name of the yellow team, empty if unknown
+	 */
+	public String getTeamYellow()
+	{
+		return teamYellow;
+	}
+
+
+	/**
+	 * @return the name of the blue team, empty if unknown
+	 */
+	public String getTeamBlue()
+	{
+		return teamBlue;
+	}
+
+
+	/**
+	 * @return the timestamp of the first entry [ns]
+	 */
+	public long getStartTimestamp()
+	{
+		return startTimestamp;
+	}
+
+
+	/**
+	 * @return the timestamp after the last entry [ns]
+	 */
+	public long getEndTimestamp()
+	{
+		return getTimestamp(entries.size());
+	}
+
+
+	/**
+	 * @return all entries, one per second
+	 */
+	public List<Entry> getEntries()
+	{
+		return entries;
+	}
+
+
+	/**
+	 * @param index the index of an entry
+	 * @return the start timestamp of the entry [ns]
+	 */
+	public long getTimestamp(final int index)
+	{
+		return startTimestamp + index * ENTRY_DURATION;
+	}
+
+
+	/**
+	 * @param timestamp [ns]
+	 * @return the index of the entry that contains the timestamp, might be out of range
+	 */
+	public int indexOf(final long timestamp)
+	{
+		return (int) Math.floorDiv(timestamp - startTimestamp, ENTRY_DURATION);
+	}
+
+
+	/**
+	 * @param timestamp [ns]
+	 * @return the entry that contains the timestamp
+	 */
+	public Optional<Entry> get(final long timestamp)
+	{
+		int index = indexOf(timestamp);
+		if (index < 0 || index >= entries.size())
+		{
+			return Optional.empty();
+		}
+		return Optional.of(entries.get(index));
+	}
+
+
+	/**
+	 * Find the first entry at or after the given timestamp that matches the predicate.
+	 *
+	 * @param timestamp the timestamp to start from [ns]
+	 * @param predicate the condition for the entry
+	 * @return the given timestamp, if its entry matches, else the start timestamp of the next matching entry
+	 */
+	public Optional<Long> findNext(final long timestamp, final Predicate<Entry> predicate)
+	{
+		for (int i = Math.max(0, indexOf(timestamp)); i < entries.size(); i++)
+		{
+			if (predicate.test(entries.get(i)))
+			{
+				return Optional.of(Math.max(timestamp, getTimestamp(i)));
+			}
+		}
+		return Optional.empty();
+	}
+
+
+	/**
+	 * The summary of one second of a recording
+	 */
+	@Value
+	public static class Entry
+	{
+		/** true, if the recording contains world frames in this second */
+		boolean recorded;
+		/** maximum ball speed [m/s] */
+		float maxBallSpeed;
+		/** last ball position [mm] */
+		float ballX;
+		/** last ball position [mm] */
+		float ballY;
+		/** maximum number of visible robots */
+		int numBots;
+		/** number of game events that were added */
+		int numGameEvents;
+		/** last game state */
+		EGameState gameState;
+		/** bit mask of all game states, indexed by ordinal */
+		int gameStates;
+		/** bit mask of all referee commands, indexed by ordinal */
+		long commands;
+		/** bit mask of all types of added game events, indexed by ordinal */
+		long gameEventTypes;
+
+
+		private static Entry empty()
+		{
+			return new Entry(false, 0, 0, 0, 0, 0, EGameState.UNKNOWN, 0, 0, 0);
+		}
+
+
+		/**
+		 * @param state a game state
+		 * @return true, if the game was in this state within this second
+		 */
+		public boolean hasGameState(final EGameState state)
+		{
+			return (gameStates & (1 << state.ordinal())) != 0;
+		}
+
+
+		/**
+		 * @param predicate a condition for the game state
+		 * @return true, if any game state within this second matches the condition
+		 */
+		public boolean hasGameState(final Predicate<EGameState> predicate)
+		{
+			for (EGameState state : EGameState.values())
+			{
+				if (hasGameState(state) && predicate.test(state))
+				{
+					return true;
+				}
+			}
+			return false;
+		}
+
+
+		/**
+		 * @param command a referee command
+		 * @return true, if the referee sent this command within this second
+		 */
+		public boolean hasCommand(final SslGcRefereeMessage.Referee.Command command)
+		{
+			return command.ordinal() < Long.SIZE && (commands & (1L << command.ordinal())) != 0;
+		}
+
+
+		/**
+		 * @param gameEvent a game event type
+		 * @return true, if a game event of this type was added within this second
+		 */
+		public boolean hasGameEvent(final EGameEvent gameEvent)
+		{
+			return gameEvent.ordinal() < Long.SIZE && (gameEventTypes & (1L << gameEvent.ordinal())) != 0;
+		}
+
+
+		private void write(final DataOutputStream out) throws IOException
+		{
+			out.writeBoolean(recorded);
+			out.writeFloat(maxBallSpeed);
+			out.writeFloat(ballX);
+			out.writeFloat(ballY);
+			out.writeByte(numBots);
+			out.writeShort(numGameEvents);
+			out.writeByte(gameState.ordinal());
+			out.writeInt(gameStates);
+			out.writeLong(commands);
+			out.writeLong(gameEventTypes);
+		}
+
+
+		private static Entry read(final DataInputStream in) throws IOException
+		{
+			boolean recorded = in.readBoolean();
+			float maxBallSpeed = in.readFloat();
+			float ballX = in.readFloat();
+			float ballY = in.readFloat();
+			int numBots = in.readUnsignedByte();
+			int numGameEvents = in.readUnsignedShort();
+			int gameStateOrdinal = in.readUnsignedByte();
+			EGameState gameState = gameStateOrdinal < EGameState.values().length
+					? EGameState.values()[gameStateOrdinal]
+					: EGameState.UNKNOWN;
+			return new Entry(recorded, maxBallSpeed, ballX, ballY, numBots, numGameEvents, gameState, in.readInt(),
+					in.readLong(), in.readLong());
+		}
+	}
+
+
+	/**
+	 * Collects world frames in timestamp order into entries of one second.
+	 * This is thread-safe, so frames can be added while the current state is built.
+	 */
+	public static class Builder
+	{
+		private final List<Entry> entries = new ArrayList<>();
+		private long startTimestamp;
+		private boolean started = false;
+
+		private boolean recorded;
+		private float maxBallSpeed;
+		private float ballX;
+		private float ballY;
+		private int numBots;
+		private int numGameEvents;
+		private EGameState gameState;
+		private int gameStates;
+		private long commands;
+		private long gameEventTypes;
+
+		private long lastCommandCounter = -1;
+		private int lastNumGameEvents = 0;
+		private String teamYellow = "";
+		private String teamBlue = "";
+
+
+		/**
+		 * @param wfw the next world frame
+		 */
+		public synchronized void add(final WorldFrameWrapper wfw)
+		{
+			long timestamp = wfw.getTimestamp();
+			if (!started)
+			{
+				startTimestamp = timestamp;
+				started = true;
+				clearCurrent();
+			}
+			long index = Math.floorDiv(timestamp - startTimestamp, ENTRY_DURATION);
+			if (index < entries.size())
+			{
+				// frames are expected in order, ignore older ones
+				return;
+			}
+			while (entries.size() < index)
+			{
+				entries.add(recorded ? currentEntry() : Entry.empty());
+				clearCurrent();
+			}
+
+			recorded = true;
+			ITrackedBall ball = wfw.getSimpleWorldFrame().getBall();
+			maxBallSpeed = Math.max(maxBallSpeed, (float) ball.getVel().getLength2());
+			ballX = (float) ball.getPos().x();
+			ballY = (float) ball.getPos().y();
+			numBots = Math.max(numBots, Math.min(255, wfw.getSimpleWorldFrame().getBots().size()));
+			gameState = wfw.getGameState().getState();
+			gameStates |= 1 << gameState.ordinal();
+			addRefereeMsg(wfw.getRefereeMsg());
+		}
+
+
+		private void addRefereeMsg(final RefereeMsg refereeMsg)
+		{
+			if (refereeMsg == null)
+			{
+				return;
+			}
+			if (refereeMsg.getTeamInfoYellow() != null && refereeMsg.getTeamInfoBlue() != null)
+			{
+				teamYellow = Objects.requireNonNullElse(refereeMsg.getTeamInfoYellow().getName(), "");
+				teamBlue = Objects.requireNonNullElse(refereeMsg.getTeamInfoBlue().getName(), "");
+			}
+			if (refereeMsg.getCommand() != null && refereeMsg.getCommand().ordinal() < Long.SIZE)
+			{
+				commands |= 1L << refereeMsg.getCommand().ordinal();
+			}
+			List<IGameEvent> gameEvents = refereeMsg.getGameEvents() == null
+					? Collections.emptyList()
+					: refereeMsg.getGameEvents();
+			int firstNew = refereeMsg.getCmdCounter() == lastCommandCounter ? lastNumGameEvents : 0;
+			for (int i = firstNew; i < gameEvents.size(); i++)
+			{
+				numGameEvents = Math.min(numGameEvents + 1, 0xffff);
+				int type = gameEvents.get(i).getType().ordinal();
+				if (type < Long.SIZE)
+				{
+					gameEventTypes |= 1L << type;
+				}
+			}
+			lastCommandCounter = refereeMsg.getCmdCounter();
+			lastNumGameEvents = gameEvents.size();
+		}
+
+
+		private Entry currentEntry()
+		{
+			return new Entry(recorded, maxBallSpeed, ballX, ballY, numBots, numGameEvents, gameState, gameStates,
+					commands, gameEventTypes);
+		}
+
+
+		private void clearCurrent()
+		{
+			recorded = false;
+			maxBallSpeed = 0;
+			numBots = 0;
+			numGameEvents = 0;
+			gameState = EGameState.UNKNOWN;
+			gameStates = 0;
+			commands = 0;
+			gameEventTypes = 0;
+		}
+
+
+		/**
+		 * @return the overview of all frames that were added so far
+		 */
+		public synchronized ReplayOverview build()
+		{
+			List<Entry> allEntries = new ArrayList<>(entries);
+			if (recorded)
+			{
+				allEntries.add(currentEntry());
+			}
+			return new ReplayOverview(startTimestamp, allEntries, teamYellow, teamBlue);
+		}
+	}
+}
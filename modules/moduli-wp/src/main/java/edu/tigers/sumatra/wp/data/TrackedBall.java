@@ -5,6 +5,8 @@
 package edu.tigers.sumatra.wp.data;
 
 import com.sleepycat.persist.model.Persistent;
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
+import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.geometry.Geometry;
 import edu.tigers.sumatra.ids.AObjectID;
 import edu.tigers.sumatra.ids.BallID;
@@ -20,7 +22,6 @@ import org.apache.commons.lang.Validate;
 import org.apache.commons.lang.builder.ToStringBuilder;
 import org.apache.commons.lang.builder.ToStringStyle;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -281,15 +282,28 @@ public class TrackedBall implements ITrackedBall
 	@Override
 	public List<Number> getNumberList()
 	{
-		List<Number> numbers = new ArrayList<>();
-		numbers.add(timestamp);
-		numbers.addAll(getPos3().getNumberList());
-		numbers.addAll(getVel3().getNumberList());
-		numbers.addAll(getAcc3().getNumberList());
-		numbers.add(lastVisibleTimestamp);
-		numbers.add(state.getVSwitchToRoll());
-		numbers.add(state.isChipped() ? 1 : 0);
-		return numbers;
+		return IExportable.collectValues(this);
+	}
+
+
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(timestamp);
+		writeVector(writer, getPos3());
+		writeVector(writer, getVel3());
+		writeVector(writer, getAcc3());
+		writer.writeLong(lastVisibleTimestamp);
+		writer.writeDouble(state.getVSwitchToRoll());
+		writer.writeLong(state.isChipped() ? 1 : 0);
+	}
+
+
+	private static void writeVector(final IExportValueWriter writer, final IVector3 vector)
+	{
+		writer.writeDouble(vector.x());
+		writer.writeDouble(vector.y());
+		writer.writeDouble(vector.z());
 	}
 
 
@@ -9,6 +9,9 @@ import edu.tigers.sumatra.bot.BotState;
 import edu.tigers.sumatra.bot.MoveConstraints;
 import edu.tigers.sumatra.bot.RobotInfo;
 import edu.tigers.sumatra.bot.State;
+import edu.tigers.sumatra.clock.SumatraClock;
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
+import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.ids.AObjectID;
 import edu.tigers.sumatra.ids.BotID;
 import edu.tigers.sumatra.ids.ETeamColor;
@@ -21,7 +24,6 @@ import edu.tigers.sumatra.math.vector.Vector3;
 import edu.tigers.sumatra.trajectory.ITrajectory;
 import org.apache.commons.lang.Validate;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
@@ -72,7 +74,7 @@ public final class TrackedBot implements ITrackedBot
 		ballContact = builder.ballContact;
 		robotInfo = builder.robotInfo;
 		quality = builder.quality;
-		tAssembly = System.nanoTime();
+		tAssembly = SumatraClock.nanoTime();
 	}
 
 
@@ -378,23 +380,34 @@ public final class TrackedBot implements ITrackedBot
 	@Override
 	public List<Number> getNumberList()
 	{
-		List<Number> numbers = new ArrayList<>();
-		numbers.add(getBotId().getNumber());
-		numbers.addAll(getBotId().getTeamColor().getNumberList());
-		numbers.add(timestamp);
-		numbers.addAll(Vector3.from2d(getPos(), getOrientation()).getNumberList());
-		numbers.addAll(Vector3.from2d(getVel(), getAngularVel()).getNumberList());
-		numbers.addAll(Vector3.zero().getNumberList());
-		numbers.add(filteredState == null ? 0 : 1);
-		numbers.add(robotInfo.getKickSpeed());
-		numbers.add(robotInfo.isChip() ? 1 : 0);
-		numbers.add(robotInfo.getDribbleRpm());
-		numbers.add(robotInfo.isBarrierInterrupted() ? 1 : 0);
-		numbers.add(tAssembly);
-		numbers.addAll(getBufferedTrajState().orElse(State.nan()).getNumberList());
-		numbers.add(trackingQuality.getCurDistance());
-		numbers.addAll(robotInfo.getInternalState().orElse(BotState.nan()).getNumberList());
-		return numbers;
+		return IExportable.collectValues(this);
+	}
+
+
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(getBotId().getNumber());
+		writer.writeLong(getBotId().getTeamColor().getId());
+		writer.writeLong(timestamp);
+		writer.writeDouble(getPos().x());
+		writer.writeDouble(getPos().y());
+		writer.writeDouble(getOrientation());
+		writer.writeDouble(getVel().x());
+		writer.writeDouble(getVel().y());
+		writer.writeDouble(getAngularVel());
+		writer.writeDouble(0);
+		writer.writeDouble(0);
+		writer.writeDouble(0);
+		writer.writeLong(filteredState == null ? 0 : 1);
+		writer.writeDouble(robotInfo.getKickSpeed());
+		writer.writeLong(robotInfo.isChip() ? 1 : 0);
+		writer.writeDouble(robotInfo.getDribbleRpm());
+		writer.writeLong(robotInfo.isBarrierInterrupted() ? 1 : 0);
+		writer.writeLong(tAssembly);
+		getBufferedTrajState().orElse(State.nan()).getNumberList().forEach(writer::writeNumber);
+		writer.writeDouble(trackingQuality.getCurDistance());
+		robotInfo.getInternalState().orElse(BotState.nan()).getNumberList().forEach(writer::writeNumber);
 	}
 
 
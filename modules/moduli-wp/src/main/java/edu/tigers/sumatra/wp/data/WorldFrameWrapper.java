@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp.data;
@@ -10,6 +10,7 @@ import java.util.Map;
 import com.sleepycat.persist.model.Entity;
 import com.sleepycat.persist.model.PrimaryKey;
 
+import edu.tigers.sumatra.clock.SumatraClock;
 import edu.tigers.sumatra.ids.EAiTeam;
 import edu.tigers.sumatra.referee.data.GameState;
 import edu.tigers.sumatra.referee.data.RefereeMsg;
@@ -20,15 +21,21 @@ import edu.tigers.sumatra.referee.data.RefereeMsg;
  * 
  * @author Nicolai Ommer <nicolai.ommer@gmail.com>
  */
-@Entity
+@Entity(version = 1)
 public class WorldFrameWrapper
 {
+	/** Marker for frames that store their referee message inline (recordings before deduplication) */
+	static final long NO_REFEREE_MSG_KEY = -1;
+	
 	@PrimaryKey
 	private final long timestamp;
 	
-	private final long timestampMs = System.currentTimeMillis();
+	private final long timestampMs;
 	private final SimpleWorldFrame simpleWorldFrame;
-	private final RefereeMsg refereeMsg;
+	/** may be null in the database, if the referee message is stored in a {@link BerkeleyRefereeMsg} */
+	private RefereeMsg refereeMsg;
+	/** the key of the {@link BerkeleyRefereeMsg} that holds the referee message */
+	private long refereeMsgKey = NO_REFEREE_MSG_KEY;
 	private GameState gameState = GameState.HALT;
 	
 	private final transient Map<EAiTeam, WorldFrame> worldFrames = new EnumMap<>(EAiTeam.class);
@@ -38,6 +45,7 @@ public class WorldFrameWrapper
 	private WorldFrameWrapper()
 	{
 		timestamp = 0;
+		timestampMs = SumatraClock.currentTimeMillis();
 		simpleWorldFrame = null;
 		refereeMsg = new RefereeMsg();
 	}
@@ -48,6 +56,7 @@ public class WorldFrameWrapper
 		assert refereeMsg != null;
 		assert swf != null;
 		timestamp = swf.getTimestamp();
+		timestampMs = SumatraClock.currentTimeMillis();
 		simpleWorldFrame = swf;
 		this.refereeMsg = refereeMsg;
 		this.gameState = gameState;
@@ -62,13 +71,32 @@ public class WorldFrameWrapper
 	public WorldFrameWrapper(final WorldFrameWrapper wfw)
 	{
 		timestamp = wfw.getSimpleWorldFrame().getTimestamp();
+		timestampMs = SumatraClock.currentTimeMillis();
 		simpleWorldFrame = wfw.simpleWorldFrame;
 		refereeMsg = wfw.refereeMsg;
+		refereeMsgKey = wfw.refereeMsgKey;
 		worldFrames.putAll(wfw.worldFrames);
 		gameState = wfw.gameState;
 	}
 	
 	
+	/**
+	 * Create a copy for storage that only references its referee message
+	 * 
+	 * @param wfw instance to copy
+	 * @param refereeMsgKey the key of the {@link BerkeleyRefereeMsg} with the referee message of wfw
+	 */
+	private WorldFrameWrapper(final WorldFrameWrapper wfw, final long refereeMsgKey)
+	{
+		timestamp = wfw.timestamp;
+		timestampMs = wfw.timestampMs;
+		simpleWorldFrame = wfw.simpleWorldFrame;
+		refereeMsg = null;
+		this.refereeMsgKey = refereeMsgKey;
+		gameState = wfw.gameState;
+	}
+	
+	
 	/**
 	 * Create WF from swf
 	 * 
@@ -134,6 +162,43 @@ public class WorldFrameWrapper
 	}
 	
 	
+	/**
+	 * @param refereeMsgKey the key of the {@link BerkeleyRefereeMsg} with the referee message of this frame
+	 * @return a copy for storage without the referee message
+	 */
+	WorldFrameWrapper withRefereeMsgKey(final long refereeMsgKey)
+	{
+		return new WorldFrameWrapper(this, refereeMsgKey);
+	}
+	
+	
+	/**
+	 * @return the key of the referee message or {@link #NO_REFEREE_MSG_KEY}, if it is stored inline
+	 */
+	long getRefereeMsgKey()
+	{
+		return refereeMsgKey;
+	}
+	
+	
+	/**
+	 * @return true, if the referee message is referenced by key and was not resolved yet
+	 */
+	boolean isRefereeMsgUnresolved()
+	{
+		return refereeMsg == null && refereeMsgKey != NO_REFEREE_MSG_KEY;
+	}
+	
+	
+	/**
+	 * @param refereeMsg the referee message that belongs to the referenced key
+	 */
+	void resolveRefereeMsg(final RefereeMsg refereeMsg)
+	{
+		this.refereeMsg = refereeMsg;
+	}
+	
+	
 	/**
 	 * @return the gameState
 	 */
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.wp.data;
+
+import com.sleepycat.persist.EntityStore;
+import com.sleepycat.persist.PrimaryIndex;
+import edu.tigers.sumatra.persistence.BerkeleyAccessor;
+import edu.tigers.sumatra.referee.data.RefereeMsg;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * Accessor for {@link WorldFrameWrapper}s that stores the referee messages separately.
+ * <p>
+ * A referee message is only written as {@link BerkeleyRefereeMsg}, if it differs from the previously written one.
+ * The world frames only store the key of their referee message, which is resolved transparently on read.
+ * Recordings that still contain the referee message in each world frame can be read as before.
+ */
+@Log4j2
+public class WorldFrameWrapperBerkeleyAccessor extends BerkeleyAccessor<WorldFrameWrapper>
+{
+	private static final int CACHE_SIZE = 16;
+
+	private final Map<Long, RefereeMsg> refereeMsgCache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(final Map.Entry<Long, RefereeMsg> eldest)
+		{
+			return size() > CACHE_SIZE;
+		}
+	};
+	private PrimaryIndex<Long, BerkeleyRefereeMsg> refereeMsgByTimestamp;
+	private RefereeMsg lastWrittenRefereeMsg = null;
+	private long lastWrittenRefereeMsgKey = WorldFrameWrapper.NO_REFEREE_MSG_KEY;
+
+
+	public WorldFrameWrapperBerkeleyAccessor()
+	{
+		super(WorldFrameWrapper.class, true);
+	}
+
+
+	@Override
+	public void open(final EntityStore entityStore)
+	{
+		super.open(entityStore);
+		refereeMsgByTimestamp = entityStore.getPrimaryIndex(Long.class, BerkeleyRefereeMsg.class);
+	}
+
+
+	@Override
+	public synchronized void write(final WorldFrameWrapper element)
+	{
+		if (element == null || element.getRefereeMsg() == null)
+		{
+			super.write(element);
+			return;
+		}
+		RefereeMsg refereeMsg = element.getRefereeMsg();
+		if (lastWrittenRefereeMsg == null
+				|| (refereeMsg != lastWrittenRefereeMsg && !refereeMsg.equals(lastWrittenRefereeMsg)))
+		{
+			try
+			{
+				refereeMsgByTimestamp.put(new BerkeleyRefereeMsg(element.getTimestamp(), refereeMsg));
+				lastWrittenRefereeMsg = refereeMsg;
+				lastWrittenRefereeMsgKey = element.getTimestamp();
+			} catch (Exception err)
+			{
+				log.error("Could not write referee message, storing it inline: " + refereeMsg, err);
+				super.write(element);
+				return;
+			}
+		}
+		super.write(element.withRefereeMsgKey(lastWrittenRefereeMsgKey));
+	}
+
+
+	@Override
+	public synchronized WorldFrameWrapper get(final long tCur)
+	{
+		return resolve(super.get(tCur));
+	}
+
+
+	@Override
+	public synchronized List<WorldFrameWrapper> load()
+	{
+		List<WorldFrameWrapper> frames = super.load();
+		frames.forEach(this::resolve);
+		return frames;
+	}
+
+
+	@Override
+	public synchronized void forEach(final Consumer<? super WorldFrameWrapper> consumer)
+	{
+		super.forEach(wfw -> consumer.accept(resolve(wfw)));
+	}
+
+
+	/**
+	 * Migrate a recording in place: all world frames that store their referee message inline are rewritten
+	 * with a reference to a shared {@link BerkeleyRefereeMsg}.
+	 *
+	 * @return the number of migrated world frames
+	 */
+	public synchronized long migrateInlineRefereeMsgs()
+	{
+		long numMigrated = 0;
+		for (Long key = getFirstKey(); key != null; key = getNextKey(key))
+		{
+			WorldFrameWrapper wfw = get(key);
+			if (wfw.getRefereeMsgKey() == WorldFrameWrapper.NO_REFEREE_MSG_KEY)
+			{
+				write(wfw);
+				numMigrated++;
+			}
+		}
+		return numMigrated;
+	}
+
+
+	/**
+	 * @return the number of stored referee messages
+	 */
+	public long sizeOfRefereeMsgs()
+	{
+		return refereeMsgByTimestamp.count();
+	}
+
+
+	private WorldFrameWrapper resolve(final WorldFrameWrapper wfw)
+	{
+		if (wfw != null && wfw.isRefereeMsgUnresolved())
+		{
+			wfw.resolveRefereeMsg(refereeMsgCache.computeIfAbsent(wfw.getRefereeMsgKey(), this::loadRefereeMsg));
+		}
+		return wfw;
+	}
+
+
+	private RefereeMsg loadRefereeMsg(final long key)
+	{
+		BerkeleyRefereeMsg refereeMsg = refereeMsgByTimestamp.get(key);
+		if (refereeMsg == null)
+		{
+			log.warn("Referee message {} is missing in the database", key);
+			return new RefereeMsg();
+		}
+		return refereeMsg.getRefereeMsg();
+	}
+}
@@ -4,25 +4,55 @@
 
 package edu.tigers.sumatra.wp.exporter;
 
+import com.google.protobuf.CodedOutputStream;
 import edu.tigers.moduli.AModule;
+import edu.tigers.sumatra.clock.IClockTask;
+import edu.tigers.sumatra.clock.SumatraClock;
 import edu.tigers.sumatra.model.SumatraModel;
-import edu.tigers.sumatra.network.MulticastUDPTransmitter;
+import edu.tigers.sumatra.network.ConcurrentMulticastUDPTransmitter;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import edu.tigers.sumatra.util.Safe;
 import edu.tigers.sumatra.wp.AWorldPredictor;
 import edu.tigers.sumatra.wp.IWorldFrameObserver;
 import edu.tigers.sumatra.wp.TrackerPacketGenerator;
+import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
 import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
 import edu.tigers.sumatra.wp.proto.SslVisionWrapperTracked;
+import lombok.Value;
 import lombok.extern.log4j.Log4j2;
 
+import java.io.IOException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 
 /**
  * Export standardized vision tracking data.
+ * <p>
+ * The world frame observer only hands over the latest frame. The packets are generated, serialized and sent by a
+ * dedicated sender, either for each new frame (rate = 0) or with a fixed rate [Hz]. Frames that are replaced before
+ * they were sent are dropped.
  */
 @Log4j2
 public class VisionTrackerSender extends AModule implements IWorldFrameObserver
 {
-	private MulticastUDPTransmitter transmitter;
+	private final BlockingDeque<PendingFrame> latestFrame = new LinkedBlockingDeque<>(1);
+	private final AtomicLong numReceived = new AtomicLong();
+	private final AtomicLong numDropped = new AtomicLong();
+	private final AtomicLong numPublished = new AtomicLong();
+	private final AtomicLong numSent = new AtomicLong();
+	private final AtomicLong latencySum = new AtomicLong();
+	private final AtomicLong latencyMax = new AtomicLong();
+
+	private ConcurrentMulticastUDPTransmitter transmitter;
 	private TrackerPacketGenerator trackerPacketGenerator;
+	private ExecutorService senderExecutor;
+	private IClockTask senderTask;
+	private byte[] buffer = new byte[1024];
 
 
 	@Override
@@ -30,7 +60,7 @@ public class VisionTrackerSender extends AModule implements IWorldFrameObserver
 	{
 		String address = getSubnodeConfiguration().getString("address", "224.5.23.2");
 		int port = getSubnodeConfiguration().getInt("port", 10010);
-		transmitter = new MulticastUDPTransmitter(address, port);
+		transmitter = new ConcurrentMulticastUDPTransmitter(address, port);
 
 		String nifName = getSubnodeConfiguration().getString("interface", null);
 		if (nifName != null)
@@ -46,6 +76,18 @@ public class VisionTrackerSender extends AModule implements IWorldFrameObserver
 		String sourceName = getSubnodeConfiguration().getString("source-name", "TIGERs");
 		trackerPacketGenerator = new TrackerPacketGenerator(sourceName);
 
+		double rate = getSubnodeConfiguration().getDouble("rate", 0);
+		if (rate > 0)
+		{
+			long periodNs = (long) (1e9 / rate);
+			senderTask = SumatraClock.get().scheduleAtFixedRate("VisionTrackerSender",
+					() -> Safe.run(() -> sendFrame(latestFrame.pollLast())), periodNs, periodNs);
+		} else
+		{
+			senderExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("VisionTrackerSender"));
+			senderExecutor.execute(this::sendFrames);
+		}
+
 		SumatraModel.getInstance().getModule(AWorldPredictor.class).addObserver(this);
 	}
 
@@ -54,14 +96,148 @@ public class VisionTrackerSender extends AModule implements IWorldFrameObserver
 	public void stopModule()
 	{
 		SumatraModel.getInstance().getModule(AWorldPredictor.class).removeObserver(this);
+		if (senderTask != null)
+		{
+			senderTask.cancel();
+			senderTask = null;
+		}
+		if (senderExecutor != null)
+		{
+			senderExecutor.shutdownNow();
+			awaitTermination(senderExecutor);
+			senderExecutor = null;
+		}
+		transmitter.close();
+		latestFrame.clear();
+		log.info("Vision tracking packet statistics: {}", getStatistics());
+	}
+
+
+	private void awaitTermination(final ExecutorService executor)
+	{
+		try
+		{
+			if (!executor.awaitTermination(1, TimeUnit.SECONDS))
+			{
+				log.warn("Vision tracker sender did not terminate in time");
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
 	}
 
 
 	@Override
 	public void onNewWorldFrame(final WorldFrameWrapper wfw)
 	{
-		SslVisionWrapperTracked.TrackerWrapperPacket packet = trackerPacketGenerator.generate(wfw.getSimpleWorldFrame());
-		transmitter.send(packet.toByteArray());
+		numReceived.incrementAndGet();
+		if (latestFrame.pollLast() != null)
+		{
+			numDropped.incrementAndGet();
+		}
+		latestFrame.offerFirst(new PendingFrame(wfw.getSimpleWorldFrame(), SumatraClock.nanoTime()));
+	}
+
+
+	private void sendFrames()
+	{
+		while (!Thread.currentThread().isInterrupted())
+		{
+			try
+			{
+				sendFrame(latestFrame.pollLast(10, TimeUnit.MILLISECONDS));
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			} catch (Exception e)
+			{
+				log.error("Unhandled exception while sending vision tracking packet", e);
+			}
+		}
 	}
 
+
+	private void sendFrame(final PendingFrame frame)
+	{
+		if (frame == null)
+		{
+			return;
+		}
+		SslVisionWrapperTracked.TrackerWrapperPacket packet = trackerPacketGenerator.generate(frame.swf);
+		int size = packet.getSerializedSize();
+		if (buffer.length < size)
+		{
+			buffer = new byte[size * 2];
+		}
+		try
+		{
+			packet.writeTo(CodedOutputStream.newInstance(buffer, 0, size));
+		} catch (IOException e)
+		{
+			log.warn("Could not serialize vision tracking packet", e);
+			return;
+		}
+		if (transmitter.send(buffer, size))
+		{
+			numSent.incrementAndGet();
+		}
+
+		long latency = SumatraClock.nanoTime() - frame.tReceived;
+		numPublished.incrementAndGet();
+		latencySum.addAndGet(latency);
+		latencyMax.accumulateAndGet(latency, Math::max);
+	}
+
+
+	/**
+	 * @return the counters of this sender since the module was started
+	 */
+	public Statistics getStatistics()
+	{
+		long published = numPublished.get();
+		double avgLatency = published > 0 ? latencySum.get() / 1e6 / published : 0;
+		return new Statistics(numReceived.get(), published, numSent.get(), numDropped.get(),
+				transmitter.getNumDropped(), avgLatency, latencyMax.get() / 1e6);
+	}
+
+
+	/**
+	 * A world frame that waits to be sent
+	 */
+	private static class PendingFrame
+	{
+		final SimpleWorldFrame swf;
+		final long tReceived;
+
+
+		PendingFrame(final SimpleWorldFrame swf, final long tReceived)
+		{
+			this.swf = swf;
+			this.tReceived = tReceived;
+		}
+	}
+
+
+	/**
+	 * Counters of the vision tracker sender
+	 */
+	@Value
+	public static class Statistics
+	{
+		/** number of received world frames */
+		long numReceived;
+		/** number of packets that were generated and handed to the interfaces */
+		long numPublished;
+		/** number of packets that were accepted by all interfaces */
+		long numSent;
+		/** number of world frames that were replaced by a newer frame before they were sent */
+		long numDropped;
+		/** number of packets that were dropped by an interface that was still busy */
+		long numDroppedByInterface;
+		/** average time from receiving the world frame until the packet was handed to the interfaces [ms] */
+		double avgPublishLatency;
+		/** maximum time from receiving the world frame until the packet was handed to the interfaces [ms] */
+		double maxPublishLatency;
+	}
 }
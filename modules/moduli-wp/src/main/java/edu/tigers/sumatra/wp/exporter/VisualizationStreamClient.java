@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapDecoder;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Subscribes to the shape maps of a {@link VisualizationStreamPublisher}.
+ * <p>
+ * The client is not thread safe, except for {@link #subscribe} and {@link #close}, which may be called while another
+ * thread waits in {@link #receive}.
+ */
+public class VisualizationStreamClient implements AutoCloseable
+{
+	/** [ms] */
+	private static final int CONNECT_TIMEOUT = 1000;
+
+	private final Socket socket;
+	private final DataInputStream in;
+	private final DataOutputStream out;
+	private final Map<ShapeMapSource, ShapeMapDecoder> decoders = new HashMap<>();
+
+
+	/**
+	 * Connect to a publisher
+	 *
+	 * @param host the host of the publisher
+	 * @param port the port of the publisher
+	 * @throws IOException if the connection failed
+	 */
+	public VisualizationStreamClient(final String host, final int port) throws IOException
+	{
+		socket = new Socket();
+		try
+		{
+			socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT);
+			socket.setTcpNoDelay(true);
+			in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			int version = in.readInt();
+			if (version != VisualizationStreamPublisher.PROTOCOL_VERSION)
+			{
+				throw new IOException("Unsupported protocol version: " + version);
+			}
+		} catch (IOException e)
+		{
+			socket.close();
+			throw e;
+		}
+	}
+
+
+	/**
+	 * Select the shapes that should be sent. Without a subscription, all layers are sent as fast as possible.
+	 *
+	 * @param excludedLayerIds the ids of the layers that should not be sent
+	 * @param maxRate          the maximum rate in which shape maps of a source are sent [Hz], 0 for no limit
+	 * @throws IOException if the subscription could not be sent
+	 */
+	public synchronized void subscribe(final Collection<String> excludedLayerIds, final double maxRate)
+			throws IOException
+	{
+		out.writeByte(VisualizationStreamPublisher.MSG_SUBSCRIBE);
+		out.writeDouble(maxRate);
+		out.writeInt(excludedLayerIds.size());
+		for (String layerId : excludedLayerIds)
+		{
+			out.writeUTF(layerId);
+		}
+		out.flush();
+	}
+
+
+	/**
+	 * Wait for the next shape map
+	 *
+	 * @return the next shape map
+	 * @throws IOException if the connection was closed or the data is invalid
+	 */
+	public Frame receive() throws IOException
+	{
+		byte type = in.readByte();
+		if (type != VisualizationStreamPublisher.MSG_SHAPE_MAP)
+		{
+			throw new IOException("Unknown message type: " + type);
+		}
+		long timestamp = in.readLong();
+		long tPublished = in.readLong();
+		String name = in.readUTF();
+		String[] categories = new String[in.readInt()];
+		for (int i = 0; i < categories.length; i++)
+		{
+			categories[i] = in.readUTF();
+		}
+		byte[] data = new byte[in.readInt()];
+		in.readFully(data);
+
+		ShapeMapSource source = ShapeMapSource.of(name, categories);
+		ShapeMapDecoder decoder = decoders.computeIfAbsent(source, s -> new ShapeMapDecoder());
+		decoder.decode(data);
+		return new Frame(source, timestamp, tPublished, decoder.getShapeMap(), data.length);
+	}
+
+
+	@Override
+	public void close() throws IOException
+	{
+		socket.close();
+	}
+
+
+	/**
+	 * A received shape map
+	 */
+	@Value
+	public static class Frame
+	{
+		ShapeMapSource source;
+		long timestamp;
+		/** the time when the shape map was published [ns, System.nanoTime of the publisher] */
+		long tPublished;
+		ShapeMap shapeMap;
+		/** the size of the encoded shape map [bytes] */
+		int encodedSize;
+	}
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapEncoder;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import lombok.Value;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Publish shape maps over TCP, so that they can be rendered by a separate viewer process.
+ * <p>
+ * Publishing only hands the shape map over to the subscribers. Each subscriber has its own sender thread that
+ * encodes the shape maps with a {@link ShapeMapEncoder}, so only the changed layers are sent after the first frame.
+ * A subscriber can exclude layers and limit the rate. Shape maps of a source that are replaced before they were sent
+ * are dropped, so a slow subscriber always receives the latest shapes.
+ * <p>
+ * Protocol, all values in {@link DataOutputStream} format:
+ * <ul>
+ * <li>publisher after connecting: {@code int version}</li>
+ * <li>subscriber at any time: {@code byte MSG_SUBSCRIBE, double maxRate [Hz] (0 = unlimited),
+ * int numExcludedLayers, UTF excludedLayerId...}</li>
+ * <li>publisher for each shape map: {@code byte MSG_SHAPE_MAP, long timestamp, long tPublished [ns, System.nanoTime],
+ * UTF sourceName, int numCategories, UTF category..., int length, byte[length] encoded shape map}</li>
+ * </ul>
+ */
+@Log4j2
+public class VisualizationStreamPublisher
+{
+	static final int PROTOCOL_VERSION = 1;
+	static final byte MSG_SUBSCRIBE = 1;
+	static final byte MSG_SHAPE_MAP = 2;
+
+	private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+	private final AtomicLong numPublished = new AtomicLong();
+	private final AtomicLong numSent = new AtomicLong();
+	private final AtomicLong numDropped = new AtomicLong();
+	private final AtomicLong numBytesSent = new AtomicLong();
+	private ServerSocket serverSocket;
+	private Thread acceptThread;
+
+
+	/**
+	 * Start accepting subscribers
+	 *
+	 * @param bindAddress the local address to listen on
+	 * @param port        the port to listen on, 0 for any free port
+	 * @throws IOException if the port can not be opened
+	 */
+	public synchronized void start(final InetAddress bindAddress, final int port) throws IOException
+	{
+		serverSocket = new ServerSocket(port, 50, bindAddress);
+		ServerSocket acceptSocket = serverSocket;
+		acceptThread = new Thread(() -> accept(acceptSocket), "VisualizationStreamPublisher");
+		acceptThread.setDaemon(true);
+		acceptThread.start();
+	}
+
+
+	/**
+	 * Stop accepting subscribers and disconnect all subscribers
+	 */
+	public synchronized void stop()
+	{
+		if (serverSocket != null)
+		{
+			close(serverSocket);
+			serverSocket = null;
+			acceptThread = null;
+		}
+		subscribers.forEach(Subscriber::close);
+		subscribers.clear();
+	}
+
+
+	/**
+	 * @return the local port
+	 */
+	public synchronized int getPort()
+	{
+		return serverSocket == null ? -1 : serverSocket.getLocalPort();
+	}
+
+
+	/**
+	 * Hand a new shape map over to all subscribers. The shape map must not be modified afterwards.
+	 *
+	 * @param timestamp the timestamp of the shape map
+	 * @param source    the source of the shape map
+	 * @param shapeMap  the shape map
+	 */
+	public void publish(final long timestamp, final ShapeMapSource source, final ShapeMap shapeMap)
+	{
+		numPublished.incrementAndGet();
+		PendingShapeMap pending = new PendingShapeMap(timestamp, System.nanoTime(), source, shapeMap);
+		subscribers.forEach(subscriber -> subscriber.offer(pending));
+	}
+
+
+	/**
+	 * @return the counters of this publisher since it was created
+	 */
+	public Statistics getStatistics()
+	{
+		return new Statistics(numPublished.get(), subscribers.size(), numSent.get(), numDropped.get(),
+				numBytesSent.get());
+	}
+
+
+	private void accept(final ServerSocket acceptSocket)
+	{
+		while (!acceptSocket.isClosed())
+		{
+			try
+			{
+				Socket socket = acceptSocket.accept();
+				socket.setTcpNoDelay(true);
+				Subscriber subscriber = new Subscriber(socket);
+				subscribers.add(subscriber);
+				subscriber.start();
+				log.info("New visualization subscriber: {}", socket.getRemoteSocketAddress());
+			} catch (IOException e)
+			{
+				if (!acceptSocket.isClosed())
+				{
+					log.warn("Could not accept visualization subscriber", e);
+				}
+			}
+		}
+	}
+
+
+	private static void close(final AutoCloseable closeable)
+	{
+		try
+		{
+			closeable.close();
+		} catch (Exception e)
+		{
+			log.debug("Closing failed", e);
+		}
+	}
+
+
+	/**
+	 * A connected subscriber with its own sender and receiver thread
+	 */
+	private class Subscriber
+	{
+		private final Socket socket;
+		private final DataOutputStream out;
+		/** the latest shape map of each source that was not sent yet, guarded by this */
+		private final Map<ShapeMapSource, PendingShapeMap> pending = new LinkedHashMap<>();
+		/** only used by the sender thread */
+		private final Map<ShapeMapSource, ShapeMapEncoder> encoders = new HashMap<>();
+		private final Thread sender;
+		private final Thread receiver;
+		private volatile Set<String> excludedLayers = Collections.emptySet();
+		/** [ns] */
+		private volatile long minPeriod = 0;
+		private volatile boolean closed = false;
+
+
+		Subscriber(final Socket socket) throws IOException
+		{
+			this.socket = socket;
+			out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			sender = new Thread(this::send, "VisualizationStreamSender");
+			sender.setDaemon(true);
+			receiver = new Thread(this::receive, "VisualizationStreamReceiver");
+			receiver.setDaemon(true);
+		}
+
+
+		void start()
+		{
+			sender.start();
+			receiver.start();
+		}
+
+
+		synchronized void offer(final PendingShapeMap shapeMap)
+		{
+			if (pending.put(shapeMap.source, shapeMap) != null)
+			{
+				numDropped.incrementAndGet();
+			}
+			notifyAll();
+		}
+
+
+		private synchronized List<PendingShapeMap> take() throws InterruptedException
+		{
+			while (pending.isEmpty())
+			{
+				wait();
+			}
+			List<PendingShapeMap> shapeMaps = new ArrayList<>(pending.values());
+			pending.clear();
+			return shapeMaps;
+		}
+
+
+		private void send()
+		{
+			try
+			{
+				out.writeInt(PROTOCOL_VERSION);
+				out.flush();
+				long lastSent = 0;
+				while (!closed)
+				{
+					long remaining = lastSent + minPeriod - System.nanoTime();
+					if (remaining > 0)
+					{
+						TimeUnit.NANOSECONDS.sleep(remaining);
+					}
+					List<PendingShapeMap> shapeMaps = take();
+					lastSent = System.nanoTime();
+					for (PendingShapeMap shapeMap : shapeMaps)
+					{
+						write(shapeMap);
+					}
+					out.flush();
+				}
+			} catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			} catch (Exception e)
+			{
+				if (!closed)
+				{
+					log.info("Visualization subscriber {} disconnected: {}", socket.getRemoteSocketAddress(),
+							e.getMessage());
+				}
+			}
+			close();
+		}
+
+
+		private void write(final PendingShapeMap shapeMap) throws IOException
+		{
+			ShapeMapEncoder encoder = encoders.get(shapeMap.source);
+			boolean keyframe = encoder == null;
+			if (keyframe)
+			{
+				encoder = new ShapeMapEncoder();
+				encoders.put(shapeMap.source, encoder);
+			}
+			Set<String> excluded = excludedLayers;
+			byte[] data = encoder.encode(shapeMap.shapeMap, keyframe, layer -> !excluded.contains(layer.getId()))
+					.getData();
+
+			int size = out.size();
+			out.writeByte(MSG_SHAPE_MAP);
+			out.writeLong(shapeMap.timestamp);
+			out.writeLong(shapeMap.tPublished);
+			out.writeUTF(shapeMap.source.getName());
+			out.writeInt(shapeMap.source.getCategories().size());
+			for (String category : shapeMap.source.getCategories())
+			{
+				out.writeUTF(category);
+			}
+			out.writeInt(data.length);
+			out.write(data);
+			numSent.incrementAndGet();
+			numBytesSent.addAndGet(out.size() - (long) size);
+		}
+
+
+		private void receive()
+		{
+			try
+			{
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+				while (!closed)
+				{
+					byte type = in.readByte();
+					if (type != MSG_SUBSCRIBE)
+					{
+						throw new IOException("Unknown message type: " + type);
+					}
+					double maxRate = in.readDouble();
+					int numExcludedLayers = in.readInt();
+					Set<String> excluded = new HashSet<>();
+					for (int i = 0; i < numExcludedLayers; i++)
+					{
+						excluded.add(in.readUTF());
+					}
+					excludedLayers = excluded;
+					minPeriod = maxRate > 0 ? (long) (1e9 / maxRate) : 0;
+				}
+			} catch (EOFException e)
+			{
+				// disconnected
+			} catch (IOException e)
+			{
+				if (!closed)
+				{
+					log.info("Could not receive from visualization subscriber: {}", e.getMessage());
+				}
+			}
+			close();
+		}
+
+
+		void close()
+		{
+			if (closed)
+			{
+				return;
+			}
+			closed = true;
+			subscribers.remove(this);
+			VisualizationStreamPublisher.close(socket);
+			sender.interrupt();
+		}
+	}
+
+
+	/**
+	 * A shape map that waits to be sent
+	 */
+	private static class PendingShapeMap
+	{
+		final long timestamp;
+		/** [ns] */
+		final long tPublished;
+		final ShapeMapSource source;
+		final ShapeMap shapeMap;
+
+
+		PendingShapeMap(final long timestamp, final long tPublished, final ShapeMapSource source,
+				final ShapeMap shapeMap)
+		{
+			this.timestamp = timestamp;
+			this.tPublished = tPublished;
+			this.source = source;
+			this.shapeMap = shapeMap;
+		}
+	}
+
+
+	/**
+	 * Counters of the visualization stream publisher
+	 */
+	@Value
+	public static class Statistics
+	{
+		/** number of published shape maps */
+		long numPublished;
+		/** number of connected subscribers */
+		int numSubscribers;
+		/** number of shape maps that were sent to any subscriber */
+		long numSent;
+		/** number of shape maps that were replaced by a newer one before they were sent to a subscriber */
+		long numDropped;
+		/** number of bytes that were sent to all subscribers */
+		long numBytesSent;
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.moduli.AModule;
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import edu.tigers.sumatra.model.SumatraModel;
+import edu.tigers.sumatra.wp.AWorldPredictor;
+import edu.tigers.sumatra.wp.IWorldFrameObserver;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Stream all shape maps, including the world frame shapes, to remote viewers with a
+ * {@link VisualizationStreamPublisher}, so that a headless AutoRef does not have to render them itself.
+ */
+@Log4j2
+public class VisualizationStreamSender extends AModule implements IWorldFrameObserver
+{
+	private final VisualizationStreamPublisher publisher = new VisualizationStreamPublisher();
+	/** the latest timestamp of each known source */
+	private final Map<ShapeMapSource, Long> sources = new ConcurrentHashMap<>();
+
+
+	@Override
+	public void startModule()
+	{
+		String address = getSubnodeConfiguration().getString("address", "localhost");
+		int port = getSubnodeConfiguration().getInt("port", 10020);
+		try
+		{
+			publisher.start(InetAddress.getByName(address), port);
+		} catch (IOException e)
+		{
+			log.error("Could not open visualization stream on {}:{}", address, port, e);
+			return;
+		}
+		log.info("Streaming visualization on {}:{}", address, publisher.getPort());
+
+		SumatraModel.getInstance().getModule(AWorldPredictor.class).addObserver(this);
+	}
+
+
+	@Override
+	public void stopModule()
+	{
+		SumatraModel.getInstance().getModule(AWorldPredictor.class).removeObserver(this);
+		publisher.stop();
+		sources.clear();
+		log.info("Visualization stream statistics: {}", getStatistics());
+	}
+
+
+	@Override
+	public void onNewShapeMap(final long timestamp, final ShapeMap shapeMap, final ShapeMapSource source)
+	{
+		sources.put(source, timestamp);
+		publisher.publish(timestamp, source, shapeMap);
+	}
+
+
+	@Override
+	public void onRemoveSourceFromShapeMap(final String sourceName)
+	{
+		sources.forEach((source, timestamp) -> {
+			if (source.getName().equals(sourceName))
+			{
+				publisher.publish(timestamp, source, new ShapeMap());
+			}
+		});
+	}
+
+
+	@Override
+	public void onRemoveCategoryFromShapeMap(final String... category)
+	{
+		sources.forEach((source, timestamp) -> {
+			if (source.getCategories().containsAll(Arrays.asList(category)))
+			{
+				publisher.publish(timestamp, source, new ShapeMap());
+			}
+		});
+	}
+
+
+	/**
+	 * @return the counters of the publisher
+	 */
+	public VisualizationStreamPublisher.Statistics getStatistics()
+	{
+		return publisher.getStatistics();
+	}
+}
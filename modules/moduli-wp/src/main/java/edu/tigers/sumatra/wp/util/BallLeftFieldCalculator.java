@@ -1,11 +1,14 @@
 package edu.tigers.sumatra.wp.util;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 
 import com.github.g3force.configurable.ConfigRegistration;
 import com.github.g3force.configurable.Configurable;
 
 import edu.tigers.sumatra.geometry.Geometry;
+import edu.tigers.sumatra.geometry.GeometrySnapshot;
 import edu.tigers.sumatra.geometry.Goal;
 import edu.tigers.sumatra.math.line.ILine;
 import edu.tigers.sumatra.math.line.Line;
@@ -14,6 +17,7 @@ import edu.tigers.sumatra.math.vector.Vector3;
 import edu.tigers.sumatra.wp.data.BallLeftFieldPosition;
 import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
 import edu.tigers.sumatra.wp.data.TimedPosition;
+import lombok.Value;
 
 
 public class BallLeftFieldCalculator
@@ -37,25 +41,26 @@ public class BallLeftFieldCalculator
 
 	public BallLeftFieldPosition process(final SimpleWorldFrame wFrame)
 	{
+		GeometrySnapshot geometry = Geometry.getSnapshot();
 		reduceBallPosBuffer(wFrame.getTimestamp());
 		addToBallPosBuffer(wFrame);
 		removeFirstChippedBallPositions(wFrame);
-		updateDetection(wFrame);
+		updateDetection(wFrame, geometry);
 
 		return lastBallLeftFieldPosition == null ? null
-				: new BallLeftFieldPosition(lastBallLeftFieldPosition, currentType());
+				: new BallLeftFieldPosition(lastBallLeftFieldPosition, currentType(geometry));
 	}
 
 
-	private BallLeftFieldPosition.EBallLeftFieldType currentType()
+	private BallLeftFieldPosition.EBallLeftFieldType currentType(final GeometrySnapshot geometry)
 	{
-		if (Math.abs(lastBallLeftFieldPosition.getPos().x()) < Geometry.getFieldLength() / 2)
+		if (Math.abs(lastBallLeftFieldPosition.getPos().x()) < geometry.getFieldLength() / 2)
 		{
 			return BallLeftFieldPosition.EBallLeftFieldType.TOUCH_LINE;
 		}
 		boolean overGoal = lastBallLeftFieldPosition.getPos3().z() > Geometry.getGoalHeight();
 
-		for (Goal goal : Geometry.getGoals())
+		for (Goal goal : geometry.getGoals())
 		{
 			if (goal.getLineSegment().isPointOnLine(lastBallLeftFieldPosition.getPos()))
 			{
@@ -67,7 +72,7 @@ public class BallLeftFieldCalculator
 	}
 
 
-	private void updateDetection(final SimpleWorldFrame wFrame)
+	private void updateDetection(final SimpleWorldFrame wFrame, final GeometrySnapshot geometry)
 	{
 		TimedPosition prePos = ballPosBuffer.peekLast();
 		TimedPosition postPos = firstValidBallPos(wFrame.getTimestamp());
@@ -81,15 +86,14 @@ public class BallLeftFieldCalculator
 		if (prePos != null && postPos != null
 				&& (postPos.getTimestamp() - prePos.getTimestamp()) / 1e9 >= minComparisonTimeSpan)
 		{
-			boolean postBallPosInsideField = Geometry.getField()
-					.withMargin(Geometry.getLineWidth() + Geometry.getBallRadius())
+			boolean postBallPosInsideField = geometry.getField(Geometry.getLineWidth() + Geometry.getBallRadius())
 					.isPointInShape(postPos.getPos());
 			boolean stateChanged = postBallPosInsideField != ballInsideField;
 			ballInsideField = postBallPosInsideField;
 			if (!postBallPosInsideField && stateChanged)
 			{
 				ILine line = Line.fromPoints(postPos.getPos(), prePos.getPos());
-				IVector2 pos = postPos.getPos().nearestToOpt(Geometry.getField().lineIntersections(line))
+				IVector2 pos = postPos.getPos().nearestToOpt(geometry.getField().lineIntersections(line))
 						.orElse(postPos.getPos());
 				double height = (postPos.getPos3().z() + prePos.getPos3().z()) / 2.0;
 				lastBallLeftFieldPosition = new TimedPosition(postPos.getTimestamp(), Vector3.from2d(pos, height));
@@ -159,4 +163,41 @@ public class BallLeftFieldCalculator
 	{
 		lastBallLeftFieldPosition = null;
 	}
+
+
+	/**
+	 * @return a copy of the current state that is not affected by further processing
+	 */
+	public State saveState()
+	{
+		return new State(new ArrayList<>(ballPosBuffer), lastBallLeftFieldPosition, ballInsideField, chipStartTime);
+	}
+
+
+	/**
+	 * Continue from a state that was returned by {@link #saveState()}
+	 *
+	 * @param state the state to restore
+	 */
+	public void restoreState(final State state)
+	{
+		ballPosBuffer.clear();
+		ballPosBuffer.addAll(state.ballPosBuffer);
+		lastBallLeftFieldPosition = state.lastBallLeftFieldPosition;
+		ballInsideField = state.ballInsideField;
+		chipStartTime = state.chipStartTime;
+	}
+
+
+	/**
+	 * A snapshot of the state of the calculator
+	 */
+	@Value
+	public static class State
+	{
+		List<TimedPosition> ballPosBuffer;
+		TimedPosition lastBallLeftFieldPosition;
+		boolean ballInsideField;
+		long chipStartTime;
+	}
 }
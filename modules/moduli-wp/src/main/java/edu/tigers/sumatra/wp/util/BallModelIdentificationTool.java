@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.vision.ident.BallModelIdentification;
+import edu.tigers.sumatra.vision.ident.BallParameterEstimate;
+
+
+/**
+ * Command line tool to identify the ball model parameters from all kicks of one or more recordings.
+ * <p>
+ * Usage: {@code BallModelIdentificationTool [-t <threads>] <recording>...}<br>
+ * Example: {@code BallModelIdentificationTool -t 8 data/record/2021-06-24 data/record/2021-06-25}
+ */
+@SuppressWarnings("squid:S106") // this is a command line tool, print results to stdout
+public final class BallModelIdentificationTool
+{
+	private BallModelIdentificationTool()
+	{
+	}
+
+
+	public static void main(final String[] args)
+	{
+		int numThreads = Runtime.getRuntime().availableProcessors();
+		int firstRecording = 0;
+		if (args.length >= 2 && "-t".equals(args[0]))
+		{
+			numThreads = Integer.parseInt(args[1]);
+			firstRecording = 2;
+		}
+		if (args.length <= firstRecording)
+		{
+			System.out.println("Usage: BallModelIdentificationTool [-t <threads>] <recording>...");
+			return;
+		}
+
+		BallModelIdentification identification = new BallModelIdentification(numThreads);
+		for (int i = firstRecording; i < args.length; i++)
+		{
+			identification.startRecording();
+			CamFrameRecordingReader.forEachCamFrame(args[i], identification::add);
+		}
+		BallModelIdentification.Result result = identification.finish();
+
+		System.out.printf("Processed %d camera frames in %.1fs, %d kicks segmented: %s%n",
+				result.getNumFrames(), result.getSegmentationDuration(), result.getNumKicksTotal(), result.getNumKicks());
+		System.out.printf("Identified %d kicks: %s%n", result.getNumIdentifiedTotal(), result.getNumIdentified());
+		System.out.printf("Total time %.1fs with %d threads: %.2f kicks/s%n",
+				result.getDuration(), numThreads, result.getKicksPerSecond());
+		System.out.println("Ball parameters (median over all kicks):");
+		result.getEstimates().stream()
+				.map(BallParameterEstimate::toString)
+				.forEach(e -> System.out.println("  " + e));
+	}
+}
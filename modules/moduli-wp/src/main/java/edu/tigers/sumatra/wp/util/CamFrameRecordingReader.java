@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.persistence.BerkeleyAccessor;
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.wp.data.BerkeleyCamDetectionFrame;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+
+/**
+ * Reads the camera frames of a recording for offline tools.
+ * <p>
+ * Each stored frame contains the latest frame of all cameras, so a camera frame is repeated until the camera sends
+ * the next one. The reader passes on each camera frame only once.
+ */
+public final class CamFrameRecordingReader
+{
+	private CamFrameRecordingReader()
+	{
+	}
+
+
+	/**
+	 * Pass each camera frame of the recording once, in the order of the recording
+	 *
+	 * @param recording the path of the recording
+	 * @param consumer  receives the camera frames
+	 */
+	public static void forEachCamFrame(final String recording, final Consumer<CamDetectionFrame> consumer)
+	{
+		BerkeleyDb db = BerkeleyDb.withCustomLocation(Paths.get(recording));
+		db.add(BerkeleyCamDetectionFrame.class, new BerkeleyAccessor<>(BerkeleyCamDetectionFrame.class, true));
+		db.open();
+		try
+		{
+			Map<Integer, Long> lastFrameNumbers = new HashMap<>();
+			db.forEach(BerkeleyCamDetectionFrame.class, frame -> frame.getCamFrames().values().stream()
+					.filter(camFrame -> isNew(camFrame, lastFrameNumbers))
+					.sorted(Comparator.comparingLong(CamDetectionFrame::gettCapture))
+					.forEach(consumer));
+		} finally
+		{
+			db.close();
+		}
+	}
+
+
+	/**
+	 * @param recording the path of the recording
+	 * @return all camera frames of the recording, sorted by capture time
+	 */
+	public static List<CamDetectionFrame> loadCamFrames(final String recording)
+	{
+		List<CamDetectionFrame> camFrames = new ArrayList<>();
+		forEachCamFrame(recording, camFrames::add);
+		camFrames.sort(Comparator.comparingLong(CamDetectionFrame::gettCapture));
+		return camFrames;
+	}
+
+
+	private static boolean isNew(final CamDetectionFrame camFrame, final Map<Integer, Long> lastFrameNumbers)
+	{
+		// a repeated frame has the same number, a restarted camera may start with a lower number again
+		Long last = lastFrameNumbers.put(camFrame.getCameraId(), camFrame.getCamFrameNumber());
+		return last == null || last != camFrame.getCamFrameNumber();
+	}
+}
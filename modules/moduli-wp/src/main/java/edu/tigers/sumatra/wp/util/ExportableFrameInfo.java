@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import edu.tigers.sumatra.data.collector.IExportValueWriter;
 import edu.tigers.sumatra.data.collector.IExportable;
 
 
@@ -82,6 +83,18 @@ public class ExportableFrameInfo implements IExportable
 	}
 	
 	
+	@Override
+	public void writeValues(final IExportValueWriter writer)
+	{
+		writer.writeLong(frameId);
+		writer.writeLong(camId);
+		writer.writeLong(tCapture);
+		writer.writeLong(tSent);
+		writer.writeLong(tRecorded);
+		writer.writeLong(camFrameId);
+	}
+	
+	
 	@Override
 	public List<String> getHeaders()
 	{
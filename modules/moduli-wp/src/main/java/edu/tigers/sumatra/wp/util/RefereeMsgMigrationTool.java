@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
+import edu.tigers.sumatra.wp.data.WorldFrameWrapperBerkeleyAccessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+
+/**
+ * Command line tool to migrate a recording to deduplicated referee messages.
+ * It prints the size and the world frame read throughput of the original and the migrated recording.
+ * <p>
+ * Usage: {@code RefereeMsgMigrationTool <recording>}<br>
+ * The migrated recording is written to {@code <recording>-dedup}, the original recording is not modified.
+ */
+@SuppressWarnings("squid:S106") // this is a command line tool, print results to stdout
+public final class RefereeMsgMigrationTool
+{
+	private RefereeMsgMigrationTool()
+	{
+	}
+
+
+	public static void main(final String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.out.println("Usage: RefereeMsgMigrationTool <recording>");
+			return;
+		}
+
+		// unpacks zipped recordings
+		Path source = Paths.get(new BerkeleyDb(Paths.get(args[0])).getDbPath());
+		Path target = Paths.get(source + "-dedup");
+		if (Files.exists(target))
+		{
+			System.out.println("Target already exists: " + target);
+			return;
+		}
+		copyDirectory(source, target);
+
+		WorldFrameWrapperBerkeleyAccessor accessor = new WorldFrameWrapperBerkeleyAccessor();
+		BerkeleyDb db = open(target, accessor);
+		long tStart = System.nanoTime();
+		long numMigrated = accessor.migrateInlineRefereeMsgs();
+		db.cleanLog();
+		db.close();
+		System.out.printf("Migrated %d world frames in %.1fs to %s%n", numMigrated, (System.nanoTime() - tStart) * 1e-9,
+				target);
+
+		System.out.println("original: " + measure(source));
+		System.out.println("migrated: " + measure(target));
+	}
+
+
+	private static BerkeleyDb open(final Path path, final WorldFrameWrapperBerkeleyAccessor accessor)
+	{
+		BerkeleyDb db = BerkeleyDb.withCustomLocation(path);
+		db.add(WorldFrameWrapper.class, accessor);
+		db.open();
+		return db;
+	}
+
+
+	private static String measure(final Path path)
+	{
+		WorldFrameWrapperBerkeleyAccessor accessor = new WorldFrameWrapperBerkeleyAccessor();
+		BerkeleyDb db = open(path, accessor);
+		long numFrames = 0;
+		long tStart = System.nanoTime();
+		for (Long key = accessor.getFirstKey(); key != null; key = accessor.getNextKey(key))
+		{
+			if (accessor.get(key).getRefereeMsg() != null)
+			{
+				numFrames++;
+			}
+		}
+		double duration = (System.nanoTime() - tStart) * 1e-9;
+		long numRefereeMsgs = accessor.sizeOfRefereeMsgs();
+		db.close();
+
+		return String.format("%.1f MB, %d world frames, %d separate referee messages, %.0f frames/s read throughput",
+				directorySize(path) / 1e6, numFrames, numRefereeMsgs, numFrames / duration);
+	}
+
+
+	private static long directorySize(final Path path)
+	{
+		try (Stream<Path> files = Files.walk(path))
+		{
+			return files.filter(Files::isRegularFile).mapToLong(RefereeMsgMigrationTool::fileSize).sum();
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private static long fileSize(final Path file)
+	{
+		try
+		{
+			return Files.size(file);
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private static void copyDirectory(final Path source, final Path target) throws IOException
+	{
+		try (Stream<Path> files = Files.walk(source))
+		{
+			for (Path file : (Iterable<Path>) files::iterator)
+			{
+				Files.copy(file, target.resolve(source.relativize(file)));
+			}
+		}
+	}
+}
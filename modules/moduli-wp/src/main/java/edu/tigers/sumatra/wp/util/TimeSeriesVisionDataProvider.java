@@ -1,20 +1,15 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp.util;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import edu.tigers.moduli.exceptions.ModuleNotFoundException;
-import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.data.collector.ITimeSeriesDataProvider;
+import edu.tigers.sumatra.data.collector.ITimeSeriesDataSink;
 import edu.tigers.sumatra.model.SumatraModel;
 import edu.tigers.sumatra.wp.AWorldPredictor;
 import edu.tigers.sumatra.wp.IWorldFrameObserver;
@@ -28,19 +23,7 @@ public class TimeSeriesVisionDataProvider implements ITimeSeriesDataProvider, IW
 {
 	private static final Logger log = LogManager.getLogger(TimeSeriesVisionDataProvider.class.getName());
 
-	private final Map<String, Collection<IExportable>> dataBuffers = new HashMap<>();
-
-
-	/**
-	 * Default constructor
-	 */
-	public TimeSeriesVisionDataProvider()
-	{
-		dataBuffers.put("frameInfo", new ConcurrentLinkedQueue<>());
-		dataBuffers.put("rawBall", new ConcurrentLinkedQueue<>());
-		dataBuffers.put("rawBalls", new ConcurrentLinkedQueue<>());
-		dataBuffers.put("rawBots", new ConcurrentLinkedQueue<>());
-	}
+	private ITimeSeriesDataSink sink;
 
 
 	@Override
@@ -58,8 +41,9 @@ public class TimeSeriesVisionDataProvider implements ITimeSeriesDataProvider, IW
 
 
 	@Override
-	public void start()
+	public void start(final ITimeSeriesDataSink sink)
 	{
+		this.sink = sink;
 		try
 		{
 			AWorldPredictor wp = SumatraModel.getInstance().getModule(AWorldPredictor.class);
@@ -78,13 +62,6 @@ public class TimeSeriesVisionDataProvider implements ITimeSeriesDataProvider, IW
 	}
 
 
-	@Override
-	public Map<String, Collection<IExportable>> getExportableData()
-	{
-		return dataBuffers;
-	}
-
-
 	@Override
 	public void onNewCamDetectionFrame(final ExtendedCamDetectionFrame frame)
 	{
@@ -94,10 +71,10 @@ public class TimeSeriesVisionDataProvider implements ITimeSeriesDataProvider, IW
 
 	private void processCamFrame(final ExtendedCamDetectionFrame frame)
 	{
-		dataBuffers.get("frameInfo").add(new ExportableFrameInfo(frame.getFrameNumber(), frame.getCameraId(),
+		sink.add("frameInfo", new ExportableFrameInfo(frame.getFrameNumber(), frame.getCameraId(),
 				frame.gettCapture(), frame.gettSent(), System.nanoTime(), frame.getCamFrameNumber()));
-		dataBuffers.get("rawBall").add(frame.getBall());
-		dataBuffers.get("rawBalls").addAll(frame.getBalls());
-		dataBuffers.get("rawBots").addAll(frame.getRobots());
+		sink.add("rawBall", frame.getBall());
+		sink.addAll("rawBalls", frame.getBalls());
+		sink.addAll("rawBots", frame.getRobots());
 	}
 }
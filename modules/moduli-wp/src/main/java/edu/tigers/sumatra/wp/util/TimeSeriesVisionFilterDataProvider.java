@@ -1,16 +1,11 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp.util;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.data.collector.ITimeSeriesDataProvider;
+import edu.tigers.sumatra.data.collector.ITimeSeriesDataSink;
 import edu.tigers.sumatra.model.SumatraModel;
 import edu.tigers.sumatra.vision.IVisionFilterObserver;
 import edu.tigers.sumatra.vision.VisionFilterImpl;
@@ -22,17 +17,7 @@ import edu.tigers.sumatra.vision.data.FilteredVisionFrame;
  */
 public class TimeSeriesVisionFilterDataProvider implements ITimeSeriesDataProvider, IVisionFilterObserver
 {
-	private final Map<String, Collection<IExportable>> dataBuffers = new HashMap<>();
-
-
-	/**
-	 * Default constructor
-	 */
-	public TimeSeriesVisionFilterDataProvider()
-	{
-		dataBuffers.put("filteredBall", new ConcurrentLinkedQueue<>());
-		dataBuffers.put("filteredBots", new ConcurrentLinkedQueue<>());
-	}
+	private ITimeSeriesDataSink sink;
 
 
 	@Override
@@ -43,8 +28,9 @@ public class TimeSeriesVisionFilterDataProvider implements ITimeSeriesDataProvid
 
 
 	@Override
-	public void start()
+	public void start(final ITimeSeriesDataSink sink)
 	{
+		this.sink = sink;
 		SumatraModel.getInstance().getModuleOpt(VisionFilterImpl.class).ifPresent(v -> v.addObserver(this));
 	}
 
@@ -56,17 +42,10 @@ public class TimeSeriesVisionFilterDataProvider implements ITimeSeriesDataProvid
 	}
 
 
-	@Override
-	public Map<String, Collection<IExportable>> getExportableData()
-	{
-		return dataBuffers;
-	}
-
-
 	@Override
 	public void onNewFilteredVisionFrame(final FilteredVisionFrame filteredVisionFrame)
 	{
-		dataBuffers.get("filteredBall").add(filteredVisionFrame.getBall());
-		dataBuffers.get("filteredBots").addAll(filteredVisionFrame.getBots());
+		sink.add("filteredBall", filteredVisionFrame.getBall());
+		sink.addAll("filteredBots", filteredVisionFrame.getBots());
 	}
 }
@@ -1,20 +1,14 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.wp.util;
 
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.stream.Collectors;
-
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import edu.tigers.sumatra.data.collector.IExportable;
 import edu.tigers.sumatra.data.collector.ITimeSeriesDataProvider;
+import edu.tigers.sumatra.data.collector.ITimeSeriesDataSink;
 import edu.tigers.sumatra.math.vector.IVector2;
 import edu.tigers.sumatra.math.vector.VectorMath;
 import edu.tigers.sumatra.model.SumatraModel;
@@ -32,20 +26,12 @@ public class TimeSeriesWpDataProvider implements ITimeSeriesDataProvider, IWorld
 {
 	private static final Logger log = LogManager.getLogger(TimeSeriesWpDataProvider.class.getName());
 
-	private final Map<String, Collection<IExportable>> dataBuffers = new HashMap<>();
+	private ITimeSeriesDataSink sink;
 
 	private IVector2 initBallPos = null;
 	private int numFramesBallStopped = 0;
 	private SimpleWorldFrame currentFrame = null;
-
-
-	/**
-	 * Default constructor
-	 */
-	public TimeSeriesWpDataProvider()
-	{
-		dataBuffers.put("nearestBot", new ConcurrentLinkedQueue<>());
-	}
+	private long numFrames = 0;
 
 
 	@Override
@@ -56,8 +42,9 @@ public class TimeSeriesWpDataProvider implements ITimeSeriesDataProvider, IWorld
 
 
 	@Override
-	public void start()
+	public void start(final ITimeSeriesDataSink sink)
 	{
+		this.sink = sink;
 		SumatraModel.getInstance().getModule(AWorldPredictor.class).addObserver(this);
 	}
 
@@ -76,8 +63,7 @@ public class TimeSeriesWpDataProvider implements ITimeSeriesDataProvider, IWorld
 			numFramesBallStopped++;
 			if (numFramesBallStopped > 10)
 			{
-				log.debug("ball stopped, data size: {}",
-						() -> dataBuffers.values().stream().map(Collection::size).collect(Collectors.toList()));
+				log.debug("ball stopped after {} frames", numFrames);
 				return true;
 			}
 		} else
@@ -88,13 +74,6 @@ public class TimeSeriesWpDataProvider implements ITimeSeriesDataProvider, IWorld
 	}
 
 
-	@Override
-	public Map<String, Collection<IExportable>> getExportableData()
-	{
-		return dataBuffers;
-	}
-
-
 	@Override
 	public void onNewWorldFrame(final WorldFrameWrapper wfWrapper)
 	{
@@ -109,15 +88,14 @@ public class TimeSeriesWpDataProvider implements ITimeSeriesDataProvider, IWorld
 
 	private void processWorldFrame(final SimpleWorldFrame currentFrame)
 	{
-		dataBuffers.computeIfAbsent("wpBall", key -> new ConcurrentLinkedQueue<>())
-				.add(currentFrame.getBall());
-		dataBuffers.computeIfAbsent("wpBots", key -> new ConcurrentLinkedQueue<>())
-				.addAll(currentFrame.getBots().values());
+		numFrames++;
+		sink.add("wpBall", currentFrame.getBall());
+		sink.addAll("wpBots", currentFrame.getBots().values());
 
 		ITrackedBot nearestBot = getBotNearestToBall(currentFrame);
 		if (nearestBot != null)
 		{
-			dataBuffers.get("nearestBot").add(nearestBot);
+			sink.add("nearestBot", nearestBot);
 		}
 	}
 
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.cam.data.CamDetectionFrame;
+import edu.tigers.sumatra.sampler.ParameterPermutator;
+import edu.tigers.sumatra.vision.sweep.VisionFilterMetrics;
+import edu.tigers.sumatra.vision.sweep.VisionFilterParameterSweep;
+
+import java.util.List;
+
+
+/**
+ * Command line tool to sweep vision filter parameters over a recording.
+ * <p>
+ * Usage: {@code VisionFilterSweepTool <recording> <Class.field=min:max:step>...}<br>
+ * Example: {@code VisionFilterSweepTool data/record/2021-06-24 CamFilter.invisibleLifetimeRobot=0.5:2.0:0.5}
+ */
+@SuppressWarnings("squid:S106") // this is a command line tool, print results to stdout
+public final class VisionFilterSweepTool
+{
+	private static final List<String> OBJECTIVES = List.of(
+			VisionFilterMetrics.ROBOT_JITTER,
+			VisionFilterMetrics.LOST_TRACKS,
+			VisionFilterMetrics.KICK_LATENCY
+	);
+
+
+	private VisionFilterSweepTool()
+	{
+	}
+
+
+	public static void main(final String[] args)
+	{
+		if (args.length < 2)
+		{
+			System.out.println("Usage: VisionFilterSweepTool <recording> <Class.field=min:max:step>...");
+			return;
+		}
+
+		ParameterPermutator permutator = new ParameterPermutator();
+		for (int i = 1; i < args.length; i++)
+		{
+			String[] keyValue = args[i].split("=");
+			String[] range = keyValue[1].split(":");
+			permutator.add(keyValue[0],
+					Double.parseDouble(range[0]),
+					Double.parseDouble(range[1]),
+					Double.parseDouble(range[2]));
+		}
+
+		List<CamDetectionFrame> camFrames = CamFrameRecordingReader.loadCamFrames(args[0]);
+		System.out.printf("Loaded %d camera frames%n", camFrames.size());
+
+		long tStart = System.nanoTime();
+		List<VisionFilterParameterSweep.Result> results = new VisionFilterParameterSweep(camFrames).run(permutator);
+		System.out.printf("Evaluated %d combinations in %.1fs%n", results.size(), (System.nanoTime() - tStart) * 1e-9);
+
+		results.forEach(r -> System.out.println(r.getParameters() + " -> " + r.getMetrics()));
+
+		System.out.println("Pareto-best settings (minimizing " + OBJECTIVES + "):");
+		VisionFilterParameterSweep.paretoFront(results, OBJECTIVES)
+				.forEach(r -> System.out.println(r.getParameters() + " -> " + r.getMetrics()));
+	}
+}
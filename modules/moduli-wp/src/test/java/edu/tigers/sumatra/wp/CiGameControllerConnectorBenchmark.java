@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp;
+
+import edu.tigers.sumatra.referee.data.RefereeMsgBuilder;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
+import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
+import edu.tigers.sumatra.wp.data.TrackedBall;
+import edu.tigers.sumatra.wp.proto.SslGcCi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Measure the throughput of the {@link CiGameControllerConnector} against a local stub CI server
+ * that answers each input with a referee message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(value = 1, warmups = 1)
+@Warmup(iterations = 2)
+public class CiGameControllerConnectorBenchmark
+{
+	@Param({ "true", "false" })
+	private boolean lockstep;
+
+	private StubCiServer server;
+	private CiGameControllerConnector connector;
+	private long frameNumber = 0;
+
+
+	public static void main(String[] args) throws Exception
+	{
+		org.openjdk.jmh.Main.main(args);
+	}
+
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException
+	{
+		server = new StubCiServer();
+		server.start();
+		connector = new CiGameControllerConnector(server.getPort(), lockstep);
+		connector.start();
+	}
+
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException
+	{
+		connector.stop();
+		server.stop();
+	}
+
+
+	@Benchmark
+	public int process()
+	{
+		frameNumber++;
+		SimpleWorldFrame swf = new SimpleWorldFrame(frameNumber, frameNumber * 10_000_000L, Collections.emptyMap(),
+				TrackedBall.createStub(), null, null);
+		List<SslGcRefereeMessage.Referee> messages = connector.process(swf, Collections.emptyList());
+		return messages.size();
+	}
+
+
+	/**
+	 * A minimal CI server that answers every input with the same referee message
+	 */
+	private static class StubCiServer
+	{
+		private final ServerSocket serverSocket;
+		private final SslGcCi.CiOutput output = SslGcCi.CiOutput.newBuilder()
+				.setRefereeMsg(RefereeMsgBuilder.aRefereeMsg().build())
+				.build();
+		private Thread thread;
+
+
+		StubCiServer() throws IOException
+		{
+			serverSocket = new ServerSocket(0);
+		}
+
+
+		int getPort()
+		{
+			return serverSocket.getLocalPort();
+		}
+
+
+		void start()
+		{
+			thread = new Thread(this::serve, "StubCiServer");
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+
+		void stop() throws IOException
+		{
+			thread.interrupt();
+			serverSocket.close();
+		}
+
+
+		private void serve()
+		{
+			while (!serverSocket.isClosed())
+			{
+				try (Socket socket = serverSocket.accept())
+				{
+					socket.setTcpNoDelay(true);
+					OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+					while (SslGcCi.CiInput.parseDelimitedFrom(socket.getInputStream()) != null)
+					{
+						output.writeDelimitedTo(out);
+						out.flush();
+					}
+				} catch (IOException e)
+				{
+					// connection closed
+				}
+			}
+		}
+	}
+}
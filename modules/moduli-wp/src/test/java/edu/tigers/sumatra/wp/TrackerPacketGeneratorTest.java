@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp;
+
+import edu.tigers.sumatra.ids.BotID;
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.wp.data.ITrackedBot;
+import edu.tigers.sumatra.wp.data.SimpleWorldFrame;
+import edu.tigers.sumatra.wp.data.TrackedBall;
+import edu.tigers.sumatra.wp.data.TrackedBot;
+import edu.tigers.sumatra.wp.proto.SslVisionDetectionTracked;
+import edu.tigers.sumatra.wp.proto.SslVisionWrapperTracked;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class TrackerPacketGeneratorTest
+{
+	@Test
+	public void testReusedBuildersDoNotLeakIntoNextPacket()
+	{
+		TrackerPacketGenerator generator = new TrackerPacketGenerator("test");
+		BotID yellow = BotID.createBotId(1, ETeamColor.YELLOW);
+		BotID blue = BotID.createBotId(2, ETeamColor.BLUE);
+
+		SslVisionWrapperTracked.TrackerWrapperPacket first = generator.generate(frame(0, yellow, blue));
+		SslVisionWrapperTracked.TrackerWrapperPacket second = generator.generate(frame(1, blue));
+
+		assertThat(first.getTrackedFrame().getRobotsCount()).isEqualTo(2);
+		assertThat(first.getTrackedFrame().getBallsCount()).isEqualTo(1);
+
+		SslVisionDetectionTracked.TrackedFrame frame = second.getTrackedFrame();
+		assertThat(second.getSourceName()).isEqualTo("test");
+		assertThat(second.getUuid()).isEqualTo(first.getUuid());
+		assertThat(frame.getFrameNumber()).isEqualTo(1);
+		assertThat(frame.getTimestamp()).isEqualTo(0.01);
+		assertThat(frame.getBallsCount()).isEqualTo(1);
+		assertThat(frame.getRobotsCount()).isEqualTo(1);
+		assertThat(frame.getCapabilitiesCount()).isEqualTo(2);
+		assertThat(frame.hasKickedBall()).isFalse();
+
+		SslVisionDetectionTracked.TrackedRobot robot = frame.getRobots(0);
+		assertThat(robot.getRobotId().getId()).isEqualTo(2);
+		assertThat(robot.getPos().getX()).isEqualTo(0.2f);
+		assertThat(robot.getPos().getY()).isEqualTo(-0.1f);
+		assertThat(robot.getVel().getX()).isEqualTo(1000f);
+		assertThat(robot.getOrientation()).isEqualTo(1.5f);
+	}
+
+
+	private SimpleWorldFrame frame(final long frameNumber, final BotID... botIds)
+	{
+		long timestamp = frameNumber * 10_000_000L;
+		Map<BotID, ITrackedBot> bots = new HashMap<>();
+		for (BotID botId : botIds)
+		{
+			bots.put(botId, TrackedBot.stubBuilder(botId, timestamp)
+					.withPos(Vector2.fromXY(botId.getNumber() * 100.0, -100))
+					.withVel(Vector2.fromX(1000))
+					.withOrientation(1.5)
+					.build());
+		}
+		return new SimpleWorldFrame(frameNumber, timestamp, bots, TrackedBall.createStub(), null, null);
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.data;
+
+import edu.tigers.sumatra.ids.ETeamColor;
+import edu.tigers.sumatra.math.vector.Vector2;
+import edu.tigers.sumatra.math.vector.Vector3;
+import edu.tigers.sumatra.math.vector.Vector3f;
+import edu.tigers.sumatra.referee.data.EGameState;
+import edu.tigers.sumatra.referee.data.GameState;
+import edu.tigers.sumatra.referee.data.RefereeMsg;
+import edu.tigers.sumatra.referee.data.TeamInfo;
+import edu.tigers.sumatra.referee.gameevent.EGameEvent;
+import edu.tigers.sumatra.referee.gameevent.IGameEvent;
+import edu.tigers.sumatra.referee.gameevent.MultipleCards;
+import edu.tigers.sumatra.referee.gameevent.NoProgressInGame;
+import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage.Referee.Command;
+import edu.tigers.sumatra.vision.data.BallTrajectoryState;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+
+public class ReplayOverviewTest
+{
+	private static final long START = 5_000_000_000L;
+	private static final long DT = 10_000_000L;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+
+	@Test
+	public void testEntriesPerSecond()
+	{
+		ReplayOverview overview = createOverview();
+
+		// 0-1s running, 1-2s a stop with two game events, 2-3s not recorded, 3-3.5s running again
+		assertThat(overview.getStartTimestamp()).isEqualTo(START);
+		assertThat(overview.getEntries()).hasSize(4);
+		assertThat(overview.getEndTimestamp()).isEqualTo(START + 4 * ReplayOverview.ENTRY_DURATION);
+		assertThat(overview.getTeamYellow()).isEqualTo("TIGERs Mannheim");
+		assertThat(overview.getTeamBlue()).isEqualTo("ER-Force");
+
+		ReplayOverview.Entry first = overview.getEntries().get(0);
+		assertThat(first.isRecorded()).isTrue();
+		assertThat(first.getMaxBallSpeed()).isCloseTo(5.445f, within(1e-3f));
+		assertThat(first.getGameState()).isEqualTo(EGameState.RUNNING);
+		assertThat(first.hasCommand(Command.FORCE_START)).isTrue();
+		assertThat(first.getNumGameEvents()).isZero();
+
+		ReplayOverview.Entry second = overview.getEntries().get(1);
+		assertThat(second.getGameState()).isEqualTo(EGameState.STOP);
+		assertThat(second.hasGameState(EGameState.RUNNING)).isTrue();
+		assertThat(second.hasGameState(EGameState.STOP)).isTrue();
+		assertThat(second.hasCommand(Command.STOP)).isTrue();
+		assertThat(second.getNumGameEvents()).isEqualTo(2);
+		assertThat(second.hasGameEvent(EGameEvent.NO_PROGRESS_IN_GAME)).isTrue();
+		assertThat(second.hasGameEvent(EGameEvent.MULTIPLE_CARDS)).isTrue();
+		assertThat(second.hasGameEvent(EGameEvent.BALL_LEFT_FIELD_GOAL_LINE)).isFalse();
+
+		assertThat(overview.getEntries().get(2).isRecorded()).isFalse();
+		assertThat(overview.getEntries().get(3).isRecorded()).isTrue();
+		assertThat(overview.getEntries().get(3).getNumGameEvents()).isZero();
+		assertThat(overview.getEntries().get(3).getBallX()).isEqualTo(3490f);
+	}
+
+
+	@Test
+	public void testFindNext()
+	{
+		ReplayOverview overview = createOverview();
+
+		assertThat(overview.findNext(START + 100, e -> e.getGameState() == EGameState.RUNNING)).contains(START + 100);
+		assertThat(overview.findNext(START, e -> e.getNumGameEvents() > 0))
+				.contains(START + ReplayOverview.ENTRY_DURATION);
+		assertThat(overview.findNext(START + 1_500_000_000L, e -> e.getGameState() == EGameState.RUNNING))
+				.contains(START + 3 * ReplayOverview.ENTRY_DURATION);
+		assertThat(overview.findNext(START, e -> e.hasGameEvent(EGameEvent.BALL_LEFT_FIELD_GOAL_LINE))).isEmpty();
+	}
+
+
+	@Test
+	public void testWriteAndRead() throws IOException
+	{
+		ReplayOverview overview = createOverview();
+		Path recordingFolder = folder.getRoot().toPath();
+
+		assertThat(ReplayOverview.read(recordingFolder)).isEmpty();
+		overview.write(recordingFolder);
+		ReplayOverview read = ReplayOverview.read(recordingFolder).orElseThrow();
+
+		assertThat(read.getStartTimestamp()).isEqualTo(overview.getStartTimestamp());
+		assertThat(read.getEntries()).isEqualTo(overview.getEntries());
+		assertThat(read.getTeamYellow()).isEqualTo(overview.getTeamYellow());
+		assertThat(read.getTeamBlue()).isEqualTo(overview.getTeamBlue());
+	}
+
+
+	private ReplayOverview createOverview()
+	{
+		NoProgressInGame noProgress = new NoProgressInGame(Vector2.zero(), 10);
+		MultipleCards multipleCards = new MultipleCards(ETeamColor.BLUE);
+		ReplayOverview.Builder builder = new ReplayOverview.Builder();
+		for (long t = START; t < START + 3_500_000_000L; t += DT)
+		{
+			long time = t - START;
+			if (time >= 2_000_000_000L && time < 3_000_000_000L)
+			{
+				// not recorded
+				continue;
+			}
+			double ballSpeed = time < 1_000_000_000L ? time * 5.5e-9 : 1;
+			RefereeMsg refereeMsg;
+			GameState gameState;
+			if (time < 1_500_000_000L || time >= 3_000_000_000L)
+			{
+				refereeMsg = refereeMsg(Command.FORCE_START, 1, Collections.emptyList());
+				gameState = GameState.RUNNING;
+			} else if (time < 1_700_000_000L)
+			{
+				refereeMsg = refereeMsg(Command.STOP, 2, List.of(noProgress));
+				gameState = GameState.STOP;
+			} else
+			{
+				refereeMsg = refereeMsg(Command.STOP, 2, List.of(noProgress, multipleCards));
+				gameState = GameState.STOP;
+			}
+			builder.add(new WorldFrameWrapper(frame(t, time * 1e-6, ballSpeed), refereeMsg, gameState));
+		}
+		return builder.build();
+	}
+
+
+	private RefereeMsg refereeMsg(final Command command, final long cmdCounter, final List<IGameEvent> gameEvents)
+	{
+		return RefereeMsg.builder()
+				.command(command)
+				.cmdCounter(cmdCounter)
+				.negativeHalfTeam(ETeamColor.YELLOW)
+				.teamInfoYellow(TeamInfo.builder().name("TIGERs Mannheim").build())
+				.teamInfoBlue(TeamInfo.builder().name("ER-Force").build())
+				.gameEvents(gameEvents)
+				.build();
+	}
+
+
+	private SimpleWorldFrame frame(final long timestamp, final double ballX, final double ballSpeed)
+	{
+		BallTrajectoryState state = BallTrajectoryState.builder()
+				.withPos(Vector3.fromXYZ(ballX, 0, 0))
+				.withVel(Vector3.fromXYZ(ballSpeed * 1000, 0, 0))
+				.withAcc(Vector3f.ZERO_VECTOR)
+				.build();
+		return new SimpleWorldFrame(timestamp / DT, timestamp, Collections.emptyMap(),
+				TrackedBall.fromTrajectoryStateVisible(timestamp, state), null, null);
+	}
+}
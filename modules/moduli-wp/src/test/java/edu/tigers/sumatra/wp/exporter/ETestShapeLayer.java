@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.sumatra.drawable.DrawableAnnotation;
+import edu.tigers.sumatra.drawable.DrawableCircle;
+import edu.tigers.sumatra.drawable.DrawableLine;
+import edu.tigers.sumatra.drawable.IShapeLayer;
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.math.line.v2.Lines;
+import edu.tigers.sumatra.math.vector.IVector2;
+import edu.tigers.sumatra.math.vector.Vector2;
+
+import java.awt.Color;
+
+
+/**
+ * Shape layers of synthetic shape maps that look like the shapes of a world frame
+ */
+enum ETestShapeLayer implements IShapeLayer
+{
+	FIELD,
+	BOTS,
+	BALL,
+	DEBUG,
+	;
+
+
+	/**
+	 * @param frame the frame number
+	 * @return a shape map with static field lines and moving bots, ball and debug lines
+	 */
+	static ShapeMap createShapeMap(final long frame)
+	{
+		ShapeMap shapeMap = new ShapeMap();
+		for (int i = 0; i < 20; i++)
+		{
+			shapeMap.get(FIELD).add(new DrawableLine(
+					Lines.segmentFromPoints(Vector2.fromXY(-6000, i * 300.0), Vector2.fromXY(6000, i * 300.0)),
+					Color.WHITE));
+		}
+		for (int i = 0; i < 22; i++)
+		{
+			IVector2 pos = Vector2.fromXY(i * 400.0 - 4400, Math.sin((frame + i) * 0.01) * 3000);
+			shapeMap.get(BOTS).add(new DrawableCircle(pos, 90, i < 11 ? Color.BLUE : Color.YELLOW));
+			shapeMap.get(BOTS).add(new DrawableAnnotation(pos, String.valueOf(i % 11), Color.WHITE));
+		}
+		IVector2 ballPos = Vector2.fromXY(frame % 9000 - 4500.0, 0);
+		shapeMap.get(BALL).add(new DrawableCircle(ballPos, 21.5, Color.ORANGE).setFill(true));
+		for (int i = 0; i < 50; i++)
+		{
+			shapeMap.get(DEBUG).add(new DrawableLine(
+					Lines.segmentFromPoints(ballPos, Vector2.fromXY(i * 100.0, frame % 100)), Color.RED));
+		}
+		return shapeMap;
+	}
+
+
+	@Override
+	public String getCategory()
+	{
+		return "Test";
+	}
+
+
+	@Override
+	public String getLayerName()
+	{
+		return name();
+	}
+
+
+	@Override
+	public String getId()
+	{
+		return ETestShapeLayer.class.getSimpleName() + name();
+	}
+
+
+	@Override
+	public int getOrderId()
+	{
+		return ordinal();
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measure the throughput and latency of the {@link VisualizationStreamPublisher} over loopback.
+ * <p>
+ * Synthetic shape maps with world frame like shapes are published to a subscriber of all layers,
+ * a subscriber that excludes the debug layer and a subscriber that is limited to the visualization rate.
+ * The latency is the time from publishing a shape map until it was received and decoded.
+ * <p>
+ * Usage: {@code VisualizationStreamBenchmark [numFrames] [rate [Hz], 0 for as fast as possible]}
+ */
+@SuppressWarnings("squid:S106") // this is a benchmark, print results to stdout
+public final class VisualizationStreamBenchmark
+{
+	private static final ShapeMapSource SOURCE = ShapeMapSource.of("World Frame");
+
+
+	private VisualizationStreamBenchmark()
+	{
+	}
+
+
+	public static void main(final String[] args) throws Exception
+	{
+		int numFrames = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+		double rate = args.length > 1 ? Double.parseDouble(args[1]) : 100;
+
+		VisualizationStreamPublisher publisher = new VisualizationStreamPublisher();
+		publisher.start(InetAddress.getLoopbackAddress(), 0);
+		List<Subscriber> subscribers = List.of(
+				new Subscriber("all layers", publisher.getPort(), Collections.emptyList(), 0),
+				new Subscriber("without debug", publisher.getPort(),
+						List.of(ETestShapeLayer.DEBUG.getId()), 0),
+				new Subscriber("24 Hz", publisher.getPort(), Collections.emptyList(), 24));
+		// let the subscriptions arrive
+		Thread.sleep(100);
+
+		List<ShapeMap> shapeMaps = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+		{
+			shapeMaps.add(ShapeMap.unmodifiableCopy(ETestShapeLayer.createShapeMap(i)));
+		}
+
+		long period = rate > 0 ? (long) (1e9 / rate) : 0;
+		long tStart = System.nanoTime();
+		for (int i = 0; i < numFrames; i++)
+		{
+			publisher.publish(i, SOURCE, shapeMaps.get(i % shapeMaps.size()));
+			long remaining = tStart + (i + 1) * period - System.nanoTime();
+			if (remaining > 0)
+			{
+				TimeUnit.NANOSECONDS.sleep(remaining);
+			}
+		}
+		double duration = (System.nanoTime() - tStart) / 1e9;
+		Thread.sleep(500);
+
+		System.out.printf("Published %d shape maps in %.1fs (%.0f/s), %s%n", numFrames, duration, numFrames / duration,
+				publisher.getStatistics());
+		for (Subscriber subscriber : subscribers)
+		{
+			subscriber.close();
+			System.out.println(subscriber.getResult(duration));
+		}
+		publisher.stop();
+	}
+
+
+	/**
+	 * Receives shape maps and records their size and latency
+	 */
+	private static class Subscriber
+	{
+		private final String name;
+		private final VisualizationStreamClient client;
+		private final Thread thread;
+		private final List<Long> latencies = new ArrayList<>();
+		private long numBytes = 0;
+
+
+		Subscriber(final String name, final int port, final Collection<String> excludedLayers, final double maxRate)
+				throws IOException
+		{
+			this.name = name;
+			client = new VisualizationStreamClient("localhost", port);
+			client.subscribe(excludedLayers, maxRate);
+			thread = new Thread(this::receive, name);
+			thread.start();
+		}
+
+
+		private void receive()
+		{
+			try
+			{
+				while (true)
+				{
+					VisualizationStreamClient.Frame frame = client.receive();
+					long latency = System.nanoTime() - frame.getTPublished();
+					synchronized (this)
+					{
+						latencies.add(latency);
+						numBytes += frame.getEncodedSize();
+					}
+				}
+			} catch (IOException e)
+			{
+				// closed
+			}
+		}
+
+
+		void close() throws IOException, InterruptedException
+		{
+			client.close();
+			thread.join(1000);
+		}
+
+
+		synchronized String getResult(final double duration)
+		{
+			List<Long> sorted = new ArrayList<>(latencies);
+			Collections.sort(sorted);
+			int n = sorted.size();
+			if (n == 0)
+			{
+				return name + ": no shape maps received";
+			}
+			double avg = sorted.stream().mapToLong(l -> l).average().orElse(0);
+			return String.format(
+					"%s: %d shape maps (%.0f/s), %.0f bytes/shape map, %.1f kB/s, "
+							+ "latency avg %.3fms, p50 %.3fms, p99 %.3fms, max %.3fms",
+					name, n, n / duration, numBytes / (double) n, numBytes / duration / 1e3,
+					avg / 1e6, sorted.get(n / 2) / 1e6, sorted.get((int) (n * 0.99)) / 1e6, sorted.get(n - 1) / 1e6);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.exporter;
+
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+/**
+ * Stream shape maps over loopback
+ */
+public class VisualizationStreamPublisherTest
+{
+	private static final ShapeMapSource SOURCE = ShapeMapSource.of("Test", "Category");
+
+	private VisualizationStreamPublisher publisher;
+	private VisualizationStreamClient client;
+
+
+	@Before
+	public void setUp() throws IOException
+	{
+		publisher = new VisualizationStreamPublisher();
+		publisher.start(InetAddress.getLoopbackAddress(), 0);
+		client = new VisualizationStreamClient("localhost", publisher.getPort());
+	}
+
+
+	@After
+	public void tearDown() throws IOException
+	{
+		client.close();
+		publisher.stop();
+	}
+
+
+	@Test
+	public void testReceiveShapeMaps() throws IOException
+	{
+		for (int i = 0; i < 10; i++)
+		{
+			publisher.publish(i, SOURCE, ETestShapeLayer.createShapeMap(i));
+			VisualizationStreamClient.Frame frame = client.receive();
+
+			assertThat(frame.getTimestamp()).isEqualTo(i);
+			assertThat(frame.getSource()).isEqualTo(SOURCE);
+			assertThat(frame.getShapeMap().getAllShapeLayersIdentifiers()).containsExactly(ETestShapeLayer.values());
+			assertThat(frame.getShapeMap().get(ETestShapeLayer.BOTS)).hasSize(44);
+		}
+	}
+
+
+	@Test
+	public void testExcludedLayers() throws IOException
+	{
+		client.subscribe(List.of(ETestShapeLayer.DEBUG.getId(), ETestShapeLayer.FIELD.getId()), 0);
+		assertThat(awaitLayers(ETestShapeLayer.BOTS, ETestShapeLayer.BALL)).isTrue();
+
+		client.subscribe(Collections.emptyList(), 0);
+		assertThat(awaitLayers(ETestShapeLayer.values())).isTrue();
+	}
+
+
+	@Test
+	public void testRateLimit() throws Exception
+	{
+		client.subscribe(Collections.emptyList(), 20);
+		assertThat(awaitLayers(ETestShapeLayer.values())).isTrue();
+
+		List<VisualizationStreamClient.Frame> frames = new CopyOnWriteArrayList<>();
+		Thread receiver = new Thread(() -> receiveAll(frames));
+		receiver.start();
+		// publish with 200 Hz for 0.5s
+		for (int i = 0; i < 100; i++)
+		{
+			publisher.publish(i, SOURCE, ETestShapeLayer.createShapeMap(i));
+			Thread.sleep(5);
+		}
+		Thread.sleep(200);
+		client.close();
+		receiver.join(1000);
+
+		// about 10 frames with 20 Hz
+		assertThat(frames).hasSizeBetween(5, 15);
+		// the latest shape map is sent
+		assertThat(frames.get(frames.size() - 1).getTimestamp()).isEqualTo(99);
+		assertThat(publisher.getStatistics().getNumDropped()).isPositive();
+	}
+
+
+	private void receiveAll(final List<VisualizationStreamClient.Frame> frames)
+	{
+		try
+		{
+			while (true)
+			{
+				frames.add(client.receive());
+			}
+		} catch (IOException e)
+		{
+			// closed
+		}
+	}
+
+
+	/**
+	 * The subscription is applied asynchronously, so publish until it takes effect
+	 */
+	private boolean awaitLayers(final ETestShapeLayer... layers) throws IOException
+	{
+		for (int i = 0; i < 100; i++)
+		{
+			publisher.publish(i, SOURCE, ETestShapeLayer.createShapeMap(i));
+			VisualizationStreamClient.Frame frame = client.receive();
+			if (frame.getShapeMap().getAllShapeLayersIdentifiers().equals(List.of(layers)))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.cam.CamClockEstimator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+
+/**
+ * Command line tool to compare the {@link CamClockEstimator} with the previous averaging time sync
+ * and with a continuously updated average.
+ * <p>
+ * Without a recording, synthetic packet timings with a known clock offset and drift, network jitter, delay spikes
+ * and congestion bursts are generated. The extrapolation error is the difference between the estimated and the true
+ * local time of a vision timestamp that is {@code horizon} after the newest sample. The true local time includes
+ * the minimal latency, so the bias of the averaging time sync is the mean jitter.
+ * <p>
+ * With a recording, the sent time and the local assembly time of the camera frames are used. The true clock relation
+ * is unknown, so the receive time of each frame is predicted from the frames that were sent at least {@code horizon}
+ * before and the spread of the prediction errors is printed. It contains the real network jitter.
+ * <p>
+ * Usage: {@code CamClockEstimationTool [recording] [horizon [s]]}
+ */
+@SuppressWarnings("squid:S106") // this is a command line tool, print results to stdout
+public final class CamClockEstimationTool
+{
+	private static final double DEFAULT_HORIZON = 0.5;
+	/** [s] */
+	private static final double SYNTHETIC_DURATION = 120;
+	/** [s] */
+	private static final double WARM_UP = 2;
+	/** [Hz] */
+	private static final double FRAME_RATE = 75;
+	/** [ns] */
+	private static final long MIN_LATENCY = 1_000_000;
+
+
+	private CamClockEstimationTool()
+	{
+	}
+
+
+	public static void main(final String[] args)
+	{
+		if (args.length > 0 && !isNumber(args[0]))
+		{
+			double horizon = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_HORIZON;
+			evaluateRecording(args[0], (long) (horizon * 1e9));
+		} else
+		{
+			double horizon = args.length > 0 ? Double.parseDouble(args[0]) : DEFAULT_HORIZON;
+			evaluateSynthetic((long) (horizon * 1e9));
+		}
+	}
+
+
+	private static boolean isNumber(final String arg)
+	{
+		try
+		{
+			Double.parseDouble(arg);
+			return true;
+		} catch (NumberFormatException e)
+		{
+			return false;
+		}
+	}
+
+
+	private static void evaluateSynthetic(final long horizon)
+	{
+		System.out.printf("Synthetic traces: %.0fs with %.0f Hz, extrapolation horizon %.0fms%n",
+				SYNTHETIC_DURATION, FRAME_RATE, horizon * 1e-6);
+		List<Scenario> scenarios = List.of(
+				new Scenario("jitter", 0, 0.5, 0, 0),
+				new Scenario("jitter + drift", 50, 0.5, 0, 0),
+				new Scenario("spikes + drift", 50, 0.5, 0.02, 0),
+				new Scenario("bursts + drift", 50, 0.5, 0, 20),
+				new Scenario("spikes + bursts + drift", -80, 1.0, 0.05, 20)
+		);
+		for (Scenario scenario : scenarios)
+		{
+			List<Sample> samples = scenario.generate(new Random(42));
+			System.out.println(scenario.name + ":");
+			System.out.println("  averaging:            " + evaluateSynthetic(samples, scenario,
+					new AveragingTimeSync(false), horizon));
+			System.out.println("  continuous averaging: " + evaluateSynthetic(samples, scenario,
+					new AveragingTimeSync(true), horizon));
+			CamClockEstimator estimator = new CamClockEstimator();
+			System.out.println("  estimator:            " + evaluateSynthetic(samples, scenario,
+					new CamClockEstimatorAdapter(estimator), horizon));
+			CamClockEstimator.Estimate estimate = estimator.getEstimate();
+			System.out.printf("  %20s  drift %.1fppm (true %.1fppm), jitter %.3fms, offset uncertainty %.3fms%n", "",
+					estimate.getDrift(), scenario.drift, estimate.getJitter() * 1e-6,
+					estimate.getOffsetUncertainty() * 1e-6);
+		}
+	}
+
+
+	private static String evaluateSynthetic(final List<Sample> samples, final Scenario scenario,
+			final IEstimator estimator, final long horizon)
+	{
+		long tStart = samples.get(0).tSent;
+		double[] errors = new double[samples.size()];
+		int n = 0;
+		for (Sample sample : samples)
+		{
+			estimator.update(sample.tSent, sample.tReceive);
+			if (sample.tSent - tStart > WARM_UP * 1e9)
+			{
+				long tVision = sample.tSent + horizon;
+				errors[n++] = estimator.toLocalTime(tVision) - scenario.toLocalTime(tVision);
+			}
+		}
+		return Statistics.of(Arrays.copyOf(errors, n)).toString();
+	}
+
+
+	private static void evaluateRecording(final String recording, final long horizon)
+	{
+		Map<Integer, List<Sample>> samplesPerCam = loadSamples(recording);
+		System.out.printf("Recorded timings of %d cameras, prediction horizon %.0fms%n",
+				samplesPerCam.size(), horizon * 1e-6);
+		samplesPerCam.forEach((camId, samples) -> {
+			System.out.printf("camera %d: %d frames%n", camId, samples.size());
+			System.out.println("  averaging:            " + evaluateRecording(samples,
+					new AveragingTimeSync(false), horizon));
+			System.out.println("  continuous averaging: " + evaluateRecording(samples,
+					new AveragingTimeSync(true), horizon));
+			CamClockEstimator estimator = new CamClockEstimator();
+			System.out.println("  estimator:            " + evaluateRecording(samples,
+					new CamClockEstimatorAdapter(estimator), horizon));
+			System.out.println("                        " + estimator.getEstimate());
+		});
+	}
+
+
+	private static String evaluateRecording(final List<Sample> samples, final IEstimator estimator,
+			final long horizon)
+	{
+		long tStart = samples.get(0).tSent;
+		double[] errors = new double[samples.size()];
+		int n = 0;
+		int numUpdated = 0;
+		for (Sample sample : samples)
+		{
+			while (samples.get(numUpdated).tSent <= sample.tSent - horizon)
+			{
+				Sample known = samples.get(numUpdated++);
+				estimator.update(known.tSent, known.tReceive);
+			}
+			if (numUpdated > 0 && sample.tSent - tStart > WARM_UP * 1e9)
+			{
+				errors[n++] = sample.tReceive - estimator.toLocalTime(sample.tSent);
+			}
+		}
+		if (n == 0)
+		{
+			return "recording too short";
+		}
+		return Statistics.of(Arrays.copyOf(errors, n)).toString();
+	}
+
+
+	private static Map<Integer, List<Sample>> loadSamples(final String recording)
+	{
+		Map<Integer, List<Sample>> samples = new TreeMap<>();
+		CamFrameRecordingReader.forEachCamFrame(recording, camFrame -> samples
+				.computeIfAbsent(camFrame.getCameraId(), id -> new ArrayList<>())
+				.add(new Sample(camFrame.gettSent(), camFrame.gettAssembly())));
+		samples.values().forEach(s -> s.sort((a, b) -> Long.compare(a.tSent, b.tSent)));
+		return samples;
+	}
+
+
+	/**
+	 * Common interface of the compared estimators
+	 */
+	private interface IEstimator
+	{
+		void update(long tSent, long tReceive);
+
+
+		long toLocalTime(long tVision);
+	}
+
+
+	/**
+	 * The new estimator
+	 */
+	private static class CamClockEstimatorAdapter implements IEstimator
+	{
+		private final CamClockEstimator estimator;
+
+
+		CamClockEstimatorAdapter(final CamClockEstimator estimator)
+		{
+			this.estimator = estimator;
+		}
+
+
+		@Override
+		public void update(final long tSent, final long tReceive)
+		{
+			estimator.update(tSent, tReceive);
+		}
+
+
+		@Override
+		public long toLocalTime(final long tVision)
+		{
+			return estimator.toLocalTime(tVision);
+		}
+	}
+
+
+	/**
+	 * The time sync before the {@link CamClockEstimator}: an average over the last 30 offsets, that is only
+	 * updated if the average difference exceeds 300ms, or always, if continuous
+	 */
+	private static class AveragingTimeSync implements IEstimator
+	{
+		private static final int BUFFER_SIZE = 30;
+
+		private final boolean continuous;
+		private long offset = 0;
+		private final RingAverage offsetBuffer = new RingAverage(BUFFER_SIZE);
+		private final RingAverage diffBuffer = new RingAverage(BUFFER_SIZE);
+
+
+		AveragingTimeSync(final boolean continuous)
+		{
+			this.continuous = continuous;
+		}
+
+
+		@Override
+		public void update(final long tSent, final long tReceive)
+		{
+			diffBuffer.add(tReceive - (tSent - offset));
+			double avgDiff = Math.abs(diffBuffer.average());
+			if (avgDiff > 3e8 || offsetBuffer.size() > 0)
+			{
+				offsetBuffer.add(tSent - tReceive);
+				offset = (long) offsetBuffer.average();
+				if (avgDiff < 100_000 && !continuous)
+				{
+					offsetBuffer.clear();
+				}
+			}
+		}
+
+
+		@Override
+		public long toLocalTime(final long tVision)
+		{
+			return tVision - offset;
+		}
+	}
+
+
+	/**
+	 * Average of the last values
+	 */
+	private static class RingAverage
+	{
+		private final long[] values;
+		private int next = 0;
+		private int size = 0;
+
+
+		RingAverage(final int capacity)
+		{
+			values = new long[capacity];
+		}
+
+
+		void add(final long value)
+		{
+			values[next] = value;
+			next = (next + 1) % values.length;
+			size = Math.min(size + 1, values.length);
+		}
+
+
+		double average()
+		{
+			double avg = 0;
+			for (int i = 0; i < size; i++)
+			{
+				avg += (double) values[i] / size;
+			}
+			return avg;
+		}
+
+
+		int size()
+		{
+			return size;
+		}
+
+
+		void clear()
+		{
+			next = 0;
+			size = 0;
+		}
+	}
+
+
+	/**
+	 * A packet timing
+	 */
+	private static class Sample
+	{
+		/** [ns] camera clock */
+		final long tSent;
+		/** [ns] local clock */
+		final long tReceive;
+
+
+		Sample(final long tSent, final long tReceive)
+		{
+			this.tSent = tSent;
+			this.tReceive = tReceive;
+		}
+	}
+
+
+	/**
+	 * A synthetic trace with a known clock relation
+	 */
+	private static class Scenario
+	{
+		/** [ns] local clock - camera clock at the start */
+		private static final long OFFSET = -1_600_000_000_000_000_000L;
+		/** [ns] */
+		private static final long T_START = 1_600_000_000_000_000_000L;
+
+		final String name;
+		/** [ppm] */
+		final double drift;
+		/** [ms] standard deviation of the half-normal network jitter */
+		final double jitter;
+		/** probability of a delay spike of 5 to 80ms */
+		final double spikeProbability;
+		/** [ms] additional delay during congestion bursts of 1s every 10s */
+		final double burstDelay;
+
+
+		Scenario(final String name, final double drift, final double jitter, final double spikeProbability,
+				final double burstDelay)
+		{
+			this.name = name;
+			this.drift = drift;
+			this.jitter = jitter;
+			this.spikeProbability = spikeProbability;
+			this.burstDelay = burstDelay;
+		}
+
+
+		/**
+		 * @param tVision a timestamp in the camera clock [ns]
+		 * @return the local time of a packet sent at tVision with minimal latency [ns]
+		 */
+		long toLocalTime(final long tVision)
+		{
+			return tVision + OFFSET + Math.round((tVision - T_START) * drift * 1e-6) + MIN_LATENCY;
+		}
+
+
+		List<Sample> generate(final Random rnd)
+		{
+			List<Sample> samples = new ArrayList<>();
+			long period = (long) (1e9 / FRAME_RATE);
+			for (long t = T_START; t < T_START + SYNTHETIC_DURATION * 1e9; t += period)
+			{
+				double delayMs = Math.abs(rnd.nextGaussian()) * jitter;
+				if (rnd.nextDouble() < spikeProbability)
+				{
+					delayMs += 5 + rnd.nextDouble() * 75;
+				}
+				if ((t - T_START) % 10_000_000_000L < 1_000_000_000L && t > T_START + 5_000_000_000L)
+				{
+					delayMs += burstDelay;
+				}
+				samples.add(new Sample(t, toLocalTime(t) + (long) (delayMs * 1e6)));
+			}
+			return samples;
+		}
+	}
+
+
+	/**
+	 * Summary of errors
+	 */
+	private static class Statistics
+	{
+		final double mean;
+		final double std;
+		final double p50;
+		final double p99;
+		final double max;
+
+
+		private Statistics(final double mean, final double std, final double p50, final double p99, final double max)
+		{
+			this.mean = mean;
+			this.std = std;
+			this.p50 = p50;
+			this.p99 = p99;
+			this.max = max;
+		}
+
+
+		/**
+		 * @param errors the errors [ns]
+		 * @return the statistics, percentiles of the absolute deviation from the median
+		 */
+		static Statistics of(final double[] errors)
+		{
+			double mean = Arrays.stream(errors).average().orElse(0);
+			double std = Math.sqrt(Arrays.stream(errors).map(e -> (e - mean) * (e - mean)).average().orElse(0));
+			double[] sorted = errors.clone();
+			Arrays.sort(sorted);
+			double p50 = sorted[sorted.length / 2];
+			double[] deviations = Arrays.stream(errors).map(e -> Math.abs(e - p50)).sorted().toArray();
+			return new Statistics(mean, std, p50, deviations[(int) (deviations.length * 0.99)],
+					deviations[deviations.length - 1]);
+		}
+
+
+		@Override
+		public String toString()
+		{
+			return String.format("error mean %.3fms, std %.3fms, p50 %.3fms, |error - p50| p99 %.3fms, max %.3fms",
+					mean * 1e-6, std * 1e-6, p50 * 1e-6, p99 * 1e-6, max * 1e-6);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.wp.util;
+
+import edu.tigers.sumatra.persistence.BerkeleyAccessor;
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.wp.BerkeleyShapeMapFrame;
+import edu.tigers.sumatra.wp.ShapeMapFrameBerkeleyAccessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+
+/**
+ * Command line tool to compare the storage of shape maps as full Berkeley entities with the encoded keyframes and
+ * deltas of {@link ShapeMapFrameBerkeleyAccessor}.
+ * The shape maps of a recording are written to two temporary databases, one for each format.
+ * It prints the size, the write throughput and the sequential and random read throughput of both.
+ * <p>
+ * Usage: {@code ShapeMapStorageComparisonTool <recording> [numRandomReads]}<br>
+ * The original recording is not modified.
+ */
+@SuppressWarnings("squid:S106") // this is a command line tool, print results to stdout
+public final class ShapeMapStorageComparisonTool
+{
+	private static final int DEFAULT_NUM_RANDOM_READS = 1000;
+
+
+	private ShapeMapStorageComparisonTool()
+	{
+	}
+
+
+	public static void main(final String[] args) throws IOException
+	{
+		if (args.length < 1)
+		{
+			System.out.println("Usage: ShapeMapStorageComparisonTool <recording> [numRandomReads]");
+			return;
+		}
+		int numRandomReads = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NUM_RANDOM_READS;
+
+		// unpacks zipped recordings
+		Path source = Paths.get(new BerkeleyDb(Paths.get(args[0])).getDbPath());
+		Path full = Files.createTempDirectory("shapemaps-full");
+		Path encoded = Files.createTempDirectory("shapemaps-encoded");
+		try
+		{
+			BerkeleyDb sourceDb = open(source, new ShapeMapFrameBerkeleyAccessor());
+			BerkeleyDb fullDb = open(full, new BerkeleyAccessor<>(BerkeleyShapeMapFrame.class, true));
+			BerkeleyDb encodedDb = open(encoded, new ShapeMapFrameBerkeleyAccessor());
+			long[] writeDurations = new long[2];
+			sourceDb.forEach(BerkeleyShapeMapFrame.class, frame -> {
+				long t0 = System.nanoTime();
+				fullDb.write(BerkeleyShapeMapFrame.class, frame);
+				long t1 = System.nanoTime();
+				encodedDb.write(BerkeleyShapeMapFrame.class, frame);
+				writeDurations[0] += t1 - t0;
+				writeDurations[1] += System.nanoTime() - t1;
+			});
+			long numFrames = sourceDb.size(BerkeleyShapeMapFrame.class);
+			sourceDb.close();
+			fullDb.cleanLog();
+			fullDb.close();
+			encodedDb.cleanLog();
+			encodedDb.close();
+
+			System.out.println("full:    " + measure(full, new BerkeleyAccessor<>(BerkeleyShapeMapFrame.class, true),
+					numFrames, writeDurations[0], numRandomReads));
+			System.out.println("encoded: " + measure(encoded, new ShapeMapFrameBerkeleyAccessor(),
+					numFrames, writeDurations[1], numRandomReads));
+		} finally
+		{
+			BerkeleyDb.withCustomLocation(full).delete();
+			BerkeleyDb.withCustomLocation(encoded).delete();
+		}
+	}
+
+
+	private static BerkeleyDb open(final Path path, final BerkeleyAccessor<BerkeleyShapeMapFrame> accessor)
+	{
+		BerkeleyDb db = BerkeleyDb.withCustomLocation(path);
+		db.add(BerkeleyShapeMapFrame.class, accessor);
+		db.open();
+		return db;
+	}
+
+
+	private static String measure(final Path path, final BerkeleyAccessor<BerkeleyShapeMapFrame> accessor,
+			final long numFrames, final long writeDuration, final int numRandomReads)
+	{
+		BerkeleyDb db = open(path, accessor);
+
+		long[] numLayers = new long[1];
+		long tStart = System.nanoTime();
+		accessor.forEach(frame -> frame.getShapeMaps().values()
+				.forEach(shapeMap -> numLayers[0] += shapeMap.getAllShapeLayers().size()));
+		double sequentialDuration = (System.nanoTime() - tStart) * 1e-9;
+
+		List<Long> keys = new ArrayList<>();
+		for (Long key = accessor.getFirstKey(); key != null; key = accessor.getNextKey(key))
+		{
+			keys.add(key);
+		}
+		Collections.shuffle(keys, new Random(42));
+		List<Long> randomKeys = keys.subList(0, Math.min(numRandomReads, keys.size()));
+		tStart = System.nanoTime();
+		for (Long key : randomKeys)
+		{
+			accessor.get(key).getShapeMaps();
+		}
+		double randomDuration = (System.nanoTime() - tStart) * 1e-9;
+		db.close();
+
+		return String.format(
+				"%.1f MB, %d frames, %d layers, %.0f frames/s write, %.0f frames/s sequential read, "
+						+ "%.0f frames/s random read",
+				directorySize(path) / 1e6, numFrames, numLayers[0], numFrames / (writeDuration * 1e-9),
+				numFrames / sequentialDuration, randomKeys.size() / randomDuration);
+	}
+
+
+	private static long directorySize(final Path path)
+	{
+		try (Stream<Path> files = Files.walk(path))
+		{
+			return files.filter(Files::isRegularFile).mapToLong(ShapeMapStorageComparisonTool::fileSize).sum();
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	private static long fileSize(final Path file)
+	{
+		try
+		{
+			return Files.size(file);
+		} catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.log;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+
+import java.util.List;
+
+
+/**
+ * A buffered log event together with its text, which is formatted only once.
+ */
+public class FormattedLogEvent
+{
+	private final long sequence;
+	private final LogEvent logEvent;
+	private final String text;
+	private final String[] lines;
+	private final String[] tokens;
+
+
+	FormattedLogEvent(final long sequence, final LogEvent logEvent, final String text)
+	{
+		this.sequence = sequence;
+		this.logEvent = logEvent;
+		this.text = text;
+		lines = text.replace("\t", "    ").split("\r?\n");
+		tokens = LogTokenIndex.tokenize(text);
+	}
+
+
+	/**
+	 * @return the position of this event in the buffer, increasing with each event
+	 */
+	public long getSequence()
+	{
+		return sequence;
+	}
+
+
+	public LogEvent getLogEvent()
+	{
+		return logEvent;
+	}
+
+
+	public Level getLevel()
+	{
+		return logEvent.getLevel();
+	}
+
+
+	/**
+	 * @return the text as formatted by the layout of the appender
+	 */
+	public String getText()
+	{
+		return text;
+	}
+
+
+	/**
+	 * @return the lines of the text, e.g. for stack traces
+	 */
+	public String[] getLines()
+	{
+		return lines;
+	}
+
+
+	/**
+	 * @return the distinct tokens of the text
+	 */
+	String[] getTokens()
+	{
+		return tokens;
+	}
+
+
+	/**
+	 * @param minLevel the least specific level to accept
+	 * @param filters  the event must contain at least one of these strings, if there are any
+	 * @return true, if this event should be displayed
+	 */
+	public boolean matches(final Level minLevel, final List<String> filters)
+	{
+		return isLevelAccepted(minLevel) && containsAny(filters);
+	}
+
+
+	boolean isLevelAccepted(final Level minLevel)
+	{
+		return getLevel().equals(minLevel) || getLevel().isMoreSpecificThan(minLevel);
+	}
+
+
+	boolean containsAny(final List<String> filters)
+	{
+		if (filters.isEmpty())
+		{
+			return true;
+		}
+		for (String filter : filters)
+		{
+			if (text.contains(filter))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -6,77 +6,131 @@ package edu.tigers.sumatra.presenter.log;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.LogEvent;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
 
 
 /**
  * A buffer for log events.
+ * <p>
+ * Each event gets a sequence number, so that the new events can be requested incrementally.
+ * The tokens of all events are indexed, so that filtering the buffer does not need to search the text of each event.
  */
 public class LogEventBuffer
 {
-	private static final int NUM_EVENTS = 6;
 	private static final int PER_LEVEL_CAPACITY = 300;
 
-	private final List<LogEvent> eventStorage = new ArrayList<>(NUM_EVENTS * PER_LEVEL_CAPACITY);
-	private final Map<Level, List<LogEvent>> eventsPerLevel = new HashMap<>();
+	private final NavigableMap<Long, FormattedLogEvent> eventStorage = new TreeMap<>();
+	private final Map<Level, Deque<FormattedLogEvent>> eventsPerLevel = new HashMap<>();
+	private final LogTokenIndex index = new LogTokenIndex();
 
-	private long start = 0;
-	private long end = 0;
-	private long offset = 0;
+	private long lastSequence = 0;
 
 
 	public synchronized LogEventBuffer copy()
 	{
 		LogEventBuffer copy = new LogEventBuffer();
-		copy.eventStorage.addAll(eventStorage);
-		eventsPerLevel.forEach((level, events) -> copy.eventsPerLevel.put(level, new ArrayList<>(events)));
+		copy.eventStorage.putAll(eventStorage);
+		eventsPerLevel.forEach((level, events) -> copy.eventsPerLevel.put(level, new ArrayDeque<>(events)));
+		copy.index.add(index);
+		copy.lastSequence = lastSequence;
 		return copy;
 	}
 
 
-	public synchronized void append(final LogEvent ev)
+	/**
+	 * Add a new event. The oldest event of the same level is dropped, if the capacity of the level is reached.
+	 *
+	 * @param ev   the event
+	 * @param text the formatted event
+	 * @return the buffered event
+	 */
+	public synchronized FormattedLogEvent append(final LogEvent ev, final String text)
 	{
-		List<LogEvent> levelEventStorage = eventsPerLevel.computeIfAbsent(ev.getLevel(),
-				k -> new ArrayList<>(PER_LEVEL_CAPACITY));
+		FormattedLogEvent event = new FormattedLogEvent(++lastSequence, ev, text);
+		Deque<FormattedLogEvent> levelEventStorage = eventsPerLevel.computeIfAbsent(ev.getLevel(),
+				k -> new ArrayDeque<>(PER_LEVEL_CAPACITY));
 		if (levelEventStorage.size() >= PER_LEVEL_CAPACITY)
 		{
-			LogEvent oldEv = levelEventStorage.remove(0);
-			boolean removed = eventStorage.remove(oldEv);
-			assert removed;
-			offset++;
+			FormattedLogEvent oldEv = levelEventStorage.removeFirst();
+			eventStorage.remove(oldEv.getSequence());
+			index.remove(oldEv);
 		}
-		levelEventStorage.add(ev);
-		eventStorage.add(ev);
-		end++;
+		levelEventStorage.addLast(event);
+		eventStorage.put(event.getSequence(), event);
+		index.add(event);
+		return event;
 	}
 
 
+	/**
+	 * Remove all events. The sequence numbers are not reset.
+	 */
 	public synchronized void clear()
 	{
 		eventStorage.clear();
-		eventsPerLevel.values().forEach(List::clear);
-		start = 0;
-		end = 0;
-		offset = 0;
+		eventsPerLevel.values().forEach(Deque::clear);
+		index.clear();
 	}
 
 
-	public synchronized List<LogEvent> getNewEvents()
+	/**
+	 * @return the sequence number of the last added event
+	 */
+	public synchronized long getLastSequence()
 	{
-		List<LogEvent> subList = new ArrayList<>(
-				eventStorage.subList((int) Math.max(0, start - offset), (int) (end - offset)));
-		start = end;
-		return subList;
+		return lastSequence;
 	}
 
 
-	public synchronized void reset()
+	/**
+	 * @param sequence the sequence number of the last known event
+	 * @return all buffered events that were added after the given one
+	 */
+	public synchronized List<FormattedLogEvent> getEventsAfter(final long sequence)
 	{
-		start = 0;
-		end = eventStorage.size();
-		offset = 0;
+		return new ArrayList<>(eventStorage.tailMap(sequence, false).values());
+	}
+
+
+	/**
+	 * Get all buffered events up to the given sequence number that match the given filter.
+	 *
+	 * @param minLevel    the least specific level to accept
+	 * @param filters     the event must contain at least one of these strings, if there are any
+	 * @param maxSequence the sequence number of the last event to consider
+	 * @return the matching events in order of their sequence number
+	 */
+	public synchronized List<FormattedLogEvent> query(final Level minLevel, final List<String> filters,
+			final long maxSequence)
+	{
+		Collection<FormattedLogEvent> candidates = filters.isEmpty() ? null : index.getCandidates(filters);
+		if (candidates == null)
+		{
+			candidates = eventStorage.headMap(maxSequence, true).values();
+		}
+
+		List<FormattedLogEvent> result = new ArrayList<>();
+		for (FormattedLogEvent event : candidates)
+		{
+			if (event.getSequence() <= maxSequence && event.matches(minLevel, filters))
+			{
+				result.add(event);
+			}
+		}
+		if (candidates instanceof Set)
+		{
+			result.sort(Comparator.comparingLong(FormattedLogEvent::getSequence));
+		}
+		return result;
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.presenter.log;
 
@@ -18,10 +18,6 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 
 import javax.swing.SwingUtilities;
-import javax.swing.text.AttributeSet;
-import javax.swing.text.SimpleAttributeSet;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyleContext;
 import java.awt.Color;
 import java.awt.Component;
 import java.util.ArrayList;
@@ -39,7 +35,8 @@ import java.util.Map;
  * - Select a new log level -> nothing filtered, but only events with a level equal or
  * higher to the log level will appear, all others are lost. They will not even appear
  * if you drop the log level to a lower value.
- * constant.
+ * Each event is formatted once when it arrives. Filter changes are answered from the token index of the
+ * {@link LogEventBuffer} or, if the filter only got narrower, from the displayed events.
  */
 public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver,
 		ISlidePanelObserver, ILogEventConsumer
@@ -57,7 +54,7 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 	private static final String LOG_LEVEL_KEY = LogPresenter.class.getName() + ".loglevel";
 	private final LogEventBuffer liveEventBuffer = new LogEventBuffer();
 	private LogEventBuffer eventBuffer = liveEventBuffer;
-	private final Map<Level, AttributeSet> attributeSets = new HashMap<>();
+	private final Map<Level, Color> levelColors = new HashMap<>();
 	private final SumatraAppender appender;
 
 	private LogPanel logPanel;
@@ -66,6 +63,7 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 	private int numFatals = 0;
 	private int numErrors = 0;
 	private int numWarnings = 0;
+	private long lastSequence = 0;
 
 	private final UiThrottler logAppendThrottler = new UiThrottler(100);
 
@@ -88,21 +86,14 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 			appender.addConsumer(this);
 		}
 
-		final StyleContext sc = StyleContext.getDefaultStyleContext();
-		attributeSets.put(Level.ALL,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_ALL));
-		attributeSets.put(Level.FATAL,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_FATAL));
-		attributeSets.put(Level.ERROR,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_ERROR));
-		attributeSets.put(Level.WARN,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_WARN));
-		attributeSets.put(Level.INFO,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_INFO));
-		attributeSets.put(Level.DEBUG,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_DEBUG));
-		attributeSets.put(Level.TRACE,
-				sc.addAttribute(SimpleAttributeSet.EMPTY, StyleConstants.Foreground, DEFAULT_COLOR_TRACE));
+		levelColors.put(Level.ALL, DEFAULT_COLOR_ALL);
+		levelColors.put(Level.FATAL, DEFAULT_COLOR_FATAL);
+		levelColors.put(Level.ERROR, DEFAULT_COLOR_ERROR);
+		levelColors.put(Level.WARN, DEFAULT_COLOR_WARN);
+		levelColors.put(Level.INFO, DEFAULT_COLOR_INFO);
+		levelColors.put(Level.DEBUG, DEFAULT_COLOR_DEBUG);
+		levelColors.put(Level.TRACE, DEFAULT_COLOR_TRACE);
+		logPanel.getLogListPane().setLevelColors(levelColors);
 
 		logAppendThrottler.start();
 	}
@@ -117,14 +108,14 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 		numErrors = 0;
 		numWarnings = 0;
 		eventBuffer.clear();
-		SwingUtilities.invokeLater(this::reappendAllEvents);
+		SwingUtilities.invokeLater(() -> updateFilter(false));
 	}
 
 
 	@Override
 	public void onNewLogEvent(final LogEvent logEvent)
 	{
-		liveEventBuffer.append(logEvent);
+		liveEventBuffer.append(logEvent, format(logEvent));
 
 		final Level lvl = logEvent.getLevel();
 		if (lvl.equals(Level.FATAL))
@@ -150,44 +141,71 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 			return;
 		}
 
+		boolean narrower = level.isMoreSpecificThan(logLevel);
 		logLevel = level;
 		SumatraModel.getInstance().setUserProperty(LOG_LEVEL_KEY, level.toString());
 
-		SwingUtilities.invokeLater(this::reappendAllEvents);
+		SwingUtilities.invokeLater(() -> updateFilter(narrower));
 	}
 
 
 	@Override
 	public void onNewFilter(final List<String> allowed)
 	{
+		boolean narrower = isNarrowerFilter(allowedStrings, allowed);
 		allowedStrings = allowed;
 
-		SwingUtilities.invokeLater(this::reappendAllEvents);
+		SwingUtilities.invokeLater(() -> updateFilter(narrower));
 	}
 
 
-	private void appendNewEvents()
+	/**
+	 * @return true, if every event that contains one of the new strings also contains one of the old strings
+	 */
+	private boolean isNarrowerFilter(final List<String> oldAllowed, final List<String> newAllowed)
 	{
-		updateCounters();
-
-		eventBuffer.getNewEvents().stream()
-				.filter(this::checkFilters)
-				.forEach(this::appendLogEvent);
+		if (oldAllowed.isEmpty())
+		{
+			return true;
+		}
+		return !newAllowed.isEmpty()
+				&& newAllowed.stream().allMatch(n -> oldAllowed.stream().anyMatch(n::contains));
 	}
 
 
-	private void reappendAllEvents()
+	private void appendNewEvents()
 	{
 		updateCounters();
-		eventBuffer.reset();
-		logPanel.getTextPane().clear();
-		appendNewEvents();
+
+		List<FormattedLogEvent> newEvents = eventBuffer.getEventsAfter(lastSequence);
+		if (newEvents.isEmpty())
+		{
+			return;
+		}
+		lastSequence = newEvents.get(newEvents.size() - 1).getSequence();
+		newEvents.removeIf(e -> !e.matches(logLevel, allowedStrings));
+		logPanel.getLogListPane().append(newEvents);
 	}
 
 
-	private void appendLogEvent(final LogEvent event)
+	/**
+	 * Apply the current filter to the displayed events.
+	 *
+	 * @param narrower true, if the filter only got narrower, so that the displayed events can be filtered,
+	 *                 as long as none of them were dropped
+	 */
+	private void updateFilter(final boolean narrower)
 	{
-		logPanel.getTextPane().append(format(event), attributeSets.get(event.getLevel()));
+		updateCounters();
+		if (narrower && !logPanel.getLogListPane().isTruncated())
+		{
+			logPanel.getLogListPane().retain(e -> e.matches(logLevel, allowedStrings));
+		} else
+		{
+			long sequence = eventBuffer.getLastSequence();
+			logPanel.getLogListPane().setEvents(eventBuffer.query(logLevel, allowedStrings, sequence));
+			lastSequence = sequence;
+		}
 	}
 
 
@@ -224,9 +242,10 @@ public class LogPresenter implements ISumatraViewPresenter, IFilterPanelObserver
 			return true;
 		}
 
+		String text = format(event);
 		for (final String allowed : allowedStrings)
 		{
-			if (format(event).contains(allowed))
+			if (text.contains(allowed))
 			{
 				return true;
 			}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.log;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Inverted index from the tokens of the buffered events to the events.
+ * <p>
+ * A token is a sequence of letters and digits. A filter string can only be contained in an event, if the longest
+ * token of the filter is part of a token of the event. So only the vocabulary has to be searched instead of the
+ * text of all events. The candidates still need to be checked against the full filter string.
+ */
+class LogTokenIndex
+{
+	private final Map<String, Set<FormattedLogEvent>> postings = new HashMap<>();
+
+
+	/**
+	 * Add all events of the other index
+	 *
+	 * @param other another index
+	 */
+	void add(final LogTokenIndex other)
+	{
+		other.postings.forEach((token, events) -> postings.computeIfAbsent(token, t -> new HashSet<>()).addAll(events));
+	}
+
+
+	void add(final FormattedLogEvent event)
+	{
+		for (String token : event.getTokens())
+		{
+			postings.computeIfAbsent(token, t -> new HashSet<>()).add(event);
+		}
+	}
+
+
+	void remove(final FormattedLogEvent event)
+	{
+		for (String token : event.getTokens())
+		{
+			Set<FormattedLogEvent> events = postings.get(token);
+			if (events != null)
+			{
+				events.remove(event);
+				if (events.isEmpty())
+				{
+					postings.remove(token);
+				}
+			}
+		}
+	}
+
+
+	void clear()
+	{
+		postings.clear();
+	}
+
+
+	/**
+	 * Get all events that may contain the given filter string.
+	 *
+	 * @param filter the filter string
+	 * @return the candidates or null, if the filter has no token and every event is a candidate
+	 */
+	Set<FormattedLogEvent> getCandidates(final String filter)
+	{
+		String longestToken = "";
+		for (String token : tokenize(filter))
+		{
+			if (token.length() > longestToken.length())
+			{
+				longestToken = token;
+			}
+		}
+		if (longestToken.isEmpty())
+		{
+			return null;
+		}
+
+		Set<FormattedLogEvent> candidates = new HashSet<>();
+		for (Map.Entry<String, Set<FormattedLogEvent>> entry : postings.entrySet())
+		{
+			if (entry.getKey().contains(longestToken))
+			{
+				candidates.addAll(entry.getValue());
+			}
+		}
+		return candidates;
+	}
+
+
+	/**
+	 * @param filters filter strings
+	 * @return the union of the candidates of all filters, null if every event is a candidate
+	 */
+	Set<FormattedLogEvent> getCandidates(final List<String> filters)
+	{
+		Set<FormattedLogEvent> union = new HashSet<>();
+		for (String filter : filters)
+		{
+			Set<FormattedLogEvent> candidates = getCandidates(filter);
+			if (candidates == null)
+			{
+				return null;
+			}
+			union.addAll(candidates);
+		}
+		return union;
+	}
+
+
+	/**
+	 * @return the number of distinct tokens
+	 */
+	int getNumTokens()
+	{
+		return postings.size();
+	}
+
+
+	/**
+	 * Split the text into its distinct tokens.
+	 *
+	 * @param text some text
+	 * @return the distinct tokens in order of their first occurrence
+	 */
+	static String[] tokenize(final String text)
+	{
+		Set<String> tokens = new LinkedHashSet<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++)
+		{
+			boolean tokenChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (tokenChar && start < 0)
+			{
+				start = i;
+			} else if (!tokenChar && start >= 0)
+			{
+				tokens.add(text.substring(start, i));
+				start = -1;
+			}
+		}
+		return tokens.toArray(new String[0]);
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.view.log;
+
+import edu.tigers.sumatra.presenter.log.FormattedLogEvent;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+
+/**
+ * List model with one element per line of the displayed log events.
+ */
+class LogListModel extends AbstractListModel<String>
+{
+	private final int maxCapacity;
+	private final List<FormattedLogEvent> events = new ArrayList<>();
+	/** index of the first line of each event */
+	private int[] firstLines = new int[16];
+	private int numLines = 0;
+	private boolean truncated = false;
+
+
+	LogListModel(final int maxCapacity)
+	{
+		this.maxCapacity = maxCapacity;
+	}
+
+
+	@Override
+	public int getSize()
+	{
+		return numLines;
+	}
+
+
+	@Override
+	public String getElementAt(final int index)
+	{
+		int eventIndex = getEventIndex(index);
+		return events.get(eventIndex).getLines()[index - firstLines[eventIndex]];
+	}
+
+
+	/**
+	 * @param index the line index
+	 * @return the event the line belongs to
+	 */
+	FormattedLogEvent getEvent(final int index)
+	{
+		return events.get(getEventIndex(index));
+	}
+
+
+	/**
+	 * @return true, if events were dropped because of the capacity
+	 */
+	boolean isTruncated()
+	{
+		return truncated;
+	}
+
+
+	/**
+	 * Append events and drop the oldest ones, if the capacity is exceeded.
+	 *
+	 * @param newEvents the events to add
+	 */
+	void append(final List<FormattedLogEvent> newEvents)
+	{
+		List<FormattedLogEvent> toAdd = newEvents.subList(Math.max(0, newEvents.size() - maxCapacity),
+				newEvents.size());
+		int numToRemove = Math.max(0, events.size() + toAdd.size() - maxCapacity);
+		truncated |= toAdd.size() < newEvents.size() || numToRemove > 0;
+		if (numToRemove > 0)
+		{
+			int removedLines = numToRemove < events.size() ? firstLines[numToRemove] : numLines;
+			events.subList(0, numToRemove).clear();
+			updateLines();
+			fireIntervalRemoved(this, 0, removedLines - 1);
+		}
+
+		int firstNewLine = numLines;
+		events.addAll(toAdd);
+		updateLines();
+		if (numLines > firstNewLine)
+		{
+			fireIntervalAdded(this, firstNewLine, numLines - 1);
+		}
+	}
+
+
+	/**
+	 * Replace all events.
+	 *
+	 * @param newEvents the new events
+	 */
+	void set(final List<FormattedLogEvent> newEvents)
+	{
+		int oldNumLines = numLines;
+		truncated = newEvents.size() > maxCapacity;
+		events.clear();
+		events.addAll(newEvents.subList(Math.max(0, newEvents.size() - maxCapacity), newEvents.size()));
+		updateLines();
+		fireReplaced(oldNumLines);
+	}
+
+
+	/**
+	 * Keep only the events that match the given filter.
+	 *
+	 * @param filter the filter
+	 */
+	void retain(final Predicate<FormattedLogEvent> filter)
+	{
+		int oldNumLines = numLines;
+		events.removeIf(filter.negate());
+		updateLines();
+		fireReplaced(oldNumLines);
+	}
+
+
+	private void fireReplaced(final int oldNumLines)
+	{
+		if (oldNumLines > 0)
+		{
+			fireIntervalRemoved(this, 0, oldNumLines - 1);
+		}
+		if (numLines > 0)
+		{
+			fireIntervalAdded(this, 0, numLines - 1);
+		}
+	}
+
+
+	private void updateLines()
+	{
+		if (firstLines.length < events.size())
+		{
+			firstLines = Arrays.copyOf(firstLines, Math.max(events.size(), firstLines.length * 2));
+		}
+		numLines = 0;
+		for (int i = 0; i < events.size(); i++)
+		{
+			firstLines[i] = numLines;
+			numLines += events.get(i).getLines().length;
+		}
+	}
+
+
+	private int getEventIndex(final int line)
+	{
+		int pos = Arrays.binarySearch(firstLines, 0, events.size(), line);
+		if (pos >= 0)
+		{
+			return pos;
+		}
+		return -pos - 2;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.view.log;
+
+import edu.tigers.sumatra.drawable.EFontSize;
+import edu.tigers.sumatra.presenter.log.FormattedLogEvent;
+import edu.tigers.sumatra.util.ScalingUtil;
+import org.apache.logging.log4j.Level;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import javax.swing.JScrollBar;
+import javax.swing.JScrollPane;
+import javax.swing.ListSelectionModel;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+
+/**
+ * Displays log events with one row per line, colored by their level.
+ * <p>
+ * All rows have the same height, so only the visible rows are laid out and painted,
+ * independent of the number of displayed events.
+ */
+public class LogListPane extends JScrollPane
+{
+	private static final long serialVersionUID = 1L;
+	private static final int CELL_MARGIN = 10;
+
+	private final LogListModel model;
+	private final JList<String> list;
+	private transient Map<Level, Color> levelColors = Collections.emptyMap();
+	private int longestLineLength = 0;
+
+
+	/**
+	 * @param maxCapacity the maximum number of displayed events
+	 */
+	public LogListPane(final int maxCapacity)
+	{
+		model = new LogListModel(maxCapacity);
+		list = new JList<>(model);
+		list.setCellRenderer(new LogCellRenderer());
+		list.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
+		list.setFont(new Font("Verdana", Font.PLAIN, ScalingUtil.getFontSize(EFontSize.SMALL)));
+		FontMetrics fontMetrics = list.getFontMetrics(list.getFont());
+		list.setFixedCellHeight(fontMetrics.getHeight());
+		list.setFixedCellWidth(CELL_MARGIN);
+		setBorder(null);
+
+		getViewport().add(list);
+	}
+
+
+	/**
+	 * @param levelColors the text color of each level
+	 */
+	public void setLevelColors(final Map<Level, Color> levelColors)
+	{
+		this.levelColors = levelColors;
+	}
+
+
+	/**
+	 * Append new events. The view follows the new events, if it was scrolled to the end before.
+	 *
+	 * @param events the new events
+	 */
+	public void append(final List<FormattedLogEvent> events)
+	{
+		if (events.isEmpty())
+		{
+			return;
+		}
+		boolean atEnd = isScrolledToEnd();
+		model.append(events);
+		updateCellWidth(events);
+		if (atEnd)
+		{
+			scrollToEnd();
+		}
+	}
+
+
+	/**
+	 * Replace all events and scroll to the end.
+	 *
+	 * @param events the events to display
+	 */
+	public void setEvents(final List<FormattedLogEvent> events)
+	{
+		model.set(events);
+		longestLineLength = 0;
+		list.setFixedCellWidth(CELL_MARGIN);
+		updateCellWidth(events);
+		scrollToEnd();
+	}
+
+
+	/**
+	 * @return true, if older events were dropped because of the capacity
+	 */
+	public boolean isTruncated()
+	{
+		return model.isTruncated();
+	}
+
+
+	/**
+	 * Keep only the displayed events that match the filter.
+	 *
+	 * @param filter the filter
+	 */
+	public void retain(final Predicate<FormattedLogEvent> filter)
+	{
+		model.retain(filter);
+		scrollToEnd();
+	}
+
+
+	private boolean isScrolledToEnd()
+	{
+		JScrollBar scrollBar = getVerticalScrollBar();
+		return scrollBar.getValue() + scrollBar.getVisibleAmount() >= scrollBar.getMaximum() - list.getFixedCellHeight();
+	}
+
+
+	private void scrollToEnd()
+	{
+		if (model.getSize() > 0)
+		{
+			list.ensureIndexIsVisible(model.getSize() - 1);
+		}
+	}
+
+
+	/**
+	 * Rows have a fixed width, so that the list does not measure every row.
+	 * Only lines that are longer than the longest line so far are measured.
+	 */
+	private void updateCellWidth(final List<FormattedLogEvent> events)
+	{
+		FontMetrics fontMetrics = list.getFontMetrics(list.getFont());
+		int width = list.getFixedCellWidth();
+		for (FormattedLogEvent event : events)
+		{
+			for (String line : event.getLines())
+			{
+				if (line.length() > longestLineLength)
+				{
+					longestLineLength = line.length();
+					width = Math.max(width, fontMetrics.stringWidth(line) + CELL_MARGIN);
+				}
+			}
+		}
+		list.setFixedCellWidth(width);
+	}
+
+
+	private class LogCellRenderer extends DefaultListCellRenderer
+	{
+		private static final long serialVersionUID = 1L;
+
+
+		@Override
+		public Component getListCellRendererComponent(final JList<?> jList, final Object value, final int index,
+				final boolean isSelected, final boolean cellHasFocus)
+		{
+			super.getListCellRendererComponent(jList, value, index, isSelected, cellHasFocus);
+			if (!isSelected)
+			{
+				setForeground(levelColors.getOrDefault(model.getEvent(index).getLevel(), Color.BLACK));
+			}
+			return this;
+		}
+	}
+}
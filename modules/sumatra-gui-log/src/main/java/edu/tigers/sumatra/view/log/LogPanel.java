@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2019, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.view.log;
 
@@ -7,7 +7,6 @@ import javax.swing.JPanel;
 
 import org.apache.logging.log4j.Level;
 
-import edu.tigers.sumatra.view.TextPane;
 import edu.tigers.sumatra.views.ISumatraView;
 import net.miginfocom.swing.MigLayout;
 
@@ -19,7 +18,7 @@ public class LogPanel extends JPanel implements ISumatraView
 {
 	private static final long serialVersionUID = 1L;
 
-	private final TextPane textPane;
+	private final LogListPane logListPane;
 	private final FilterPanel filterPanel;
 
 
@@ -27,11 +26,11 @@ public class LogPanel extends JPanel implements ISumatraView
 	{
 		setLayout(new MigLayout("fill, inset 0", "", ""));
 
-		textPane = new TextPane(maxCapacity);
+		logListPane = new LogListPane(maxCapacity);
 		filterPanel = new FilterPanel(initialLevel);
 
 		final JPanel display = new JPanel(new MigLayout("fill", "", ""));
-		display.add(textPane, "push, grow, wrap");
+		display.add(logListPane, "push, grow, wrap");
 		display.add(filterPanel, "growx");
 
 
@@ -39,9 +38,9 @@ public class LogPanel extends JPanel implements ISumatraView
 	}
 
 
-	public TextPane getTextPane()
+	public LogListPane getLogListPane()
 	{
-		return textPane;
+		return logListPane;
 	}
 
 
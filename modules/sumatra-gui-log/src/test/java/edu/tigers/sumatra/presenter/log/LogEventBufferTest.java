@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.log;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class LogEventBufferTest
+{
+	private static final Level[] LEVELS = { Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR };
+	private static final String[] WORDS = { "Kick", "detected", "bot", "BotID", "3", "Y", "ball", "placement",
+			"failed", "GameController", "connected", "12.5", "edu.tigers.sumatra.vision", "x=1234,y=-567" };
+
+	private final Random rnd = new Random(42);
+
+
+	@Test
+	public void testQueryEqualsLinearSearch()
+	{
+		LogEventBuffer buffer = new LogEventBuffer();
+		for (int i = 0; i < 5000; i++)
+		{
+			buffer.append(createEvent(), randomText());
+		}
+		List<FormattedLogEvent> buffered = buffer.getEventsAfter(0);
+
+		List<List<String>> filters = List.of(
+				List.of(),
+				List.of("Kick"),
+				List.of("ick det"),
+				List.of("tigers.sumatra"),
+				List.of("y=-5"),
+				List.of("GameController", "3 Y"),
+				List.of(" "),
+				List.of("not contained"));
+		for (Level level : LEVELS)
+		{
+			for (List<String> filter : filters)
+			{
+				List<FormattedLogEvent> expected = buffered.stream()
+						.filter(e -> e.matches(level, filter))
+						.collect(Collectors.toList());
+				assertThat(buffer.query(level, filter, buffer.getLastSequence()))
+						.as("level %s, filter %s", level, filter)
+						.containsExactlyElementsOf(expected);
+			}
+		}
+	}
+
+
+	@Test
+	public void testCapacityPerLevel()
+	{
+		LogEventBuffer buffer = new LogEventBuffer();
+		for (int i = 0; i < 1000; i++)
+		{
+			buffer.append(createEvent(Level.DEBUG), "debug " + i);
+		}
+		FormattedLogEvent error = buffer.append(createEvent(Level.ERROR), "error");
+
+		List<FormattedLogEvent> events = buffer.getEventsAfter(0);
+		assertThat(events).hasSize(301).endsWith(error);
+		assertThat(events.get(0).getText()).isEqualTo("debug 700");
+		// evicted events must not be found by the index anymore
+		assertThat(buffer.query(Level.ALL, List.of("debug 699"), buffer.getLastSequence())).isEmpty();
+		assertThat(buffer.query(Level.ALL, List.of("debug 999"), buffer.getLastSequence())).hasSize(1);
+	}
+
+
+	@Test
+	public void testIncrementalEvents()
+	{
+		LogEventBuffer buffer = new LogEventBuffer();
+		buffer.append(createEvent(Level.INFO), "first");
+		long sequence = buffer.getLastSequence();
+		buffer.append(createEvent(Level.INFO), "second");
+		buffer.append(createEvent(Level.INFO), "third");
+
+		assertThat(buffer.getEventsAfter(sequence))
+				.extracting(FormattedLogEvent::getText)
+				.containsExactly("second", "third");
+		assertThat(buffer.query(Level.ALL, List.of(), sequence))
+				.extracting(FormattedLogEvent::getText)
+				.containsExactly("first");
+
+		buffer.clear();
+		assertThat(buffer.getEventsAfter(0)).isEmpty();
+		assertThat(buffer.append(createEvent(Level.INFO), "fourth").getSequence()).isGreaterThan(sequence + 2);
+	}
+
+
+	@Test
+	public void testTokenize()
+	{
+		assertThat(LogTokenIndex.tokenize("12:00:01 INFO [main|KickDetector] Kick detected, Bot: 3 Y\n"))
+				.containsExactly("12", "00", "01", "INFO", "main", "KickDetector", "Kick", "detected", "Bot", "3", "Y");
+		assertThat(LogTokenIndex.tokenize(" ,. ")).isEmpty();
+	}
+
+
+	private String randomText()
+	{
+		StringBuilder sb = new StringBuilder();
+		int numWords = 1 + rnd.nextInt(8);
+		for (int i = 0; i < numWords; i++)
+		{
+			sb.append(WORDS[rnd.nextInt(WORDS.length)]).append(rnd.nextBoolean() ? " " : "");
+		}
+		if (rnd.nextInt(10) == 0)
+		{
+			sb.append("\n\tat edu.tigers.sumatra.Foo.bar(Foo.java:").append(rnd.nextInt(100)).append(')');
+		}
+		return sb.append('\n').toString();
+	}
+
+
+	private LogEvent createEvent()
+	{
+		return createEvent(LEVELS[rnd.nextInt(LEVELS.length)]);
+	}
+
+
+	private LogEvent createEvent(final Level level)
+	{
+		return Log4jLogEvent.newBuilder()
+				.setLevel(level)
+				.setMessage(new SimpleMessage("test"))
+				.build();
+	}
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.replay;
+
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import edu.tigers.sumatra.wp.data.ReplayOverview;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+/**
+ * A catalogue of all recordings below a base folder.
+ * <p>
+ * The folders are scanned on a background thread and watched for changes. The metadata of each recording is
+ * read once from its overview, which is the header of a recording folder or an entry of a zip file. It is cached
+ * in {@value #INDEX_FILE_NAME} in the base folder together with size and modification time of the recording, so
+ * that a rescan only needs to list the folders. Observers are notified on the background thread.
+ * <p>
+ * A folder is a recording, if it contains neither sub folders nor zip files. A zip file is a recording, if there is
+ * no extracted folder with the same name next to it.
+ */
+@Log4j2
+public class RecordingCatalogue
+{
+	/** name of the index file in the base folder */
+	public static final String INDEX_FILE_NAME = "recordings.idx";
+
+	private static final int INDEX_MAGIC = 0x53524349;
+	private static final int INDEX_VERSION = 1;
+	private static final String ZIP_EXTENSION = ".zip";
+	/** time to wait for further changes after a change was detected [ms] */
+	private static final long RESCAN_DELAY = 2000;
+	/** period for polling the watch service [ms] */
+	private static final long WATCH_PERIOD = 1000;
+
+	private final List<IRecordingCatalogueObserver> observers = new CopyOnWriteArrayList<>();
+	private final ScheduledExecutorService executor;
+
+	private volatile List<RecordingInfo> recordings = Collections.emptyList();
+
+	// only accessed from the executor
+	private Path basePath;
+	private Map<String, RecordingInfo> index = new HashMap<>();
+	private WatchService watchService;
+	private ScheduledFuture<?> pendingScan;
+
+
+	/**
+	 * Create a catalogue. It does nothing until a base folder is set.
+	 */
+	public RecordingCatalogue()
+	{
+		ThreadFactory threadFactory = new NamedThreadFactory("RecordingCatalogue");
+		executor = new ScheduledThreadPoolExecutor(1, r -> {
+			Thread thread = threadFactory.newThread(r);
+			// the catalogue must not keep the application alive
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::pollWatchEvents, WATCH_PERIOD, WATCH_PERIOD, TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * @param observer
+	 */
+	public void addObserver(final IRecordingCatalogueObserver observer)
+	{
+		observers.add(observer);
+	}
+
+
+	/**
+	 * @param observer
+	 */
+	public void removeObserver(final IRecordingCatalogueObserver observer)
+	{
+		observers.remove(observer);
+	}
+
+
+	/**
+	 * Change the base folder. The cached index of the new folder is published immediately, then it is scanned.
+	 *
+	 * @param basePath the folder that contains all recordings
+	 */
+	public void setBasePath(final Path basePath)
+	{
+		executor.execute(() -> changeBasePath(basePath.toAbsolutePath()));
+	}
+
+
+	/**
+	 * Scan the base folder in the background, for example if the file system can not be watched for changes.
+	 * Recordings with unchanged size and modification time are not read again.
+	 */
+	public void requestScan()
+	{
+		executor.execute(this::scheduleScan);
+	}
+
+
+	/**
+	 * @return the recordings that were found in the last scan, sorted by their relative path
+	 */
+	public List<RecordingInfo> getRecordings()
+	{
+		return recordings;
+	}
+
+
+	/**
+	 * Stop scanning and watching
+	 */
+	public void stop()
+	{
+		executor.shutdownNow();
+		closeWatchService();
+	}
+
+
+	private void changeBasePath(final Path newBasePath)
+	{
+		basePath = newBasePath;
+		closeWatchService();
+		try
+		{
+			watchService = newBasePath.getFileSystem().newWatchService();
+		} catch (IOException | UnsupportedOperationException e)
+		{
+			log.warn("Could not watch {} for new recordings", newBasePath, e);
+		}
+		index = readIndex(newBasePath);
+		publish(sorted(new ArrayList<>(index.values())));
+		scan();
+	}
+
+
+	private void scheduleScan()
+	{
+		if (pendingScan == null || pendingScan.isDone())
+		{
+			pendingScan = executor.schedule(this::scan, RESCAN_DELAY, TimeUnit.MILLISECONDS);
+		}
+	}
+
+
+	private void scan()
+	{
+		if (basePath == null)
+		{
+			return;
+		}
+		long tStart = System.nanoTime();
+		Map<String, RecordingInfo> newIndex = new HashMap<>();
+		int numRead = scanFolder(basePath, newIndex);
+		boolean changed = !newIndex.equals(index);
+		index = newIndex;
+		if (changed)
+		{
+			writeIndex(basePath, newIndex);
+			publish(sorted(new ArrayList<>(newIndex.values())));
+		}
+		log.debug("Scanned {} recordings in {} ms, {} read", newIndex.size(),
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tStart), numRead);
+	}
+
+
+	private void publish(final List<RecordingInfo> newRecordings)
+	{
+		recordings = Collections.unmodifiableList(newRecordings);
+		observers.forEach(o -> o.onRecordingsChanged(recordings));
+	}
+
+
+	private int scanFolder(final Path folder, final Map<String, RecordingInfo> newIndex)
+	{
+		watch(folder);
+		int numRead = 0;
+		for (Path child : list(folder))
+		{
+			if (Files.isDirectory(child))
+			{
+				List<Path> content = list(child);
+				if (content.stream().anyMatch(RecordingCatalogue::isCatalogued))
+				{
+					numRead += scanFolder(child, newIndex);
+				} else
+				{
+					watch(child);
+					numRead += add(child, content, newIndex);
+				}
+			} else if (isCatalogued(child))
+			{
+				numRead += add(child, Collections.singletonList(child), newIndex);
+			}
+		}
+		return numRead;
+	}
+
+
+	private int add(final Path recording, final List<Path> files, final Map<String, RecordingInfo> newIndex)
+	{
+		long size = 0;
+		long lastModified = recording.toFile().lastModified();
+		for (Path file : files)
+		{
+			size += file.toFile().length();
+			lastModified = Math.max(lastModified, file.toFile().lastModified());
+		}
+		String relativePath = basePath.relativize(recording).toString().replace('\\', '/');
+		RecordingInfo cached = index.get(relativePath);
+		if (cached != null && cached.getSize() == size && cached.getLastModified() == lastModified)
+		{
+			newIndex.put(relativePath, cached);
+			return 0;
+		}
+
+		boolean compressed = !Files.isDirectory(recording);
+		Optional<ReplayOverview> overview = compressed ? readZipOverview(recording) : ReplayOverview.read(recording);
+		long duration = overview.map(o -> o.getEndTimestamp() - o.getStartTimestamp()).orElse(-1L);
+		String teamYellow = overview.map(ReplayOverview::getTeamYellow).orElse("");
+		String teamBlue = overview.map(ReplayOverview::getTeamBlue).orElse("");
+		newIndex.put(relativePath, new RecordingInfo(recording, relativePath, compressed, size, lastModified,
+				duration, teamYellow, teamBlue));
+		return 1;
+	}
+
+
+	private static boolean isCatalogued(final Path path)
+	{
+		if (Files.isDirectory(path))
+		{
+			return true;
+		}
+		String fileName = path.getFileName().toString();
+		if (fileName.endsWith(ZIP_EXTENSION))
+		{
+			// only show, if there is not the extracted folder already
+			String folderName = fileName.substring(0, fileName.length() - ZIP_EXTENSION.length());
+			return !Files.isDirectory(path.resolveSibling(folderName));
+		}
+		return false;
+	}
+
+
+	private static List<Path> list(final Path folder)
+	{
+		List<Path> children = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(folder))
+		{
+			stream.forEach(children::add);
+		} catch (IOException e)
+		{
+			log.warn("Could not list {}", folder, e);
+		}
+		Collections.sort(children);
+		return children;
+	}
+
+
+	private static Optional<ReplayOverview> readZipOverview(final Path zip)
+	{
+		try (ZipFile zipFile = new ZipFile(zip.toFile()))
+		{
+			// only the central directory at the end of the archive is read to find the entry
+			Optional<? extends ZipEntry> entry = zipFile.stream()
+					.filter(e -> e.getName().equals(ReplayOverview.FILE_NAME)
+							|| e.getName().endsWith("/" + ReplayOverview.FILE_NAME))
+					.findFirst();
+			if (entry.isEmpty())
+			{
+				return Optional.empty();
+			}
+			try (InputStream in = zipFile.getInputStream(entry.get()))
+			{
+				return ReplayOverview.read(in, zip + "!" + entry.get().getName());
+			}
+		} catch (IOException e)
+		{
+			log.warn("Could not read zip recording {}", zip, e);
+			return Optional.empty();
+		}
+	}
+
+
+	private void watch(final Path folder)
+	{
+		if (watchService == null)
+		{
+			return;
+		}
+		try
+		{
+			// registering a folder again returns the existing key
+			folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException e)
+		{
+			log.debug("Could not watch {}", folder, e);
+		}
+	}
+
+
+	private void pollWatchEvents()
+	{
+		if (watchService == null)
+		{
+			return;
+		}
+		boolean changed = false;
+		WatchKey key;
+		while ((key = watchService.poll()) != null)
+		{
+			for (WatchEvent<?> event : key.pollEvents())
+			{
+				// the index file is written after each scan, which must not trigger another scan
+				changed |= !(event.context() instanceof Path)
+						|| !((Path) event.context()).getFileName().toString().startsWith(INDEX_FILE_NAME);
+			}
+			key.reset();
+		}
+		if (changed)
+		{
+			scheduleScan();
+		}
+	}
+
+
+	private void closeWatchService()
+	{
+		if (watchService != null)
+		{
+			try
+			{
+				watchService.close();
+			} catch (IOException e)
+			{
+				log.debug("Could not close watch service", e);
+			}
+			watchService = null;
+		}
+	}
+
+
+	private static List<RecordingInfo> sorted(final List<RecordingInfo> list)
+	{
+		list.sort((a, b) -> a.getRelativePath().compareTo(b.getRelativePath()));
+		return list;
+	}
+
+
+	private static Map<String, RecordingInfo> readIndex(final Path basePath)
+	{
+		Map<String, RecordingInfo> entries = new HashMap<>();
+		Path file = basePath.resolve(INDEX_FILE_NAME);
+		if (!Files.exists(file))
+		{
+			return entries;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION)
+			{
+				log.info("Ignoring recording index with unknown format: {}", file);
+				return entries;
+			}
+			int numEntries = in.readInt();
+			for (int i = 0; i < numEntries; i++)
+			{
+				String relativePath = in.readUTF();
+				RecordingInfo info = new RecordingInfo(basePath.resolve(relativePath), relativePath, in.readBoolean(),
+						in.readLong(), in.readLong(), in.readLong(), in.readUTF(), in.readUTF());
+				entries.put(relativePath, info);
+			}
+		} catch (IOException e)
+		{
+			log.warn("Could not read recording index {}", file, e);
+			entries.clear();
+		}
+		return entries;
+	}
+
+
+	private static void writeIndex(final Path basePath, final Map<String, RecordingInfo> entries)
+	{
+		Path file = basePath.resolve(INDEX_FILE_NAME);
+		Path tmpFile = basePath.resolve(INDEX_FILE_NAME + ".tmp");
+		try
+		{
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tmpFile))))
+			{
+				out.writeInt(INDEX_MAGIC);
+				out.writeInt(INDEX_VERSION);
+				out.writeInt(entries.size());
+				for (RecordingInfo info : entries.values())
+				{
+					out.writeUTF(info.getRelativePath());
+					out.writeBoolean(info.isCompressed());
+					out.writeLong(info.getSize());
+					out.writeLong(info.getLastModified());
+					out.writeLong(info.getDuration());
+					out.writeUTF(info.getTeamYellow());
+					out.writeUTF(info.getTeamBlue());
+				}
+			}
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e)
+		{
+			// the base folder may be read-only, the index is only a cache
+			log.debug("Could not write recording index {}", file, e);
+		}
+	}
+
+
+	/**
+	 * Observer for changes of the catalogue
+	 */
+	@FunctionalInterface
+	public interface IRecordingCatalogueObserver
+	{
+		/**
+		 * Called from the background thread of the catalogue
+		 *
+		 * @param recordings all recordings, sorted by their relative path
+		 */
+		void onRecordingsChanged(List<RecordingInfo> recordings);
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.replay;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Metadata of a single recording in the {@link RecordingCatalogue}.
+ * <p>
+ * Size and modification time are taken from the file system. Duration and team names are taken from the
+ * overview of the recording and are unknown, if the recording does not have an overview (yet).
+ */
+@Value
+public class RecordingInfo
+{
+	/** absolute path to the recording folder or zip file */
+	Path path;
+	/** path relative to the base folder of the catalogue, separated by '/' */
+	String relativePath;
+	boolean compressed;
+	/** size on disk [byte] */
+	long size;
+	/** last modification of any file of the recording [ms since epoch] */
+	long lastModified;
+	/** duration of the recording [ns], -1 if unknown */
+	long duration;
+	/** name of the yellow team, empty if unknown */
+	String teamYellow;
+	/** name of the blue team, empty if unknown */
+	String teamBlue;
+
+
+	/**
+	 * @return the file name of the recording
+	 */
+	public String getName()
+	{
+		return path.getFileName().toString();
+	}
+
+
+	/**
+	 * @return the folders from the base folder of the catalogue to the recording
+	 */
+	public List<String> getFolders()
+	{
+		List<String> segments = new ArrayList<>(Arrays.asList(relativePath.split("/")));
+		segments.remove(segments.size() - 1);
+		return segments;
+	}
+
+
+	/**
+	 * @return true, if duration and team names are known
+	 */
+	public boolean hasMetadata()
+	{
+		return duration >= 0;
+	}
+
+
+	/**
+	 * @return a short human readable summary of the metadata
+	 */
+	public String getDescription()
+	{
+		List<String> parts = new ArrayList<>();
+		if (hasMetadata())
+		{
+			long seconds = TimeUnit.NANOSECONDS.toSeconds(duration);
+			parts.add(String.format("%d:%02d min", seconds / 60, seconds % 60));
+		}
+		if (!teamYellow.isEmpty() || !teamBlue.isEmpty())
+		{
+			parts.add(teamYellow + " vs " + teamBlue);
+		}
+		parts.add(formatSize(size));
+		if (compressed)
+		{
+			parts.add("zip");
+		}
+		return String.join(", ", parts);
+	}
+
+
+	/**
+	 * Check if this recording matches a search query.
+	 * Each word of the query must be contained in the relative path or the team names, ignoring the case.
+	 *
+	 * @param query the search query
+	 * @return true, if all words of the query match
+	 */
+	public boolean matches(final String query)
+	{
+		String text = (relativePath + " " + teamYellow + " " + teamBlue).toLowerCase(Locale.ENGLISH);
+		return Arrays.stream(query.toLowerCase(Locale.ENGLISH).split("\\s+"))
+				.allMatch(text::contains);
+	}
+
+
+	private static String formatSize(final long size)
+	{
+		if (size >= 1L << 30)
+		{
+			return String.format("%.1f GB", size / (double) (1L << 30));
+		}
+		if (size >= 1L << 20)
+		{
+			return String.format("%.0f MB", size / (double) (1L << 20));
+		}
+		return String.format("%.0f kB", size / (double) (1L << 10));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2018, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.presenter.replay;
@@ -8,32 +8,41 @@ import java.awt.event.ActionEvent;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.swing.AbstractAction;
 import javax.swing.JCheckBoxMenuItem;
 
-import edu.tigers.autoreferee.AutoRefFramePreprocessor;
+import edu.tigers.autoreferee.CheckpointedAutoRef;
 import edu.tigers.autoreferee.IAutoRefFrame;
-import edu.tigers.autoreferee.engine.PassiveAutoRefEngine;
 import edu.tigers.autoreferee.engine.detector.EGameEventDetectorType;
 import edu.tigers.sumatra.drawable.ShapeMapSource;
 import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
 import edu.tigers.sumatra.views.ASumatraView;
 import edu.tigers.sumatra.views.ESumatraViewType;
 import edu.tigers.sumatra.wp.IWorldFrameObserver;
 import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
 
 
+/**
+ * Recalculate the autoRef for the replayed frames.
+ * The autoRef state is restored from checkpoints that are created in the background, so the result for a frame
+ * does not depend on how the replay was played or seeked.
+ */
 public class ReplayAutoRefReCalcController implements IReplayController
 {
-	private final AutoRefFramePreprocessor refPreprocessor = new AutoRefFramePreprocessor();
-	private final PassiveAutoRefEngine autoRefEngine = new PassiveAutoRefEngine(
-			EnumSet.allOf(EGameEventDetectorType.class));
+	/** [s] */
+	private static final double CHECKPOINT_INTERVAL = 5;
 
 	private final List<IWorldFrameObserver> wFrameObservers = new ArrayList<>();
-	private IAutoRefFrame lastAutoRefFrame = null;
 
 	private boolean active = false;
+	private BerkeleyDb db = null;
+	private CheckpointedAutoRef autoRef = null;
+	private Future<?> checkpointCreation = null;
 
 
 	/**
@@ -59,38 +68,70 @@ public class ReplayAutoRefReCalcController implements IReplayController
 
 
 	@Override
-	public void update(final BerkeleyDb db, final WorldFrameWrapper wfw)
+	public synchronized void update(final BerkeleyDb db, final WorldFrameWrapper wfw)
 	{
 		if (!active)
 		{
 			return;
 		}
 
-		IAutoRefFrame refFrame;
-		/*
-		 * We only run the ref engine if the current frame is not equal to the last frame. Otherwise we
-		 * simply repaint the last frame.
-		 */
-		if ((lastAutoRefFrame != null) && (lastAutoRefFrame.getTimestamp() == wfw.getSimpleWorldFrame().getTimestamp()))
-		{
-			refFrame = lastAutoRefFrame;
-		} else
+		if (autoRef == null || db != this.db)
 		{
-			boolean hasLastFrame = refPreprocessor.hasLastFrame();
-			refFrame = refPreprocessor.process(wfw);
-
-			if (hasLastFrame)
-			{
-				autoRefEngine.process(refFrame);
-			}
+			startAutoRef(db);
 		}
+		IAutoRefFrame refFrame = autoRef.process(wfw);
 
 		for (IWorldFrameObserver o : wFrameObservers)
 		{
 			o.onNewShapeMap(refFrame.getTimestamp(), refFrame.getShapes(),
 					ShapeMapSource.of("Recalculated AutoRef", "Recalculated"));
 		}
-		lastAutoRefFrame = refFrame;
+	}
+
+
+	private void startAutoRef(final BerkeleyDb db)
+	{
+		stopAutoRef();
+		this.db = db;
+		autoRef = new CheckpointedAutoRef(timestamp -> nextFrame(db, timestamp),
+				EnumSet.allOf(EGameEventDetectorType.class), CHECKPOINT_INTERVAL);
+		ExecutorService executor = Executors.newSingleThreadExecutor(
+				new NamedThreadFactory("ReplayAutoRefCheckpoints"));
+		checkpointCreation = executor.submit(autoRef::createCheckpoints);
+		executor.shutdown();
+	}
+
+
+	private synchronized void stopAutoRef()
+	{
+		if (checkpointCreation != null)
+		{
+			checkpointCreation.cancel(true);
+			checkpointCreation = null;
+		}
+		autoRef = null;
+		db = null;
+	}
+
+
+	private static WorldFrameWrapper nextFrame(final BerkeleyDb db, final long timestamp)
+	{
+		// the keys of all recorded types are iterated, so skip the keys that belong to the same world frame
+		Long key = timestamp == Long.MIN_VALUE ? db.getFirstKey() : db.getNextKey(timestamp);
+		while (key != null)
+		{
+			WorldFrameWrapper wfw = db.get(WorldFrameWrapper.class, key);
+			if (wfw == null)
+			{
+				return null;
+			}
+			if (wfw.getSimpleWorldFrame().getTimestamp() > timestamp)
+			{
+				return wfw;
+			}
+			key = db.getNextKey(key);
+		}
+		return null;
 	}
 
 
@@ -110,6 +151,7 @@ public class ReplayAutoRefReCalcController implements IReplayController
 
 			if (!active)
 			{
+				stopAutoRef();
 				for (IWorldFrameObserver o : wFrameObservers)
 				{
 					o.onRemoveSourceFromShapeMap("Recalculated AutoRef");
@@ -1,13 +1,16 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.presenter.replay;
 
 import edu.tigers.sumatra.AMainFrame;
 import edu.tigers.sumatra.AMainPresenter;
+import edu.tigers.sumatra.clock.SumatraClock;
 import edu.tigers.sumatra.clock.ThreadUtil;
 import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.referee.data.EGameState;
+import edu.tigers.sumatra.referee.data.GameState;
 import edu.tigers.sumatra.referee.data.RefereeMsg;
 import edu.tigers.sumatra.referee.gameevent.EGameEvent;
 import edu.tigers.sumatra.referee.gameevent.IGameEvent;
@@ -20,19 +23,32 @@ import edu.tigers.sumatra.views.ASumatraView;
 import edu.tigers.sumatra.views.ESumatraViewType;
 import edu.tigers.sumatra.visualizer.VisualizerPresenter;
 import edu.tigers.sumatra.wp.IWorldFrameObserver;
+import edu.tigers.sumatra.wp.data.ReplayOverview;
 import edu.tigers.sumatra.wp.data.WorldFrameWrapper;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.swing.SwingUtilities;
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 
 
 public class ReplayPresenter extends AMainPresenter
@@ -44,16 +60,23 @@ public class ReplayPresenter extends AMainPresenter
 	private static final String LAYOUT_DEFAULT = "default_replay.ly";
 	private static final String KEY_LAYOUT_PROP = ReplayPresenter.class.getName() + ".layout";
 	private static final double REFRESH_FPS = 30;
+	private static final Set<EGameState> STOPPED_STATES = Arrays.stream(EGameState.values())
+			.filter(state -> GameState.empty().withState(state).build().isStoppedGame())
+			.collect(Collectors.toCollection(() -> EnumSet.noneOf(EGameState.class)));
 
 	private final List<IReplayPositionObserver> positionObservers = new CopyOnWriteArrayList<>();
 	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
 			new NamedThreadFactory("Replay"));
+	private final ExecutorService overviewExecutor = Executors.newSingleThreadExecutor(
+			new NamedThreadFactory("ReplayOverview"));
 	private final SnapshotController snapshotController;
 	private final List<IReplayController> replayControllers = new ArrayList<>();
 	private ReplayControlPresenter replayControlPresenter;
 	private BerkeleyDb db = null;
 	private double speed = 1;
 	private RefreshThread refreshThread;
+	private volatile ReplayOverview overview = null;
+	private AtomicBoolean overviewCanceled = new AtomicBoolean(false);
 
 	private VisualizerPresenter visualizerPresenter;
 
@@ -132,6 +155,57 @@ public class ReplayPresenter extends AMainPresenter
 		refreshThread = new RefreshThread(startTime);
 		visualizerPresenter.start();
 		executor.execute(refreshThread);
+		loadOverview(db);
+	}
+
+
+	/**
+	 * Load the overview of the recording or create it, if the recording does not have one yet.
+	 * A previous load is canceled.
+	 *
+	 * @param recording the recording to load the overview from
+	 */
+	private void loadOverview(final BerkeleyDb recording)
+	{
+		overviewCanceled.set(true);
+		AtomicBoolean canceled = new AtomicBoolean(false);
+		overviewCanceled = canceled;
+		overviewExecutor.execute(() -> {
+			Path recordingFolder = Paths.get(recording.getDbPath());
+			Optional<ReplayOverview> replayOverview = ReplayOverview.read(recordingFolder)
+					.or(() -> createOverview(recording, recordingFolder, canceled));
+			Long recStartTime = recording.getFirstKey();
+			if (replayOverview.isPresent() && recStartTime != null && !canceled.get())
+			{
+				overview = replayOverview.get();
+				SwingUtilities.invokeLater(
+						() -> replayControlPresenter.getReplayPanel().setOverview(replayOverview.get(), recStartTime));
+			}
+		});
+	}
+
+
+	private Optional<ReplayOverview> createOverview(final BerkeleyDb recording, final Path recordingFolder,
+			final AtomicBoolean canceled)
+	{
+		log.info("Creating overview for {}", recordingFolder);
+		long tStart = System.nanoTime();
+		Optional<ReplayOverview> replayOverview = ReplayOverview.fromRecording(recording, canceled::get);
+		if (replayOverview.isEmpty())
+		{
+			log.info("Canceled overview of {}", recordingFolder);
+			return replayOverview;
+		}
+		log.info("Created overview with {} entries in {} ms", replayOverview.get().getEntries().size(),
+				(System.nanoTime() - tStart) / 1_000_000);
+		try
+		{
+			replayOverview.get().write(recordingFolder);
+		} catch (IOException e)
+		{
+			log.warn("Could not store overview in {}", recordingFolder, e);
+		}
+		return replayOverview;
 	}
 
 
@@ -147,6 +221,8 @@ public class ReplayPresenter extends AMainPresenter
 			log.warn("Tried to close controller multiple times.");
 			return;
 		}
+		overviewCanceled.set(true);
+		overviewExecutor.shutdown();
 		executor.execute(this::cleanup);
 		executor.shutdown();
 	}
@@ -154,6 +230,17 @@ public class ReplayPresenter extends AMainPresenter
 
 	private void cleanup()
 	{
+		try
+		{
+			// the overview reads from the recording, so it must have stopped before the recording is closed
+			if (!overviewExecutor.awaitTermination(10, TimeUnit.SECONDS))
+			{
+				log.warn("Overview of the recording did not stop in time");
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
 		if (db != null)
 		{
 			db.close();
@@ -285,13 +372,14 @@ public class ReplayPresenter extends AMainPresenter
 	}
 
 	/**
-	 * This thread will update the field periodically according to the speed
+	 * This thread will update the field periodically according to the speed.
+	 * The replay time advances with the {@link SumatraClock}.
 	 *
 	 * @author Nicolai Ommer <nicolai.ommer@gmail.com>
 	 */
 	private class RefreshThread implements Runnable
 	{
-		private long replayLastTime = System.nanoTime();
+		private long replayLastTime = SumatraClock.nanoTime();
 		private long replayCurTime = 0;
 
 		private long recEndTime;
@@ -330,13 +418,13 @@ public class ReplayPresenter extends AMainPresenter
 			updateEndTime();
 			if (playing)
 			{
-				replayCurTime += ((System.nanoTime() - replayLastTime) * speed);
+				replayCurTime += ((SumatraClock.nanoTime() - replayLastTime) * speed);
 				if ((getCurrentTime() > recEndTime) || (replayCurTime < 0))
 				{
 					replayCurTime = 0;
 				}
 			}
-			replayLastTime = System.nanoTime();
+			replayLastTime = SumatraClock.nanoTime();
 		}
 
 
@@ -417,17 +505,39 @@ public class ReplayPresenter extends AMainPresenter
 		}
 
 
+		private boolean isSearching()
+		{
+			return skipStoppedGame || searchCommand != null || searchGameEvent != null || skipBallPlacement;
+		}
+
+
 		private void skipFrames()
 		{
+			if (!isSearching())
+			{
+				return;
+			}
 			long t = getCurrentTime();
-			for (; t < recEndTime; t += 250_000_000)
+			long end = recEndTime;
+			ReplayOverview currentOverview = overview;
+			if (currentOverview != null)
 			{
-				boolean skipStop = !skipStoppedGame || !skipFrameStoppedGame(db.get(WorldFrameWrapper.class, t));
-				boolean command = searchCommand == null || !skipFrameCommand(db.get(WorldFrameWrapper.class, t));
-				boolean gameEvent = searchGameEvent == null || !skipFrameGameEvent(db.get(WorldFrameWrapper.class, t));
-				boolean skipPlacement = !skipBallPlacement || !skipFrameBallPlacement(db.get(WorldFrameWrapper.class, t));
-
-				if (skipStop && command && gameEvent && skipPlacement)
+				// find the next candidate in the overview and only search within the candidate second in the recording
+				Optional<Long> candidate = currentOverview.findNext(t, this::isCandidate);
+				if (candidate.isPresent())
+				{
+					t = candidate.get();
+					end = Math.min(end, currentOverview.getTimestamp(currentOverview.indexOf(t) + 1));
+					jumpAbsoluteTime(t);
+				} else
+				{
+					// the recording might have grown after the overview was created
+					t = Math.max(t, currentOverview.getEndTimestamp());
+				}
+			}
+			for (; t < end; t += 250_000_000)
+			{
+				if (isSearchResult(db.get(WorldFrameWrapper.class, t)))
 				{
 					jumpAbsoluteTime(t);
 					break;
@@ -438,6 +548,25 @@ public class ReplayPresenter extends AMainPresenter
 		}
 
 
+		private boolean isCandidate(final ReplayOverview.Entry entry)
+		{
+			return entry.isRecorded()
+					&& (!skipStoppedGame || entry.hasGameState(state -> !STOPPED_STATES.contains(state)))
+					&& (searchCommand == null || entry.hasCommand(searchCommand))
+					&& (searchGameEvent == null || entry.hasGameEvent(searchGameEvent))
+					&& (!skipBallPlacement || entry.hasGameState(state -> state != EGameState.BALL_PLACEMENT));
+		}
+
+
+		private boolean isSearchResult(final WorldFrameWrapper wfw)
+		{
+			return (!skipStoppedGame || !skipFrameStoppedGame(wfw))
+					&& (searchCommand == null || !skipFrameCommand(wfw))
+					&& (searchGameEvent == null || !skipFrameGameEvent(wfw))
+					&& (!skipBallPlacement || !skipFrameBallPlacement(wfw));
+		}
+
+
 		private boolean skipFrameStoppedGame(final WorldFrameWrapper wfw)
 		{
 			RefereeMsg refMsg = wfw.getRefereeMsg();
@@ -472,7 +601,7 @@ public class ReplayPresenter extends AMainPresenter
 		{
 			while (active)
 			{
-				long t0 = System.nanoTime();
+				long t0 = SumatraClock.nanoTime();
 				try
 				{
 					if (recStartTime == null)
@@ -487,7 +616,7 @@ public class ReplayPresenter extends AMainPresenter
 				{
 					log.error("Error in RefreshThread.", err);
 				}
-				long t1 = System.nanoTime();
+				long t1 = SumatraClock.nanoTime();
 
 				long dt = (long) (1_000_000_000L / REFRESH_FPS);
 				long sleep = dt - (t1 - t0);
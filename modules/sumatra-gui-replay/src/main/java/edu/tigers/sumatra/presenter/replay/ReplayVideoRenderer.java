@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.presenter.replay;
+
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import edu.tigers.sumatra.persistence.BerkeleyDb;
+import edu.tigers.sumatra.visualizer.OfflineVideoRenderer;
+import edu.tigers.sumatra.visualizer.VisualizerPresenter;
+import edu.tigers.sumatra.wp.BerkeleyShapeMapFrame;
+import edu.tigers.sumatra.wp.ShapeMapFrameBerkeleyAccessor;
+import lombok.extern.log4j.Log4j2;
+
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+
+/**
+ * Command line tool to render the shapes of a recording into a video without a GUI.
+ * <p>
+ * Usage: {@code ReplayVideoRenderer <recording> <video.mp4> [width]}
+ */
+@Log4j2
+public final class ReplayVideoRenderer
+{
+	private static final int DEFAULT_WIDTH = 1920;
+
+
+	private ReplayVideoRenderer()
+	{
+	}
+
+
+	public static void main(final String[] args) throws InterruptedException
+	{
+		if (args.length < 2)
+		{
+			log.error("Usage: ReplayVideoRenderer <recording> <video.mp4> [width]");
+			return;
+		}
+		System.setProperty("java.awt.headless", "true");
+		int width = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_WIDTH;
+
+		BerkeleyDb db = BerkeleyDb.withCustomLocation(Paths.get(args[0]));
+		db.add(BerkeleyShapeMapFrame.class, new ShapeMapFrameBerkeleyAccessor());
+		db.open();
+		try
+		{
+			new OfflineVideoRenderer(width).render(args[1], new FrameIterator(db));
+		} finally
+		{
+			db.close();
+		}
+	}
+
+
+	/**
+	 * Iterates over the recording in steps of one video frame
+	 */
+	private static class FrameIterator implements Iterator<Map<ShapeMapSource, ShapeMap>>
+	{
+		private final BerkeleyDb db;
+		private final long lastTimestamp;
+		private final long frameDuration = 1_000_000_000L / VisualizerPresenter.getVisualizationFps();
+		private long timestamp;
+
+
+		FrameIterator(final BerkeleyDb db)
+		{
+			this.db = db;
+			Long first = db.getFirstKey();
+			Long last = db.getLastKey();
+			timestamp = first == null ? 0 : first;
+			lastTimestamp = last == null ? -1 : last;
+		}
+
+
+		@Override
+		public boolean hasNext()
+		{
+			return timestamp <= lastTimestamp;
+		}
+
+
+		@Override
+		public Map<ShapeMapSource, ShapeMap> next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			BerkeleyShapeMapFrame frame = db.get(BerkeleyShapeMapFrame.class, timestamp);
+			timestamp += frameDuration;
+			if (frame == null)
+			{
+				return Collections.emptyMap();
+			}
+			return frame.getShapeMaps();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.view.replay;
+
+import edu.tigers.sumatra.presenter.replay.RecordingCatalogue;
+import edu.tigers.sumatra.presenter.replay.RecordingInfo;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
+
+
+/**
+ * Dialog to search the recordings of the catalogue by path and team names.
+ * The list is updated while typing and when the catalogue changes.
+ */
+class RecordingSearchDialog extends JDialog
+{
+	private static final long serialVersionUID = 5104393262731452870L;
+
+	private final JTextField searchField = new JTextField();
+	private final DefaultListModel<RecordingInfo> listModel = new DefaultListModel<>();
+	private final JList<RecordingInfo> list = new JList<>(listModel);
+	private final transient ReplayLoadMenu menu;
+	private final transient RecordingCatalogue.IRecordingCatalogueObserver catalogueObserver;
+
+
+	RecordingSearchDialog(final ReplayLoadMenu menu)
+	{
+		this.menu = menu;
+		setTitle("Search recordings");
+		setSize(700, 500);
+		setLocationRelativeTo(null);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list.setCellRenderer(new RecordingRenderer());
+		list.addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(final MouseEvent e)
+			{
+				if (e.getClickCount() == 2)
+				{
+					openSelected();
+				}
+			}
+		});
+		searchField.getDocument().addDocumentListener(new SearchListener());
+		searchField.addKeyListener(new KeyAdapter()
+		{
+			@Override
+			public void keyPressed(final KeyEvent e)
+			{
+				if (e.getKeyCode() == KeyEvent.VK_ENTER)
+				{
+					openSelected();
+				} else if (e.getKeyCode() == KeyEvent.VK_DOWN && !listModel.isEmpty())
+				{
+					list.setSelectedIndex(Math.min(list.getSelectedIndex() + 1, listModel.size() - 1));
+					list.ensureIndexIsVisible(list.getSelectedIndex());
+				} else if (e.getKeyCode() == KeyEvent.VK_UP && !listModel.isEmpty())
+				{
+					list.setSelectedIndex(Math.max(list.getSelectedIndex() - 1, 0));
+					list.ensureIndexIsVisible(list.getSelectedIndex());
+				}
+			}
+		});
+
+		setLayout(new BorderLayout());
+		add(searchField, BorderLayout.NORTH);
+		add(new JScrollPane(list), BorderLayout.CENTER);
+
+		catalogueObserver = recordings -> SwingUtilities.invokeLater(this::updateList);
+		menu.getCatalogue().addObserver(catalogueObserver);
+		addWindowListener(new WindowAdapter()
+		{
+			@Override
+			public void windowClosed(final WindowEvent e)
+			{
+				menu.getCatalogue().removeObserver(catalogueObserver);
+			}
+		});
+		updateList();
+	}
+
+
+	private void updateList()
+	{
+		RecordingInfo selected = list.getSelectedValue();
+		String query = searchField.getText().trim();
+		List<RecordingInfo> recordings = menu.getCatalogue().getRecordings();
+		listModel.clear();
+		recordings.stream()
+				.filter(r -> r.matches(query))
+				.forEach(listModel::addElement);
+		int index = selected == null ? -1 : listModel.indexOf(selected);
+		list.setSelectedIndex(Math.max(index, 0));
+	}
+
+
+	private void openSelected()
+	{
+		RecordingInfo selected = list.getSelectedValue();
+		if (selected != null)
+		{
+			menu.openRecording(selected);
+			dispose();
+		}
+	}
+
+	private class SearchListener implements DocumentListener
+	{
+		@Override
+		public void insertUpdate(final DocumentEvent e)
+		{
+			updateList();
+		}
+
+
+		@Override
+		public void removeUpdate(final DocumentEvent e)
+		{
+			updateList();
+		}
+
+
+		@Override
+		public void changedUpdate(final DocumentEvent e)
+		{
+			updateList();
+		}
+	}
+
+	private static class RecordingRenderer extends DefaultListCellRenderer
+	{
+		private static final long serialVersionUID = -1830420870424718366L;
+
+
+		@Override
+		public Component getListCellRendererComponent(final JList<?> list, final Object value, final int index,
+				final boolean isSelected, final boolean cellHasFocus)
+		{
+			JLabel label = (JLabel) super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+			RecordingInfo recording = (RecordingInfo) value;
+			label.setText(recording.getRelativePath() + "  (" + recording.getDescription() + ")");
+			return label;
+		}
+	}
+}
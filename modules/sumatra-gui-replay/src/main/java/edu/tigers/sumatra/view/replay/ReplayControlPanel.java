@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.view.replay;
@@ -8,6 +8,7 @@ import edu.tigers.sumatra.referee.gameevent.EGameEvent;
 import edu.tigers.sumatra.referee.proto.SslGcRefereeMessage;
 import edu.tigers.sumatra.util.ImageScaler;
 import edu.tigers.sumatra.views.ISumatraView;
+import edu.tigers.sumatra.wp.data.ReplayOverview;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -61,6 +62,7 @@ public class ReplayControlPanel extends JPanel implements IReplayPositionObserve
 
 	private final List<IReplayControlPanelObserver> observers = new CopyOnWriteArrayList<>();
 	private final JSlider slider;
+	private final ReplayOverviewPanel overviewPanel;
 
 
 	private final JLabel timeStepLabel = new JLabel();
@@ -85,6 +87,7 @@ public class ReplayControlPanel extends JPanel implements IReplayPositionObserve
 		slider.addChangeListener(sliderListener);
 		slider.addMouseListener(sliderListener);
 		slider.setPreferredSize(new Dimension(2000, slider.getPreferredSize().height));
+		overviewPanel = new ReplayOverviewPanel(this::notifyChangeAbsoluteTime);
 
 		JSlider speedSlider = createSpeedSlider();
 
@@ -191,7 +194,10 @@ public class ReplayControlPanel extends JPanel implements IReplayPositionObserve
 
 		JPanel topPanel = new JPanel();
 		topPanel.setLayout(new BoxLayout(topPanel, BoxLayout.LINE_AXIS));
-		topPanel.add(slider);
+		JPanel timelinePanel = new JPanel(new BorderLayout());
+		timelinePanel.add(overviewPanel, BorderLayout.PAGE_START);
+		timelinePanel.add(slider, BorderLayout.CENTER);
+		topPanel.add(timelinePanel);
 		final JPanel timeStepPanel = createTimeStepPanel();
 		topPanel.add(timeStepPanel);
 		add(topPanel, BorderLayout.CENTER);
@@ -278,6 +284,28 @@ public class ReplayControlPanel extends JPanel implements IReplayPositionObserve
 	public void setTimeMax(final long timeMax)
 	{
 		slider.setMaximum((int) (timeMax / SLIDER_SCALE));
+		overviewPanel.setTimeMax(timeMax);
+	}
+
+
+	/**
+	 * Show the overview of the recording above the timeline
+	 *
+	 * @param overview     the overview of the recording
+	 * @param recStartTime the start time of the recording [ns]
+	 */
+	public void setOverview(final ReplayOverview overview, final long recStartTime)
+	{
+		overviewPanel.setOverview(overview, recStartTime);
+	}
+
+
+	private void notifyChangeAbsoluteTime(final long time)
+	{
+		for (IReplayControlPanelObserver o : observers)
+		{
+			o.onChangeAbsoluteTime(time);
+		}
 	}
 
 
@@ -589,6 +617,7 @@ public class ReplayControlPanel extends JPanel implements IReplayPositionObserve
 		{
 			slider.setValue((int) (position / SLIDER_SCALE));
 		}
+		overviewPanel.setPosition(position);
 	}
 
 
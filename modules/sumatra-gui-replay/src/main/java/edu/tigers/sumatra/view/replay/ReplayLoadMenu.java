@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.sumatra.view.replay;
 
@@ -7,17 +7,15 @@ import java.awt.Cursor;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
 
 import javax.swing.JFileChooser;
 import javax.swing.JMenu;
@@ -34,10 +32,14 @@ import org.apache.logging.log4j.Logger;
 import edu.tigers.sumatra.model.SumatraModel;
 import edu.tigers.sumatra.persistence.BerkeleyDb;
 import edu.tigers.sumatra.persistence.RecordManager;
+import edu.tigers.sumatra.presenter.replay.RecordingCatalogue;
+import edu.tigers.sumatra.presenter.replay.RecordingInfo;
 
 
 /**
- * This panel contains primary the record button for capturing
+ * Menu with all recordings of the default path.
+ * <p>
+ * The recordings are taken from a {@link RecordingCatalogue}, so opening the menu does not access the file system.
  */
 @SuppressWarnings("squid:S2250") // Collection methods with O(n) performance should be used carefully
 public class ReplayLoadMenu extends JMenu
@@ -45,7 +47,7 @@ public class ReplayLoadMenu extends JMenu
 	private static final long serialVersionUID = 1L;
 	private static final Logger log = LogManager.getLogger(ReplayLoadMenu.class.getName());
 
-	private final transient FileFilter fileFilter;
+	private final transient RecordingCatalogue catalogue = new RecordingCatalogue();
 
 	private final transient List<IReplayLoadMenuObserver> observers = new CopyOnWriteArrayList<>();
 
@@ -65,7 +67,7 @@ public class ReplayLoadMenu extends JMenu
 				log.debug("Created folders for persistencePath " + path);
 			}
 		}
-		fileFilter = new RecordDbFilter();
+		catalogue.setBasePath(path.toPath());
 		addMenuListener(new MyMenuListener());
 	}
 
@@ -98,57 +100,90 @@ public class ReplayLoadMenu extends JMenu
 	}
 
 
-	private void addFileToMenu(final File file, final JMenu menu)
+	/**
+	 * @return the catalogue of all recordings in the default path
+	 */
+	public RecordingCatalogue getCatalogue()
+	{
+		return catalogue;
+	}
+
+
+	/**
+	 * Open a recording in the background and notify the observers
+	 *
+	 * @param recording the recording to open
+	 */
+	public void openRecording(final RecordingInfo recording)
+	{
+		Thread loadThread = new Thread(new LoadDatabase(recording.getPath().toString()), "LoadDatabase");
+		loadThread.start();
+	}
+
+
+	private void addRecordingsToMenu(final List<RecordingInfo> recordings, final int depth, final JMenu menu)
 	{
-		if (file.isDirectory())
+		// group the recordings by their name at this depth, the order is kept, as the recordings are sorted
+		Map<String, List<RecordingInfo>> children = new LinkedHashMap<>();
+		for (RecordingInfo recording : recordings)
 		{
-			File[] files = file.listFiles(fileFilter);
-			List<File> dirs;
-			if (files == null)
+			List<String> folders = recording.getFolders();
+			String name = folders.size() > depth ? folders.get(depth) : recording.getName();
+			children.computeIfAbsent(name, n -> new ArrayList<>()).add(recording);
+		}
+		children.forEach((name, content) -> {
+			if (content.get(0).getFolders().size() == depth)
 			{
-				dirs = new ArrayList<>();
+				addRecordingToMenu(content.get(0), menu);
 			} else
 			{
-				dirs = Arrays.stream(files).sorted().collect(Collectors.toList());
+				addFolderToMenu(name, content, depth + 1, menu);
 			}
-			if (!dirs.isEmpty())
-			{
-				JMenu subMenu = new JMenu(file.getName());
-				menu.add(subMenu);
+		});
+	}
+
+
+	private void addFolderToMenu(final String folder, final List<RecordingInfo> recordings, final int depth,
+			final JMenu menu)
+	{
+		JMenu subMenu = new JMenu(folder);
+		menu.add(subMenu);
 
-				subMenu.addMenuListener(new MenuListener()
+		subMenu.addMenuListener(new MenuListener()
+		{
+			private boolean itemsAdded = false;
+
+
+			@Override
+			public void menuSelected(final MenuEvent menuEvent)
+			{
+				if (!itemsAdded)
 				{
-					private boolean itemsAdded = false;
-
-
-					@Override
-					public void menuSelected(final MenuEvent menuEvent)
-					{
-						if (!itemsAdded)
-						{
-							dirs.forEach(d -> addFileToMenu(d, subMenu));
-							itemsAdded = true;
-						}
-					}
-
-
-					@Override
-					public void menuDeselected(final MenuEvent menuEvent)
-					{
-						// no action
-					}
-
-
-					@Override
-					public void menuCanceled(final MenuEvent menuEvent)
-					{
-						// no action
-					}
-				});
-				return;
+					addRecordingsToMenu(recordings, depth, subMenu);
+					itemsAdded = true;
+				}
 			}
-		}
-		JMenu subsubMenu = new JMenu(file.getName());
+
+
+			@Override
+			public void menuDeselected(final MenuEvent menuEvent)
+			{
+				// no action
+			}
+
+
+			@Override
+			public void menuCanceled(final MenuEvent menuEvent)
+			{
+				// no action
+			}
+		});
+	}
+
+
+	private void addRecordingToMenu(final RecordingInfo recording, final JMenu menu)
+	{
+		JMenu subsubMenu = new JMenu(recording.getName() + "  (" + recording.getDescription() + ")");
 		menu.add(subsubMenu);
 
 		JMenuItem rename = new JMenuItem("rename");
@@ -161,16 +196,16 @@ public class ReplayLoadMenu extends JMenu
 		subsubMenu.add(zip);
 		subsubMenu.add(delete);
 
-		if (file.getName().endsWith(".zip"))
+		if (recording.isCompressed())
 		{
 			zip.setEnabled(false);
 		}
 
-
-		run.addActionListener(new RunActionListener(file.getAbsolutePath()));
-		rename.addActionListener(new RenameActionListener(file.getAbsolutePath()));
-		delete.addActionListener(new DeleteActionListener(file.getAbsolutePath()));
-		zip.addActionListener(new ZipActionListener(file.getAbsolutePath()));
+		String filename = recording.getPath().toString();
+		run.addActionListener(e -> openRecording(recording));
+		rename.addActionListener(new RenameActionListener(filename));
+		delete.addActionListener(new DeleteActionListener(filename));
+		zip.addActionListener(new ZipActionListener(filename));
 	}
 
 
@@ -185,27 +220,6 @@ public class ReplayLoadMenu extends JMenu
 		void onCompressReplay(Path path);
 	}
 
-	private static class RecordDbFilter implements FileFilter
-	{
-		@Override
-		public boolean accept(final File pathname)
-		{
-			if (pathname.isDirectory())
-			{
-				return true;
-			}
-
-			String path = pathname.getAbsolutePath();
-			if (path.endsWith(".zip"))
-			{
-				// only show, if there is not the extracted folder already
-				String folderPath = path.substring(0, path.length() - 4);
-				return !new File(folderPath).isDirectory();
-			}
-			return false;
-		}
-	}
-
 	private class MyMenuListener implements MenuListener
 	{
 		@Override
@@ -217,21 +231,15 @@ public class ReplayLoadMenu extends JMenu
 			mit.addActionListener(new SetDefaultPathListener());
 			add(mit);
 
-			File path = new File(getDefaultBasePath());
-			File[] files = path.listFiles(fileFilter);
-			final List<File> fileList;
-			if (files == null)
-			{
-				fileList = new ArrayList<>(0);
-			} else
-			{
-				fileList = Arrays.asList(files);
-			}
-			Collections.sort(fileList);
-			for (File file : fileList)
-			{
-				addFileToMenu(file, ReplayLoadMenu.this);
-			}
+			JMenuItem search = new JMenuItem("Search...");
+			search.addActionListener(a -> new RecordingSearchDialog(ReplayLoadMenu.this).setVisible(true));
+			add(search);
+			addSeparator();
+
+			addRecordingsToMenu(catalogue.getRecordings(), 0, ReplayLoadMenu.this);
+
+			// the file system might not support watching for changes, so check for new recordings for the next time
+			catalogue.requestScan();
 		}
 
 
@@ -249,26 +257,6 @@ public class ReplayLoadMenu extends JMenu
 		}
 	}
 
-	private class RunActionListener implements ActionListener
-	{
-
-		private final String filename;
-
-
-		public RunActionListener(String filename)
-		{
-			this.filename = filename;
-		}
-
-
-		@Override
-		public void actionPerformed(final ActionEvent e)
-		{
-			Thread loadThread = new Thread(new LoadDatabase(filename), "LoadDatabase");
-			loadThread.start();
-		}
-	}
-
 	private static class RenameActionListener implements ActionListener
 	{
 
@@ -361,6 +349,7 @@ public class ReplayLoadMenu extends JMenu
 			{
 				SumatraModel.getInstance().setUserProperty("edu.tigers.sumatra.persistence.basePath",
 						fc.getSelectedFile().getAbsolutePath());
+				catalogue.setBasePath(fc.getSelectedFile().toPath());
 			}
 		}
 
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.view.replay;
+
+import edu.tigers.sumatra.referee.data.EGameState;
+import edu.tigers.sumatra.wp.data.ReplayOverview;
+
+import javax.swing.JComponent;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+
+/**
+ * Shows the {@link ReplayOverview} of a recording along the timeline.
+ * <p>
+ * The background shows the game state, the bars the maximum ball speed and red marks the game events.
+ * Clicking on the overview jumps to the selected time.
+ */
+public class ReplayOverviewPanel extends JComponent
+{
+	private static final long serialVersionUID = 1L;
+
+	private static final int HEIGHT = 24;
+	private static final double MAX_BALL_SPEED = 6.5;
+	private static final Color COLOR_RUNNING = new Color(120, 190, 120);
+	private static final Color COLOR_STOPPED = new Color(230, 190, 110);
+	private static final Color COLOR_STANDARD = new Color(130, 160, 220);
+	private static final Color COLOR_IDLE = new Color(170, 170, 170);
+	private static final Color COLOR_BALL_SPEED = new Color(40, 40, 40);
+	private static final Color COLOR_GAME_EVENT = new Color(210, 30, 30);
+	private static final Color COLOR_POSITION = Color.BLACK;
+
+	private transient ReplayOverview overview;
+	private long recStartTime;
+	private long timeMax;
+	private long position;
+	private transient BufferedImage image;
+
+
+	/**
+	 * @param timeConsumer receives the selected time relative to the start of the recording [ns]
+	 */
+	public ReplayOverviewPanel(final LongConsumer timeConsumer)
+	{
+		setPreferredSize(new Dimension(2000, HEIGHT));
+		setMinimumSize(new Dimension(0, HEIGHT));
+		setToolTipText("");
+		addMouseListener(new MouseAdapter()
+		{
+			@Override
+			public void mouseClicked(final MouseEvent e)
+			{
+				if (overview != null && timeMax > 0)
+				{
+					timeConsumer.accept(toTime(e.getX()) - recStartTime);
+				}
+			}
+		});
+	}
+
+
+	/**
+	 * @param overview     the overview of the recording
+	 * @param recStartTime the start time of the recording, which is the start of the timeline [ns]
+	 */
+	public void setOverview(final ReplayOverview overview, final long recStartTime)
+	{
+		this.overview = overview;
+		this.recStartTime = recStartTime;
+		image = null;
+		repaint();
+	}
+
+
+	/**
+	 * @param timeMax the length of the timeline [ns]
+	 */
+	public void setTimeMax(final long timeMax)
+	{
+		if (this.timeMax != timeMax)
+		{
+			this.timeMax = timeMax;
+			image = null;
+			repaint();
+		}
+	}
+
+
+	/**
+	 * @param position the current time relative to the start of the recording [ns]
+	 */
+	public void setPosition(final long position)
+	{
+		this.position = position;
+		repaint();
+	}
+
+
+	@Override
+	protected void paintComponent(final Graphics g)
+	{
+		super.paintComponent(g);
+		if (overview == null || timeMax <= 0 || getWidth() <= 0)
+		{
+			return;
+		}
+		if (image == null || image.getWidth() != getWidth() || image.getHeight() != getHeight())
+		{
+			image = renderOverview(getWidth(), getHeight());
+		}
+		g.drawImage(image, 0, 0, null);
+
+		int x = (int) (position * getWidth() / timeMax);
+		g.setColor(COLOR_POSITION);
+		g.drawLine(x, 0, x, getHeight());
+	}
+
+
+	private BufferedImage renderOverview(final int width, final int height)
+	{
+		BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = img.createGraphics();
+		List<ReplayOverview.Entry> entries = overview.getEntries();
+		for (int x = 0; x < width; x++)
+		{
+			int first = Math.max(0, overview.indexOf(toTime(x)));
+			int last = Math.min(entries.size() - 1, overview.indexOf(toTime(x + 1) - 1));
+			boolean recorded = false;
+			boolean gameEvent = false;
+			float maxBallSpeed = 0;
+			EGameState state = EGameState.UNKNOWN;
+			for (int i = first; i <= last; i++)
+			{
+				ReplayOverview.Entry entry = entries.get(i);
+				recorded |= entry.isRecorded();
+				gameEvent |= entry.getNumGameEvents() > 0;
+				maxBallSpeed = Math.max(maxBallSpeed, entry.getMaxBallSpeed());
+				if (entry.isRecorded())
+				{
+					state = entry.getGameState();
+				}
+			}
+			if (!recorded)
+			{
+				continue;
+			}
+			g.setColor(getStateColor(state));
+			g.drawLine(x, 0, x, height);
+			int barHeight = (int) Math.round(Math.min(1, maxBallSpeed / MAX_BALL_SPEED) * (height - 4));
+			g.setColor(COLOR_BALL_SPEED);
+			g.drawLine(x, height - barHeight, x, height);
+			if (gameEvent)
+			{
+				g.setColor(COLOR_GAME_EVENT);
+				g.drawLine(x, 0, x, 3);
+			}
+		}
+		g.dispose();
+		return img;
+	}
+
+
+	private Color getStateColor(final EGameState state)
+	{
+		switch (state)
+		{
+			case RUNNING:
+				return COLOR_RUNNING;
+			case STOP:
+			case BALL_PLACEMENT:
+				return COLOR_STOPPED;
+			case PREPARE_KICKOFF:
+			case KICKOFF:
+			case PREPARE_PENALTY:
+			case PENALTY:
+			case DIRECT_FREE:
+			case INDIRECT_FREE:
+				return COLOR_STANDARD;
+			default:
+				return COLOR_IDLE;
+		}
+	}
+
+
+	private long toTime(final int x)
+	{
+		return recStartTime + x * timeMax / Math.max(1, getWidth());
+	}
+
+
+	@Override
+	public String getToolTipText(final MouseEvent event)
+	{
+		if (overview == null || timeMax <= 0)
+		{
+			return null;
+		}
+		return overview.get(toTime(event.getX()))
+				.filter(ReplayOverview.Entry::isRecorded)
+				.map(entry -> String.format(
+						"<html>%s<br>ball: %.1f m/s at (%.0f, %.0f)<br>robots: %d<br>game events: %d</html>",
+						entry.getGameState(), entry.getMaxBallSpeed(), entry.getBallX(), entry.getBallY(),
+						entry.getNumBots(), entry.getNumGameEvents()))
+				.orElse(null);
+	}
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+package edu.tigers.sumatra.presenter.replay;
+
+import edu.tigers.sumatra.wp.data.ReplayOverview;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class RecordingCatalogueTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	@Rule
+	public TemporaryFolder overviewFolder = new TemporaryFolder();
+
+	private final BlockingQueue<List<RecordingInfo>> updates = new LinkedBlockingQueue<>();
+	private RecordingCatalogue catalogue;
+
+
+	@After
+	public void tearDown()
+	{
+		if (catalogue != null)
+		{
+			catalogue.stop();
+		}
+	}
+
+
+	@Test
+	public void testScan() throws Exception
+	{
+		Path base = folder.getRoot().toPath();
+		Path recording = createRecording(base.resolve("2021-06-24/match1"));
+		new ReplayOverview.Builder().build().write(recording);
+		createRecording(base.resolve("2021-06-24/match2"));
+		createZip(base.resolve("match3.zip"));
+		// the zip of an extracted recording is not listed
+		createRecording(base.resolve("match4"));
+		createZip(base.resolve("match4.zip"));
+
+		List<RecordingInfo> recordings = startCatalogue(base);
+
+		assertThat(recordings.stream().map(RecordingInfo::getRelativePath).collect(Collectors.toList()))
+				.containsExactly("2021-06-24/match1", "2021-06-24/match2", "match3.zip", "match4");
+		RecordingInfo match1 = recordings.get(0);
+		assertThat(match1.getFolders()).containsExactly("2021-06-24");
+		assertThat(match1.hasMetadata()).isTrue();
+		assertThat(match1.isCompressed()).isFalse();
+		assertThat(match1.getSize()).isGreaterThan(100);
+		assertThat(recordings.get(1).hasMetadata()).isFalse();
+		assertThat(recordings.get(2).isCompressed()).isTrue();
+		assertThat(recordings.get(2).hasMetadata()).isTrue();
+		assertThat(base.resolve(RecordingCatalogue.INDEX_FILE_NAME)).exists();
+	}
+
+
+	@Test
+	public void testCachedIndex() throws Exception
+	{
+		Path base = folder.getRoot().toPath();
+		createRecording(base.resolve("match1"));
+		List<RecordingInfo> recordings = startCatalogue(base);
+		catalogue.stop();
+
+		// the index is published before the folder is scanned again
+		catalogue = new RecordingCatalogue();
+		catalogue.addObserver(updates::add);
+		catalogue.setBasePath(base);
+		assertThat(updates.poll(10, TimeUnit.SECONDS)).isEqualTo(recordings);
+	}
+
+
+	@Test
+	public void testRescan() throws Exception
+	{
+		Path base = folder.getRoot().toPath();
+		createRecording(base.resolve("match1"));
+		startCatalogue(base);
+
+		createRecording(base.resolve("match2"));
+		catalogue.requestScan();
+		List<RecordingInfo> recordings = updates.poll(10, TimeUnit.SECONDS);
+
+		assertThat(recordings).extracting(RecordingInfo::getName).containsExactly("match1", "match2");
+		assertThat(catalogue.getRecordings()).isEqualTo(recordings);
+	}
+
+
+	@Test
+	public void testSearch()
+	{
+		RecordingInfo info = new RecordingInfo(Path.of("2021/final"), "2021/final", false, 0, 0, 0,
+				"TIGERs Mannheim", "ER-Force");
+		assertThat(info.matches("")).isTrue();
+		assertThat(info.matches("final tigers")).isTrue();
+		assertThat(info.matches("2021 er-force")).isTrue();
+		assertThat(info.matches("final kiks")).isFalse();
+	}
+
+
+	private List<RecordingInfo> startCatalogue(final Path base) throws InterruptedException
+	{
+		catalogue = new RecordingCatalogue();
+		catalogue.addObserver(updates::add);
+		catalogue.setBasePath(base);
+		// the first update is the empty index, the second one the result of the scan
+		assertThat(updates.poll(10, TimeUnit.SECONDS)).isEmpty();
+		List<RecordingInfo> recordings = updates.poll(10, TimeUnit.SECONDS);
+		assertThat(recordings).isNotNull();
+		return recordings;
+	}
+
+
+	private Path createRecording(final Path path) throws IOException
+	{
+		Files.createDirectories(path);
+		Files.write(path.resolve("00000000.jdb"), new byte[1000]);
+		return path;
+	}
+
+
+	private void createZip(final Path path) throws IOException
+	{
+		new ReplayOverview.Builder().build().write(overviewFolder.getRoot().toPath());
+		String name = path.getFileName().toString().replace(".zip", "");
+		try (OutputStream out = Files.newOutputStream(path); ZipOutputStream zip = new ZipOutputStream(out))
+		{
+			zip.putNextEntry(new ZipEntry(name + "/00000000.jdb"));
+			zip.write(new byte[1000]);
+			zip.putNextEntry(new ZipEntry(name + "/" + ReplayOverview.FILE_NAME));
+			zip.write(Files.readAllBytes(overviewFolder.getRoot().toPath().resolve(ReplayOverview.FILE_NAME)));
+		}
+	}
+}
@@ -234,7 +234,7 @@ public class FieldPanel extends JPanel implements IDrawableTool
 
 	private void handleScreenshotAndVideoRecording()
 	{
-		if (takeScreenshot || videoExporter != null)
+		if (takeScreenshot)
 		{
 			try
 			{
@@ -242,39 +242,61 @@ public class FieldPanel extends JPanel implements IDrawableTool
 				screenshotImage = createImage(this.snapshotWidth, this.snapshotHeight);
 			} catch (OutOfMemoryError error)
 			{
-				log.error("Out of Memory, stopping recording of Video", error);
-				stopRecordingVideo();
-			}
-			final Graphics2D g2 = (Graphics2D) screenshotImage.getGraphics();
-			switch (mediaOption)
-			{
-				case FULL_FIELD:
-					drawFullFieldScreenshot(g2);
-					break;
-				case CURRENT_SECTION:
-					drawCurrentSectionScreenshot(g2);
-					break;
-				default:
-					break;
-			}
-			if (takeScreenshot)
-			{
-				takeScreenshot();
+				log.error("Out of Memory, could not take screenshot", error);
 				takeScreenshot = false;
+				return;
 			}
-			if (videoExporter != null && videoExporter.isInitialized())
+			drawMediaImage((Graphics2D) screenshotImage.getGraphics());
+			takeScreenshot();
+			takeScreenshot = false;
+		}
+		if (videoExporter != null && videoExporter.isInitialized())
+		{
+			recordVideoFrame(videoExporter);
+			if (!videoIsRecording)
 			{
-				videoExporter.addImageToVideo(toBufferedImage(screenshotImage));
-				if (!videoIsRecording)
-				{
-					videoExporter.close();
-					videoExporter = null;
-				}
+				videoExporter.close();
+				videoExporter = null;
 			}
 		}
 	}
 
 
+	/**
+	 * Draw the current shapes into the next frame of the given video.
+	 * This blocks while the exporter has no free buffer left.
+	 *
+	 * @param exporter an opened exporter with the current media size
+	 */
+	public void recordVideoFrame(final VideoExporter exporter)
+	{
+		BufferedImage frame = exporter.acquireFrameBuffer();
+		if (frame != null)
+		{
+			final Graphics2D g2 = frame.createGraphics();
+			drawMediaImage(g2);
+			g2.dispose();
+			exporter.submitFrame(frame);
+		}
+	}
+
+
+	private void drawMediaImage(final Graphics2D g2)
+	{
+		switch (mediaOption)
+		{
+			case FULL_FIELD:
+				drawFullFieldScreenshot(g2);
+				break;
+			case CURRENT_SECTION:
+				drawCurrentSectionScreenshot(g2);
+				break;
+			default:
+				break;
+		}
+	}
+
+
 	private void calculateAndSetScreenshotDimensions()
 	{
 		int width = this.snapshotWidthBase;
@@ -873,20 +895,36 @@ public class FieldPanel extends JPanel implements IDrawableTool
 
 	public boolean startRecordingVideo(final String filename)
 	{
-		videoExporter = new VideoExporter();
+		videoExporter = openVideoExporter(filename);
+		if (videoExporter == null)
+		{
+			return false;
+		}
+		videoIsRecording = true;
+		return true;
+	}
+
+
+	/**
+	 * Open a new video exporter with the current media size
+	 *
+	 * @param filename the video file
+	 * @return the opened exporter or null, if the video could not be opened
+	 */
+	public VideoExporter openVideoExporter(final String filename)
+	{
+		VideoExporter exporter = new VideoExporter();
 		try
 		{
-			if (!videoExporter.open(filename, this.snapshotWidth, this.snapshotHeight))
+			if (exporter.open(filename, this.snapshotWidth, this.snapshotHeight))
 			{
-				return false;
+				return exporter;
 			}
 		} catch (Exception e)
 		{
 			log.error("Could not record video", e);
-			return false;
 		}
-		videoIsRecording = true;
-		return true;
+		return null;
 	}
 
 
@@ -1056,26 +1094,6 @@ public class FieldPanel extends JPanel implements IDrawableTool
 	}
 
 
-	private BufferedImage toBufferedImage(Image img)
-	{
-		if (img instanceof BufferedImage)
-		{
-			return (BufferedImage) img;
-		}
-
-		// Create a buffered image with transparency
-		BufferedImage bimage = new BufferedImage(img.getWidth(null), img.getHeight(null), BufferedImage.TYPE_INT_ARGB);
-
-		// Draw the image on to the buffered image
-		Graphics2D bGr = bimage.createGraphics();
-		bGr.drawImage(img, 0, 0, null);
-		bGr.dispose();
-
-		// Return the buffered image
-		return bimage;
-	}
-
-
 	public void saveScreenshot(String path)
 	{
 		this.snapshotFilePath = path;
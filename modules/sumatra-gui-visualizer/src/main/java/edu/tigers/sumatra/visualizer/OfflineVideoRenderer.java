@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.visualizer;
+
+import edu.tigers.sumatra.drawable.IShapeLayer;
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Render a sequence of shape maps into a video, frame by frame, without showing a field panel.
+ * <p>
+ * There is no wall clock involved: each element of the sequence becomes exactly one video frame and the rendering
+ * only waits for the export pipeline, so that it usually runs faster than real time.
+ */
+@Log4j2
+public class OfflineVideoRenderer
+{
+	private final FieldPanel fieldPanel = new FieldPanel();
+	private final Set<String> knownShapeLayers = new HashSet<>();
+
+
+	/**
+	 * @param width the video width [px], the height is derived from the field size
+	 */
+	public OfflineVideoRenderer(final int width)
+	{
+		fieldPanel.setMediaParameters(width, 0, EMediaOption.FULL_FIELD);
+	}
+
+
+	/**
+	 * Render all frames into a new video file
+	 *
+	 * @param filename the video file
+	 * @param frames   the shape maps of each video frame, the shape maps of a source stay visible until they are
+	 *                 replaced by a later frame
+	 * @return true, if the video was written
+	 * @throws InterruptedException if interrupted while waiting for the video to be written
+	 */
+	public boolean render(final String filename, final Iterator<Map<ShapeMapSource, ShapeMap>> frames)
+			throws InterruptedException
+	{
+		VideoExporter exporter = fieldPanel.openVideoExporter(filename);
+		if (exporter == null)
+		{
+			return false;
+		}
+
+		long tStart = System.nanoTime();
+		long numFrames = 0;
+		while (frames.hasNext())
+		{
+			frames.next().forEach(this::updateShapeMap);
+			fieldPanel.recordVideoFrame(exporter);
+			numFrames++;
+		}
+		exporter.close();
+		exporter.awaitTermination();
+
+		double duration = (System.nanoTime() - tStart) / 1e9;
+		log.info("Rendered {} frames in {}s ({} frames/s, video has {} frames/s)", numFrames, duration,
+				numFrames / duration, VisualizerPresenter.getVisualizationFps());
+		return true;
+	}
+
+
+	private void updateShapeMap(final ShapeMapSource source, final ShapeMap shapeMap)
+	{
+		fieldPanel.setSourceVisibility(source.getName(), true);
+		source.getCategories().forEach(category -> fieldPanel.setSourceCategoryVisibility(category, true));
+		for (IShapeLayer shapeLayer : shapeMap.getAllShapeLayersIdentifiers())
+		{
+			if (knownShapeLayers.add(shapeLayer.getId()))
+			{
+				fieldPanel.setShapeLayerVisibility(shapeLayer.getId(), shapeLayer.isVisibleByDefault());
+			}
+		}
+		fieldPanel.setShapeMap(source, shapeMap);
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
+ */
+
+package edu.tigers.sumatra.visualizer;
+
+import edu.tigers.sumatra.drawable.IShapeLayer;
+import edu.tigers.sumatra.drawable.ShapeMap;
+import edu.tigers.sumatra.drawable.ShapeMapSource;
+import edu.tigers.sumatra.thread.ExponentialBackoff;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
+import edu.tigers.sumatra.util.Safe;
+import edu.tigers.sumatra.wp.exporter.VisualizationStreamClient;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Presenter for a visualizer that shows the shape maps of a remote
+ * {@link edu.tigers.sumatra.wp.exporter.VisualizationStreamPublisher}, e.g. of a headless AutoRef.
+ * <p>
+ * Layers that are hidden in the options menu are excluded from the subscription, so they are only received until
+ * they appear in the menu. The shape maps are requested with the visualization rate.
+ * The connection is reestablished, if the publisher is restarted.
+ */
+@Log4j2
+public class RemoteVisualizerPresenter implements IOptionsPanelObserver
+{
+	/** [ms] */
+	private static final long INITIAL_RECONNECT_DELAY = 100;
+	/** [ms] */
+	private static final long MAX_RECONNECT_DELAY = 2000;
+
+	private final String host;
+	private final int port;
+	private final VisualizerPanel panel = new VisualizerPanel();
+	private final OptionsPanelPresenter optionsPanelPresenter;
+	private final Map<ShapeMapSource, ShapeMap> shapeMaps = new ConcurrentHashMap<>();
+	private final Set<String> knownShapeLayers = ConcurrentHashMap.newKeySet();
+	private final Set<String> hiddenShapeLayers = ConcurrentHashMap.newKeySet();
+	private volatile VisualizationStreamClient client;
+	private Thread receiver;
+	private ScheduledExecutorService execService;
+
+
+	/**
+	 * @param host the host of the publisher
+	 * @param port the port of the publisher
+	 */
+	public RemoteVisualizerPresenter(final String host, final int port)
+	{
+		this.host = host;
+		this.port = port;
+		optionsPanelPresenter = new OptionsPanelPresenter(panel.getFieldPanel());
+		// there are no world frames with robots
+		panel.removeRobotsPanel();
+	}
+
+
+	/**
+	 * Connect to the publisher and start updating the view
+	 */
+	public void start()
+	{
+		panel.getFieldPanel().start();
+		panel.getOptionsMenu().addObserver(optionsPanelPresenter);
+		panel.getOptionsMenu().addObserver(this);
+		panel.getOptionsMenu().setInitialButtonState();
+		panel.getOptionsMenu().setButtonsEnabled(true);
+		panel.getFieldPanel().setPanelVisible(true);
+
+		receiver = new Thread(this::receive, "RemoteVisualizerReceiver");
+		receiver.setDaemon(true);
+		receiver.start();
+
+		long period = 1000L / VisualizerPresenter.getVisualizationFps();
+		execService = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("RemoteVisualizerUpdater"));
+		execService.scheduleAtFixedRate(() -> Safe.run(this::update), 0, period, TimeUnit.MILLISECONDS);
+	}
+
+
+	/**
+	 * Disconnect and stop updating the view
+	 */
+	public void stop()
+	{
+		receiver.interrupt();
+		VisualizationStreamClient currentClient = client;
+		if (currentClient != null)
+		{
+			close(currentClient);
+		}
+		execService.shutdownNow();
+
+		panel.getFieldPanel().stop();
+		panel.getOptionsMenu().removeObserver(optionsPanelPresenter);
+		panel.getOptionsMenu().removeObserver(this);
+		shapeMaps.clear();
+		panel.getFieldPanel().clearField();
+	}
+
+
+	/**
+	 * @return the panel
+	 */
+	public VisualizerPanel getPanel()
+	{
+		return panel;
+	}
+
+
+	@Override
+	public void onCheckboxClick(final String actionCommand, final boolean isSelected)
+	{
+		if (!knownShapeLayers.contains(actionCommand))
+		{
+			return;
+		}
+		boolean changed = isSelected
+				? hiddenShapeLayers.remove(actionCommand)
+				: hiddenShapeLayers.add(actionCommand);
+		if (changed)
+		{
+			subscribe();
+		}
+	}
+
+
+	@Override
+	public void onActionFired(final EVisualizerOptions option, final boolean state)
+	{
+		// handled by the options panel presenter
+	}
+
+
+	private void receive()
+	{
+		ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_RECONNECT_DELAY, MAX_RECONNECT_DELAY);
+		while (!Thread.currentThread().isInterrupted())
+		{
+			try (VisualizationStreamClient newClient = new VisualizationStreamClient(host, port))
+			{
+				client = newClient;
+				subscribe();
+				backoff.reset();
+				log.info("Connected to visualization stream at {}:{}", host, port);
+				while (!Thread.currentThread().isInterrupted())
+				{
+					VisualizationStreamClient.Frame frame = newClient.receive();
+					shapeMaps.put(frame.getSource(), frame.getShapeMap());
+				}
+			} catch (IOException e)
+			{
+				log.debug("Visualization stream at {}:{} not available", host, port, e);
+			}
+			client = null;
+			if (!backoff.sleep())
+			{
+				break;
+			}
+		}
+	}
+
+
+	private void subscribe()
+	{
+		VisualizationStreamClient currentClient = client;
+		if (currentClient == null)
+		{
+			return;
+		}
+		try
+		{
+			currentClient.subscribe(new ArrayList<>(hiddenShapeLayers), VisualizerPresenter.getVisualizationFps());
+		} catch (IOException e)
+		{
+			log.debug("Could not update the subscription", e);
+		}
+	}
+
+
+	private void update()
+	{
+		shapeMaps.forEach(this::newShapeMap);
+		panel.getFieldPanel().paintOffline();
+	}
+
+
+	private void newShapeMap(final ShapeMapSource source, final ShapeMap shapeMap)
+	{
+		panel.getOptionsMenu().addSourceMenuIfNotPresent(source);
+		for (IShapeLayer shapeLayer : shapeMap.getAllShapeLayersIdentifiers())
+		{
+			// the menu entry updates the subscription, if the layer is hidden
+			if (knownShapeLayers.add(shapeLayer.getId()))
+			{
+				panel.getOptionsMenu().addMenuEntry(shapeLayer);
+			}
+		}
+		panel.getFieldPanel().setShapeMap(source, shapeMap);
+	}
+
+
+	private static void close(final VisualizationStreamClient client)
+	{
+		try
+		{
+			client.close();
+		} catch (IOException e)
+		{
+			log.debug("Closing visualization stream failed", e);
+		}
+	}
+}
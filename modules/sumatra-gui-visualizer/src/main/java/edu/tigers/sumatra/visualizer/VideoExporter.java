@@ -1,10 +1,10 @@
 /*
- * Copyright (c) 2009 - 2020, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 
 package edu.tigers.sumatra.visualizer;
 
-import edu.tigers.sumatra.math.Hysteresis;
+import edu.tigers.sumatra.thread.NamedThreadFactory;
 import io.humble.video.Codec;
 import io.humble.video.Encoder;
 import io.humble.video.MediaPacket;
@@ -17,28 +17,75 @@ import io.humble.video.awt.MediaPictureConverter;
 import io.humble.video.awt.MediaPictureConverterFactory;
 import lombok.extern.log4j.Log4j2;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
-
-
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Encode captured images into a video file.
+ * <p>
+ * The export runs in three stages:
+ * <ol>
+ * <li>the capturing thread acquires one of a fixed number of reusable images, draws into it and submits it</li>
+ * <li>multiple conversion workers convert the images to the pixel format of the encoder in parallel</li>
+ * <li>a single encoder thread encodes the converted pictures in the order in which they were submitted</li>
+ * </ol>
+ * The memory is bounded by the number of buffers. If the encoder can not keep up, {@link #acquireFrameBuffer()}
+ * blocks until a buffer is free, so that the capture rate is reduced instead of dropping frames.
+ */
 @Log4j2
-public class VideoExporter implements Runnable
+public class VideoExporter
 {
+	private static final PixelFormat.Type PIXEL_FORMAT = PixelFormat.Type.PIX_FMT_YUV420P;
+	private static final String VIDEO_FORMAT = "mp4";
+	private static final int IMAGE_TYPE = BufferedImage.TYPE_3BYTE_BGR;
+	private static final long POLL_TIMEOUT_MS = 200;
+
+	private final int numWorkers;
+	private final int numBuffers;
+
 	private Muxer muxer;
 	private Encoder encoder;
 	private MediaPacket packet;
-	private MediaPicture picture;
-	private int index = 0;
-	private boolean initialized = false;
 	private String filepath;
-	private BlockingDeque<BufferedImage> frameBuffer = new LinkedBlockingDeque<>();
-	private final Hysteresis maxFramesInBufferHyst = new Hysteresis(300, 350);
+	private ExecutorService converterPool;
 
-	private static final PixelFormat.Type PIXEL_FORMAT = PixelFormat.Type.PIX_FMT_YUV420P;
-	private static final String VIDEO_FORMAT = "mp4";
+	private final BlockingQueue<BufferedImage> freeImages = new LinkedBlockingQueue<>();
+	private final BlockingQueue<Frame> capturedFrames = new LinkedBlockingQueue<>();
+	private final BlockingQueue<MediaPicture> freePictures = new LinkedBlockingQueue<>();
+	private final Map<Long, MediaPicture> convertedPictures = new HashMap<>();
+	private final Object conversionLock = new Object();
+	private final AtomicLong numSubmittedFrames = new AtomicLong();
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	private volatile boolean initialized = false;
+	private long captureWaitTime = 0;
+
+
+	public VideoExporter()
+	{
+		this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+	}
+
+
+	/**
+	 * @param numWorkers the number of parallel conversion workers
+	 */
+	public VideoExporter(final int numWorkers)
+	{
+		this.numWorkers = numWorkers;
+		this.numBuffers = numWorkers + 2;
+	}
 
 
 	public boolean open(String filename, int width, int height) throws IOException
@@ -77,92 +124,105 @@ public class VideoExporter implements Runnable
 			return false;
 		}
 
-		picture = MediaPicture.make(
-				encoder.getWidth(),
-				encoder.getHeight(),
-				PIXEL_FORMAT);
-		picture.setTimeBase(framerate);
+		for (int i = 0; i < numBuffers; i++)
+		{
+			freeImages.add(new BufferedImage(encoder.getWidth(), encoder.getHeight(), IMAGE_TYPE));
+			MediaPicture picture = MediaPicture.make(encoder.getWidth(), encoder.getHeight(), PIXEL_FORMAT);
+			picture.setTimeBase(framerate);
+			freePictures.add(picture);
+		}
 
 		packet = MediaPacket.make();
 		initialized = true;
-		frameBuffer.clear();
-		final Thread thread = new Thread(this, "VideoExporter");
+
+		converterPool = Executors.newFixedThreadPool(numWorkers, new NamedThreadFactory("VideoExporterConverter"));
+		for (int i = 0; i < numWorkers; i++)
+		{
+			converterPool.execute(this::convertFrames);
+		}
+		final Thread thread = new Thread(this::encodeFrames, "VideoExporter");
 		thread.start();
 		return true;
 	}
 
 
+	/**
+	 * Stop accepting new frames. The remaining frames are encoded in the background.
+	 */
 	public void close()
 	{
 		initialized = false;
-		log.info(
-				"Closing video recording, still " + frameBuffer.size() + " frames to process, closing may take a while...");
+		log.info("Closing video recording, still {} frames to process, closing may take a while...",
+				capturedFrames.size() + numBuffers - freePictures.size());
+		log.debug("Capturing waited {}s for free video buffers", captureWaitTime / 1e9);
 	}
 
 
 	/**
-	 * Records the screen
+	 * Wait until all frames are encoded and the video file is closed.
+	 *
+	 * @throws InterruptedException if interrupted while waiting
 	 */
-	public void addImageToVideo(BufferedImage image)
+	public void awaitTermination() throws InterruptedException
+	{
+		finished.await();
+	}
+
+
+	/**
+	 * Get an image to draw the next frame into. It must be passed to {@link #submitFrame(BufferedImage)} afterwards.
+	 * This blocks until a buffer is available again, if the conversion and encoding can not keep up.
+	 *
+	 * @return a reusable image with the size of the video or null, if the exporter was closed
+	 */
+	public BufferedImage acquireFrameBuffer()
 	{
-		boolean maxReachedThisFrame = maxFramesInBufferHyst.isLower();
-		maxFramesInBufferHyst.update(frameBuffer.size());
-		maxReachedThisFrame = maxReachedThisFrame && maxFramesInBufferHyst.isUpper();
-		if (maxFramesInBufferHyst.isUpper())
+		long tStart = System.nanoTime();
+		try
 		{
-			if (maxReachedThisFrame)
+			while (initialized)
 			{
-				log.warn("slow video processing, starting to drop frames. Try a lower resolution next time.");
+				BufferedImage image = freeImages.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+				if (image != null)
+				{
+					captureWaitTime += System.nanoTime() - tStart;
+					return image;
+				}
 			}
-		} else
+		} catch (InterruptedException e)
 		{
-			frameBuffer.add(image);
+			Thread.currentThread().interrupt();
 		}
+		return null;
 	}
 
 
-	private void handleFrame(final BufferedImage image)
+	/**
+	 * Add the next frame to the video
+	 *
+	 * @param image an image that was acquired with {@link #acquireFrameBuffer()}
+	 */
+	public void submitFrame(BufferedImage image)
 	{
-		final BufferedImage screen = convertToType(image, BufferedImage.TYPE_3BYTE_BGR);
-		MediaPictureConverter converter = MediaPictureConverterFactory.createConverter(screen, picture);
-		converter.toPicture(picture, screen, index);
-
-		do
-		{
-			encoder.encode(packet, picture);
-			if (packet.isComplete())
-			{
-				muxer.write(packet, false);
-			}
-		} while (packet.isComplete());
-		index++;
+		capturedFrames.add(new Frame(numSubmittedFrames.getAndIncrement(), image));
 	}
 
 
 	/**
-	 * Convert a {@link BufferedImage} of any type, to {@link BufferedImage} of a
-	 * specified type. If the source image is the same type as the target type,
-	 * then original image is returned, otherwise new image of the correct type is
-	 * created and the content of the source image is copied into the new image.
+	 * Add a copy of an arbitrary image to the video
 	 *
-	 * @param sourceImage the image to be converted
-	 * @param targetType  the desired BufferedImage type
-	 * @return a BufferedImage of the specifed target type.
-	 * @see BufferedImage
+	 * @param image the image, scaled to the size of the video
 	 */
-	private static BufferedImage convertToType(BufferedImage sourceImage,
-			int targetType)
+	public void addImageToVideo(BufferedImage image)
 	{
-		// if the source image is already the target type, return the source image
-		if (sourceImage.getType() == targetType)
+		BufferedImage frame = acquireFrameBuffer();
+		if (frame != null)
 		{
-			return sourceImage;
+			Graphics2D g2 = frame.createGraphics();
+			g2.drawImage(image, 0, 0, frame.getWidth(), frame.getHeight(), null);
+			g2.dispose();
+			submitFrame(frame);
 		}
-
-		BufferedImage image = new BufferedImage(sourceImage.getWidth(),
-				sourceImage.getHeight(), targetType);
-		image.getGraphics().drawImage(sourceImage, 0, 0, null);
-		return image;
 	}
 
 
@@ -172,29 +232,114 @@ public class VideoExporter implements Runnable
 	}
 
 
-	@Override
-	public void run()
+	private void convertFrames()
+	{
+		MediaPictureConverter converter = null;
+		try
+		{
+			while (initialized || !capturedFrames.isEmpty())
+			{
+				final Frame frame;
+				final MediaPicture picture;
+				// take frames and pictures in the same order, so that the next frame for the encoder always gets a picture
+				synchronized (conversionLock)
+				{
+					frame = capturedFrames.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+					if (frame == null)
+					{
+						continue;
+					}
+					picture = freePictures.take();
+				}
+				if (converter == null)
+				{
+					converter = MediaPictureConverterFactory.createConverter(frame.image, picture);
+				}
+				converter.toPicture(picture, frame.image, frame.index);
+				freeImages.add(frame.image);
+
+				synchronized (convertedPictures)
+				{
+					convertedPictures.put(frame.index, picture);
+					convertedPictures.notifyAll();
+				}
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+
+	private void encodeFrames()
 	{
-		while (initialized || !frameBuffer.isEmpty())
+		long nextIndex = 0;
+		try
 		{
-			try
+			while (initialized || nextIndex < numSubmittedFrames.get())
 			{
-				handleFrame(frameBuffer.pollFirst(200, TimeUnit.MILLISECONDS));
-			} catch (InterruptedException e)
+				MediaPicture picture = takeConvertedPicture(nextIndex);
+				if (picture != null)
+				{
+					encode(picture);
+					freePictures.add(picture);
+					nextIndex++;
+				}
+			}
+		} catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		} finally
+		{
+			// make sure that neither the capturing thread nor the workers wait for buffers anymore
+			initialized = false;
+			converterPool.shutdownNow();
+			encode(null);
+			muxer.close();
+			finished.countDown();
+			log.info("Finished recording video with {} frames: {}", nextIndex, filepath);
+		}
+	}
+
+
+	private MediaPicture takeConvertedPicture(long index) throws InterruptedException
+	{
+		synchronized (convertedPictures)
+		{
+			MediaPicture picture = convertedPictures.remove(index);
+			if (picture == null)
 			{
-				Thread.currentThread().interrupt();
+				convertedPictures.wait(POLL_TIMEOUT_MS);
+				picture = convertedPictures.remove(index);
 			}
+			return picture;
 		}
+	}
 
+
+	private void encode(final MediaPicture picture)
+	{
 		do
 		{
-			encoder.encode(packet, null);
+			encoder.encode(packet, picture);
 			if (packet.isComplete())
 			{
 				muxer.write(packet, false);
 			}
 		} while (packet.isComplete());
-		muxer.close();
-		log.info("Finished recording video: " + filepath);
 	}
-}
\ No newline at end of file
+
+
+	private static class Frame
+	{
+		final long index;
+		final BufferedImage image;
+
+
+		Frame(final long index, final BufferedImage image)
+		{
+			this.index = index;
+			this.image = image;
+		}
+	}
+}
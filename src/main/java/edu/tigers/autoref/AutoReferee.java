@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2009 - 2017, DHBW Mannheim - TIGERs Mannheim
+ * Copyright (c) 2009 - 2021, DHBW Mannheim - TIGERs Mannheim
  */
 package edu.tigers.autoref;
 
@@ -9,6 +9,7 @@ import edu.tigers.autoreferee.module.AutoRefModule;
 import edu.tigers.moduli.exceptions.InitModuleException;
 import edu.tigers.moduli.exceptions.StartModuleException;
 import edu.tigers.sumatra.model.SumatraModel;
+import edu.tigers.sumatra.visualizer.RemoteVisualizerPresenter;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -16,6 +17,7 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import javax.swing.JFrame;
 import javax.swing.SwingUtilities;
 
 
@@ -24,6 +26,7 @@ import javax.swing.SwingUtilities;
  */
 public final class AutoReferee
 {
+	private static final int DEFAULT_VISUALIZATION_PORT = 10020;
 	private static CommandLine cmd;
 
 
@@ -38,6 +41,11 @@ public final class AutoReferee
 		cmd = parseOptions(args, options, new DefaultParser());
 
 		ifHasOption("h", () -> printHelp(options));
+		if (cmd.hasOption("v"))
+		{
+			SwingUtilities.invokeLater(AutoReferee::startViewer);
+			return;
+		}
 		ifNotHasOption("hl", () -> SwingUtilities.invokeLater(AutoReferee::startUi));
 		  
 		start();
@@ -58,6 +66,23 @@ public final class AutoReferee
 	}
 
 
+	private static void startViewer()
+	{
+		String[] address = cmd.getOptionValue("v").split(":");
+		int port = address.length > 1 ? Integer.parseInt(address[1]) : DEFAULT_VISUALIZATION_PORT;
+		RemoteVisualizerPresenter presenter = new RemoteVisualizerPresenter(address[0], port);
+
+		JFrame frame = new JFrame("AutoReferee Viewer - " + address[0] + ":" + port);
+		frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		frame.add(presenter.getPanel());
+		String windowSize = cmd.getOptionValue("w", "1280x960");
+		var parts = windowSize.split("x");
+		frame.setSize(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+		frame.setVisible(true);
+		presenter.start();
+	}
+
+
 	private static void ifHasOption(String shortOptions, Runnable r)
 	{
 		if (cmd.hasOption(shortOptions))
@@ -83,6 +108,8 @@ public final class AutoReferee
 		options.addOption("hl", "headless", false, "run without a UI");
 		options.addOption("a", "active", false, "Start autoRef in active mode");
 		options.addOption("w", "window", true, "Set window size (example: 1920x1080)");
+		options.addOption("v", "viewer", true,
+				"Only show the visualization stream of another (headless) AutoRef (example: localhost:10020)");
 		return options;
 	}
 